@@ -0,0 +1,157 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.category.BatchedCategoryDataset;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.BatchedXYSeriesCollection;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Compares loading values into datasets that send an event for each value
+ * with loading them into the batched datasets within one update.  Each
+ * dataset has a listener that finds the range bounds of the dataset when it
+ * changes, as a plot with an automatic range does.
+ */
+public final class BatchUpdateBenchmark {
+
+    /** The number of items loaded into the XY series. */
+    private static final int ITEMS = 10000;
+
+    /** The number of rows and of columns loaded into the category datasets. */
+    private static final int SIZE = 40;
+
+    /**
+     * Not used.
+     */
+    private BatchUpdateBenchmark() {
+    }
+
+    /**
+     * A listener that finds the range bounds of the dataset that changed.
+     */
+    private static final class RangeListener
+            implements DatasetChangeListener {
+
+        /** The sum of the upper bounds found. */
+        private double total;
+
+        /**
+         * Finds the range bounds of the dataset.
+         *
+         * @param event  the change event.
+         */
+        public void datasetChanged(DatasetChangeEvent event) {
+            Object dataset = event.getDataset();
+            this.total += dataset instanceof XYDataset
+                    ? DatasetUtilities.findRangeBounds(
+                            (XYDataset) dataset).getUpperBound()
+                    : DatasetUtilities.findRangeBounds(
+                            (CategoryDataset) dataset).getUpperBound();
+        }
+
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        Benchmark.measure("XYSeriesCollection.load[" + ITEMS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        XYSeries series = new XYSeries("S");
+                        XYSeriesCollection dataset
+                                = new XYSeriesCollection(series);
+                        RangeListener listener = new RangeListener();
+                        dataset.addChangeListener(listener);
+                        loadSeries(series);
+                        return listener.total;
+                    }
+                });
+        Benchmark.measure("BatchedXYSeriesCollection.load[" + ITEMS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        XYSeries series = new XYSeries("S");
+                        BatchedXYSeriesCollection dataset
+                                = new BatchedXYSeriesCollection(series);
+                        RangeListener listener = new RangeListener();
+                        dataset.addChangeListener(listener);
+                        dataset.beginUpdate();
+                        try {
+                            loadSeries(series);
+                        }
+                        finally {
+                            dataset.endUpdate();
+                        }
+                        return listener.total;
+                    }
+                });
+        String suffix = "[" + SIZE + "x" + SIZE + "]";
+        Benchmark.measure("DefaultCategoryDataset.load" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        DefaultCategoryDataset dataset
+                                = new DefaultCategoryDataset();
+                        RangeListener listener = new RangeListener();
+                        dataset.addChangeListener(listener);
+                        loadTable(dataset);
+                        return listener.total;
+                    }
+                });
+        Benchmark.measure("BatchedCategoryDataset.load" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        BatchedCategoryDataset dataset
+                                = new BatchedCategoryDataset();
+                        RangeListener listener = new RangeListener();
+                        dataset.addChangeListener(listener);
+                        dataset.beginUpdate();
+                        try {
+                            loadTable(dataset);
+                        }
+                        finally {
+                            dataset.endUpdate();
+                        }
+                        return listener.total;
+                    }
+                });
+    }
+
+    /**
+     * Adds {@link #ITEMS} items to a series.
+     *
+     * @param series  the series.
+     */
+    private static void loadSeries(XYSeries series) {
+        for (int i = 0; i < ITEMS; i++) {
+            series.add(i, Math.sin(i * 0.01));
+        }
+    }
+
+    /**
+     * Adds {@link #SIZE} rows of {@link #SIZE} values to a dataset.
+     *
+     * @param dataset  the dataset.
+     */
+    private static void loadTable(DefaultCategoryDataset dataset) {
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                dataset.addValue(Math.sin(r * SIZE + c), "R" + r, "C" + c);
+            }
+        }
+    }
+
+}
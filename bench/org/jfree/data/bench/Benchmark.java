@@ -0,0 +1,237 @@
+package org.jfree.data.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A minimal micro-benchmark harness.  Each operation is run repeatedly for a
+ * number of warm-up iterations, so that the JIT compiler has settled, and
+ * then for a number of measured iterations.  Every iteration lasts at least
+ * {@link #ITERATION_NANOS} and reports the mean time per operation; the
+ * result is the mean and standard deviation of those iteration scores.
+ * <p>
+ * The value returned by each operation is accumulated into a volatile field
+ * so that the work cannot be eliminated as dead code.  Results measured with
+ * {@link #measure(String, Operation)} are also recorded, so that
+ * {@link BenchmarkMain} can write them to a file.
+ */
+public final class Benchmark {
+
+    /** The number of warm-up iterations. */
+    public static final int WARMUP_ITERATIONS = 5;
+
+    /** The number of measured iterations. */
+    public static final int MEASURED_ITERATIONS = 10;
+
+    /** The minimum length of one iteration, in nanoseconds. */
+    public static final long ITERATION_NANOS = 100000000L;
+
+    /** Receives the results of every operation. */
+    private static volatile double sink;
+
+    /** The results recorded so far. */
+    private static final List RESULTS = new ArrayList();
+
+    /**
+     * A unit of work to be timed.
+     */
+    public interface Operation {
+
+        /**
+         * Performs the work once.
+         *
+         * @return Any value derived from the work.
+         */
+        double run();
+
+    }
+
+    /**
+     * The score of one benchmark.
+     */
+    public static final class Result {
+
+        /** The benchmark name. */
+        private final String name;
+
+        /** The mean time per operation, in nanoseconds. */
+        private final double mean;
+
+        /** The standard deviation of the iteration scores. */
+        private final double error;
+
+        /**
+         * Creates a new result.
+         *
+         * @param name  the benchmark name.
+         * @param mean  the mean time per operation, in nanoseconds.
+         * @param error  the standard deviation, in nanoseconds.
+         */
+        Result(String name, double mean, double error) {
+            this.name = name;
+            this.mean = mean;
+            this.error = error;
+        }
+
+        /**
+         * Returns the benchmark name.
+         *
+         * @return The name.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the mean time per operation.
+         *
+         * @return The time, in nanoseconds.
+         */
+        public double getMean() {
+            return this.mean;
+        }
+
+        /**
+         * Returns the standard deviation of the iteration scores.
+         *
+         * @return The deviation, in nanoseconds.
+         */
+        public double getError() {
+            return this.error;
+        }
+
+        /**
+         * Returns the result as a line of a report.
+         *
+         * @return A string.
+         */
+        public String toString() {
+            return String.format(Locale.ROOT, "%-52s %16.1f %12.1f ns/op",
+                    this.name, this.mean, this.error);
+        }
+
+    }
+
+    /**
+     * Not used.
+     */
+    private Benchmark() {
+    }
+
+    /**
+     * Measures an operation with the default number of iterations, prints
+     * the result to standard output and records it.
+     *
+     * @param name  the benchmark name.
+     * @param operation  the operation.
+     *
+     * @return The result.
+     */
+    public static Result measure(String name, Operation operation) {
+        Result result = measure(name, operation, WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS);
+        System.out.println(result);
+        RESULTS.add(result);
+        return result;
+    }
+
+    /**
+     * Returns the results recorded so far, in the order they were measured.
+     *
+     * @return A read-only list of {@link Result} objects.
+     */
+    public static List getResults() {
+        return Collections.unmodifiableList(new ArrayList(RESULTS));
+    }
+
+    /**
+     * Measures an operation.
+     *
+     * @param name  the benchmark name.
+     * @param operation  the operation.
+     * @param warmupIterations  the number of warm-up iterations.
+     * @param measuredIterations  the number of measured iterations (at
+     *     least one).
+     *
+     * @return The result.
+     */
+    public static Result measure(String name, Operation operation,
+            int warmupIterations, int measuredIterations) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+        double[] scores = new double[measuredIterations];
+        double total = 0.0;
+        for (int i = 0; i < measuredIterations; i++) {
+            scores[i] = iteration(operation);
+            total += scores[i];
+        }
+        double mean = total / measuredIterations;
+        double squares = 0.0;
+        for (int i = 0; i < measuredIterations; i++) {
+            squares += (scores[i] - mean) * (scores[i] - mean);
+        }
+        double error = measuredIterations > 1
+                ? Math.sqrt(squares / (measuredIterations - 1)) : 0.0;
+        return new Result(name, mean, error);
+    }
+
+    /**
+     * Returns the median ratio of the time taken by one operation to the
+     * time taken by another.  The two are measured in alternate iterations,
+     * and each ratio is taken between neighbouring iterations, so a change
+     * in the load on the machine affects both sides of a ratio alike.
+     *
+     * @param numerator  the operation whose time is divided.
+     * @param denominator  the operation whose time divides.
+     * @param rounds  the number of pairs of iterations (at least one).
+     *
+     * @return The median ratio.
+     */
+    public static double ratio(Operation numerator, Operation denominator,
+            int rounds) {
+        iteration(numerator);
+        iteration(denominator);
+        double[] ratios = new double[rounds];
+        for (int i = 0; i < rounds; i++) {
+            ratios[i] = iteration(numerator) / iteration(denominator);
+        }
+        Arrays.sort(ratios);
+        return rounds % 2 == 1 ? ratios[rounds / 2]
+                : (ratios[rounds / 2 - 1] + ratios[rounds / 2]) / 2.0;
+    }
+
+    /**
+     * Runs an operation repeatedly for at least {@link #ITERATION_NANOS}.
+     * The clock is read after each batch of operations rather than after
+     * each one, so that reading it does not swamp short operations; the
+     * batch doubles until it fills a sixteenth of the iteration.
+     *
+     * @param operation  the operation.
+     *
+     * @return The mean time per operation, in nanoseconds.
+     */
+    private static double iteration(Operation operation) {
+        double accumulated = 0.0;
+        long count = 0;
+        long batch = 1;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0; i < batch; i++) {
+                accumulated += operation.run();
+            }
+            count += batch;
+            elapsed = System.nanoTime() - start;
+            if (elapsed < ITERATION_NANOS / 16) {
+                batch *= 2;
+            }
+        } while (elapsed < ITERATION_NANOS);
+        sink += accumulated;
+        return (double) elapsed / count;
+    }
+
+}
@@ -0,0 +1,264 @@
+package org.jfree.data.bench;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the benchmark suites, optionally writes the results to a file and
+ * compares them with a baseline file written by an earlier run.
+ * <p>
+ * Usage:
+ * <pre>
+ * java org.jfree.data.bench.BenchmarkMain [-o results.txt]
+ *     [-b baseline.txt] [-t tolerance] [suite ...]
+ * </pre>
+ * The suites are <code>data</code>, <code>range</code>, <code>keyed</code>,
+ * <code>indexed</code>, <code>summation</code>, <code>csv</code>,
+ * <code>jdbc</code>, <code>timeseries</code>, <code>movingaverage</code>,
+ * <code>batch</code>, <code>bounds</code>, <code>window</code>,
+ * <code>statistics</code>, <code>histogram</code>, <code>regression</code>,
+ * <code>downsampling</code> and <code>concurrent</code>; all of them run if
+ * none is named.  A benchmark is reported as a regression when its mean
+ * time exceeds the baseline by more than the tolerance (default
+ * {@link #DEFAULT_TOLERANCE}) and the two means are further apart than their
+ * errors allow, and the program then exits with status 1.  Results are only
+ * comparable between runs on the same machine and JVM; the header of each
+ * file records both.
+ */
+public final class BenchmarkMain {
+
+    /** The default ratio of new to baseline time treated as a regression. */
+    public static final double DEFAULT_TOLERANCE = 1.25;
+
+    /** The suite names, in the order they run. */
+    private static final String[] SUITES = {"data", "range", "keyed",
+            "indexed", "summation", "csv", "jdbc", "timeseries",
+            "movingaverage", "batch", "bounds", "window",
+            "statistics", "histogram", "regression", "downsampling",
+            "concurrent"};
+
+    /**
+     * Not used.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        String baseline = null;
+        double tolerance = DEFAULT_TOLERANCE;
+        List suites = new ArrayList();
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                output = args[++i];
+            }
+            else if ("-b".equals(args[i]) && i + 1 < args.length) {
+                baseline = args[++i];
+            }
+            else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                tolerance = Double.parseDouble(args[++i]);
+            }
+            else {
+                suites.add(args[i]);
+            }
+        }
+        if (suites.isEmpty()) {
+            for (int i = 0; i < SUITES.length; i++) {
+                suites.add(SUITES[i]);
+            }
+        }
+        for (Iterator iterator = suites.iterator(); iterator.hasNext();) {
+            runSuite((String) iterator.next());
+        }
+        List results = Benchmark.getResults();
+        if (output != null) {
+            write(results, output);
+        }
+        if (baseline != null) {
+            int regressions = compare(results, read(baseline), tolerance);
+            if (regressions > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Runs one suite.
+     *
+     * @param name  the suite name.
+     *
+     * @throws IOException if a suite cannot write its input files.
+     */
+    private static void runSuite(String name) throws IOException {
+        if ("data".equals(name)) {
+            DataUtilitiesBenchmark.run();
+        }
+        else if ("range".equals(name)) {
+            RangeBenchmark.run();
+        }
+        else if ("keyed".equals(name)) {
+            KeyedValuesBenchmark.run();
+        }
+        else if ("indexed".equals(name)) {
+            IndexedKeyedValuesBenchmark.run();
+        }
+        else if ("summation".equals(name)) {
+            SummationBenchmark.run();
+        }
+        else if ("csv".equals(name)) {
+            CSVBenchmark.run();
+        }
+        else if ("jdbc".equals(name)) {
+            JDBCBenchmark.run();
+        }
+        else if ("timeseries".equals(name)) {
+            TimeSeriesBenchmark.run();
+        }
+        else if ("movingaverage".equals(name)) {
+            MovingAverageBenchmark.run();
+        }
+        else if ("batch".equals(name)) {
+            BatchUpdateBenchmark.run();
+        }
+        else if ("bounds".equals(name)) {
+            BoundsCacheBenchmark.run();
+        }
+        else if ("window".equals(name)) {
+            WindowRangeBenchmark.run();
+        }
+        else if ("statistics".equals(name)) {
+            StatisticsBenchmark.run();
+        }
+        else if ("histogram".equals(name)) {
+            HistogramBenchmark.run();
+        }
+        else if ("regression".equals(name)) {
+            RegressionBenchmark.run();
+        }
+        else if ("downsampling".equals(name)) {
+            DownsamplingBenchmark.run();
+        }
+        else if ("concurrent".equals(name)) {
+            ConcurrentSeriesBenchmark.run();
+        }
+        else {
+            throw new IllegalArgumentException("Unknown suite: " + name);
+        }
+    }
+
+    /**
+     * Writes results to a file, one per line after a header.
+     *
+     * @param results  the results.
+     * @param fileName  the file name.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(List results, String fileName) throws IOException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(fileName), "UTF-8"));
+        try {
+            out.println("# org.jfree.data benchmark results");
+            out.println("# java.version=" + System.getProperty("java.version")
+                    + " os.arch=" + System.getProperty("os.arch")
+                    + " processors="
+                    + Runtime.getRuntime().availableProcessors());
+            for (Iterator iterator = results.iterator();
+                    iterator.hasNext();) {
+                out.println(iterator.next());
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the mean times and errors from a results file.
+     *
+     * @param fileName  the file name.
+     *
+     * @return A map from benchmark name to a <code>double[]</code> holding
+     *     the mean time and the error.
+     *
+     * @throws IOException if the file cannot be read.
+     */
+    static Map read(String fileName) throws IOException {
+        Map means = new HashMap();
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(fileName), "UTF-8"));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                if (fields.length >= 3) {
+                    means.put(fields[0], new double[] {
+                            Double.parseDouble(fields[1]),
+                            Double.parseDouble(fields[2])});
+                }
+            }
+        }
+        finally {
+            in.close();
+        }
+        return means;
+    }
+
+    /**
+     * Prints the ratio of each result to its baseline and counts the
+     * regressions.
+     *
+     * @param results  the results.
+     * @param baseline  the baseline mean times and errors, by name.
+     * @param tolerance  the largest acceptable ratio.
+     *
+     * @return The number of regressions.
+     */
+    static int compare(List results, Map baseline, double tolerance) {
+        int regressions = 0;
+        System.out.println();
+        for (Iterator iterator = results.iterator(); iterator.hasNext();) {
+            Benchmark.Result result = (Benchmark.Result) iterator.next();
+            double[] base = (double[]) baseline.get(result.getName());
+            if (base == null) {
+                continue;
+            }
+            double ratio = result.getMean() / base[0];
+            boolean regressed = ratio > tolerance
+                    && result.getMean() - result.getError()
+                    > base[0] + base[1];
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.ROOT,
+                    "%-52s %16.2fx %s", result.getName(), ratio,
+                    regressed ? "REGRESSION" : ""));
+        }
+        System.out.println(regressions + " regression(s) beyond "
+                + tolerance + "x");
+        return regressions;
+    }
+
+}
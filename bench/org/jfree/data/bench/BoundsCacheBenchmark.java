@@ -0,0 +1,116 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.general.DatasetBoundsCache;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Compares finding the bounds of a dataset with {@link DatasetUtilities}
+ * and with a {@link DatasetBoundsCache} while items are appended to it.  A
+ * listener finds the domain and range bounds after each change, as a plot
+ * with automatic axes does.
+ */
+public final class BoundsCacheBenchmark {
+
+    /** The number of items appended to the series. */
+    private static final int ITEMS = 10000;
+
+    /**
+     * Not used.
+     */
+    private BoundsCacheBenchmark() {
+    }
+
+    /**
+     * A listener that finds the bounds of the dataset, either by scanning
+     * it or from a cache.
+     */
+    private static final class BoundsListener
+            implements DatasetChangeListener {
+
+        /** The cache (<code>null</code> to scan the dataset). */
+        private DatasetBoundsCache cache;
+
+        /** The sum of the upper bounds found. */
+        private double total;
+
+        /**
+         * Finds the bounds of the dataset.
+         *
+         * @param event  the change event.
+         */
+        public void datasetChanged(DatasetChangeEvent event) {
+            if (this.cache != null) {
+                this.total += this.cache.getDomainBounds(false)
+                        .getUpperBound();
+                this.total += this.cache.getRangeBounds(false)
+                        .getUpperBound();
+            }
+            else {
+                XYDataset dataset = (XYDataset) event.getDataset();
+                this.total += DatasetUtilities.findDomainBounds(dataset,
+                        false).getUpperBound();
+                this.total += DatasetUtilities.findRangeBounds(dataset,
+                        false).getUpperBound();
+            }
+        }
+
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        Benchmark.measure("DatasetUtilities.findBounds.append[" + ITEMS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        XYSeries series = new XYSeries("S");
+                        XYSeriesCollection dataset
+                                = new XYSeriesCollection(series);
+                        BoundsListener listener = new BoundsListener();
+                        dataset.addChangeListener(listener);
+                        loadSeries(series);
+                        return listener.total;
+                    }
+                });
+        Benchmark.measure("DatasetBoundsCache.append[" + ITEMS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        XYSeries series = new XYSeries("S");
+                        XYSeriesCollection dataset
+                                = new XYSeriesCollection(series);
+                        BoundsListener listener = new BoundsListener();
+                        dataset.addChangeListener(listener);
+                        // created last, so that it is notified first
+                        listener.cache = new DatasetBoundsCache(dataset);
+                        loadSeries(series);
+                        return listener.total;
+                    }
+                });
+    }
+
+    /**
+     * Adds {@link #ITEMS} items to a series.
+     *
+     * @param series  the series.
+     */
+    private static void loadSeries(XYSeries series) {
+        for (int i = 0; i < ITEMS; i++) {
+            series.add(i, Math.sin(i * 0.01));
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.jfree.data.bench;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jfree.data.io.CSV;
+import org.jfree.data.io.DatasetSnapshot;
+import org.jfree.data.io.FastCSV;
+import org.jfree.data.io.MappedCategoryDataset;
+
+/**
+ * Compares reading a CSV file with {@link CSV}, which builds a
+ * <code>String</code> and a <code>Double</code> for every field, and with
+ * {@link FastCSV}, which parses the memory-mapped bytes.  <code>CSV</code>
+ * looks up each row key by scanning the rows read so far, so it is only
+ * measured on the small file.  Reopening the large table from a
+ * {@link DatasetSnapshot} is measured alone and with a pass over every
+ * value.  The files are written to the temporary directory and stay in the
+ * page cache, so the times measure parsing rather than the disk.
+ */
+public final class CSVBenchmark {
+
+    /** The number of value columns. */
+    private static final int COLUMNS = 20;
+
+    /** The number of rows in the small file. */
+    private static final int SMALL_ROWS = 2000;
+
+    /** The number of rows in the large file. */
+    private static final int LARGE_ROWS = 200000;
+
+    /**
+     * Not used.
+     */
+    private CSVBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    public static void run() throws IOException {
+        final File small = createFile(SMALL_ROWS);
+        final File large = createFile(LARGE_ROWS);
+        final File snapshot = File.createTempFile("bench", ".snapshot");
+        snapshot.deleteOnExit();
+        try {
+            Benchmark.measure("CSV.readCategoryDataset[" + SMALL_ROWS + "x"
+                    + COLUMNS + "]", new Benchmark.Operation() {
+                        public double run() {
+                            try {
+                                Reader in = new InputStreamReader(
+                                        new FileInputStream(small), "UTF-8");
+                                try {
+                                    return new CSV().readCategoryDataset(in)
+                                            .getRowCount();
+                                }
+                                finally {
+                                    in.close();
+                                }
+                            }
+                            catch (IOException e) {
+                                throw new IllegalStateException(
+                                        e.toString());
+                            }
+                        }
+                    });
+            measureFastCSV("FastCSV.readCategoryDataset[" + SMALL_ROWS + "x"
+                    + COLUMNS + "]", small, null);
+            measureFastCSV("FastCSV.readCategoryDataset[" + LARGE_ROWS + "x"
+                    + COLUMNS + "]", large, null);
+            measureFastCSV("FastCSV.readCategoryDataset[" + LARGE_ROWS + "x"
+                    + COLUMNS + "].parallel", large, ForkJoinPool.commonPool());
+            System.out.println("  (large file: " + large.length() / 1024
+                    + " KiB)");
+            DatasetSnapshot.writeKeyedValues2D(
+                    new FastCSV().readCategoryDataset(large), snapshot);
+            Benchmark.measure("DatasetSnapshot.openCategoryDataset["
+                    + LARGE_ROWS + "x" + COLUMNS + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            return open(snapshot).getRowCount();
+                        }
+                    });
+            Benchmark.measure("DatasetSnapshot.openCategoryDataset["
+                    + LARGE_ROWS + "x" + COLUMNS + "].sum",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            MappedCategoryDataset dataset = open(snapshot);
+                            double sum = 0.0;
+                            for (int c = 0; c < COLUMNS; c++) {
+                                for (int r = 0; r < LARGE_ROWS; r++) {
+                                    sum += dataset.getDoubleValue(r, c);
+                                }
+                            }
+                            return sum;
+                        }
+                    });
+        }
+        finally {
+            small.delete();
+            large.delete();
+            snapshot.delete();
+        }
+    }
+
+    /**
+     * Measures reading a file with {@link FastCSV}.
+     *
+     * @param name  the benchmark name.
+     * @param file  the file.
+     * @param pool  the pool (<code>null</code> for a sequential read).
+     */
+    private static void measureFastCSV(String name, final File file,
+            final ForkJoinPool pool) {
+        Benchmark.measure(name, new Benchmark.Operation() {
+            public double run() {
+                try {
+                    return new FastCSV().readCategoryDataset(file, pool)
+                            .getRowCount();
+                }
+                catch (IOException e) {
+                    throw new IllegalStateException(e.toString());
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens a snapshot.
+     *
+     * @param file  the file.
+     *
+     * @return The dataset.
+     */
+    private static MappedCategoryDataset open(File file) {
+        try {
+            return DatasetSnapshot.openCategoryDataset(file);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e.toString());
+        }
+    }
+
+    /**
+     * Writes a CSV file of random values with up to four decimal places,
+     * which is typical of exported data.  Values with more than fifteen
+     * significant digits take the slower {@link Double#parseDouble(String)}
+     * route in both readers.
+     *
+     * @param rows  the number of rows.
+     *
+     * @return The file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    private static File createFile(int rows) throws IOException {
+        File file = File.createTempFile("bench", ".csv");
+        file.deleteOnExit();
+        Random random = new Random(13L + rows);
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            out.write("Series");
+            for (int c = 0; c < COLUMNS; c++) {
+                out.write(",C" + c);
+            }
+            out.write('\n');
+            for (int r = 0; r < rows; r++) {
+                out.write("R" + r);
+                for (int c = 0; c < COLUMNS; c++) {
+                    out.write(',');
+                    out.write(Double.toString(Math.round(
+                            random.nextDouble() * 1.0e7) / 1.0e4));
+                }
+                out.write('\n');
+            }
+        }
+        finally {
+            out.close();
+        }
+        return file;
+    }
+
+}
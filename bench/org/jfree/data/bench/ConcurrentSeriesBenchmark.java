@@ -0,0 +1,93 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.xy.ConcurrentXYSeries;
+import org.jfree.data.xy.XYSeries;
+
+/**
+ * Compares several threads appending to an {@link XYSeries} guarded by a
+ * lock with the same threads appending to a {@link ConcurrentXYSeries}.
+ */
+public final class ConcurrentSeriesBenchmark {
+
+    /** The number of writer threads. */
+    private static final int WRITERS = 4;
+
+    /** The number of items appended by each writer. */
+    private static final int ITEMS = 25000;
+
+    /**
+     * Not used.
+     */
+    private ConcurrentSeriesBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        String suffix = "[" + WRITERS + "x" + ITEMS + "]";
+        Benchmark.measure("XYSeries.synchronizedAdd" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        final XYSeries series = new XYSeries("S", false, true);
+                        runWriters(new Runnable() {
+                            public void run() {
+                                for (int i = 0; i < ITEMS; i++) {
+                                    synchronized (series) {
+                                        series.add(i, i);
+                                    }
+                                }
+                            }
+                        });
+                        return series.getItemCount();
+                    }
+                });
+        Benchmark.measure("ConcurrentXYSeries.add" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        final ConcurrentXYSeries series
+                                = new ConcurrentXYSeries("S");
+                        runWriters(new Runnable() {
+                            public void run() {
+                                for (int i = 0; i < ITEMS; i++) {
+                                    series.add(i, i);
+                                }
+                            }
+                        });
+                        return series.getItemCount();
+                    }
+                });
+    }
+
+    /**
+     * Runs a task on each of {@link #WRITERS} threads and waits for them to
+     * finish.
+     *
+     * @param task  the task.
+     */
+    private static void runWriters(Runnable task) {
+        Thread[] threads = new Thread[WRITERS];
+        for (int w = 0; w < WRITERS; w++) {
+            threads[w] = new Thread(task);
+            threads[w].start();
+        }
+        for (int w = 0; w < WRITERS; w++) {
+            try {
+                threads[w].join();
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e.toString());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.jfree.data.bench;
+
+import java.util.Random;
+
+import org.jfree.data.DataUtilities;
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.DoubleArrayValues2D;
+
+/**
+ * Measures the methods of {@link DataUtilities}, as the baseline for the
+ * faster alternatives in {@link org.jfree.data.FastDataUtilities}.  The
+ * totals read a {@link DoubleArrayValues2D} through the
+ * {@link org.jfree.data.Values2D} interface, so every cell is boxed as it
+ * would be for any other table.
+ */
+public final class DataUtilitiesBenchmark {
+
+    /** The number of values in each operation. */
+    private static final int[] SIZES = {1000, 100000};
+
+    /**
+     * The number of items for <code>getCumulativePercentages()</code>, which
+     * takes quadratic time because each item added to the result searches
+     * the keys already added.
+     */
+    private static final int[] KEYED_SIZES = {1000, 10000};
+
+    /**
+     * Not used.
+     */
+    private DataUtilitiesBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        for (int i = 0; i < SIZES.length; i++) {
+            final int n = SIZES[i];
+            final DoubleArrayValues2D table
+                    = SummationBenchmark.createTable(n, 4);
+            final double[] values = createValues(n);
+            final double[][] values2D = new double[n / 4][];
+            for (int r = 0; r < values2D.length; r++) {
+                values2D[r] = createValues(4);
+            }
+            Benchmark.measure("DataUtilities.calculateColumnTotal[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            return DataUtilities.calculateColumnTotal(table,
+                                    0);
+                        }
+                    });
+            final DoubleArrayValues2D row
+                    = SummationBenchmark.createTable(1, n);
+            Benchmark.measure("DataUtilities.calculateRowTotal[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            return DataUtilities.calculateRowTotal(row, 0);
+                        }
+                    });
+            Benchmark.measure("DataUtilities.createNumberArray[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            return DataUtilities.createNumberArray(values)
+                                    .length;
+                        }
+                    });
+            Benchmark.measure("DataUtilities.createNumberArray2D[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            return DataUtilities.createNumberArray2D(
+                                    values2D).length;
+                        }
+                    });
+        }
+        for (int i = 0; i < KEYED_SIZES.length; i++) {
+            int n = KEYED_SIZES[i];
+            final DefaultKeyedValues keyed = createKeyedValues(n);
+            Benchmark.measure("DataUtilities.getCumulativePercentages[" + n
+                    + "]", new Benchmark.Operation() {
+                        public double run() {
+                            return DataUtilities.getCumulativePercentages(
+                                    keyed).getItemCount();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Creates an array of random values.
+     *
+     * @param n  the number of values.
+     *
+     * @return The values.
+     */
+    static double[] createValues(int n) {
+        Random random = new Random(637L + n);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble() * 1000.0;
+        }
+        return values;
+    }
+
+    /**
+     * Creates keyed values with the keys "K0", "K1" and so on and random
+     * values.
+     *
+     * @param n  the number of values.
+     *
+     * @return The keyed values.
+     */
+    static DefaultKeyedValues createKeyedValues(int n) {
+        double[] values = createValues(n);
+        DefaultKeyedValues keyed = new DefaultKeyedValues();
+        for (int i = 0; i < n; i++) {
+            keyed.addValue("K" + i, values[i]);
+        }
+        return keyed;
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.xy.DownsampledXYDataset;
+import org.jfree.data.xy.DownsamplingMethod;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Compares reading every item of a long series, as a renderer does, with
+ * choosing the items to draw through a {@link DownsampledXYDataset} and
+ * reading them back from its cache.
+ */
+public final class DownsamplingBenchmark {
+
+    /** The number of items in the series. */
+    private static final int ITEMS = 1000000;
+
+    /** The number of points kept, about one per pixel column. */
+    private static final int POINTS = 1600;
+
+    /**
+     * Not used.
+     */
+    private DownsamplingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        XYSeries series = new XYSeries("S", true, false);
+        for (int i = 0; i < ITEMS; i++) {
+            series.add(i, Math.sin(i * 0.0001) + (i % 17) * 0.01);
+        }
+        final XYSeriesCollection dataset = new XYSeriesCollection(series);
+        String suffix = "[" + ITEMS + "," + POINTS + "]";
+        Benchmark.measure("XYDataset.readAll" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return readAll(dataset);
+                    }
+                });
+        Benchmark.measure("DownsampledXYDataset.lttb" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        DownsampledXYDataset view = new DownsampledXYDataset(
+                                dataset, POINTS);
+                        double total = readAll(view);
+                        view.dispose();
+                        return total;
+                    }
+                });
+        Benchmark.measure("DownsampledXYDataset.minMax" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        DownsampledXYDataset view = new DownsampledXYDataset(
+                                dataset, POINTS, DownsamplingMethod.MIN_MAX);
+                        double total = readAll(view);
+                        view.dispose();
+                        return total;
+                    }
+                });
+        final DownsampledXYDataset cached = new DownsampledXYDataset(dataset,
+                POINTS);
+        readAll(cached);
+        Benchmark.measure("DownsampledXYDataset.cached" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return readAll(cached);
+                    }
+                });
+    }
+
+    /**
+     * Reads every item of the first series of a dataset.
+     *
+     * @param dataset  the dataset.
+     *
+     * @return The sum of the values read.
+     */
+    private static double readAll(XYDataset dataset) {
+        double total = 0.0;
+        int count = dataset.getItemCount(0);
+        for (int i = 0; i < count; i++) {
+            total += dataset.getXValue(0, i) + dataset.getYValue(0, i);
+        }
+        return total;
+    }
+
+}
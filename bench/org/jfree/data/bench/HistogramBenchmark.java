@@ -0,0 +1,93 @@
+package org.jfree.data.bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jfree.data.statistics.BinnedHistogramDataset;
+import org.jfree.data.statistics.HistogramDataset;
+
+/**
+ * Compares building a histogram with {@link HistogramDataset} and with
+ * {@link BinnedHistogramDataset}, sequentially and on the common fork/join
+ * pool, and re-binning the stored counts.
+ */
+public final class HistogramBenchmark {
+
+    /** The number of values in the series. */
+    private static final int VALUES = 1000000;
+
+    /** The number of bins. */
+    private static final int BINS = 100;
+
+    /**
+     * Not used.
+     */
+    private HistogramBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        Random random = new Random(22L);
+        final double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+        }
+        String suffix = "[" + VALUES + "," + BINS + "]";
+        Benchmark.measure("HistogramDataset.addSeries" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        HistogramDataset dataset = new HistogramDataset();
+                        dataset.addSeries("S1", values, BINS);
+                        return dataset.getYValue(0, 0);
+                    }
+                });
+        Benchmark.measure("BinnedHistogramDataset.addSeries" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        BinnedHistogramDataset dataset
+                                = new BinnedHistogramDataset();
+                        dataset.addSeries("S1", values, BINS);
+                        return dataset.getYValue(0, 0);
+                    }
+                });
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        Benchmark.measure("BinnedHistogramDataset.addSeriesParallel"
+                + suffix, new Benchmark.Operation() {
+                    public double run() {
+                        BinnedHistogramDataset dataset
+                                = new BinnedHistogramDataset();
+                        dataset.addSeries("S1", values, BINS, pool);
+                        return dataset.getYValue(0, 0);
+                    }
+                });
+        final BinnedHistogramDataset fine = new BinnedHistogramDataset();
+        fine.addSeries("S1", values, BINS * 10);
+        Benchmark.measure("BinnedHistogramDataset.rebinSeries"
+                + "[" + BINS * 10 + "," + BINS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        BinnedHistogramDataset dataset;
+                        try {
+                            dataset = (BinnedHistogramDataset) fine.clone();
+                        }
+                        catch (CloneNotSupportedException e) {
+                            throw new IllegalStateException(e.toString());
+                        }
+                        dataset.rebinSeries(0, 10);
+                        return dataset.getYValue(0, 0);
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.jfree.data.bench;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.jfree.data.DefaultKeyedValue;
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.DefaultKeyedValues2D;
+import org.jfree.data.IndexedKeyedValues;
+import org.jfree.data.IndexedKeyedValues2D;
+import org.jfree.data.KeyedValues;
+import org.jfree.data.KeyedValues2D;
+
+/**
+ * Compares key lookup in {@link DefaultKeyedValues} and
+ * {@link DefaultKeyedValues2D}, which scan the keys, with
+ * {@link IndexedKeyedValues} and {@link IndexedKeyedValues2D}, which look
+ * them up in a hash map.  Each lookup operation looks up {@link #LOOKUPS}
+ * keys spread evenly through the collection.  The build benchmarks add
+ * every item to an empty collection, which is quadratic for the default
+ * classes and so is only measured for them at the smallest size.
+ */
+public final class IndexedKeyedValuesBenchmark {
+
+    /** The number of keys (or, for tables, cells). */
+    private static final int[] SIZES = {1000, 100000, 1000000};
+
+    /** The largest size for which the default classes are built item by
+     *  item. */
+    private static final int MAX_QUADRATIC_SIZE = 1000;
+
+    /** The largest table size measured for {@link DefaultKeyedValues2D}. */
+    private static final int MAX_DEFAULT_TABLE_SIZE = 100000;
+
+    /** The number of lookups in one operation. */
+    private static final int LOOKUPS = 64;
+
+    /**
+     * Not used.
+     */
+    private IndexedKeyedValuesBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        for (int i = 0; i < SIZES.length; i++) {
+            runKeyedValues(SIZES[i]);
+        }
+        for (int i = 0; i < SIZES.length; i++) {
+            runKeyedValues2D(SIZES[i]);
+        }
+    }
+
+    /**
+     * Runs the one-dimensional benchmarks for one size.
+     *
+     * @param n  the number of keys.
+     */
+    private static void runKeyedValues(final int n) {
+        final double[] values = DataUtilitiesBenchmark.createValues(n);
+        final Comparable[] keys = new Comparable[LOOKUPS];
+        for (int k = 0; k < LOOKUPS; k++) {
+            keys[k] = "K" + (int) ((long) k * n / LOOKUPS);
+        }
+        measureLookups("DefaultKeyedValues.getValueByKey[" + n + "]",
+                fillDefaultKeyedValues(values), keys);
+        measureLookups("IndexedKeyedValues.getValueByKey[" + n + "]",
+                createIndexedKeyedValues(values), keys);
+        if (n <= MAX_QUADRATIC_SIZE) {
+            Benchmark.measure("DefaultKeyedValues.build[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            DefaultKeyedValues keyed
+                                    = new DefaultKeyedValues();
+                            for (int i = 0; i < n; i++) {
+                                keyed.addValue("K" + i, values[i]);
+                            }
+                            return keyed.getItemCount();
+                        }
+                    });
+        }
+        Benchmark.measure("IndexedKeyedValues.build[" + n + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        return createIndexedKeyedValues(values)
+                                .getItemCount();
+                    }
+                });
+    }
+
+    /**
+     * Runs the table benchmarks for one size.  The table is square, with
+     * about <code>n</code> cells.
+     *
+     * @param n  the number of cells.
+     */
+    private static void runKeyedValues2D(int n) {
+        int side = (int) Math.round(Math.sqrt(n));
+        final Comparable[] rowKeys = new Comparable[LOOKUPS];
+        final Comparable[] columnKeys = new Comparable[LOOKUPS];
+        for (int k = 0; k < LOOKUPS; k++) {
+            rowKeys[k] = "R" + (k * side / LOOKUPS);
+            columnKeys[k] = "C" + ((LOOKUPS - 1 - k) * side / LOOKUPS);
+        }
+        if (n <= MAX_DEFAULT_TABLE_SIZE) {
+            measureLookups("DefaultKeyedValues2D.getValueByKey[" + n + "]",
+                    fillTable(new DefaultKeyedValues2D(), side), rowKeys,
+                    columnKeys);
+        }
+        measureLookups("IndexedKeyedValues2D.getValueByKey[" + n + "]",
+                fillTable(new IndexedKeyedValues2D(), side), rowKeys,
+                columnKeys);
+    }
+
+    /**
+     * Measures looking up a set of keys.
+     *
+     * @param name  the benchmark name.
+     * @param keyed  the collection.
+     * @param keys  the keys to look up.
+     */
+    private static void measureLookups(String name, final KeyedValues keyed,
+            final Comparable[] keys) {
+        Benchmark.measure(name, new Benchmark.Operation() {
+            public double run() {
+                double total = 0.0;
+                for (int k = 0; k < keys.length; k++) {
+                    total += keyed.getValue(keys[k]).doubleValue();
+                }
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Measures looking up a set of cells.
+     *
+     * @param name  the benchmark name.
+     * @param table  the table.
+     * @param rowKeys  the row keys to look up.
+     * @param columnKeys  the column keys to look up.
+     */
+    private static void measureLookups(String name, final KeyedValues2D table,
+            final Comparable[] rowKeys, final Comparable[] columnKeys) {
+        Benchmark.measure(name, new Benchmark.Operation() {
+            public double run() {
+                double total = 0.0;
+                for (int k = 0; k < rowKeys.length; k++) {
+                    total += table.getValue(rowKeys[k], columnKeys[k])
+                            .doubleValue();
+                }
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Creates an indexed collection with the keys "K0", "K1" and so on.
+     *
+     * @param values  the values.
+     *
+     * @return The collection.
+     */
+    private static IndexedKeyedValues createIndexedKeyedValues(
+            double[] values) {
+        IndexedKeyedValues keyed = new IndexedKeyedValues();
+        for (int i = 0; i < values.length; i++) {
+            keyed.addValue("K" + i, values[i]);
+        }
+        return keyed;
+    }
+
+    /**
+     * Creates a default collection with the keys "K0", "K1" and so on.
+     * <code>addValue</code> scans the keys before it appends, so building a
+     * million items through it would take hours; the items are appended to
+     * the private list directly instead.  Lookups then run exactly the code
+     * they would for a collection built in the usual way.
+     *
+     * @param values  the values.
+     *
+     * @return The collection.
+     */
+    private static DefaultKeyedValues fillDefaultKeyedValues(
+            double[] values) {
+        DefaultKeyedValues keyed = new DefaultKeyedValues();
+        try {
+            Field field = DefaultKeyedValues.class.getDeclaredField("data");
+            field.setAccessible(true);
+            List data = (List) field.get(keyed);
+            for (int i = 0; i < values.length; i++) {
+                data.add(new DefaultKeyedValue("K" + i,
+                        new Double(values[i])));
+            }
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e.toString());
+        }
+        return keyed;
+    }
+
+    /**
+     * Fills a square table with the row keys "R0", "R1"... and the column
+     * keys "C0", "C1"...
+     *
+     * @param table  the table (a {@link DefaultKeyedValues2D} or an
+     *     {@link IndexedKeyedValues2D}).
+     * @param side  the number of rows and of columns.
+     *
+     * @return The table.
+     */
+    private static KeyedValues2D fillTable(KeyedValues2D table, int side) {
+        for (int r = 0; r < side; r++) {
+            Comparable rowKey = "R" + r;
+            for (int c = 0; c < side; c++) {
+                Double value = new Double(r * side + c);
+                if (table instanceof IndexedKeyedValues2D) {
+                    ((IndexedKeyedValues2D) table).addValue(value, rowKey,
+                            "C" + c);
+                }
+                else {
+                    ((DefaultKeyedValues2D) table).addValue(value, rowKey,
+                            "C" + c);
+                }
+            }
+        }
+        return table;
+    }
+
+}
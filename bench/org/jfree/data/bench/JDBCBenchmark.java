@@ -0,0 +1,193 @@
+package org.jfree.data.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.jfree.data.jdbc.JDBCXYDataset;
+import org.jfree.data.jdbc.StreamingJDBCXYDataset;
+
+/**
+ * Compares loading a query result into {@link JDBCXYDataset}, which keeps a
+ * list of <code>Number</code> objects per row, and into
+ * {@link StreamingJDBCXYDataset}, with and without downsampling.  The rows
+ * come from a stand-in driver built from proxies that generates them on
+ * the fly, so the times include the same reflective call overhead for both
+ * datasets and no I/O.
+ */
+public final class JDBCBenchmark {
+
+    /** The number of rows in the smaller result. */
+    private static final int ROWS = 200000;
+
+    /** The number of rows in the larger, downsampled result. */
+    private static final int LARGE_ROWS = 2000000;
+
+    /** The maximum item count for the downsampled result. */
+    private static final int MAXIMUM_ITEMS = 10000;
+
+    /**
+     * Not used.
+     */
+    private JDBCBenchmark() {
+    }
+
+    /**
+     * A stand-in driver whose every query returns an x column and two
+     * double columns.
+     */
+    private static final class GeneratedRows implements InvocationHandler {
+
+        /** The number of rows. */
+        private final int rowCount;
+
+        /** The current row. */
+        private int row;
+
+        /**
+         * Creates a new driver.
+         *
+         * @param rowCount  the number of rows.
+         */
+        GeneratedRows(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        /**
+         * Returns a connection.
+         *
+         * @return The connection.
+         */
+        Connection connection() {
+            return (Connection) proxy(Connection.class);
+        }
+
+        /**
+         * Returns a proxy that calls this handler.
+         *
+         * @param type  the interface.
+         *
+         * @return The proxy.
+         */
+        private Object proxy(Class type) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[] {type}, this);
+        }
+
+        /**
+         * Answers a JDBC call.
+         *
+         * @param proxy  the proxy.
+         * @param method  the method.
+         * @param args  the arguments.
+         *
+         * @return The result.
+         */
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("next")) {
+                return Boolean.valueOf(++this.row <= this.rowCount);
+            }
+            if (name.equals("getDouble") || name.equals("getObject")) {
+                int column = ((Integer) args[0]).intValue();
+                return new Double(column == 1 ? this.row
+                        : Math.sin(this.row * 0.001 * column));
+            }
+            if (name.equals("wasNull")) {
+                return Boolean.FALSE;
+            }
+            if (name.equals("createStatement")) {
+                return proxy(Statement.class);
+            }
+            if (name.equals("executeQuery")) {
+                this.row = 0;
+                return proxy(ResultSet.class);
+            }
+            if (name.equals("getMetaData")) {
+                return proxy(ResultSetMetaData.class);
+            }
+            if (name.equals("getColumnCount")) {
+                return new Integer(3);
+            }
+            if (name.equals("getColumnType")) {
+                return new Integer(Types.DOUBLE);
+            }
+            if (name.equals("getColumnLabel")) {
+                return "C" + args[0];
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        final Connection connection = new GeneratedRows(ROWS).connection();
+        final Connection large = new GeneratedRows(LARGE_ROWS).connection();
+        Benchmark.measure("JDBCXYDataset.executeQuery[" + ROWS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        try {
+                            JDBCXYDataset dataset
+                                    = new JDBCXYDataset(connection);
+                            dataset.executeQuery("SELECT");
+                            return dataset.getItemCount();
+                        }
+                        catch (SQLException e) {
+                            throw new IllegalStateException(e.toString());
+                        }
+                    }
+                });
+        Benchmark.measure("StreamingJDBCXYDataset.executeQuery[" + ROWS + "]",
+                new Benchmark.Operation() {
+                    public double run() {
+                        return load(connection, Integer.MAX_VALUE);
+                    }
+                });
+        Benchmark.measure("StreamingJDBCXYDataset.executeQuery[" + LARGE_ROWS
+                + "].downsampled", new Benchmark.Operation() {
+                    public double run() {
+                        return load(large, MAXIMUM_ITEMS);
+                    }
+                });
+    }
+
+    /**
+     * Loads a streaming dataset.
+     *
+     * @param connection  the connection.
+     * @param maximum  the maximum item count.
+     *
+     * @return The item count.
+     */
+    private static double load(Connection connection, int maximum) {
+        try {
+            StreamingJDBCXYDataset dataset
+                    = new StreamingJDBCXYDataset(connection);
+            dataset.setMaximumItemCount(maximum);
+            dataset.executeQuery("SELECT");
+            return dataset.getItemCount();
+        }
+        catch (SQLException e) {
+            throw new IllegalStateException(e.toString());
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.DoubleArrayKeyedValues;
+import org.jfree.util.SortOrder;
+
+/**
+ * Measures key lookup and sorting in {@link DefaultKeyedValues} and
+ * {@link DoubleArrayKeyedValues}.  Each
+ * lookup operation looks up {@link #LOOKUPS} keys spread evenly through the
+ * collection; each sort works on a fresh copy, so the time includes the
+ * copy.
+ */
+public final class KeyedValuesBenchmark {
+
+    /** The number of items in the collection. */
+    private static final int[] SIZES = {100, 10000};
+
+    /** The number of lookups in one operation. */
+    private static final int LOOKUPS = 64;
+
+    /**
+     * Not used.
+     */
+    private KeyedValuesBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        for (int i = 0; i < SIZES.length; i++) {
+            int n = SIZES[i];
+            final DefaultKeyedValues keyed
+                    = DataUtilitiesBenchmark.createKeyedValues(n);
+            final Comparable[] keys = new Comparable[LOOKUPS];
+            for (int k = 0; k < LOOKUPS; k++) {
+                keys[k] = "K" + (int) ((long) k * n / LOOKUPS);
+            }
+            Benchmark.measure("DefaultKeyedValues.getValueByKey[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            double total = 0.0;
+                            for (int k = 0; k < keys.length; k++) {
+                                total += keyed.getValue(keys[k])
+                                        .doubleValue();
+                            }
+                            return total;
+                        }
+                    });
+            Benchmark.measure("DefaultKeyedValues.sortByValues[" + n + "]",
+                    new Benchmark.Operation() {
+                        public double run() {
+                            DefaultKeyedValues copy;
+                            try {
+                                copy = (DefaultKeyedValues) keyed.clone();
+                            }
+                            catch (CloneNotSupportedException e) {
+                                throw new IllegalStateException(
+                                        e.getMessage());
+                            }
+                            copy.sortByValues(SortOrder.DESCENDING);
+                            return copy.getItemCount();
+                        }
+                    });
+            final DoubleArrayKeyedValues columnar
+                    = new DoubleArrayKeyedValues(keyed);
+            Benchmark.measure("DoubleArrayKeyedValues.getValueByKey[" + n
+                    + "]", new Benchmark.Operation() {
+                        public double run() {
+                            double total = 0.0;
+                            for (int k = 0; k < keys.length; k++) {
+                                total += columnar.getValue(keys[k])
+                                        .doubleValue();
+                            }
+                            return total;
+                        }
+                    });
+            Benchmark.measure("DoubleArrayKeyedValues.sortByValues[" + n
+                    + "]", new Benchmark.Operation() {
+                        public double run() {
+                            DoubleArrayKeyedValues copy;
+                            try {
+                                copy = (DoubleArrayKeyedValues)
+                                        columnar.clone();
+                            }
+                            catch (CloneNotSupportedException e) {
+                                throw new IllegalStateException(
+                                        e.getMessage());
+                            }
+                            copy.sortByValues(SortOrder.DESCENDING);
+                            return copy.getItemCount();
+                        }
+                    });
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.time.FastMovingAverage;
+import org.jfree.data.time.FixedMillisecond;
+import org.jfree.data.time.MovingAverage;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Compares the moving averages of {@link MovingAverage}, which sum each
+ * window again for every item, with those of {@link FastMovingAverage},
+ * which slide one window along the series.
+ */
+public final class MovingAverageBenchmark {
+
+    /** The number of items in the source series. */
+    private static final int ITEMS = 20000;
+
+    /** The number of periods (or x-units) in each average. */
+    private static final int WINDOW = 1000;
+
+    /**
+     * Not used.
+     */
+    private MovingAverageBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        final TimeSeries series = new TimeSeries("S", FixedMillisecond.class);
+        final XYSeriesCollection dataset = new XYSeriesCollection();
+        XYSeries xy = new XYSeries("S");
+        for (int i = 0; i < ITEMS; i++) {
+            double value = Math.sin(i * 0.01);
+            series.add(new FixedMillisecond(i), value);
+            xy.add(i, value);
+        }
+        dataset.addSeries(xy);
+        String suffix = "[" + ITEMS + "/" + WINDOW + "]";
+        Benchmark.measure("MovingAverage.createMovingAverage" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return MovingAverage.createMovingAverage(series, "MA",
+                                WINDOW, 0).getItemCount();
+                    }
+                });
+        Benchmark.measure("FastMovingAverage.createMovingAverage" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return FastMovingAverage.createMovingAverage(series,
+                                "MA", WINDOW, 0).getItemCount();
+                    }
+                });
+        Benchmark.measure("MovingAverage.createMovingAverage.xy" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return MovingAverage.createMovingAverage(dataset, 0,
+                                "MA", WINDOW, 0.0).getItemCount();
+                    }
+                });
+        Benchmark.measure("FastMovingAverage.createMovingAverage.xy" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return FastMovingAverage.createMovingAverage(dataset,
+                                0, "MA", WINDOW, 0.0).getItemCount();
+                    }
+                });
+    }
+
+}
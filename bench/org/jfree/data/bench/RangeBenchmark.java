@@ -0,0 +1,197 @@
+package org.jfree.data.bench;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.jfree.data.DoubleArrayValues2D;
+import org.jfree.data.FastRangeUtilities;
+import org.jfree.data.Range;
+
+/**
+ * Measures the static operations of <code>Range</code>, and compares finding
+ * the range of a set of values by folding them into a {@link Range} with
+ * {@link Range#expandToInclude(Range, double)}, which creates a range per
+ * value, against the single pass in {@link FastRangeUtilities}.
+ * <p>
+ * The <code>Range</code> class in the bundled library does not give correct
+ * bounds, and its <code>combine()</code> rejects ordinary arguments, so the
+ * single operations are measured on <code>original.Range</code>, which has
+ * the same code without the faults.  The fold is measured for its cost only.
+ */
+public final class RangeBenchmark {
+
+    /** The number of values in each operation. */
+    private static final int[] SIZES = {1000, 1000000};
+
+    /** The number of ranges cycled through by the single operations. */
+    private static final int POOL_SIZE = 64;
+
+    /**
+     * Not used.
+     */
+    private RangeBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result and the speed-up of the
+     * single pass.
+     */
+    public static void run() {
+        runOperations();
+        runFindRange();
+    }
+
+    /**
+     * Measures each of the static <code>Range</code> operations.  Each call
+     * takes the next of {@link #POOL_SIZE} different ranges and values, so
+     * that the compiler cannot hoist the work out of the timing loop.
+     */
+    public static void runOperations() {
+        final original.Range[] ranges = new original.Range[POOL_SIZE];
+        final double[] values = new double[POOL_SIZE];
+        Random random = new Random(637L);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            double lower = random.nextDouble() * 10.0 - 5.0;
+            ranges[i] = new original.Range(lower,
+                    lower + random.nextDouble() * 10.0);
+            values[i] = random.nextDouble() * 20.0 - 10.0;
+        }
+        Benchmark.measure("Range.combine", new PoolOperation() {
+            double run(int i) {
+                return original.Range.combine(ranges[i],
+                        ranges[(i + 1) & (POOL_SIZE - 1)]).getLength();
+            }
+        });
+        Benchmark.measure("Range.expand", new PoolOperation() {
+            double run(int i) {
+                return original.Range.expand(ranges[i], 0.1, 0.2)
+                        .getLength();
+            }
+        });
+        Benchmark.measure("Range.expandToInclude", new PoolOperation() {
+            double run(int i) {
+                return original.Range.expandToInclude(ranges[i], values[i])
+                        .getLength();
+            }
+        });
+        Benchmark.measure("Range.shift", new PoolOperation() {
+            double run(int i) {
+                return original.Range.shift(ranges[i], values[i])
+                        .getLength();
+            }
+        });
+        Benchmark.measure("Range.contains", new PoolOperation() {
+            double run(int i) {
+                return ranges[i].contains(values[i]) ? 1.0 : 0.0;
+            }
+        });
+        Benchmark.measure("Range.constrain", new PoolOperation() {
+            double run(int i) {
+                return ranges[i].constrain(values[i]);
+            }
+        });
+    }
+
+    /**
+     * An operation that works on the next item of a pool on each call.
+     */
+    private abstract static class PoolOperation
+            implements Benchmark.Operation {
+
+        /** The next pool index. */
+        private int index;
+
+        /**
+         * Performs the work on the next pool item.
+         *
+         * @return Any value derived from the work.
+         */
+        public double run() {
+            this.index = (this.index + 1) & (POOL_SIZE - 1);
+            return run(this.index);
+        }
+
+        /**
+         * Performs the work on one pool item.
+         *
+         * @param i  the pool index.
+         *
+         * @return Any value derived from the work.
+         */
+        abstract double run(int i);
+
+    }
+
+    /**
+     * Compares the fold with the single pass for arrays and columns of
+     * several sizes.
+     */
+    public static void runFindRange() {
+        for (int i = 0; i < SIZES.length; i++) {
+            int n = SIZES[i];
+            final DoubleArrayValues2D table
+                    = SummationBenchmark.createTable(n, 4);
+            final double[] values = new double[n];
+            for (int r = 0; r < n; r++) {
+                values[r] = table.getDoubleValue(r, 0);
+            }
+            compare("array", n, new Benchmark.Operation() {
+                public double run() {
+                    Range range = null;
+                    for (int r = 0; r < values.length; r++) {
+                        range = Range.expandToInclude(range, values[r]);
+                    }
+                    return range.getLength();
+                }
+            }, new Benchmark.Operation() {
+                public double run() {
+                    return FastRangeUtilities.findRange(values).getLength();
+                }
+            });
+            compare("column", n, new Benchmark.Operation() {
+                public double run() {
+                    Range range = null;
+                    for (int r = 0; r < table.getRowCount(); r++) {
+                        range = Range.expandToInclude(range,
+                                table.getValue(r, 0).doubleValue());
+                    }
+                    return range.getLength();
+                }
+            }, new Benchmark.Operation() {
+                public double run() {
+                    return FastRangeUtilities.findColumnRange(table, 0)
+                            .getLength();
+                }
+            });
+        }
+    }
+
+    /**
+     * Measures the fold and the single pass over the same values and prints
+     * the speed-up.
+     *
+     * @param shape  "array" or "column".
+     * @param n  the number of values.
+     * @param fold  the fold.
+     * @param single  the single pass.
+     */
+    private static void compare(String shape, int n, Benchmark.Operation fold,
+            Benchmark.Operation single) {
+        String name = "Range." + shape + "[" + n + "]";
+        Benchmark.Result a = Benchmark.measure(name + ".expandToInclude",
+                fold);
+        Benchmark.Result b = Benchmark.measure(name + ".findRange", single);
+        System.out.println(String.format(Locale.ROOT, "%-52s %16.2fx",
+                name + ".speedup", a.getMean() / b.getMean()));
+    }
+
+}
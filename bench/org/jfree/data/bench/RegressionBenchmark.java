@@ -0,0 +1,96 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.statistics.Regression;
+import org.jfree.data.statistics.SeriesRegression;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Compares keeping a trend line current over a series that gains an item
+ * on each tick, by refitting with {@link Regression} after every tick and
+ * with a {@link SeriesRegression} listening to the series.
+ */
+public final class RegressionBenchmark {
+
+    /** The maximum number of items in the series. */
+    private static final int ITEMS = 10000;
+
+    /** The number of items appended, and fits read, per operation. */
+    private static final int TICKS = 100;
+
+    /**
+     * Not used.
+     */
+    private RegressionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        final XYSeries plain = createSeries();
+        final XYSeriesCollection dataset = new XYSeriesCollection(plain);
+        final XYSeries listened = createSeries();
+        final SeriesRegression fit = new SeriesRegression(listened);
+        String suffix = "[" + ITEMS + "," + TICKS + "]";
+        Benchmark.measure("Regression.getOLSRegression" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        double total = 0.0;
+                        for (int t = 0; t < TICKS; t++) {
+                            append(plain);
+                            total += Regression.getOLSRegression(dataset,
+                                    0)[1];
+                        }
+                        return total;
+                    }
+                });
+        Benchmark.measure("SeriesRegression.getSlope" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        double total = 0.0;
+                        for (int t = 0; t < TICKS; t++) {
+                            append(listened);
+                            total += fit.getSlope();
+                        }
+                        return total;
+                    }
+                });
+    }
+
+    /**
+     * Creates a full series with a maximum item count.
+     *
+     * @return The series.
+     */
+    private static XYSeries createSeries() {
+        XYSeries series = new XYSeries("S");
+        series.setMaximumItemCount(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            append(series);
+        }
+        return series;
+    }
+
+    /**
+     * Appends the next item to a series, dropping the oldest.
+     *
+     * @param series  the series.
+     */
+    private static void append(XYSeries series) {
+        int count = series.getItemCount();
+        double x = count == 0 ? 0.0 : series.getX(count - 1).doubleValue()
+                + 1.0;
+        series.add(x, Math.sin(x * 0.01) + x * 0.001);
+    }
+
+}
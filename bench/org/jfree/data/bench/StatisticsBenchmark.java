@@ -0,0 +1,68 @@
+package org.jfree.data.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.jfree.data.statistics.Statistics;
+import org.jfree.data.statistics.StatisticsAccumulator;
+import org.jfree.data.statistics.StreamingStatistics;
+
+/**
+ * Compares summarizing a series (mean, standard deviation and median) with
+ * the separate passes of {@link Statistics} and with the single pass of
+ * {@link StreamingStatistics}.
+ */
+public final class StatisticsBenchmark {
+
+    /** The number of values in the series. */
+    private static final int VALUES = 100000;
+
+    /**
+     * Not used.
+     */
+    private StatisticsBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        Random random = new Random(21L);
+        final double[] values = new double[VALUES];
+        final Number[] numbers = new Number[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = random.nextGaussian();
+            numbers[i] = new Double(values[i]);
+        }
+        final List list = Arrays.asList(numbers);
+        String suffix = "[" + VALUES + "]";
+        Benchmark.measure("Statistics.summary" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        return Statistics.calculateMean(numbers)
+                                + Statistics.getStdDev(numbers)
+                                + Statistics.calculateMedian(list, true);
+                    }
+                });
+        Benchmark.measure("StreamingStatistics.summarize" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        StatisticsAccumulator summary
+                                = StreamingStatistics.summarize(values);
+                        return summary.getMean() + summary.getStdDev()
+                                + summary.getMedian();
+                    }
+                });
+    }
+
+}
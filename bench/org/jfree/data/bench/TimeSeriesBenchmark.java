@@ -0,0 +1,80 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.time.FixedMillisecond;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.RingBufferTimeSeries;
+import org.jfree.data.time.TimeSeries;
+
+/**
+ * Compares streaming items into a {@link TimeSeries} and a
+ * {@link RingBufferTimeSeries} with a maximum item count, so that once the
+ * series is full every add also evicts the oldest item.  The periods are
+ * created before timing starts.
+ */
+public final class TimeSeriesBenchmark {
+
+    /** The number of items added by each operation. */
+    private static final int ITEMS = 100000;
+
+    /** The maximum item count of the series. */
+    private static final int MAXIMUM_ITEMS = 20000;
+
+    /**
+     * Not used.
+     */
+    private TimeSeriesBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        final RegularTimePeriod[] periods = new RegularTimePeriod[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            periods[i] = new FixedMillisecond(i);
+        }
+        Benchmark.measure("TimeSeries.add[" + ITEMS + "/" + MAXIMUM_ITEMS
+                + "]", new Benchmark.Operation() {
+                    public double run() {
+                        return stream(new TimeSeries("S",
+                                FixedMillisecond.class), periods);
+                    }
+                });
+        Benchmark.measure("RingBufferTimeSeries.add[" + ITEMS + "/"
+                + MAXIMUM_ITEMS + "]", new Benchmark.Operation() {
+                    public double run() {
+                        return stream(new RingBufferTimeSeries("S",
+                                FixedMillisecond.class), periods);
+                    }
+                });
+    }
+
+    /**
+     * Adds an item for each period to a series limited to
+     * {@link #MAXIMUM_ITEMS} items.
+     *
+     * @param series  the series.
+     * @param periods  the periods.
+     *
+     * @return The value of the last item, so that the work is not optimised
+     *     away.
+     */
+    private static double stream(TimeSeries series,
+            RegularTimePeriod[] periods) {
+        series.setMaximumItemCount(MAXIMUM_ITEMS);
+        for (int i = 0; i < periods.length; i++) {
+            series.add(periods[i], i * 0.5);
+        }
+        return series.getValue(series.getItemCount() - 1).doubleValue();
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.jfree.data.bench;
+
+import org.jfree.data.xy.IndexedXYSeries;
+import org.jfree.data.xy.XYSeries;
+
+/**
+ * Compares finding the y-range of the items in a window of x-values by
+ * scanning a sorted {@link XYSeries} with asking an
+ * {@link IndexedXYSeries}, as a chart zoomed in to part of a long series
+ * does after each change.
+ */
+public final class WindowRangeBenchmark {
+
+    /** The number of items in the series. */
+    private static final int ITEMS = 100000;
+
+    /** The number of windows queried. */
+    private static final int QUERIES = 1000;
+
+    /** The width of each window, in x-units. */
+    private static final int WIDTH = 5000;
+
+    /**
+     * Not used.
+     */
+    private WindowRangeBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  ignored.
+     */
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Runs the benchmarks, printing each result.
+     */
+    public static void run() {
+        final XYSeries plain = new XYSeries("S");
+        final IndexedXYSeries indexed = new IndexedXYSeries("S");
+        for (int i = 0; i < ITEMS; i++) {
+            double y = Math.sin(i * 0.001) * i;
+            plain.add(i, y);
+            indexed.add(i, y);
+        }
+        String suffix = "[" + ITEMS + "," + QUERIES + "x" + WIDTH + "]";
+        Benchmark.measure("XYSeries.scanWindow" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        double total = 0.0;
+                        for (int q = 0; q < QUERIES; q++) {
+                            double lower = lowerX(q);
+                            double upper = lower + WIDTH;
+                            double max = Double.NEGATIVE_INFINITY;
+                            for (int i = 0; i < plain.getItemCount(); i++) {
+                                double x = plain.getX(i).doubleValue();
+                                if (x >= lower && x <= upper) {
+                                    max = Math.max(max,
+                                            plain.getY(i).doubleValue());
+                                }
+                            }
+                            total += max;
+                        }
+                        return total;
+                    }
+                });
+        Benchmark.measure("IndexedXYSeries.getYRange" + suffix,
+                new Benchmark.Operation() {
+                    public double run() {
+                        double total = 0.0;
+                        for (int q = 0; q < QUERIES; q++) {
+                            double lower = lowerX(q);
+                            total += indexed.getYRange(lower, lower + WIDTH)
+                                    .getUpperBound();
+                        }
+                        return total;
+                    }
+                });
+    }
+
+    /**
+     * Returns the lower bound of a window.
+     *
+     * @param query  the query number.
+     *
+     * @return The lower bound.
+     */
+    private static double lowerX(int query) {
+        return (query * 7919L) % (ITEMS - WIDTH);
+    }
+
+}
@@ -0,0 +1,395 @@
+package org.jfree.data;
+
+import java.security.InvalidParameterException;
+import java.util.List;
+
+import org.jfree.util.SortOrder;
+
+/**
+ * A live view of the cumulative percentages of a {@link DefaultKeyedValues}
+ * instance, giving the same values as
+ * {@link FastDataUtilities#getCumulativePercentages(KeyedValues)} without
+ * rebuilding them after every change.
+ * <p>
+ * The view keeps the source values in a Fenwick (binary indexed) tree, so a
+ * cumulative percentage is read, and a value changed or appended, in
+ * O(log n) time.  Changes must be made through the methods of this class so
+ * that the tree stays in step with the source; if the source is changed
+ * directly, call {@link #refresh()}.  Removing or sorting items rebuilds the
+ * tree, in O(n) time, the next time it is read.
+ * <p>
+ * As with <code>getCumulativePercentages()</code>, <code>null</code> values
+ * count as zero, and if the values add up to zero every percentage is NaN.
+ */
+public class CumulativePercentageView implements KeyedValues {
+
+    /** The source values. */
+    private DefaultKeyedValues source;
+
+    /** A copy of the source values, with <code>null</code> as zero. */
+    private double[] values;
+
+    /** The Fenwick tree over <code>values</code>, indexed from one. */
+    private double[] tree;
+
+    /** The number of values held in the tree. */
+    private int count;
+
+    /**
+     * The number of in-place updates since the tree was last built.  The
+     * tree is rebuilt once this exceeds the item count, which stops
+     * rounding errors from repeated updates building up.
+     */
+    private int updates;
+
+    /** Set when the tree must be rebuilt before it is next read. */
+    private boolean stale;
+
+    /**
+     * Creates a new view of the specified values.
+     *
+     * @param source  the source values (<code>null</code> not permitted).
+     *
+     * @throws InvalidParameterException if <code>source</code> is
+     *     <code>null</code>.
+     */
+    public CumulativePercentageView(DefaultKeyedValues source) {
+        if (source == null) {
+            throw new InvalidParameterException("Null 'source' argument.");
+        }
+        this.source = source;
+        this.values = new double[0];
+        this.tree = new double[1];
+        this.stale = true;
+    }
+
+    /**
+     * Returns the source values.
+     *
+     * @return The source values (never <code>null</code>).
+     */
+    public DefaultKeyedValues getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the number of items in the view.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.source.getItemCount();
+    }
+
+    /**
+     * Returns the cumulative percentage for an item.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The cumulative percentage, between 0.0 and 1.0 when the values
+     *     are not negative.
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of
+     *     bounds.
+     */
+    public Number getValue(int item) {
+        return new Double(getCumulativePercentage(item));
+    }
+
+    /**
+     * Returns the cumulative percentage for an item as a primitive.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The cumulative percentage.
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of
+     *     bounds.
+     */
+    public double getCumulativePercentage(int item) {
+        ensureBuilt();
+        if (item < 0 || item >= this.count) {
+            throw new IndexOutOfBoundsException("Item index out of bounds: "
+                    + item);
+        }
+        return prefixSum(item + 1) / prefixSum(this.count);
+    }
+
+    /**
+     * Returns the sum of all the values, with <code>null</code> as zero.
+     *
+     * @return The total.
+     */
+    public double getTotal() {
+        ensureBuilt();
+        return prefixSum(this.count);
+    }
+
+    /**
+     * Returns a key.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The key.
+     */
+    public Comparable getKey(int index) {
+        return this.source.getKey(index);
+    }
+
+    /**
+     * Returns the index for a given key.
+     *
+     * @param key  the key.
+     *
+     * @return The index, or -1 if the key is not recognised.
+     */
+    public int getIndex(Comparable key) {
+        return this.source.getIndex(key);
+    }
+
+    /**
+     * Returns the keys for the items in the view.
+     *
+     * @return The keys.
+     */
+    public List getKeys() {
+        return this.source.getKeys();
+    }
+
+    /**
+     * Returns the cumulative percentage for a given key.
+     *
+     * @param key  the key.
+     *
+     * @return The cumulative percentage.
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public Number getValue(Comparable key) {
+        int index = getIndex(key);
+        if (index < 0) {
+            throw new UnknownKeyException("Key not found: " + key);
+        }
+        return getValue(index);
+    }
+
+    /**
+     * Adds a new value to the source, or updates an existing one.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value.
+     */
+    public void addValue(Comparable key, double value) {
+        setValue(key, new Double(value));
+    }
+
+    /**
+     * Adds a new value to the source, or updates an existing one.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void addValue(Comparable key, Number value) {
+        setValue(key, value);
+    }
+
+    /**
+     * Updates an existing value in the source, or adds a new one.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value.
+     */
+    public void setValue(Comparable key, double value) {
+        setValue(key, new Double(value));
+    }
+
+    /**
+     * Updates an existing value in the source, or adds a new one.  The tree
+     * is updated in O(log n) time; finding the key takes as long as
+     * {@link DefaultKeyedValues#getIndex(Comparable)}.  If the old or new
+     * value, or the total, is infinite or NaN, the tree is rebuilt the next
+     * time it is read instead.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void setValue(Comparable key, Number value) {
+        int index = this.source.getIndex(key);
+        this.source.setValue(key, value);
+        if (this.stale) {
+            return;
+        }
+        double v = value != null ? value.doubleValue() : 0.0;
+        double old = index >= 0 ? this.values[index] : prefixSum(this.count);
+        if (!isFinite(v) || !isFinite(old)) {
+            // an infinite or NaN delta would leave NaN in the tree
+            this.stale = true;
+        }
+        else if (index >= 0) {
+            update(index, v);
+        }
+        else {
+            append(v);
+        }
+    }
+
+    /**
+     * Removes a value from the source.  The tree is rebuilt the next time it
+     * is read.
+     *
+     * @param index  the item index (zero-based).
+     */
+    public void removeValue(int index) {
+        this.source.removeValue(index);
+        this.stale = true;
+    }
+
+    /**
+     * Removes a value from the source, if the key is present.
+     *
+     * @param key  the key.
+     */
+    public void removeValue(Comparable key) {
+        int index = this.source.getIndex(key);
+        if (index >= 0) {
+            removeValue(index);
+        }
+    }
+
+    /**
+     * Sorts the source by key.  The tree is rebuilt the next time it is
+     * read.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByKeys(SortOrder order) {
+        this.source.sortByKeys(order);
+        this.stale = true;
+    }
+
+    /**
+     * Sorts the source by value, which is the usual order for a Pareto
+     * chart.  The tree is rebuilt the next time it is read.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByValues(SortOrder order) {
+        this.source.sortByValues(order);
+        this.stale = true;
+    }
+
+    /**
+     * Rebuilds the view from the source, after the source has been changed
+     * directly.
+     */
+    public void refresh() {
+        this.stale = true;
+    }
+
+    /**
+     * Rebuilds the tree from the source if it is out of date.
+     */
+    private void ensureBuilt() {
+        if (!this.stale) {
+            return;
+        }
+        int n = this.source.getItemCount();
+        if (this.values.length < n) {
+            this.values = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            Number v = this.source.getValue(i);
+            this.values[i] = v != null ? v.doubleValue() : 0.0;
+        }
+        this.count = n;
+        rebuildTree();
+        this.stale = false;
+    }
+
+    /**
+     * Returns <code>true</code> if a value is neither infinite nor NaN.
+     *
+     * @param value  the value.
+     *
+     * @return A boolean.
+     */
+    private static boolean isFinite(double value) {
+        return !Double.isInfinite(value) && !Double.isNaN(value);
+    }
+
+    /**
+     * Builds the tree from <code>values</code> in O(n) time.
+     */
+    private void rebuildTree() {
+        if (this.tree.length < this.values.length + 1) {
+            this.tree = new double[this.values.length + 1];
+        }
+        for (int i = 1; i <= this.count; i++) {
+            this.tree[i] = this.values[i - 1];
+        }
+        for (int i = 1; i <= this.count; i++) {
+            int parent = i + (i & -i);
+            if (parent <= this.count) {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+        this.updates = 0;
+    }
+
+    /**
+     * Replaces the value of an item in the tree.
+     *
+     * @param index  the item index (zero-based).
+     * @param value  the new value.
+     */
+    private void update(int index, double value) {
+        double delta = value - this.values[index];
+        this.values[index] = value;
+        if (++this.updates > this.count) {
+            rebuildTree();
+            return;
+        }
+        for (int i = index + 1; i <= this.count; i += i & -i) {
+            this.tree[i] += delta;
+        }
+    }
+
+    /**
+     * Appends a value to the tree.  The new node covers the values from
+     * <code>i - lowbit(i) + 1</code> to <code>i</code>, and its sum is found
+     * from two prefix sums in O(log n) time.
+     *
+     * @param value  the value.
+     */
+    private void append(double value) {
+        if (this.count == this.values.length) {
+            int capacity = Math.max(16, this.count * 2);
+            double[] v = new double[capacity];
+            System.arraycopy(this.values, 0, v, 0, this.count);
+            this.values = v;
+            double[] t = new double[capacity + 1];
+            System.arraycopy(this.tree, 0, t, 0, this.count + 1);
+            this.tree = t;
+        }
+        int i = this.count + 1;
+        this.values[this.count] = value;
+        this.tree[i] = value + prefixSum(i - 1) - prefixSum(i - (i & -i));
+        this.count = i;
+    }
+
+    /**
+     * Returns the sum of the first <code>n</code> values.
+     *
+     * @param n  the number of values.
+     *
+     * @return The sum.
+     */
+    private double prefixSum(int n) {
+        double sum = 0.0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,289 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.jfree.util.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+import java.security.InvalidParameterException;
+import java.util.Random;
+
+public class CumulativePercentageViewTest {
+
+    private DefaultKeyedValues values;
+    private CumulativePercentageView view;
+
+    @Before
+    public void setUp() {
+        values = new DefaultKeyedValues();
+        values.addValue("0", 5.0);
+        values.addValue("1", 9.0);
+        values.addValue("2", 2.0);
+        view = new CumulativePercentageView(values);
+    }
+
+    /**
+     * Checks that the view matches a full recalculation of its source.
+     */
+    private static void assertMatchesRecalculation(CumulativePercentageView view) {
+        KeyedValues expected = FastDataUtilities.getCumulativePercentages(view.getSource());
+        assertEquals("The item counts should match", expected.getItemCount(), view.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The keys should match", expected.getKey(i), view.getKey(i));
+            assertEquals("The cumulative percentage at " + i + " should match", expected.getValue(i).doubleValue(),
+                    view.getValue(i).doubleValue(), .000000001d);
+        }
+    }
+
+    // ----------------------------
+    // CumulativePercentageView(DefaultKeyedValues source)
+    // source: { EC1: positive values, EC2: null, EC3: null item value,
+    //           EC4: sum of all values = 0, EC5: negative values }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void viewForPositiveValues() {
+        // verify
+        assertEquals("The first cumulative percentage should be 5 / 16", 0.3125, view.getValue(0).doubleValue(),
+                .000000001d);
+        assertEquals("The second cumulative percentage should be 14 / 16", 0.875, view.getValue("1").doubleValue(),
+                .000000001d);
+        assertEquals("The third cumulative percentage should be 1.0", 1.0, view.getValue(2).doubleValue(),
+                .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void viewForNull() {
+        // exercise
+        new CumulativePercentageView(null);
+    }
+
+    // EC3
+    @Test
+    public void viewForDataContainsNull() {
+        // setup
+        values.addValue("3", null);
+
+        // exercise
+        CumulativePercentageView result = new CumulativePercentageView(values);
+
+        // verify
+        assertEquals("The cumulative percentage for a null value should be 1.0", 1.0,
+                result.getValue(3).doubleValue(), .000000001d);
+        assertMatchesRecalculation(result);
+    }
+
+    // EC4
+    @Test
+    public void viewForZeroSum() {
+        // setup
+        DefaultKeyedValues zero = new DefaultKeyedValues();
+        zero.addValue("0", 3.0);
+        zero.addValue("1", -3.0);
+
+        // exercise
+        CumulativePercentageView result = new CumulativePercentageView(zero);
+
+        // verify
+        assertTrue("The cumulative percentage for a zero sum should be NaN",
+                Double.isNaN(result.getValue(1).doubleValue()));
+        assertTrue("The first cumulative percentage should not be finite",
+                Double.isInfinite(result.getValue(0).doubleValue()));
+        assertTrue("The recalculated value should also be NaN",
+                Double.isNaN(FastDataUtilities.getCumulativePercentages(zero).getValue(1).doubleValue()));
+    }
+
+    // EC5
+    @Test
+    public void viewForNegativeValues() {
+        // setup
+        values.addValue("3", -4.0);
+
+        // exercise
+        CumulativePercentageView result = new CumulativePercentageView(values);
+
+        // verify
+        assertEquals("The third cumulative percentage should be 16 / 12", 16.0 / 12.0,
+                result.getValue(2).doubleValue(), .000000001d);
+        assertMatchesRecalculation(result);
+    }
+
+    // ----------------------------
+    // getValue(int item) / getValue(Comparable key)
+    // item: { BLB: -1, UB: itemCount }, key: { EC1: unknown key }
+    // ----------------------------
+
+    // BLB
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueBelowLowerBound() {
+        // exercise
+        view.getValue(-1);
+    }
+
+    // UB
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueAboveUpperBound() {
+        // exercise
+        view.getValue(3);
+    }
+
+    // EC1
+    @Test(expected = UnknownKeyException.class)
+    public void getValueForUnknownKey() {
+        // exercise
+        view.getValue("X");
+    }
+
+    // ----------------------------
+    // setValue / addValue / removeValue / sortByValues
+    // { EC1: update existing key, EC2: append new key, EC3: set null,
+    //   EC4: remove, EC5: sort, EC6: source changed directly }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void setValueUpdatesExistingKey() {
+        // exercise
+        view.setValue("0", 1.0);
+
+        // verify
+        assertEquals("The first cumulative percentage should be 1 / 12", 1.0 / 12.0,
+                view.getValue(0).doubleValue(), .000000001d);
+        assertEquals("The source should be updated", 1.0, values.getValue("0").doubleValue(), .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC2
+    @Test
+    public void addValueAppendsNewKey() {
+        // exercise
+        view.addValue("3", 4.0);
+
+        // verify
+        assertEquals("The item count should be 4", 4, view.getItemCount());
+        assertEquals("The third cumulative percentage should be 16 / 20", 0.8, view.getValue(2).doubleValue(),
+                .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC3
+    @Test
+    public void setValueToNull() {
+        // exercise
+        view.setValue("1", (Number) null);
+
+        // verify
+        assertEquals("The second cumulative percentage should be 5 / 7", 5.0 / 7.0,
+                view.getValue(1).doubleValue(), .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC4
+    @Test
+    public void removeValueByKey() {
+        // exercise
+        view.removeValue("1");
+
+        // verify
+        assertEquals("The item count should be 2", 2, view.getItemCount());
+        assertEquals("The first cumulative percentage should be 5 / 7", 5.0 / 7.0,
+                view.getValue(0).doubleValue(), .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC5
+    @Test
+    public void sortByValuesDescending() {
+        // exercise
+        view.sortByValues(SortOrder.DESCENDING);
+
+        // verify
+        assertEquals("The largest value should come first", "1", view.getKey(0));
+        assertEquals("The first cumulative percentage should be 9 / 16", 0.5625, view.getValue(0).doubleValue(),
+                .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC6
+    @Test
+    public void refreshAfterDirectChange() {
+        // setup
+        view.getValue(0);
+        values.setValue("2", 10.0);
+
+        // exercise
+        view.refresh();
+
+        // verify
+        assertEquals("The total should include the direct change", 24.0, view.getTotal(), .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC1
+    @Test
+    public void setValueToInfinityAndBack() {
+        // setup
+        for (int i = 3; i < 10; i++) {
+            view.setValue(String.valueOf(i), 1.0);
+        }
+        view.getValue(0);
+
+        // exercise
+        view.setValue("3", Double.POSITIVE_INFINITY);
+        view.getValue(0);
+        view.setValue("4", 2.0);
+        view.setValue("3", 1.0);
+
+        // verify
+        assertEquals("The last cumulative percentage should be 1", 1.0, view.getValue(9).doubleValue(),
+                .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    // EC3
+    @Test
+    public void setValueToNaNAndBack() {
+        // setup
+        view.getValue(0);
+
+        // exercise
+        view.setValue("1", Double.NaN);
+        view.getValue(0);
+        view.addValue("3", 4.0);
+        view.setValue("1", 9.0);
+
+        // verify
+        assertEquals("The total should be finite again", 20.0, view.getTotal(), .000000001d);
+        assertMatchesRecalculation(view);
+    }
+
+    @Test
+    public void randomChangesMatchRecalculation() {
+        // setup
+        Random random = new Random(637L);
+        DefaultKeyedValues source = new DefaultKeyedValues();
+        CumulativePercentageView result = new CumulativePercentageView(source);
+
+        // exercise and verify
+        for (int i = 0; i < 500; i++) {
+            String key = String.valueOf(random.nextInt(100));
+            int action = random.nextInt(10);
+            if (action == 0) {
+                result.removeValue(key);
+            }
+            else if (action == 1) {
+                result.setValue(key, (Number) null);
+            }
+            else {
+                result.setValue(key, random.nextDouble() * 100.0);
+            }
+            if (result.getItemCount() > 0) {
+                result.getValue(0);
+            }
+        }
+        assertMatchesRecalculation(result);
+    }
+
+}
@@ -0,0 +1,724 @@
+package org.jfree.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.jfree.util.PublicCloneable;
+import org.jfree.util.SortOrder;
+
+/**
+ * An ordered list of (key, value) items with the same behaviour as
+ * {@link DefaultKeyedValues}, stored in columns: the keys in one array, the
+ * values in a <code>double</code> array and the <code>null</code> values in
+ * a bit mask.  No object is held per item apart from the key, so the list
+ * takes a fraction of the memory of a <code>DefaultKeyedValues</code>, which
+ * holds a {@link DefaultKeyedValue} and a boxed <code>Number</code> for
+ * each item.
+ * <p>
+ * Keys are found through an open-addressing hash table of item indices, so
+ * lookups by key take constant time, as in {@link IndexedKeyedValues}.  The
+ * sorts reorder an array of item indices with a stable merge sort that
+ * compares the primitive values directly.  As in
+ * <code>DefaultKeyedValues</code>, <code>null</code> values sort last in
+ * either order; the position of <code>Double.NaN</code> values after a sort
+ * by value is not defined.
+ */
+public class DoubleArrayKeyedValues implements KeyedValues, Cloneable,
+        PublicCloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3296108421532380785L;
+
+    /** The capacity of a new, empty list. */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** The length below which the value sort uses insertion sort. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /** The number of items. */
+    private int count;
+
+    /** The keys, in item order. */
+    private Comparable[] keys;
+
+    /** The values, in item order.  <code>null</code> values hold 0.0. */
+    private double[] values;
+
+    /** A bit for each item whose value is <code>null</code>. */
+    private BitSet nulls;
+
+    /**
+     * The hash table: each slot holds an item index plus one, or zero if the
+     * slot is free.  The length is a power of two, at least twice the item
+     * count.
+     */
+    private transient int[] slots;
+
+    /**
+     * Creates a new, empty list.
+     */
+    public DoubleArrayKeyedValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty list with room for the specified number of items
+     * before the arrays need to grow.
+     *
+     * @param capacity  the initial capacity (must be >= 0).
+     */
+    public DoubleArrayKeyedValues(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative 'capacity' argument.");
+        }
+        this.keys = new Comparable[capacity];
+        this.values = new double[capacity];
+        this.nulls = new BitSet();
+        this.slots = new int[tableSize(capacity)];
+    }
+
+    /**
+     * Creates a new list containing the items of another, in the same order.
+     *
+     * @param source  the source (<code>null</code> not permitted).
+     */
+    public DoubleArrayKeyedValues(KeyedValues source) {
+        this(checkSource(source).getItemCount());
+        int itemCount = source.getItemCount();
+        for (int i = 0; i < itemCount; i++) {
+            addValue(source.getKey(i), source.getValue(i));
+        }
+    }
+
+    /**
+     * Returns the source after checking it is not <code>null</code>.
+     *
+     * @param source  the source.
+     *
+     * @return The source.
+     */
+    private static KeyedValues checkSource(KeyedValues source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        return source;
+    }
+
+    /**
+     * Returns the number of items (values) in the collection.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param item  the item of interest (zero-based index).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of bounds.
+     */
+    public Number getValue(int item) {
+        checkItem(item);
+        if (this.nulls.get(item)) {
+            return null;
+        }
+        return new Double(this.values[item]);
+    }
+
+    /**
+     * Returns a value as a primitive.
+     *
+     * @param item  the item of interest (zero-based index).
+     *
+     * @return The value, or <code>Double.NaN</code> if it is
+     *     <code>null</code>.
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of bounds.
+     */
+    public double getDoubleValue(int item) {
+        checkItem(item);
+        return this.nulls.get(item) ? Double.NaN : this.values[item];
+    }
+
+    /**
+     * Returns <code>true</code> if the value of an item is <code>null</code>.
+     *
+     * @param item  the item of interest (zero-based index).
+     *
+     * @return A boolean.
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of bounds.
+     */
+    public boolean isNull(int item) {
+        checkItem(item);
+        return this.nulls.get(item);
+    }
+
+    /**
+     * Returns a key.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The key.
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public Comparable getKey(int index) {
+        checkItem(index);
+        return this.keys[index];
+    }
+
+    /**
+     * Returns the index for a given key.
+     *
+     * @param key  the key (<code>null</code> permitted).
+     *
+     * @return The index, or <code>-1</code> if the key is not recognised.
+     */
+    public int getIndex(Comparable key) {
+        if (key == null) {
+            return -1;
+        }
+        int mask = this.slots.length - 1;
+        for (int s = hash(key) & mask; this.slots[s] != 0;
+                s = (s + 1) & mask) {
+            int index = this.slots[s] - 1;
+            if (this.keys[index].equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the keys for the values in the collection.
+     *
+     * @return The keys (never <code>null</code>).
+     */
+    public List getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(
+                Arrays.copyOf(this.keys, this.count)));
+    }
+
+    /**
+     * Returns the value for a given key.
+     *
+     * @param key  the key.
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public Number getValue(Comparable key) {
+        int index = getIndex(key);
+        if (index < 0) {
+            throw new UnknownKeyException("Key not found: " + key);
+        }
+        return getValue(index);
+    }
+
+    /**
+     * Updates an existing value, or adds a new value to the collection.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value.
+     */
+    public void addValue(Comparable key, double value) {
+        setValue(key, value);
+    }
+
+    /**
+     * Updates an existing value, or adds a new value to the collection.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void addValue(Comparable key, Number value) {
+        setValue(key, value);
+    }
+
+    /**
+     * Updates an existing value, or adds a new value to the collection.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value.
+     */
+    public void setValue(Comparable key, double value) {
+        int index = findOrAdd(key);
+        this.values[index] = value;
+        this.nulls.clear(index);
+    }
+
+    /**
+     * Updates an existing value, or adds a new value to the collection.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void setValue(Comparable key, Number value) {
+        int index = findOrAdd(key);
+        if (value == null) {
+            this.values[index] = 0.0;
+            this.nulls.set(index);
+        }
+        else {
+            this.values[index] = value.doubleValue();
+            this.nulls.clear(index);
+        }
+    }
+
+    /**
+     * Removes a value from the collection.
+     *
+     * @param index  the index of the item to remove.
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public void removeValue(int index) {
+        checkItem(index);
+        int moved = this.count - index - 1;
+        System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+        System.arraycopy(this.values, index + 1, this.values, index, moved);
+        for (int i = index; i < this.count - 1; i++) {
+            this.nulls.set(i, this.nulls.get(i + 1));
+        }
+        this.count--;
+        this.keys[this.count] = null;
+        this.values[this.count] = 0.0;
+        this.nulls.clear(this.count);
+        rehash(this.slots.length);
+    }
+
+    /**
+     * Removes a value from the collection.  Does nothing if the key is not
+     * recognised.
+     *
+     * @param key  the key of the item to remove.
+     */
+    public void removeValue(Comparable key) {
+        int index = getIndex(key);
+        if (index >= 0) {
+            removeValue(index);
+        }
+    }
+
+    /**
+     * Sorts the items in the collection by key.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByKeys(SortOrder order) {
+        int sign = direction(order);
+        int[] permutation = identity(this.count);
+        int[] buffer = new int[this.count];
+        mergeSortByKey(permutation, buffer, 0, this.count, sign);
+        permute(permutation);
+    }
+
+    /**
+     * Sorts the items in the collection by value.  <code>null</code> values
+     * are placed last, in their current order.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByValues(SortOrder order) {
+        int sign = direction(order);
+        int nonNull = this.count - this.nulls.cardinality();
+        int[] permutation = new int[this.count];
+        double[] sortValues = new double[nonNull];
+        int n = 0;
+        int m = nonNull;
+        for (int i = 0; i < this.count; i++) {
+            if (this.nulls.get(i)) {
+                permutation[m++] = i;
+            }
+            else {
+                // negating the values turns a descending sort into an
+                // ascending one without disturbing ties
+                sortValues[n] = sign * this.values[i];
+                permutation[n++] = i;
+            }
+        }
+        mergeSort(sortValues, permutation, new double[nonNull / 2 + 1],
+                new int[nonNull / 2 + 1], 0, nonNull);
+        permute(permutation);
+    }
+
+    /**
+     * Returns +1 for an ascending and -1 for a descending sort order.
+     *
+     * @param order  the sort order.
+     *
+     * @return The sign to apply to each comparison.
+     */
+    private static int direction(SortOrder order) {
+        if (SortOrder.ASCENDING.equals(order)) {
+            return 1;
+        }
+        if (SortOrder.DESCENDING.equals(order)) {
+            return -1;
+        }
+        throw new IllegalArgumentException("Unrecognised sort order.");
+    }
+
+    /**
+     * Returns the array {0, 1, ..., n - 1}.
+     *
+     * @param n  the length.
+     *
+     * @return The array.
+     */
+    private static int[] identity(int n) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    /**
+     * Sorts a range of values into ascending order, moving the item indices
+     * alongside them and keeping equal values in their current order.  The
+     * values are compared where they lie rather than through the indices, so
+     * the sort reads memory sequentially.
+     *
+     * @param v  the values.
+     * @param index  the item index of each value.
+     * @param vBuffer  a work array at least half as long as the range, plus
+     *     one.
+     * @param indexBuffer  a work array of the same length.
+     * @param from  the first position.
+     * @param to  the position after the last.
+     */
+    private static void mergeSort(double[] v, int[] index, double[] vBuffer,
+            int[] indexBuffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                double x = v[i];
+                int xIndex = index[i];
+                int j = i - 1;
+                while (j >= from && v[j] > x) {
+                    v[j + 1] = v[j];
+                    index[j + 1] = index[j];
+                    j--;
+                }
+                v[j + 1] = x;
+                index[j + 1] = xIndex;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(v, index, vBuffer, indexBuffer, from, middle);
+        mergeSort(v, index, vBuffer, indexBuffer, middle, to);
+        if (!(v[middle - 1] > v[middle])) {
+            return;
+        }
+        int left = middle - from;
+        System.arraycopy(v, from, vBuffer, 0, left);
+        System.arraycopy(index, from, indexBuffer, 0, left);
+        int i = 0;
+        int j = middle;
+        int k = from;
+        while (i < left && j < to) {
+            if (v[j] < vBuffer[i]) {
+                v[k] = v[j];
+                index[k++] = index[j++];
+            }
+            else {
+                v[k] = vBuffer[i];
+                index[k++] = indexBuffer[i++];
+            }
+        }
+        System.arraycopy(vBuffer, i, v, k, left - i);
+        System.arraycopy(indexBuffer, i, index, k, left - i);
+    }
+
+    /**
+     * Sorts a range of item indices by key, keeping equal keys in their
+     * current order.
+     *
+     * @param a  the item indices.
+     * @param buffer  a work array at least as long as the range.
+     * @param from  the first position.
+     * @param to  the position after the last.
+     * @param sign  +1 to sort ascending, -1 to sort descending.
+     */
+    private void mergeSortByKey(int[] a, int[] buffer, int from, int to,
+            int sign) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSortByKey(a, buffer, from, middle, sign);
+        mergeSortByKey(a, buffer, middle, to, sign);
+        Comparable[] k0 = this.keys;
+        if (signum(k0[a[middle - 1]].compareTo(k0[a[middle]])) * sign <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, buffer, 0, middle - from);
+        int i = 0;
+        int left = middle - from;
+        int j = middle;
+        int k = from;
+        while (i < left && j < to) {
+            if (signum(k0[a[j]].compareTo(k0[buffer[i]])) * sign < 0) {
+                a[k++] = a[j++];
+            }
+            else {
+                a[k++] = buffer[i++];
+            }
+        }
+        System.arraycopy(buffer, i, a, k, left - i);
+    }
+
+    /**
+     * Returns the sign of a comparison result.
+     *
+     * @param c  the comparison result.
+     *
+     * @return -1, 0 or 1.
+     */
+    private static int signum(int c) {
+        return c > 0 ? 1 : (c < 0 ? -1 : 0);
+    }
+
+    /**
+     * Rearranges the items so that item <code>i</code> becomes the item
+     * previously at <code>order[i]</code>.
+     *
+     * @param order  the new order of the current item indices.
+     */
+    private void permute(int[] order) {
+        Comparable[] newKeys = new Comparable[this.keys.length];
+        double[] newValues = new double[this.values.length];
+        BitSet newNulls = new BitSet();
+        for (int i = 0; i < this.count; i++) {
+            int j = order[i];
+            newKeys[i] = this.keys[j];
+            newValues[i] = this.values[j];
+            if (this.nulls.get(j)) {
+                newNulls.set(i);
+            }
+        }
+        this.keys = newKeys;
+        this.values = newValues;
+        this.nulls = newNulls;
+        rehash(this.slots.length);
+    }
+
+    /**
+     * Returns the index of the item with the specified key, appending a new
+     * item with a <code>null</code> value if there is none.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     *
+     * @return The item index.
+     */
+    private int findOrAdd(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        int mask = this.slots.length - 1;
+        int s = hash(key) & mask;
+        for (; this.slots[s] != 0; s = (s + 1) & mask) {
+            int index = this.slots[s] - 1;
+            if (this.keys[index].equals(key)) {
+                return index;
+            }
+        }
+        int index = this.count;
+        if (index == this.keys.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, index + (index >> 1));
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        this.keys[index] = key;
+        this.values[index] = 0.0;
+        this.nulls.set(index);
+        this.count++;
+        if (2 * this.count > this.slots.length) {
+            rehash(tableSize(this.count));
+        }
+        else {
+            this.slots[s] = index + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Rebuilds the hash table from the keys.
+     *
+     * @param size  the table length (a power of two, at least twice the item
+     *     count).
+     */
+    private void rehash(int size) {
+        int[] table = new int[size];
+        int mask = size - 1;
+        for (int i = 0; i < this.count; i++) {
+            int s = hash(this.keys[i]) & mask;
+            while (table[s] != 0) {
+                s = (s + 1) & mask;
+            }
+            table[s] = i + 1;
+        }
+        this.slots = table;
+    }
+
+    /**
+     * Returns the smallest power of two that is at least twice the specified
+     * item count, and at least 16.
+     *
+     * @param itemCount  the item count.
+     *
+     * @return The table length.
+     */
+    private static int tableSize(int itemCount) {
+        int size = 16;
+        while (size < 2 * itemCount) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the hash code of a key with its bits spread, so that keys whose
+     * hash codes differ only in the high bits use different slots.
+     *
+     * @param key  the key.
+     *
+     * @return The spread hash code.
+     */
+    private static int hash(Comparable key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Throws an exception if an item index is out of bounds.
+     *
+     * @param item  the item index.
+     */
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.count) {
+            throw new IndexOutOfBoundsException("Index: " + item + ", Size: "
+                    + this.count);
+        }
+    }
+
+    /**
+     * Returns the value array, for {@link FastDataUtilities}.  Only the first
+     * {@link #getItemCount()} entries are in use, and entries flagged in
+     * {@link #getNullMask()} hold <code>0.0</code>.
+     *
+     * @return The value array (not a copy).
+     */
+    double[] getData() {
+        return this.values;
+    }
+
+    /**
+     * Returns the mask of <code>null</code> values, indexed as
+     * {@link #getData()}.
+     *
+     * @return The mask (not a copy).
+     */
+    BitSet getNullMask() {
+        return this.nulls;
+    }
+
+    /**
+     * Tests if this object is equal to another.  Any {@link KeyedValues} with
+     * the same keys and values, in the same order, is equal, as for
+     * {@link DefaultKeyedValues}.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof KeyedValues)) {
+            return false;
+        }
+        KeyedValues that = (KeyedValues) obj;
+        if (this.count != that.getItemCount()) {
+            return false;
+        }
+        for (int i = 0; i < this.count; i++) {
+            if (!this.keys[i].equals(that.getKey(i))) {
+                return false;
+            }
+            Number v1 = getValue(i);
+            Number v2 = that.getValue(i);
+            if (v1 == null) {
+                if (v2 != null) {
+                    return false;
+                }
+            }
+            else if (!v1.equals(v2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.count;
+        for (int i = 0; i < this.count; i++) {
+            result = 29 * result + this.keys[i].hashCode();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a clone.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException  this class will not throw this
+     *         exception, but subclasses (if any) might.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DoubleArrayKeyedValues clone = (DoubleArrayKeyedValues) super.clone();
+        clone.keys = (Comparable[]) this.keys.clone();
+        clone.values = (double[]) this.values.clone();
+        clone.nulls = (BitSet) this.nulls.clone();
+        clone.slots = (int[]) this.slots.clone();
+        return clone;
+    }
+
+    /**
+     * Restores a serialized object, rebuilding the hash table, since key
+     * hash codes need not be the same in another virtual machine.
+     *
+     * @param stream  the input stream.
+     *
+     * @throws IOException  if there is an I/O error.
+     * @throws ClassNotFoundException  if there is a classpath problem.
+     */
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        rehash(tableSize(this.count));
+    }
+
+}
@@ -0,0 +1,295 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.jfree.util.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+public class DoubleArrayKeyedValuesTest {
+
+    private DoubleArrayKeyedValues values;
+
+    @Before
+    public void setUp() {
+        values = new DoubleArrayKeyedValues();
+        values.addValue("C", 3.0);
+        values.addValue("A", null);
+        values.addValue("B", 2.0);
+    }
+
+    /**
+     * Checks that the keys and values match a DefaultKeyedValues item for item,
+     * and that every key is found at its position.
+     */
+    private static void assertMatches(KeyedValues expected, DoubleArrayKeyedValues actual) {
+        assertEquals("The item counts should match", expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The keys should match", expected.getKey(i), actual.getKey(i));
+            assertEquals("The values should match", expected.getValue(i), actual.getValue(i));
+            assertEquals("The index should match", i, actual.getIndex(actual.getKey(i)));
+        }
+    }
+
+    // ----------------------------
+    // getValue(int item) / getDoubleValue(int item) / isNull(int item)
+    // item: { EC1: non-null value, EC2: null value, EC3: out of range }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getValueForNonNullItem() {
+        // verify
+        assertEquals("The value of C should be 3.0", 3.0, values.getValue(0).doubleValue(), .000000001d);
+        assertEquals("The primitive value of C should be 3.0", 3.0, values.getDoubleValue(0), .000000001d);
+        assertFalse("C should not be null", values.isNull(0));
+    }
+
+    // EC2
+    @Test
+    public void getValueForNullItem() {
+        // verify
+        assertNull("The value of A should be null", values.getValue(1));
+        assertTrue("The primitive value of A should be NaN", Double.isNaN(values.getDoubleValue(1)));
+        assertTrue("A should be null", values.isNull(1));
+    }
+
+    // EC3
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueForItemOutOfRange() {
+        // exercise
+        values.getValue(3);
+    }
+
+    // ----------------------------
+    // getValue(Comparable key) / getIndex(Comparable key)
+    // key: { EC1: present, EC2: absent, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getValueForPresentKey() {
+        // verify
+        assertEquals("The value of B should be 2.0", 2.0, values.getValue("B").doubleValue(), .000000001d);
+        assertEquals("The index of B should be 2", 2, values.getIndex("B"));
+    }
+
+    // EC2
+    @Test(expected = UnknownKeyException.class)
+    public void getValueForAbsentKey() {
+        // exercise
+        values.getValue("Z");
+    }
+
+    // EC3
+    @Test
+    public void getIndexForNullKey() {
+        // verify
+        assertEquals("The index of a null key should be -1", -1, values.getIndex(null));
+    }
+
+    // ----------------------------
+    // setValue(Comparable key, Number value)
+    // key: { EC1: new, EC2: existing, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void setValueForNewKey() {
+        // exercise
+        values.setValue("D", new Double(4.0));
+
+        // verify
+        assertEquals("The new key should be appended", 3, values.getIndex("D"));
+        assertEquals("The item count should grow", 4, values.getItemCount());
+    }
+
+    // EC2
+    @Test
+    public void setValueForExistingKey() {
+        // exercise
+        values.setValue("A", new Double(1.0));
+
+        // verify
+        assertEquals("The item count should not change", 3, values.getItemCount());
+        assertEquals("A should now hold 1.0", 1.0, values.getValue("A").doubleValue(), .000000001d);
+        assertFalse("A should no longer be null", values.isNull(1));
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void setValueForNullKey() {
+        // exercise
+        values.setValue(null, 1.0);
+    }
+
+    // ----------------------------
+    // removeValue(Comparable key)
+    // key: { EC1: present, EC2: absent }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void removeValueForPresentKey() {
+        // exercise
+        values.removeValue("C");
+
+        // verify
+        assertEquals("C should not be found", -1, values.getIndex("C"));
+        assertTrue("A should keep its null value after moving", values.isNull(0));
+        assertEquals("B should move down", 1, values.getIndex("B"));
+    }
+
+    // EC2
+    @Test
+    public void removeValueForAbsentKey() {
+        // exercise
+        values.removeValue("Z");
+
+        // verify
+        assertEquals("The item count should not change", 3, values.getItemCount());
+    }
+
+    // ----------------------------
+    // sortByValues(SortOrder order)
+    // order: { EC1: ascending, EC2: descending }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void sortByValuesAscendingPutsNullLast() {
+        // exercise
+        values.sortByValues(SortOrder.ASCENDING);
+
+        // verify
+        assertEquals("B should come first", 0, values.getIndex("B"));
+        assertEquals("C should come second", 1, values.getIndex("C"));
+        assertEquals("The null value should come last", 2, values.getIndex("A"));
+    }
+
+    // EC2
+    @Test
+    public void sortByValuesDescendingPutsNullLast() {
+        // exercise
+        values.sortByValues(SortOrder.DESCENDING);
+
+        // verify
+        assertEquals("C should come first", 0, values.getIndex("C"));
+        assertEquals("The null value should come last", 2, values.getIndex("A"));
+        assertTrue("The last item should be null", values.isNull(2));
+    }
+
+    @Test
+    public void sortByValuesIsStable() {
+        // setup
+        DoubleArrayKeyedValues equal = new DoubleArrayKeyedValues();
+        for (int i = 0; i < 100; i++) {
+            equal.addValue("K" + i, i % 2);
+        }
+
+        // exercise
+        equal.sortByValues(SortOrder.DESCENDING);
+
+        // verify
+        for (int i = 0; i < 50; i++) {
+            assertEquals("Equal values should keep their order", "K" + (2 * i + 1), equal.getKey(i));
+            assertEquals("Equal values should keep their order", "K" + (2 * i), equal.getKey(50 + i));
+        }
+    }
+
+    // ----------------------------
+    // equals / clone / serialization
+    // ----------------------------
+
+    @Test
+    public void equalsDefaultKeyedValuesWithSameItems() {
+        // setup
+        DefaultKeyedValues other = new DefaultKeyedValues();
+        other.addValue("C", 3.0);
+        other.addValue("A", null);
+        other.addValue("B", 2.0);
+
+        // verify
+        assertTrue("The collections should be equal", values.equals(other));
+        assertMatches(other, values);
+    }
+
+    @Test
+    public void cloneIsIndependent() throws CloneNotSupportedException {
+        // setup
+        DoubleArrayKeyedValues clone = (DoubleArrayKeyedValues) values.clone();
+
+        // exercise
+        clone.setValue("C", 30.0);
+        clone.removeValue("B");
+
+        // verify
+        assertEquals("The original value should not change", 3.0, values.getDoubleValue(0), .000000001d);
+        assertEquals("The original should keep B", 2, values.getIndex("B"));
+        assertEquals("The clone should lose B", -1, clone.getIndex("B"));
+    }
+
+    @Test
+    public void serializationRestoresLookups() throws Exception {
+        // setup
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(buffer);
+        out.writeObject(values);
+        out.close();
+
+        // exercise
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        DoubleArrayKeyedValues restored = (DoubleArrayKeyedValues) in.readObject();
+        in.close();
+
+        // verify
+        assertMatches(values, restored);
+        assertEquals("B should still be found by key", 2, restored.getIndex("B"));
+    }
+
+    // ----------------------------
+    // random sequence of operations, compared with DefaultKeyedValues
+    // ----------------------------
+
+    @Test
+    public void randomOperationsMatchDefaultKeyedValues() {
+        // setup
+        Random random = new Random(2012L);
+        DefaultKeyedValues expected = new DefaultKeyedValues();
+        DoubleArrayKeyedValues actual = new DoubleArrayKeyedValues(0);
+
+        // exercise
+        for (int step = 0; step < 3000; step++) {
+            String key = "K" + random.nextInt(200);
+            int op = random.nextInt(20);
+            if (op < 12) {
+                Double value = new Double(random.nextInt(50));
+                expected.setValue(key, value);
+                actual.setValue(key, value);
+            }
+            else if (op < 18) {
+                expected.removeValue(key);
+                actual.removeValue(key);
+            }
+            else if (op == 18) {
+                SortOrder order = random.nextBoolean() ? SortOrder.ASCENDING : SortOrder.DESCENDING;
+                expected.sortByKeys(order);
+                actual.sortByKeys(order);
+            }
+            else {
+                SortOrder order = random.nextBoolean() ? SortOrder.ASCENDING : SortOrder.DESCENDING;
+                expected.sortByValues(order);
+                actual.sortByValues(order);
+            }
+
+            // verify
+            assertMatches(expected, actual);
+            assertEquals("The indices should match", expected.getIndex(key), actual.getIndex(key));
+        }
+    }
+
+}
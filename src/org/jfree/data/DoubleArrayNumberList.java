@@ -0,0 +1,62 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of <code>Number</code> objects backed directly by an array
+ * of <code>double</code> primitives.  The array is not copied, so the list
+ * costs eight bytes per value; a <code>Double</code> is created only when an
+ * element is read.  Changes to the array show through the list.
+ */
+final class DoubleArrayNumberList extends AbstractList<Number>
+        implements RandomAccess, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3189507726813940521L;
+
+    /** The backing array. */
+    private final double[] data;
+
+    /**
+     * Creates a new list backed by the specified array.
+     *
+     * @param data  the array (<code>null</code> not permitted).
+     */
+    DoubleArrayNumberList(double[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Returns the value at the specified position.
+     *
+     * @param index  the index.
+     *
+     * @return The value (never <code>null</code>).
+     */
+    public Number get(int index) {
+        return new Double(this.data[index]);
+    }
+
+    /**
+     * Returns the value at the specified position as a primitive.
+     *
+     * @param index  the index.
+     *
+     * @return The value.
+     */
+    double getDouble(int index) {
+        return this.data[index];
+    }
+
+    /**
+     * Returns the number of values in the list.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return this.data.length;
+    }
+
+}
@@ -0,0 +1,331 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A dense table of values backed by a single row-major array of
+ * <code>double</code> primitives.  Cells that hold no value are tracked in a
+ * separate bit mask, so <code>Double.NaN</code> remains a legitimate cell
+ * value and is not confused with <code>null</code>.
+ * <p>
+ * {@link FastDataUtilities} recognises this class and sums its cells directly
+ * from the backing array, without creating a <code>Number</code> per cell.
+ */
+public class DoubleArrayValues2D implements Values2D, Cloneable,
+        PublicCloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2405071624390212349L;
+
+    /** The number of rows. */
+    private int rowCount;
+
+    /** The number of columns. */
+    private int columnCount;
+
+    /** The cell values, in row-major order. */
+    private double[] data;
+
+    /** A bit for each cell in <code>data</code> that holds no value. */
+    private BitSet nulls;
+
+    /**
+     * Creates a new table with the specified dimensions, in which every cell
+     * is <code>null</code>.
+     *
+     * @param rowCount  the number of rows (must be >= 0).
+     * @param columnCount  the number of columns (must be >= 0).
+     *
+     * @throws InvalidParameterException if either dimension is negative or
+     *     the table would exceed the maximum array size.
+     */
+    public DoubleArrayValues2D(int rowCount, int columnCount) {
+        if (rowCount < 0 || columnCount < 0) {
+            throw new InvalidParameterException("Negative table dimension.");
+        }
+        long cells = (long) rowCount * columnCount;
+        if (cells > Integer.MAX_VALUE) {
+            throw new InvalidParameterException("Table too large.");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.data = new double[(int) cells];
+        this.nulls = new BitSet((int) cells);
+        this.nulls.set(0, (int) cells);
+    }
+
+    /**
+     * Creates a new table containing a copy of the supplied data.  All rows
+     * must have the same length, and every cell is non-<code>null</code>.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     *
+     * @throws InvalidParameterException if <code>data</code> is
+     *     <code>null</code>, contains a <code>null</code> row, or is not
+     *     rectangular.
+     */
+    public DoubleArrayValues2D(double[][] data) {
+        this(rowCount(data), data.length == 0 ? 0 : data[0].length);
+        for (int r = 0; r < this.rowCount; r++) {
+            if (data[r] == null || data[r].length != this.columnCount) {
+                throw new InvalidParameterException(
+                        "Rows must be non-null and of equal length.");
+            }
+            System.arraycopy(data[r], 0, this.data, r * this.columnCount,
+                    this.columnCount);
+        }
+        this.nulls.clear();
+    }
+
+    /**
+     * Creates a new table backed by the supplied row-major array, which is
+     * not copied.  This lets a reader that has already gathered the values
+     * into a primitive buffer hand them over without a second copy.
+     *
+     * @param rowCount  the number of rows (must be >= 0).
+     * @param columnCount  the number of columns (must be >= 0).
+     * @param data  the cell values in row-major order, exactly
+     *     <code>rowCount * columnCount</code> of them (<code>null</code> not
+     *     permitted).
+     * @param nulls  a bit for each cell that holds no value
+     *     (<code>null</code> permitted, meaning no cell is
+     *     <code>null</code>).  The set is not copied, and the flagged cells
+     *     must hold <code>0.0</code> in <code>data</code>.
+     *
+     * @throws InvalidParameterException if <code>data</code> is
+     *     <code>null</code>, a dimension is negative, or the length of
+     *     <code>data</code> does not match the dimensions.
+     */
+    public DoubleArrayValues2D(int rowCount, int columnCount, double[] data,
+            BitSet nulls) {
+        if (data == null) {
+            throw new InvalidParameterException("Null 'data' argument.");
+        }
+        if (rowCount < 0 || columnCount < 0) {
+            throw new InvalidParameterException("Negative table dimension.");
+        }
+        if ((long) rowCount * columnCount != data.length) {
+            throw new InvalidParameterException(
+                    "Array length does not match the table dimensions.");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.data = data;
+        this.nulls = nulls != null ? nulls : new BitSet();
+    }
+
+    /**
+     * Returns the number of rows in <code>data</code>, after checking it is
+     * not <code>null</code>.
+     *
+     * @param data  the data.
+     *
+     * @return The row count.
+     */
+    private static int rowCount(double[][] data) {
+        if (data == null) {
+            throw new InvalidParameterException("Null 'data' argument.");
+        }
+        return data.length;
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the number of columns in the table.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns a value from the table.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    public Number getValue(int row, int column) {
+        int i = cellIndex(row, column);
+        if (this.nulls.get(i)) {
+            return null;
+        }
+        return new Double(this.data[i]);
+    }
+
+    /**
+     * Returns a value from the table as a primitive.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value, or <code>Double.NaN</code> if the cell is
+     *     <code>null</code>.
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    public double getDoubleValue(int row, int column) {
+        int i = cellIndex(row, column);
+        return this.nulls.get(i) ? Double.NaN : this.data[i];
+    }
+
+    /**
+     * Returns <code>true</code> if the specified cell holds no value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return A boolean.
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    public boolean isNull(int row, int column) {
+        return this.nulls.get(cellIndex(row, column));
+    }
+
+    /**
+     * Sets the value of a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     * @param value  the value.
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    public void setValue(int row, int column, double value) {
+        int i = cellIndex(row, column);
+        this.data[i] = value;
+        this.nulls.clear(i);
+    }
+
+    /**
+     * Sets the value of a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     * @param value  the value (<code>null</code> permitted).
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    public void setValue(int row, int column, Number value) {
+        int i = cellIndex(row, column);
+        if (value == null) {
+            this.data[i] = 0.0;
+            this.nulls.set(i);
+        }
+        else {
+            this.data[i] = value.doubleValue();
+            this.nulls.clear(i);
+        }
+    }
+
+    /**
+     * Returns the backing array, in row-major order.  Cells flagged in
+     * {@link #getNullMask()} hold <code>0.0</code>.
+     *
+     * @return The backing array (not a copy).
+     */
+    double[] getData() {
+        return this.data;
+    }
+
+    /**
+     * Returns the mask of <code>null</code> cells, indexed as
+     * {@link #getData()}.
+     *
+     * @return The mask (not a copy).
+     */
+    BitSet getNullMask() {
+        return this.nulls;
+    }
+
+    /**
+     * Returns the position of a cell in the backing array.
+     *
+     * @param row  the row index.
+     * @param column  the column index.
+     *
+     * @return The array index.
+     */
+    private int cellIndex(int row, int column) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index out of bounds: "
+                    + row);
+        }
+        if (column < 0 || column >= this.columnCount) {
+            throw new IndexOutOfBoundsException("Column index out of bounds: "
+                    + column);
+        }
+        return row * this.columnCount + column;
+    }
+
+    /**
+     * Tests this table for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleArrayValues2D)) {
+            return false;
+        }
+        DoubleArrayValues2D that = (DoubleArrayValues2D) obj;
+        return this.rowCount == that.rowCount
+                && this.columnCount == that.columnCount
+                && this.nulls.equals(that.nulls)
+                && Arrays.equals(this.data, that.data);
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.rowCount;
+        result = 29 * result + this.columnCount;
+        result = 29 * result + Arrays.hashCode(this.data);
+        return result;
+    }
+
+    /**
+     * Returns a clone of this table.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DoubleArrayValues2D clone = (DoubleArrayValues2D) super.clone();
+        clone.data = (double[]) this.data.clone();
+        clone.nulls = (BitSet) this.nulls.clone();
+        return clone;
+    }
+
+}
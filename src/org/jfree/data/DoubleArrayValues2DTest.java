@@ -0,0 +1,143 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.security.InvalidParameterException;
+import java.util.BitSet;
+
+public class DoubleArrayValues2DTest {
+
+    // ----------------------------
+    // DoubleArrayValues2D(double[][] data)
+    // data: { EC1: rectangular array, EC2: null, EC3: ragged array }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void constructFromRectangularArray() {
+        // setup
+        double[][] data = { { 1.0, 2.0, 3.0 }, { 4.0, 5.0, 6.0 } };
+
+        // exercise
+        DoubleArrayValues2D values = new DoubleArrayValues2D(data);
+        data[0][0] = 99.0;
+
+        // verify
+        assertEquals("Row count should be 2", 2, values.getRowCount());
+        assertEquals("Column count should be 3", 3, values.getColumnCount());
+        assertEquals("The data should be copied", 1.0, values.getValue(0, 0).doubleValue(), .000000001d);
+        assertEquals("Cell (1, 2) should be 6.0", 6.0, values.getValue(1, 2).doubleValue(), .000000001d);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void constructFromNull() {
+        // exercise
+        new DoubleArrayValues2D(null);
+    }
+
+    // EC3
+    @Test(expected = InvalidParameterException.class)
+    public void constructFromRaggedArray() {
+        // exercise
+        new DoubleArrayValues2D(new double[][] { { 1.0, 2.0 }, { 3.0 } });
+    }
+
+    // ----------------------------
+    // DoubleArrayValues2D(int rowCount, int columnCount, double[] data, BitSet nulls)
+    // data: { EC1: matching length, EC2: wrong length, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void wrapRowMajorArray() {
+        // setup
+        double[] data = { 1.0, 2.0, 0.0, 4.0 };
+        BitSet nulls = new BitSet();
+        nulls.set(2);
+
+        // exercise
+        DoubleArrayValues2D values = new DoubleArrayValues2D(2, 2, data, nulls);
+        data[0] = 99.0;
+
+        // verify
+        assertEquals("The array should be shared", 99.0, values.getValue(0, 0).doubleValue(), .000000001d);
+        assertNull("Cell (1, 0) should be null", values.getValue(1, 0));
+        assertEquals("Cell (1, 1) should be 4.0", 4.0, values.getValue(1, 1).doubleValue(), .000000001d);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void wrapArrayOfWrongLength() {
+        // exercise
+        new DoubleArrayValues2D(2, 2, new double[3], null);
+    }
+
+    // EC3
+    @Test(expected = InvalidParameterException.class)
+    public void wrapNullArray() {
+        // exercise
+        new DoubleArrayValues2D(2, 2, null, null);
+    }
+
+    // ----------------------------
+    // getValue / setValue / isNull
+    // ----------------------------
+
+    @Test
+    public void newCellsAreNull() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(2, 2);
+
+        // verify
+        assertNull("A new cell should be null", values.getValue(1, 1));
+        assertTrue("A new cell should be flagged null", values.isNull(1, 1));
+        assertTrue("A null cell should read as NaN", Double.isNaN(values.getDoubleValue(1, 1)));
+    }
+
+    @Test
+    public void nanIsNotNull() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(1, 1);
+
+        // exercise
+        values.setValue(0, 0, Double.NaN);
+
+        // verify
+        assertFalse("NaN should be a value, not null", values.isNull(0, 0));
+        assertTrue("The NaN value should be returned", Double.isNaN(values.getValue(0, 0).doubleValue()));
+    }
+
+    @Test
+    public void setValueToNull() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(new double[][] { { 3.0 } });
+
+        // exercise
+        values.setValue(0, 0, (Number) null);
+
+        // verify
+        assertNull("The cell should be null", values.getValue(0, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueOutOfBounds() {
+        // exercise
+        new DoubleArrayValues2D(2, 2).getValue(0, 2);
+    }
+
+    @Test
+    public void cloneIsIndependent() throws CloneNotSupportedException {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(new double[][] { { 1.0, 2.0 } });
+
+        // exercise
+        DoubleArrayValues2D copy = (DoubleArrayValues2D) values.clone();
+        copy.setValue(0, 0, 5.0);
+
+        // verify
+        assertFalse("The clone should not share storage", values.equals(copy));
+        assertEquals("The original should be unchanged", 1.0, values.getDoubleValue(0, 0), .000000001d);
+    }
+
+}
@@ -0,0 +1,854 @@
+package org.jfree.data;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Counterparts to the totalling methods in {@link DataUtilities} that avoid
+ * creating a <code>Number</code> for each cell when the table is a
+ * {@link DoubleArrayValues2D}.  Any other {@link Values2D} is read through
+ * {@link Values2D#getValue(int, int)}.  Either way, <code>null</code> cells
+ * are skipped and an out-of-range index gives a total of zero.
+ * <p>
+ * Tables with at least {@link #getParallelThreshold()} cells are split into
+ * blocks of rows that are totalled on a <code>ForkJoinPool</code>, if there
+ * are enough rows to fill more than one block; the total of a single row or
+ * column is split only when the line itself holds that many values and more
+ * than fit in one block.  The split depends only on the
+ * shape of the table, so the totals are reproducible from run to run
+ * whatever the number of threads.  A table that is totalled in parallel
+ * must not be modified until the total has been returned.
+ */
+public abstract class FastDataUtilities {
+
+    /** The default value for the parallel threshold (about a million). */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    /** The smallest number of cells in a table that is totalled in parallel. */
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Returns the smallest number of cells in a table that will be totalled
+     * in parallel.
+     *
+     * @return The threshold.
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the smallest number of cells in a table that will be totalled in
+     * parallel.  Use <code>Integer.MAX_VALUE</code> to disable parallel
+     * totals.
+     *
+     * @param cells  the threshold (must be positive).
+     *
+     * @throws InvalidParameterException if <code>cells</code> is not
+     *     positive.
+     */
+    public static void setParallelThreshold(int cells) {
+        if (cells < 1) {
+            throw new InvalidParameterException(
+                    "Requires 'cells' to be positive.");
+        }
+        parallelThreshold = cells;
+    }
+
+    /**
+     * Returns the sum of the values in one column of the supplied data
+     * table. With invalid input, a total of zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     *
+     * @return The sum of the values in the specified column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateColumnTotal(Values2D data, int column) {
+        return calculateColumnTotal(data, column, SummationMode.NAIVE, null);
+    }
+
+    /**
+     * Returns the sum of the values in one column of the supplied data
+     * table, reading the backing array directly. With invalid input, a total
+     * of zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     *
+     * @return The sum of the values in the specified column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateColumnTotal(DoubleArrayValues2D data,
+            int column) {
+        return calculateColumnTotal(data, column, SummationMode.NAIVE, null);
+    }
+
+    /**
+     * Returns the sum of the values in one column of the supplied data
+     * table. With invalid input, a total of zero will be returned.  If the
+     * column is long enough to be split and at or above the parallel
+     * threshold, the rows are split across <code>pool</code>.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return The sum of the values in the specified column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateColumnTotal(Values2D data, int column,
+            ForkJoinPool pool) {
+        return calculateColumnTotal(data, column, SummationMode.NAIVE, pool);
+    }
+
+    /**
+     * Returns the sum of the values in one column of the supplied data
+     * table, added up in the specified way. With invalid input, a total of
+     * zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     * @param mode  the summation mode (<code>null</code> not permitted).
+     *
+     * @return The sum of the values in the specified column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateColumnTotal(Values2D data, int column,
+            SummationMode mode) {
+        return calculateColumnTotal(data, column, mode, null);
+    }
+
+    /**
+     * Returns the sum of the values in one column of the supplied data
+     * table, added up in the specified way. With invalid input, a total of
+     * zero will be returned.  If the column is long enough to be split and
+     * at or above the parallel threshold, the rows are split across
+     * <code>pool</code>; in {@link SummationMode#COMPENSATED} mode each
+     * block is summed with compensation and the block totals are then added
+     * normally.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     * @param mode  the summation mode (<code>null</code> not permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return The sum of the values in the specified column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateColumnTotal(Values2D data, int column,
+            SummationMode mode, ForkJoinPool pool) {
+        checkNotNull(data);
+        boolean compensated = isCompensated(mode);
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        if (column < 0 || column >= columnCount) {
+            return 0.0;
+        }
+        if (isParallel(rowCount)) {
+            return ParallelTotals.columnTotal(poolOrCommon(pool), data,
+                    column, rowCount, compensated);
+        }
+        return columnTotal(data, column, 0, rowCount, compensated);
+    }
+
+    /**
+     * Returns the sum of the values in one row of the supplied data
+     * table. With invalid input, a total of zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     *
+     * @return The total of the values in the specified row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateRowTotal(Values2D data, int row) {
+        return calculateRowTotal(data, row, SummationMode.NAIVE, null);
+    }
+
+    /**
+     * Returns the sum of the values in one row of the supplied data
+     * table, reading the backing array directly. With invalid input, a total
+     * of zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     *
+     * @return The total of the values in the specified row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateRowTotal(DoubleArrayValues2D data,
+            int row) {
+        return calculateRowTotal(data, row, SummationMode.NAIVE, null);
+    }
+
+    /**
+     * Returns the sum of the values in one row of the supplied data
+     * table. With invalid input, a total of zero will be returned.  If the
+     * row is long enough to be split and at or above the parallel
+     * threshold, the columns are split across <code>pool</code>.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return The total of the values in the specified row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateRowTotal(Values2D data, int row,
+            ForkJoinPool pool) {
+        return calculateRowTotal(data, row, SummationMode.NAIVE, pool);
+    }
+
+    /**
+     * Returns the sum of the values in one row of the supplied data
+     * table, added up in the specified way. With invalid input, a total of
+     * zero will be returned.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     * @param mode  the summation mode (<code>null</code> not permitted).
+     *
+     * @return The total of the values in the specified row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateRowTotal(Values2D data, int row,
+            SummationMode mode) {
+        return calculateRowTotal(data, row, mode, null);
+    }
+
+    /**
+     * Returns the sum of the values in one row of the supplied data
+     * table, added up in the specified way. With invalid input, a total of
+     * zero will be returned.  If the row is long enough to be split and at
+     * or above the parallel threshold, the columns are split across
+     * <code>pool</code>; in {@link SummationMode#COMPENSATED} mode each
+     * block is summed with compensation and the block totals are then added
+     * normally.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     * @param mode  the summation mode (<code>null</code> not permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return The total of the values in the specified row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double calculateRowTotal(Values2D data, int row,
+            SummationMode mode, ForkJoinPool pool) {
+        checkNotNull(data);
+        boolean compensated = isCompensated(mode);
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        if (row < 0 || row >= rowCount) {
+            return 0.0;
+        }
+        if (isParallel(columnCount)) {
+            return ParallelTotals.rowTotal(poolOrCommon(pool), data, row,
+                    columnCount, compensated);
+        }
+        return rowTotal(data, row, 0, columnCount, compensated);
+    }
+
+    /**
+     * Returns the total of every row in the supplied data table, calculated
+     * in a single pass over the table.  This is equivalent to, but much
+     * faster than, calling {@link #calculateRowTotal(Values2D, int)} for each
+     * row.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     *
+     * @return An array containing one total per row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double[] calculateRowTotals(Values2D data) {
+        return calculateRowTotals(data, null);
+    }
+
+    /**
+     * Returns the total of every row in the supplied data table, calculated
+     * in a single pass over the table.  If the table is at or above the
+     * parallel threshold, the rows are split across <code>pool</code>.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return An array containing one total per row.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double[] calculateRowTotals(Values2D data,
+            ForkJoinPool pool) {
+        checkNotNull(data);
+        double[] rowTotals = new double[data.getRowCount()];
+        totals(data, rowTotals.length, data.getColumnCount(), rowTotals, null,
+                pool);
+        return rowTotals;
+    }
+
+    /**
+     * Returns the total of every column in the supplied data table,
+     * calculated in a single pass over the table.  This is equivalent to,
+     * but much faster than, calling
+     * {@link #calculateColumnTotal(Values2D, int)} for each column.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     *
+     * @return An array containing one total per column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double[] calculateColumnTotals(Values2D data) {
+        return calculateColumnTotals(data, null);
+    }
+
+    /**
+     * Returns the total of every column in the supplied data table,
+     * calculated in a single pass over the table.  If the table is at or
+     * above the parallel threshold, the rows are split across
+     * <code>pool</code>.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return An array containing one total per column.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static double[] calculateColumnTotals(Values2D data,
+            ForkJoinPool pool) {
+        checkNotNull(data);
+        double[] columnTotals = new double[data.getColumnCount()];
+        totals(data, data.getRowCount(), columnTotals.length, null,
+                columnTotals, pool);
+        return columnTotals;
+    }
+
+    /**
+     * Returns the row totals, column totals and grand total of the supplied
+     * data table, calculated in a single pass over the table.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     *
+     * @return The totals.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Values2DTotals calculateTotals(Values2D data) {
+        return calculateTotals(data, null);
+    }
+
+    /**
+     * Returns the row totals, column totals and grand total of the supplied
+     * data table, calculated in a single pass over the table.  If the table
+     * is at or above the parallel threshold, the rows are split across
+     * <code>pool</code>.
+     *
+     * @param data  the table of values (<code>null</code> not permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     *
+     * @return The totals.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Values2DTotals calculateTotals(Values2D data,
+            ForkJoinPool pool) {
+        checkNotNull(data);
+        double[] rowTotals = new double[data.getRowCount()];
+        double[] columnTotals = new double[data.getColumnCount()];
+        totals(data, rowTotals.length, columnTotals.length, rowTotals,
+                columnTotals, pool);
+        double total = 0.0;
+        for (int r = 0; r < rowTotals.length; r++) {
+            total += rowTotals[r];
+        }
+        return new Values2DTotals(rowTotals, columnTotals, total);
+    }
+
+    /**
+     * Returns a {@link KeyedValues} instance that contains the cumulative
+     * percentage values for the data in another {@link KeyedValues}
+     * instance.  The cumulative percentage is each value's cumulative sum's
+     * portion of the sum of all the values.  <code>null</code> values are
+     * skipped, but still have an entry in the result.  The result is a
+     * {@link DoubleArrayKeyedValues}, so it is built in linear time and holds
+     * no object per item apart from the key.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     *
+     * @return The cumulative percentages.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static KeyedValues getCumulativePercentages(KeyedValues data) {
+        return getCumulativePercentages(data, SummationMode.NAIVE);
+    }
+
+    /**
+     * Returns a {@link KeyedValues} instance that contains the cumulative
+     * percentage values for the data in another {@link KeyedValues}
+     * instance, with the running totals added up in the specified way.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     * @param mode  the summation mode (<code>null</code> not permitted).
+     *
+     * @return The cumulative percentages.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static KeyedValues getCumulativePercentages(KeyedValues data,
+            SummationMode mode) {
+        checkNotNull(data);
+        boolean compensated = isCompensated(mode);
+        int itemCount = data.getItemCount();
+        double[] values;
+        if (data instanceof DoubleArrayKeyedValues) {
+            // null items hold 0.0 in the backing array, so need no test here
+            values = ((DoubleArrayKeyedValues) data).getData();
+        }
+        else {
+            values = new double[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                Number n = data.getValue(i);
+                if (n != null) {
+                    values[i] = n.doubleValue();
+                }
+            }
+        }
+        double total = compensated ? compensatedSum(values, 0, itemCount, 1)
+                : naiveSum(values, 0, itemCount, 1);
+        DoubleArrayKeyedValues result = new DoubleArrayKeyedValues(itemCount);
+        double runningTotal = 0.0;
+        double compensation = 0.0;
+        for (int i = 0; i < itemCount; i++) {
+            double v = values[i];
+            double t = runningTotal + v;
+            if (compensated) {
+                compensation += Math.abs(runningTotal) >= Math.abs(v)
+                        ? (runningTotal - t) + v : (v - t) + runningTotal;
+            }
+            runningTotal = t;
+            double cumulative = compensated
+                    ? finish(runningTotal, compensation) : runningTotal;
+            result.addValue(data.getKey(i), cumulative / total);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a read-only list of <code>Number</code> objects that is backed
+     * by the specified array.  Unlike
+     * {@link DataUtilities#createNumberArray(double[])}, the values are not
+     * copied into <code>Double</code> objects up front; each element is
+     * boxed only when it is read, and changes to the array show through the
+     * list.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     *
+     * @return The list of numbers.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static List<Number> createNumberList(double[] data) {
+        checkNotNull(data);
+        return new DoubleArrayNumberList(data);
+    }
+
+    /**
+     * Returns a read-only list of rows, each a list of <code>Number</code>
+     * objects backed by the corresponding row of the specified array.  Only
+     * the row wrappers are created; the values are not copied.
+     *
+     * @param data  the data (<code>null</code> not permitted, and no row
+     *     may be <code>null</code>).
+     *
+     * @return The list of rows.
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static List<List<Number>> createNumberList2D(double[][] data) {
+        checkNotNull(data);
+        List<Number>[] rows = new List[data.length];
+        for (int r = 0; r < data.length; r++) {
+            rows[r] = createNumberList(data[r]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(rows));
+    }
+
+    /**
+     * Returns <code>true</code> if a table of the given size should be
+     * totalled in parallel.  The blocks are split by rows, so a table with
+     * too few rows to fill more than one block is always totalled on the
+     * calling thread.
+     *
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     *
+     * @return A boolean.
+     */
+    private static boolean isParallel(int rowCount, int columnCount) {
+        return (long) rowCount * columnCount >= parallelThreshold
+                && rowCount > ParallelTotals.leafRows(columnCount);
+    }
+
+    /**
+     * Returns <code>true</code> if a single row or column of the given
+     * length should be totalled in parallel.  A line no longer than
+     * {@link ParallelTotals#LEAF_CELLS} would be summed by one task, so it
+     * is always summed on the calling thread.
+     *
+     * @param length  the number of values in the line.
+     *
+     * @return A boolean.
+     */
+    private static boolean isParallel(int length) {
+        return length > ParallelTotals.LEAF_CELLS
+                && length >= parallelThreshold;
+    }
+
+    /**
+     * Returns the supplied pool, or the common pool if it is
+     * <code>null</code>.
+     *
+     * @param pool  the pool (<code>null</code> permitted).
+     *
+     * @return A pool.
+     */
+    private static ForkJoinPool poolOrCommon(ForkJoinPool pool) {
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns <code>true</code> for {@link SummationMode#COMPENSATED}.
+     *
+     * @param mode  the mode.
+     *
+     * @return A boolean.
+     *
+     * @throws InvalidParameterException if <code>mode</code> is
+     *     <code>null</code>.
+     */
+    private static boolean isCompensated(SummationMode mode) {
+        if (mode == null) {
+            throw new InvalidParameterException("Null 'mode' argument.");
+        }
+        return mode == SummationMode.COMPENSATED;
+    }
+
+    /**
+     * Calculates row and/or column totals, in parallel if the table is large
+     * enough.
+     *
+     * @param data  the table of values.
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     * @param rowTotals  receives the row totals (<code>null</code> permitted).
+     * @param columnTotals  receives the column totals (<code>null</code>
+     *     permitted).
+     * @param pool  the pool for parallel totals (<code>null</code> for the
+     *     common pool).
+     */
+    private static void totals(Values2D data, int rowCount, int columnCount,
+            double[] rowTotals, double[] columnTotals, ForkJoinPool pool) {
+        if (isParallel(rowCount, columnCount)) {
+            ParallelTotals.totals(poolOrCommon(pool), data, rowCount,
+                    columnCount, rowTotals, columnTotals);
+        }
+        else {
+            accumulate(data, 0, rowCount, columnCount, rowTotals,
+                    columnTotals);
+        }
+    }
+
+    /**
+     * Returns the sum of the values in rows <code>startRow</code> (inclusive)
+     * to <code>endRow</code> (exclusive) of one column.
+     *
+     * @param data  the table of values.
+     * @param column  the column index (in range).
+     * @param startRow  the first row.
+     * @param endRow  the row after the last.
+     * @param compensated  whether to use compensated summation.
+     *
+     * @return The total.
+     */
+    static double columnTotal(Values2D data, int column, int startRow,
+            int endRow, boolean compensated) {
+        if (data instanceof DoubleArrayValues2D) {
+            // null cells hold 0.0 in the backing array, so need no test here
+            int columnCount = data.getColumnCount();
+            double[] cells = ((DoubleArrayValues2D) data).getData();
+            int from = startRow * columnCount + column;
+            int to = endRow * columnCount;
+            return compensated ? compensatedSum(cells, from, to, columnCount)
+                    : naiveSum(cells, from, to, columnCount);
+        }
+        double total = 0.0;
+        double compensation = 0.0;
+        for (int r = startRow; r < endRow; r++) {
+            Number n = data.getValue(r, column);
+            if (n != null) {
+                double v = n.doubleValue();
+                double t = total + v;
+                if (compensated) {
+                    compensation += Math.abs(total) >= Math.abs(v)
+                            ? (total - t) + v : (v - t) + total;
+                }
+                total = t;
+            }
+        }
+        return compensated ? finish(total, compensation) : total;
+    }
+
+    /**
+     * Returns the sum of the values in columns <code>startColumn</code>
+     * (inclusive) to <code>endColumn</code> (exclusive) of one row.
+     *
+     * @param data  the table of values.
+     * @param row  the row index (in range).
+     * @param startColumn  the first column.
+     * @param endColumn  the column after the last.
+     * @param compensated  whether to use compensated summation.
+     *
+     * @return The total.
+     */
+    static double rowTotal(Values2D data, int row, int startColumn,
+            int endColumn, boolean compensated) {
+        if (data instanceof DoubleArrayValues2D) {
+            int offset = row * data.getColumnCount();
+            double[] cells = ((DoubleArrayValues2D) data).getData();
+            return compensated ? compensatedSum(cells, offset + startColumn,
+                    offset + endColumn, 1) : naiveSum(cells,
+                    offset + startColumn, offset + endColumn, 1);
+        }
+        double total = 0.0;
+        double compensation = 0.0;
+        for (int c = startColumn; c < endColumn; c++) {
+            Number n = data.getValue(row, c);
+            if (n != null) {
+                double v = n.doubleValue();
+                double t = total + v;
+                if (compensated) {
+                    compensation += Math.abs(total) >= Math.abs(v)
+                            ? (total - t) + v : (v - t) + total;
+                }
+                total = t;
+            }
+        }
+        return compensated ? finish(total, compensation) : total;
+    }
+
+    /**
+     * Returns the sum of every <code>stride</code>-th element of an array,
+     * from index <code>from</code> (inclusive) up to <code>to</code>
+     * (exclusive), added in order.
+     *
+     * @param values  the values.
+     * @param from  the first index.
+     * @param to  the upper limit for the index.
+     * @param stride  the distance between elements (positive).
+     *
+     * @return The sum.
+     */
+    static double naiveSum(double[] values, int from, int to, int stride) {
+        double total = 0.0;
+        for (int i = from; i < to; i += stride) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the compensated sum of every <code>stride</code>-th element of
+     * an array, from index <code>from</code> (inclusive) up to
+     * <code>to</code> (exclusive).
+     * <p>
+     * Four independent Neumaier sums are kept, one for each element position
+     * modulo four, and are combined at the end.  The four chains let the
+     * processor overlap the additions, and the choice of correction term is
+     * a select rather than a branch, so the loop costs little more than
+     * {@link #naiveSum(double[], int, int, int)}, whose single chain is bound
+     * by floating point latency.
+     *
+     * @param values  the values.
+     * @param from  the first index.
+     * @param to  the upper limit for the index.
+     * @param stride  the distance between elements (positive).
+     *
+     * @return The sum.
+     */
+    static double compensatedSum(double[] values, int from, int to,
+            int stride) {
+        double s0 = 0.0;
+        double s1 = 0.0;
+        double s2 = 0.0;
+        double s3 = 0.0;
+        double c0 = 0.0;
+        double c1 = 0.0;
+        double c2 = 0.0;
+        double c3 = 0.0;
+        int step = 4 * stride;
+        int i = from;
+        for (; i < to - 3 * stride; i += step) {
+            double x0 = values[i];
+            double x1 = values[i + stride];
+            double x2 = values[i + 2 * stride];
+            double x3 = values[i + 3 * stride];
+            double t0 = s0 + x0;
+            double t1 = s1 + x1;
+            double t2 = s2 + x2;
+            double t3 = s3 + x3;
+            c0 += roundingError(s0, x0, t0);
+            c1 += roundingError(s1, x1, t1);
+            c2 += roundingError(s2, x2, t2);
+            c3 += roundingError(s3, x3, t3);
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+        }
+        for (; i < to; i += stride) {
+            double x = values[i];
+            double t = s0 + x;
+            c0 += roundingError(s0, x, t);
+            s0 = t;
+        }
+        double total = s0;
+        double compensation = (c0 + c1) + (c2 + c3);
+        double t = total + s1;
+        compensation += roundingError(total, s1, t);
+        total = t;
+        t = total + s2;
+        compensation += roundingError(total, s2, t);
+        total = t;
+        t = total + s3;
+        compensation += roundingError(total, s3, t);
+        return finish(t, compensation);
+    }
+
+    /**
+     * Returns the rounding error of a floating point addition, that is
+     * <code>(a + b) - sum</code> computed exactly (Neumaier's correction
+     * term).
+     *
+     * @param a  the first operand.
+     * @param b  the second operand.
+     * @param sum  the rounded sum <code>a + b</code>.
+     *
+     * @return The rounding error.
+     */
+    private static double roundingError(double a, double b, double sum) {
+        return Math.abs(a) >= Math.abs(b) ? (a - sum) + b : (b - sum) + a;
+    }
+
+    /**
+     * Applies the compensation term to a compensated sum.  A sum that has
+     * overflowed, or that includes an infinite or NaN value, is returned
+     * unchanged, since its compensation term is meaningless.
+     *
+     * @param total  the running total.
+     * @param compensation  the accumulated rounding error.
+     *
+     * @return The corrected total.
+     */
+    static double finish(double total, double compensation) {
+        if (Double.isInfinite(total) || Double.isNaN(total)) {
+            return total;
+        }
+        return total + compensation;
+    }
+
+    /**
+     * Adds the values in rows <code>startRow</code> (inclusive) to
+     * <code>endRow</code> (exclusive) of a table into running row and column
+     * totals, visiting the cells in row-major order.
+     *
+     * @param data  the table of values.
+     * @param startRow  the first row.
+     * @param endRow  the row after the last.
+     * @param columnCount  the number of columns in the table.
+     * @param rowTotals  the row totals, indexed by row (<code>null</code>
+     *     to skip row totals).
+     * @param columnTotals  the column totals (<code>null</code> to skip
+     *     column totals).
+     */
+    static void accumulate(Values2D data, int startRow, int endRow,
+            int columnCount, double[] rowTotals, double[] columnTotals) {
+        if (data instanceof DoubleArrayValues2D) {
+            double[] cells = ((DoubleArrayValues2D) data).getData();
+            for (int r = startRow; r < endRow; r++) {
+                int offset = r * columnCount;
+                double rowTotal = 0.0;
+                if (columnTotals == null) {
+                    for (int c = 0; c < columnCount; c++) {
+                        rowTotal += cells[offset + c];
+                    }
+                }
+                else {
+                    for (int c = 0; c < columnCount; c++) {
+                        double v = cells[offset + c];
+                        rowTotal += v;
+                        columnTotals[c] += v;
+                    }
+                }
+                if (rowTotals != null) {
+                    rowTotals[r] = rowTotal;
+                }
+            }
+            return;
+        }
+        for (int r = startRow; r < endRow; r++) {
+            double rowTotal = 0.0;
+            for (int c = 0; c < columnCount; c++) {
+                Number n = data.getValue(r, c);
+                if (n != null) {
+                    double v = n.doubleValue();
+                    rowTotal += v;
+                    if (columnTotals != null) {
+                        columnTotals[c] += v;
+                    }
+                }
+            }
+            if (rowTotals != null) {
+                rowTotals[r] = rowTotal;
+            }
+        }
+    }
+
+    /**
+     * Throws an exception if the supplied table is <code>null</code>.
+     *
+     * @param data  the table.
+     *
+     * @throws InvalidParameterException if <code>data</code> is
+     *     <code>null</code>.
+     */
+    static void checkNotNull(Object data) {
+        if (data == null) {
+            throw new InvalidParameterException("Null 'data' argument.");
+        }
+    }
+
+}
@@ -0,0 +1,671 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.jmock.Mockery;
+import org.jmock.Expectations;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class FastDataUtilitiesTest {
+
+    private DoubleArrayValues2D table;
+
+    @Before
+    public void setUp() {
+        // 3 x 2 table with a null cell at (1, 1)
+        table = new DoubleArrayValues2D(new double[][] { { 7.5, 4.0 }, { -2.5, 0.0 }, { 1.0, 2.0 } });
+        table.setValue(1, 1, (Number) null);
+    }
+
+    @After
+    public void tearDown() {
+        FastDataUtilities.setParallelThreshold(FastDataUtilities.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a table with 1,000 rows and 300 columns of mixed-magnitude
+     * values, one cell in seven being null.
+     */
+    private static DoubleArrayValues2D createLargeTable() {
+        Random random = new Random(637L);
+        DoubleArrayValues2D values = new DoubleArrayValues2D(1000, 300);
+        for (int r = 0; r < 1000; r++) {
+            for (int c = 0; c < 300; c++) {
+                if ((r * 300 + c) % 7 != 0) {
+                    values.setValue(r, c, (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(7)));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns a view of a table that hides its class, so that it is read
+     * through getValue().
+     */
+    private static Values2D wrap(final Values2D values) {
+        return new Values2D() {
+            public int getRowCount() {
+                return values.getRowCount();
+            }
+
+            public int getColumnCount() {
+                return values.getColumnCount();
+            }
+
+            public Number getValue(int row, int column) {
+                return values.getValue(row, column);
+            }
+        };
+    }
+
+    // ----------------------------
+    // calculateColumnTotal(Values2D data, int column)
+    // data: { EC1: DoubleArrayValues2D, EC2: other Values2D, EC3: null,
+    //         EC4: table with some null cells }
+    // column: { EC5: column < 0, EC6: 0 <= column < columnCount,
+    //           EC7: column >= columnCount }
+    //         BVA: { BLB: -1, LB: 0, BUB: columnCount - 1, UB: columnCount }
+    // ----------------------------
+
+    // EC1 + EC6 (LB)
+    @Test
+    public void calculateColumnTotalForArrayTableWithLBColumn() {
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal(table, 0);
+
+        // verify
+        assertEquals("The column total should be read from the backing array", 6.0, result, .000000001d);
+    }
+
+    // EC1 + EC4 + EC6 (BUB)
+    @Test
+    public void calculateColumnTotalForArrayTableWithNullAndBUBColumn() {
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal((Values2D) table, 1);
+
+        // verify
+        assertEquals("The null cell should be skipped", 6.0, result, .000000001d);
+    }
+
+    // EC2 + EC4 + EC6
+    @Test
+    public void calculateColumnTotalForMockWithNull() {
+        // setup
+        Mockery mockingContext = new Mockery();
+        final Values2D values = mockingContext.mock(Values2D.class);
+
+        mockingContext.checking(new Expectations() {
+            {
+                allowing(values).getRowCount();
+                will(returnValue(2));
+                allowing(values).getColumnCount();
+                will(returnValue(2));
+                oneOf(values).getValue(0, 1);
+                will(returnValue(4.0));
+                oneOf(values).getValue(1, 1);
+                will(returnValue(null));
+            }
+        });
+
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal(values, 1);
+
+        // verify
+        assertEquals("The column total should handle null values correctly", 4.0, result, .000000001d);
+        mockingContext.assertIsSatisfied();
+    }
+
+    // EC3
+    @Test(expected = InvalidParameterException.class)
+    public void calculateColumnTotalForNull() {
+        // exercise
+        FastDataUtilities.calculateColumnTotal((Values2D) null, 0);
+    }
+
+    // EC5 (BLB)
+    @Test
+    public void calculateColumnTotalForBLBColumn() {
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal(table, -1);
+
+        // verify
+        assertEquals("A column index below the lower bound should total 0.0", 0.0, result, .000000001d);
+    }
+
+    // EC7 (UB)
+    @Test
+    public void calculateColumnTotalForUBColumn() {
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal(table, 2);
+
+        // verify
+        assertEquals("A column index above the upper bound should total 0.0", 0.0, result, .000000001d);
+    }
+
+    // ----------------------------
+    // calculateRowTotal(Values2D data, int row)
+    // data: { EC1: DoubleArrayValues2D, EC2: other Values2D, EC3: null,
+    //         EC4: table with some null cells }
+    // row: { EC5: row < 0, EC6: 0 <= row < rowCount, EC7: row >= rowCount }
+    //      BVA: { BLB: -1, LB: 0, BUB: rowCount - 1, UB: rowCount }
+    // ----------------------------
+
+    // EC1 + EC6 (LB)
+    @Test
+    public void calculateRowTotalForArrayTableWithLBRow() {
+        // exercise
+        double result = FastDataUtilities.calculateRowTotal(table, 0);
+
+        // verify
+        assertEquals("The row total should be read from the backing array", 11.5, result, .000000001d);
+    }
+
+    // EC1 + EC4 + EC6
+    @Test
+    public void calculateRowTotalForArrayTableWithNull() {
+        // exercise
+        double result = FastDataUtilities.calculateRowTotal((Values2D) table, 1);
+
+        // verify
+        assertEquals("The null cell should be skipped", -2.5, result, .000000001d);
+    }
+
+    // EC1 + EC6 (BUB)
+    @Test
+    public void calculateRowTotalForArrayTableWithBUBRow() {
+        // exercise
+        double result = FastDataUtilities.calculateRowTotal(table, 2);
+
+        // verify
+        assertEquals("The last row should be totalled", 3.0, result, .000000001d);
+    }
+
+    // EC2 + EC4 + EC6
+    @Test
+    public void calculateRowTotalForMockWithNull() {
+        // setup
+        Mockery mockingContext = new Mockery();
+        final Values2D values = mockingContext.mock(Values2D.class);
+
+        mockingContext.checking(new Expectations() {
+            {
+                allowing(values).getRowCount();
+                will(returnValue(2));
+                allowing(values).getColumnCount();
+                will(returnValue(2));
+                oneOf(values).getValue(1, 0);
+                will(returnValue(6.0));
+                oneOf(values).getValue(1, 1);
+                will(returnValue(null));
+            }
+        });
+
+        // exercise
+        double result = FastDataUtilities.calculateRowTotal(values, 1);
+
+        // verify
+        assertEquals("The row total should handle null values correctly", 6.0, result, .000000001d);
+        mockingContext.assertIsSatisfied();
+    }
+
+    // EC3
+    @Test(expected = InvalidParameterException.class)
+    public void calculateRowTotalForNull() {
+        // exercise
+        FastDataUtilities.calculateRowTotal((DoubleArrayValues2D) null, 0);
+    }
+
+    // EC5 (BLB) and EC7 (UB)
+    @Test
+    public void calculateRowTotalForOutOfRangeRows() {
+        // verify
+        assertEquals("A row index below the lower bound should total 0.0", 0.0,
+                FastDataUtilities.calculateRowTotal(table, -1), .000000001d);
+        assertEquals("A row index above the upper bound should total 0.0", 0.0,
+                FastDataUtilities.calculateRowTotal(table, 3), .000000001d);
+    }
+
+    // ----------------------------
+    // calculateRowTotals / calculateColumnTotals / calculateTotals(Values2D data)
+    // data: { EC1: DoubleArrayValues2D with null cells, EC2: other Values2D,
+    //         EC3: null, EC4: empty table }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void calculateRowTotalsForArrayTable() {
+        // exercise
+        double[] result = FastDataUtilities.calculateRowTotals(table);
+
+        // verify
+        assertArrayEquals("Each row total should match calculateRowTotal", new double[] { 11.5, -2.5, 3.0 },
+                result, .000000001d);
+    }
+
+    // EC1
+    @Test
+    public void calculateColumnTotalsForArrayTable() {
+        // exercise
+        double[] result = FastDataUtilities.calculateColumnTotals(table);
+
+        // verify
+        assertArrayEquals("Each column total should match calculateColumnTotal", new double[] { 6.0, 6.0 },
+                result, .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void calculateTotalsForMockVisitsEachCellOnce() {
+        // setup
+        Mockery mockingContext = new Mockery();
+        final Values2D values = mockingContext.mock(Values2D.class);
+
+        mockingContext.checking(new Expectations() {
+            {
+                oneOf(values).getRowCount();
+                will(returnValue(2));
+                oneOf(values).getColumnCount();
+                will(returnValue(2));
+                oneOf(values).getValue(0, 0);
+                will(returnValue(1.0));
+                oneOf(values).getValue(0, 1);
+                will(returnValue(2.0));
+                oneOf(values).getValue(1, 0);
+                will(returnValue(null));
+                oneOf(values).getValue(1, 1);
+                will(returnValue(4.0));
+            }
+        });
+
+        // exercise
+        Values2DTotals result = FastDataUtilities.calculateTotals(values);
+
+        // verify
+        assertArrayEquals("Row totals should skip null cells", new double[] { 3.0, 4.0 }, result.getRowTotals(),
+                .000000001d);
+        assertArrayEquals("Column totals should skip null cells", new double[] { 1.0, 6.0 },
+                result.getColumnTotals(), .000000001d);
+        assertEquals("The grand total should be 7.0", 7.0, result.getTotal(), .000000001d);
+        mockingContext.assertIsSatisfied();
+    }
+
+    // EC3
+    @Test(expected = InvalidParameterException.class)
+    public void calculateTotalsForNull() {
+        // exercise
+        FastDataUtilities.calculateTotals(null);
+    }
+
+    // EC4
+    @Test
+    public void calculateTotalsForEmptyTable() {
+        // exercise
+        Values2DTotals result = FastDataUtilities.calculateTotals(new DoubleArrayValues2D(0, 3));
+
+        // verify
+        assertEquals("There should be no row totals", 0, result.getRowCount());
+        assertArrayEquals("Column totals should be zero", new double[3], result.getColumnTotals(), .000000001d);
+        assertEquals("The grand total should be 0.0", 0.0, result.getTotal(), .000000001d);
+    }
+
+    // ----------------------------
+    // parallel totals
+    // data: { EC1: DoubleArrayValues2D at the threshold, EC2: other Values2D
+    //         at the threshold }
+    // pool: { EC3: common pool, EC4: pools of different parallelism }
+    // line: { EC5: longer than one block }
+    // shape: { EC6: too few rows to split }
+    // ----------------------------
+
+    // EC1 + EC3
+    @Test
+    public void parallelTotalsMatchSequentialTotals() {
+        // setup
+        DoubleArrayValues2D values = createLargeTable();
+        Values2DTotals expected = FastDataUtilities.calculateTotals(values);
+        double expectedColumn = FastDataUtilities.calculateColumnTotal(values, 17);
+        double expectedRow = FastDataUtilities.calculateRowTotal(values, 401);
+        FastDataUtilities.setParallelThreshold(1);
+
+        // exercise
+        Values2DTotals result = FastDataUtilities.calculateTotals(values);
+
+        // verify
+        assertArrayEquals("Parallel row totals should match", expected.getRowTotals(), result.getRowTotals(),
+                1e-6);
+        assertArrayEquals("Parallel column totals should match", expected.getColumnTotals(),
+                result.getColumnTotals(), 1e-6);
+        assertEquals("Parallel grand total should match", expected.getTotal(), result.getTotal(), 1e-6);
+        assertEquals("Parallel column total should match", expectedColumn,
+                FastDataUtilities.calculateColumnTotal(values, 17), 1e-6);
+        assertEquals("Parallel row total should match", expectedRow,
+                FastDataUtilities.calculateRowTotal(values, 401), 1e-6);
+    }
+
+    // EC1 + EC2 + EC4
+    @Test
+    public void parallelTotalsAreReproducible() {
+        // setup
+        DoubleArrayValues2D values = createLargeTable();
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        FastDataUtilities.setParallelThreshold(1);
+
+        try {
+            // exercise
+            Values2DTotals single = FastDataUtilities.calculateTotals(values, one);
+            Values2DTotals multi = FastDataUtilities.calculateTotals(values, four);
+            Values2DTotals generic = FastDataUtilities.calculateTotals(wrap(values), four);
+
+            // verify
+            assertEquals("Totals should not depend on the number of threads", single, multi);
+            assertEquals("Totals should not depend on the table class", single, generic);
+            assertEquals("Column totals should not depend on the number of threads",
+                    FastDataUtilities.calculateColumnTotal(values, 3, one),
+                    FastDataUtilities.calculateColumnTotal(values, 3, four), 0.0);
+        }
+        finally {
+            // tear-down
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    // EC1 + EC4 + EC5
+    @Test
+    public void parallelLineTotalsMatchSequentialTotals() {
+        // setup
+        Random random = new Random(637L);
+        DoubleArrayValues2D values = new DoubleArrayValues2D(200000, 2);
+        for (int r = 0; r < 200000; r++) {
+            values.setValue(r, 1, (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(7)));
+        }
+        double expected = FastDataUtilities.calculateColumnTotal(values, 1, SummationMode.COMPENSATED);
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        FastDataUtilities.setParallelThreshold(1);
+
+        try {
+            // exercise
+            double single = FastDataUtilities.calculateColumnTotal(values, 1, SummationMode.COMPENSATED, one);
+            double multi = FastDataUtilities.calculateColumnTotal(values, 1, SummationMode.COMPENSATED, four);
+
+            // verify
+            assertEquals("The parallel column total should match", expected, multi, 1e-6);
+            assertEquals("The column total should not depend on the number of threads", single, multi, 0.0);
+        }
+        finally {
+            // tear-down
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    // EC1 + EC6
+    @Test
+    public void wideTableIsTotalledOnCallingThread() {
+        // setup
+        // 65536 / 20000 = 3 rows fit in one block
+        DoubleArrayValues2D values = new DoubleArrayValues2D(3, 20000);
+        values.setValue(2, 19999, 4.0);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        FastDataUtilities.setParallelThreshold(1);
+
+        try {
+            // exercise
+            Values2DTotals result = FastDataUtilities.calculateTotals(values, pool);
+
+            // verify
+            assertEquals("The grand total should be 4", 4.0, result.getTotal(), 0.0);
+            assertEquals("The pool should not be used", 0, pool.getPoolSize());
+        }
+        finally {
+            // tear-down
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void setParallelThresholdToZero() {
+        // exercise
+        FastDataUtilities.setParallelThreshold(0);
+    }
+
+    // ----------------------------
+    // SummationMode.COMPENSATED
+    // data: { EC1: DoubleArrayValues2D, EC2: other Values2D, EC3: KeyedValues }
+    // values: { EC4: values that cancel catastrophically, EC5: infinite value }
+    // mode: { EC6: null }
+    // ----------------------------
+
+    // EC1 + EC4
+    @Test
+    public void compensatedTotalsForArrayTableAreExact() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(new double[][] { { 1.0, 1e100, 1.0, -1e100, 0.5 },
+                { 1e100, 0.0, 0.0, 0.0, 0.0 }, { 1.0, 0.0, 0.0, 0.0, 0.0 }, { -1e100, 0.0, 0.0, 0.0, 0.0 } });
+
+        // verify
+        assertEquals("The naive row total should lose the small values", 0.5,
+                FastDataUtilities.calculateRowTotal(values, 0, SummationMode.NAIVE), .000000001d);
+        assertEquals("The compensated row total should be exact", 2.5,
+                FastDataUtilities.calculateRowTotal(values, 0, SummationMode.COMPENSATED), .000000001d);
+        assertEquals("The compensated column total should be exact", 2.0,
+                FastDataUtilities.calculateColumnTotal(values, 0, SummationMode.COMPENSATED), .000000001d);
+    }
+
+    // EC2 + EC4
+    @Test
+    public void compensatedTotalsForOtherTableAreExact() {
+        // setup
+        Values2D values = wrap(new DoubleArrayValues2D(new double[][] { { 1.0, 1e100, 1.0, -1e100 } }));
+
+        // verify
+        assertEquals("The compensated row total should be exact", 2.0,
+                FastDataUtilities.calculateRowTotal(values, 0, SummationMode.COMPENSATED), .000000001d);
+    }
+
+    // EC1 + EC4, in parallel
+    @Test
+    public void compensatedParallelTotalMatchesSequential() {
+        // setup
+        DoubleArrayValues2D values = createLargeTable();
+        double expected = FastDataUtilities.calculateColumnTotal(values, 5, SummationMode.COMPENSATED);
+        FastDataUtilities.setParallelThreshold(1);
+
+        // exercise
+        double result = FastDataUtilities.calculateColumnTotal(values, 5, SummationMode.COMPENSATED);
+
+        // verify
+        assertEquals("The parallel compensated total should match", expected, result, 1e-9);
+    }
+
+    // EC1 + EC5
+    @Test
+    public void compensatedTotalWithInfinity() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(new double[][] { { Double.POSITIVE_INFINITY, 1.0, 2.0 } });
+
+        // exercise
+        double result = FastDataUtilities.calculateRowTotal(values, 0, SummationMode.COMPENSATED);
+
+        // verify
+        assertEquals("An infinite value should give an infinite total", Double.POSITIVE_INFINITY, result, 0.0);
+    }
+
+    // EC6
+    @Test(expected = InvalidParameterException.class)
+    public void calculateColumnTotalForNullMode() {
+        // exercise
+        FastDataUtilities.calculateColumnTotal(table, 0, (SummationMode) null);
+    }
+
+    // EC3 + EC4
+    @Test
+    public void compensatedCumulativePercentagesAreExact() {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("A", 1.0);
+        values.addValue("B", 1e100);
+        values.addValue("C", 1.0);
+        values.addValue("D", -1e100);
+
+        // exercise
+        KeyedValues result = FastDataUtilities.getCumulativePercentages(values, SummationMode.COMPENSATED);
+
+        // verify
+        assertEquals("The first cumulative percentage should be 0.5", 0.5, result.getValue(0).doubleValue(),
+                .000000001d);
+        assertEquals("The last cumulative percentage should be 1.0", 1.0, result.getValue(3).doubleValue(),
+                .000000001d);
+        assertEquals("The keys should be preserved", "D", result.getKey(3));
+    }
+
+    // ----------------------------
+    // getCumulativePercentages(KeyedValues data)
+    // data: { EC1: positive values, EC2: null, EC3: null item value,
+    //         EC4: sum of all values = 0 }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getCumulativePercentagesForPositiveValues() {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("0", 5.0);
+        values.addValue("1", 9.0);
+        values.addValue("2", 2.0);
+
+        // exercise
+        KeyedValues result = FastDataUtilities.getCumulativePercentages(values);
+
+        // verify
+        assertEquals("The first cumulative percentage should be 5 / 16", 0.3125, result.getValue(0).doubleValue(),
+                .000000001d);
+        assertEquals("The second cumulative percentage should be 14 / 16", 0.875, result.getValue(1).doubleValue(),
+                .000000001d);
+        assertEquals("The third cumulative percentage should be 1.0", 1.0, result.getValue(2).doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void getCumulativePercentagesForNull() {
+        // exercise
+        FastDataUtilities.getCumulativePercentages(null);
+    }
+
+    // EC3
+    @Test
+    public void getCumulativePercentagesForDataContainsNull() {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("0", 5.0);
+        values.addValue("1", null);
+
+        // exercise
+        KeyedValues result = FastDataUtilities.getCumulativePercentages(values);
+
+        // verify
+        assertEquals("The cumulative percentage before a null value should be 1.0", 1.0,
+                result.getValue(0).doubleValue(), .000000001d);
+        assertEquals("The cumulative percentage for a null value should be 1.0", 1.0,
+                result.getValue(1).doubleValue(), .000000001d);
+    }
+
+    // EC4
+    @Test
+    public void getCumulativePercentagesForDataSumIsZero() {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("0", 0.0);
+        values.addValue("1", 0.0);
+
+        // exercise
+        KeyedValues result = FastDataUtilities.getCumulativePercentages(values, SummationMode.COMPENSATED);
+
+        // verify
+        assertTrue("Cumulative percentage should be NaN when the sum is zero",
+                Double.isNaN(result.getValue(1).doubleValue()));
+    }
+
+    // ----------------------------
+    // createNumberList(double[] data)
+    // data: { EC1: valid array, EC2: null, EC3: empty array }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void createNumberListIsBackedByArray() {
+        // setup
+        double[] data = { 1.5, -2.0, 3.25 };
+
+        // exercise
+        List<Number> result = FastDataUtilities.createNumberList(data);
+        data[1] = 4.0;
+
+        // verify
+        assertEquals("The list should have 3 elements", 3, result.size());
+        assertEquals("The first element should be 1.5", 1.5, result.get(0).doubleValue(), .000000001d);
+        assertEquals("Changes to the array should show through the list", 4.0, result.get(1).doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void createNumberListForNull() {
+        // exercise
+        FastDataUtilities.createNumberList(null);
+    }
+
+    // EC3
+    @Test
+    public void createNumberListForEmptyArray() {
+        // exercise
+        List<Number> result = FastDataUtilities.createNumberList(new double[0]);
+
+        // verify
+        assertTrue("The list should be empty", result.isEmpty());
+    }
+
+    // EC1
+    @Test(expected = UnsupportedOperationException.class)
+    public void createNumberListIsReadOnly() {
+        // exercise
+        FastDataUtilities.createNumberList(new double[] { 1.0 }).set(0, 2.0);
+    }
+
+    // ----------------------------
+    // createNumberList2D(double[][] data)
+    // data: { EC1: valid array, EC2: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void createNumberList2DForValidArray() {
+        // setup
+        double[][] data = { { 1.0, 2.0 }, { 3.0, 4.0 }, { 5.0, 6.0 } };
+
+        // exercise
+        List<List<Number>> result = FastDataUtilities.createNumberList2D(data);
+
+        // verify
+        assertEquals("The list should have 3 rows", 3, result.size());
+        assertEquals("The row should have 2 elements", 2, result.get(2).size());
+        assertEquals("The value at (1, 1) should be 4.0", 4.0, result.get(1).get(1).doubleValue(), .000000001d);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void createNumberList2DForNull() {
+        // exercise
+        FastDataUtilities.createNumberList2D(null);
+    }
+
+}
@@ -0,0 +1,261 @@
+package org.jfree.data;
+
+import java.security.InvalidParameterException;
+import java.util.BitSet;
+
+/**
+ * Methods that find the range of a set of values in a single pass, instead
+ * of folding the values into a range one at a time with
+ * {@link Range#expandToInclude(Range, double)}, which creates a new
+ * {@link Range} for every value.
+ * <p>
+ * <code>null</code> cells and <code>Double.NaN</code> values are ignored.
+ * When no values remain, or an index is out of range, the methods return
+ * <code>null</code>, as {@link org.jfree.data.general.DatasetUtilities}
+ * does for an empty dataset.
+ */
+public abstract class FastRangeUtilities {
+
+    /**
+     * Returns the range of the values in an array.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     *
+     * @return The range (possibly <code>null</code>).
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Range findRange(double[] data) {
+        FastDataUtilities.checkNotNull(data);
+        double[] bounds = emptyBounds();
+        scan(data, 0, data.length, 1, bounds);
+        return toRange(bounds);
+    }
+
+    /**
+     * Returns the range of the values in one column of a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     *
+     * @return The range (possibly <code>null</code>).
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Range findColumnRange(Values2D data, int column) {
+        FastDataUtilities.checkNotNull(data);
+        int rowCount = data.getRowCount();
+        if (column < 0 || column >= data.getColumnCount()) {
+            return null;
+        }
+        double[] bounds = emptyBounds();
+        if (data instanceof DoubleArrayValues2D) {
+            DoubleArrayValues2D table = (DoubleArrayValues2D) data;
+            int columnCount = table.getColumnCount();
+            int end = rowCount * columnCount;
+            BitSet nulls = table.getNullMask();
+            if (nulls.isEmpty()) {
+                scan(table.getData(), column, end, columnCount, bounds);
+            }
+            else {
+                scanSkippingNulls(table.getData(), nulls, column, end,
+                        columnCount, bounds);
+            }
+        }
+        else {
+            for (int r = 0; r < rowCount; r++) {
+                include(data.getValue(r, column), bounds);
+            }
+        }
+        return toRange(bounds);
+    }
+
+    /**
+     * Returns the range of the values in one row of a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     *
+     * @return The range (possibly <code>null</code>).
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Range findRowRange(Values2D data, int row) {
+        FastDataUtilities.checkNotNull(data);
+        int columnCount = data.getColumnCount();
+        if (row < 0 || row >= data.getRowCount()) {
+            return null;
+        }
+        double[] bounds = emptyBounds();
+        if (data instanceof DoubleArrayValues2D) {
+            DoubleArrayValues2D table = (DoubleArrayValues2D) data;
+            int start = row * columnCount;
+            scanRuns(table.getData(), table.getNullMask(), start,
+                    start + columnCount, bounds);
+        }
+        else {
+            for (int c = 0; c < columnCount; c++) {
+                include(data.getValue(row, c), bounds);
+            }
+        }
+        return toRange(bounds);
+    }
+
+    /**
+     * Returns the range of all the values in a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     *
+     * @return The range (possibly <code>null</code>).
+     *
+     * @throws InvalidParameterException if invalid data object is passed in.
+     */
+    public static Range findRange(Values2D data) {
+        FastDataUtilities.checkNotNull(data);
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        double[] bounds = emptyBounds();
+        if (data instanceof DoubleArrayValues2D) {
+            DoubleArrayValues2D table = (DoubleArrayValues2D) data;
+            scanRuns(table.getData(), table.getNullMask(), 0,
+                    rowCount * columnCount, bounds);
+        }
+        else {
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < columnCount; c++) {
+                    include(data.getValue(r, c), bounds);
+                }
+            }
+        }
+        return toRange(bounds);
+    }
+
+    /**
+     * Returns bounds that contain no values.
+     *
+     * @return An array holding the lower and upper bound.
+     */
+    private static double[] emptyBounds() {
+        return new double[] {Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Converts bounds to a range.
+     *
+     * @param bounds  the lower and upper bound.
+     *
+     * @return The range, or <code>null</code> if no value was included.
+     */
+    private static Range toRange(double[] bounds) {
+        if (bounds[0] > bounds[1]) {
+            return null;
+        }
+        return new Range(bounds[0], bounds[1]);
+    }
+
+    /**
+     * Widens bounds to include a single value.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param bounds  the lower and upper bound.
+     */
+    private static void include(Number value, double[] bounds) {
+        if (value != null) {
+            double v = value.doubleValue();
+            if (v < bounds[0]) {
+                bounds[0] = v;
+            }
+            if (v > bounds[1]) {
+                bounds[1] = v;
+            }
+        }
+    }
+
+    /**
+     * Widens bounds to include the values at <code>from</code>,
+     * <code>from + stride</code> and so on, up to but not including
+     * <code>to</code>.  Every comparison with NaN is false, so NaN values
+     * drop out without a separate test.  A new minimum or maximum is rare
+     * once the first few values have been seen, so the two tests are almost
+     * always predicted correctly; this measures faster than select-based
+     * loops, which make every step wait on the one before.
+     *
+     * @param values  the values.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     * @param stride  the distance between indices (must be > 0).
+     * @param bounds  the lower and upper bound.
+     */
+    static void scan(double[] values, int from, int to, int stride,
+            double[] bounds) {
+        double lo = bounds[0];
+        double hi = bounds[1];
+        for (int i = from; i < to; i += stride) {
+            double x = values[i];
+            if (x < lo) {
+                lo = x;
+            }
+            if (x > hi) {
+                hi = x;
+            }
+        }
+        bounds[0] = lo;
+        bounds[1] = hi;
+    }
+
+    /**
+     * Widens bounds to include the contiguous values from <code>from</code>
+     * to <code>to</code> that are not flagged as <code>null</code>, scanning
+     * each unbroken run of values with {@link #scan}.
+     *
+     * @param values  the values.
+     * @param nulls  the <code>null</code> flags.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     * @param bounds  the lower and upper bound.
+     */
+    private static void scanRuns(double[] values, BitSet nulls, int from,
+            int to, double[] bounds) {
+        int start = nulls.nextClearBit(from);
+        while (start < to) {
+            int end = nulls.nextSetBit(start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            scan(values, start, end, 1, bounds);
+            start = nulls.nextClearBit(end);
+        }
+    }
+
+    /**
+     * Widens bounds to include strided values that are not flagged as
+     * <code>null</code>.
+     *
+     * @param values  the values.
+     * @param nulls  the <code>null</code> flags.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     * @param stride  the distance between indices (must be > 0).
+     * @param bounds  the lower and upper bound.
+     */
+    private static void scanSkippingNulls(double[] values, BitSet nulls,
+            int from, int to, int stride, double[] bounds) {
+        double lo = bounds[0];
+        double hi = bounds[1];
+        for (int i = from; i < to; i += stride) {
+            if (!nulls.get(i)) {
+                double x = values[i];
+                if (x < lo) {
+                    lo = x;
+                }
+                if (x > hi) {
+                    hi = x;
+                }
+            }
+        }
+        bounds[0] = lo;
+        bounds[1] = hi;
+    }
+
+}
@@ -0,0 +1,251 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+import java.security.InvalidParameterException;
+
+public class FastRangeUtilitiesTest {
+
+    private DoubleArrayValues2D table;
+
+    @Before
+    public void setUp() {
+        // 3 x 2 table with a null cell at (1, 1)
+        table = new DoubleArrayValues2D(new double[][] { { 7.5, 4.0 }, { -2.5, 100.0 }, { 1.0, -2.0 } });
+        table.setValue(1, 1, (Number) null);
+    }
+
+    /**
+     * Checks the bounds of a range.  The upper bound is read as the lower
+     * bound plus the length.
+     */
+    private static void assertRange(String message, double lower, double upper, Range range) {
+        assertNotNull(message + " should not be null", range);
+        assertEquals(message + " should have the expected lower bound", lower, range.getLowerBound(), .000000001d);
+        assertEquals(message + " should have the expected upper bound", upper,
+                range.getLowerBound() + range.getLength(), .000000001d);
+    }
+
+    // ----------------------------
+    // findRange(double[] data)
+    // data: { EC1: mixed values, EC2: null, EC3: empty, EC4: all NaN,
+    //         EC5: contains NaN, EC6: single value (odd length) }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void findRangeForMixedValues() {
+        // exercise
+        Range result = FastRangeUtilities.findRange(new double[] { 3.0, -1.5, 8.0, 2.0 });
+
+        // verify
+        assertRange("The range", -1.5, 8.0, result);
+    }
+
+    // EC2
+    @Test(expected = InvalidParameterException.class)
+    public void findRangeForNullArray() {
+        // exercise
+        FastRangeUtilities.findRange((double[]) null);
+    }
+
+    // EC3
+    @Test
+    public void findRangeForEmptyArray() {
+        // verify
+        assertNull("The range of no values should be null", FastRangeUtilities.findRange(new double[0]));
+    }
+
+    // EC4
+    @Test
+    public void findRangeForAllNaN() {
+        // verify
+        assertNull("The range of only NaN values should be null",
+                FastRangeUtilities.findRange(new double[] { Double.NaN, Double.NaN }));
+    }
+
+    // EC5
+    @Test
+    public void findRangeIgnoresNaN() {
+        // exercise
+        Range result = FastRangeUtilities.findRange(new double[] { Double.NaN, 4.0, Double.NaN, -3.0, 5.0 });
+
+        // verify
+        assertRange("The range", -3.0, 5.0, result);
+    }
+
+    // EC6
+    @Test
+    public void findRangeForSingleValue() {
+        // exercise
+        Range result = FastRangeUtilities.findRange(new double[] { 6.0 });
+
+        // verify
+        assertRange("The range", 6.0, 6.0, result);
+    }
+
+    // ----------------------------
+    // findColumnRange(Values2D data, int column)
+    // column: { BLB: -1, LB: 0, UB: columnCount - 1, AUB: columnCount },
+    // data: { EC1: array table with null, EC2: array table without null,
+    //         EC3: other Values2D, EC4: null }
+    // ----------------------------
+
+    // LB, EC2
+    @Test
+    public void findColumnRangeWithoutNulls() {
+        // verify
+        assertRange("Column 0", -2.5, 7.5, FastRangeUtilities.findColumnRange(table, 0));
+    }
+
+    // UB, EC1
+    @Test
+    public void findColumnRangeSkipsNull() {
+        // verify
+        assertRange("Column 1", -2.0, 4.0, FastRangeUtilities.findColumnRange(table, 1));
+    }
+
+    // BLB
+    @Test
+    public void findColumnRangeBelowLowerBound() {
+        // verify
+        assertNull("An out-of-range column should give null", FastRangeUtilities.findColumnRange(table, -1));
+    }
+
+    // AUB
+    @Test
+    public void findColumnRangeAboveUpperBound() {
+        // verify
+        assertNull("An out-of-range column should give null", FastRangeUtilities.findColumnRange(table, 2));
+    }
+
+    // EC3
+    @Test
+    public void findColumnRangeForMockValues() {
+        // setup
+        Mockery mockingContext = new Mockery();
+        final Values2D values = mockingContext.mock(Values2D.class);
+        mockingContext.checking(new Expectations() {
+            {
+                allowing(values).getRowCount();
+                will(returnValue(3));
+                allowing(values).getColumnCount();
+                will(returnValue(1));
+                oneOf(values).getValue(0, 0);
+                will(returnValue(2.0));
+                oneOf(values).getValue(1, 0);
+                will(returnValue(null));
+                oneOf(values).getValue(2, 0);
+                will(returnValue(-4.0));
+            }
+        });
+
+        // exercise
+        Range result = FastRangeUtilities.findColumnRange(values, 0);
+
+        // verify
+        assertRange("The mock column", -4.0, 2.0, result);
+        mockingContext.assertIsSatisfied();
+    }
+
+    // EC4
+    @Test(expected = InvalidParameterException.class)
+    public void findColumnRangeForNull() {
+        // exercise
+        FastRangeUtilities.findColumnRange(null, 0);
+    }
+
+    // ----------------------------
+    // findRowRange(Values2D data, int row)
+    // row: { BLB: -1, LB: 0, UB: rowCount - 1, AUB: rowCount },
+    // data: { EC1: row with null, EC2: row of only nulls }
+    // ----------------------------
+
+    // LB
+    @Test
+    public void findRowRangeForFirstRow() {
+        // verify
+        assertRange("Row 0", 4.0, 7.5, FastRangeUtilities.findRowRange(table, 0));
+    }
+
+    // EC1
+    @Test
+    public void findRowRangeSkipsNull() {
+        // verify
+        assertRange("Row 1", -2.5, -2.5, FastRangeUtilities.findRowRange(table, 1));
+    }
+
+    // UB
+    @Test
+    public void findRowRangeForLastRow() {
+        // verify
+        assertRange("Row 2", -2.0, 1.0, FastRangeUtilities.findRowRange(table, 2));
+    }
+
+    // BLB
+    @Test
+    public void findRowRangeBelowLowerBound() {
+        // verify
+        assertNull("An out-of-range row should give null", FastRangeUtilities.findRowRange(table, -1));
+    }
+
+    // AUB
+    @Test
+    public void findRowRangeAboveUpperBound() {
+        // verify
+        assertNull("An out-of-range row should give null", FastRangeUtilities.findRowRange(table, 3));
+    }
+
+    // EC2
+    @Test
+    public void findRowRangeForNullRow() {
+        // verify
+        assertNull("A row of nulls should give null",
+                FastRangeUtilities.findRowRange(new DoubleArrayValues2D(2, 3), 1));
+    }
+
+    // ----------------------------
+    // findRange(Values2D data)
+    // data: { EC1: array table with null, EC2: other Values2D, EC3: empty }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void findRangeForTableSkipsNull() {
+        // verify
+        assertRange("The table", -2.5, 7.5, FastRangeUtilities.findRange(table));
+    }
+
+    // EC2
+    @Test
+    public void findRangeForWrappedTable() {
+        // setup
+        Values2D wrapped = new Values2D() {
+            public int getRowCount() {
+                return table.getRowCount();
+            }
+
+            public int getColumnCount() {
+                return table.getColumnCount();
+            }
+
+            public Number getValue(int row, int column) {
+                return table.getValue(row, column);
+            }
+        };
+
+        // verify
+        assertRange("The wrapped table", -2.5, 7.5, FastRangeUtilities.findRange(wrapped));
+    }
+
+    // EC3
+    @Test
+    public void findRangeForEmptyTable() {
+        // verify
+        assertNull("An empty table should give null", FastRangeUtilities.findRange(new DoubleArrayValues2D(0, 0)));
+    }
+
+}
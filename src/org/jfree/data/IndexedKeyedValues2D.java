@@ -0,0 +1,473 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jfree.util.ObjectUtilities;
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A table of values indexed by row and column keys, with the same behaviour
+ * as {@link DefaultKeyedValues2D} but with hash maps from each row key and
+ * each column key to its index.  Looking up a key, and reading or writing a
+ * value by key, takes constant time; <code>DefaultKeyedValues2D</code>
+ * scans the keys of the table and then the keys of the row.  Each row is an
+ * {@link IndexedKeyedValues}.
+ * <p>
+ * Removing a row or column renumbers the keys after it, in O(n) time.  If
+ * the row keys are kept sorted, adding a new row key does the same for the
+ * rows after the insertion point.
+ */
+public class IndexedKeyedValues2D implements KeyedValues2D, PublicCloneable,
+        Cloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4237519523861094473L;
+
+    /** The row keys. */
+    private List rowKeys;
+
+    /** The column keys. */
+    private List columnKeys;
+
+    /** The rows, one {@link IndexedKeyedValues} per row key. */
+    private List rows;
+
+    /** The index of each row key (an <code>Integer</code>). */
+    private HashMap rowIndices;
+
+    /** The index of each column key (an <code>Integer</code>). */
+    private HashMap columnIndices;
+
+    /** If <code>true</code>, the row keys are kept in ascending order. */
+    private boolean sortRowKeys;
+
+    /**
+     * Creates a new, empty table.
+     */
+    public IndexedKeyedValues2D() {
+        this(false);
+    }
+
+    /**
+     * Creates a new, empty table.
+     *
+     * @param sortRowKeys  if <code>true</code>, the row keys are kept in
+     *     ascending order.
+     */
+    public IndexedKeyedValues2D(boolean sortRowKeys) {
+        this.rowKeys = new ArrayList();
+        this.columnKeys = new ArrayList();
+        this.rows = new ArrayList();
+        this.rowIndices = new HashMap();
+        this.columnIndices = new HashMap();
+        this.sortRowKeys = sortRowKeys;
+    }
+
+    /**
+     * Returns the row count.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowKeys.size();
+    }
+
+    /**
+     * Returns the column count.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnKeys.size();
+    }
+
+    /**
+     * Returns the value for a given row and column.
+     *
+     * @param row  the row index.
+     * @param column  the column index.
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        IndexedKeyedValues rowData = (IndexedKeyedValues) this.rows.get(row);
+        int index = rowData.getIndex((Comparable) this.columnKeys.get(column));
+        if (index >= 0) {
+            return rowData.getValue(index);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key for a given row.
+     *
+     * @param row  the row index (zero based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return (Comparable) this.rowKeys.get(row);
+    }
+
+    /**
+     * Returns the row index for a given key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     *
+     * @return The row index, or <code>-1</code> if the key is not recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        return indexOf(this.rowIndices, key);
+    }
+
+    /**
+     * Returns the row keys in an unmodifiable list.
+     *
+     * @return The row keys.
+     */
+    public List getRowKeys() {
+        return Collections.unmodifiableList(this.rowKeys);
+    }
+
+    /**
+     * Returns the key for a given column.
+     *
+     * @param column  the column index (zero based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return (Comparable) this.columnKeys.get(column);
+    }
+
+    /**
+     * Returns the column index for a given key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     *
+     * @return The column index, or <code>-1</code> if the key is not
+     *     recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        return indexOf(this.columnIndices, key);
+    }
+
+    /**
+     * Returns the column keys in an unmodifiable list.
+     *
+     * @return The column keys.
+     */
+    public List getColumnKeys() {
+        return Collections.unmodifiableList(this.columnKeys);
+    }
+
+    /**
+     * Returns the value for the given row and column keys.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        if (rowKey == null) {
+            throw new IllegalArgumentException("Null 'rowKey' argument.");
+        }
+        if (columnKey == null) {
+            throw new IllegalArgumentException("Null 'columnKey' argument.");
+        }
+        int row = indexOf(this.rowIndices, rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Unrecognised rowKey: " + rowKey);
+        }
+        if (indexOf(this.columnIndices, columnKey) < 0) {
+            throw new UnknownKeyException("Unrecognised columnKey: "
+                    + columnKey);
+        }
+        IndexedKeyedValues rowData = (IndexedKeyedValues) this.rows.get(row);
+        int index = rowData.getIndex(columnKey);
+        if (index >= 0) {
+            return rowData.getValue(index);
+        }
+        return null;
+    }
+
+    /**
+     * Adds a value to the table.  Performs the same function as
+     * {@link #setValue(Number, Comparable, Comparable)}.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        setValue(value, rowKey, columnKey);
+    }
+
+    /**
+     * Adds or updates a value.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        if (columnKey == null) {
+            throw new IllegalArgumentException("Null 'columnKey' argument.");
+        }
+        IndexedKeyedValues row;
+        int rowIndex = getRowIndex(rowKey);
+        if (rowIndex >= 0) {
+            row = (IndexedKeyedValues) this.rows.get(rowIndex);
+        }
+        else {
+            row = new IndexedKeyedValues();
+            if (this.sortRowKeys) {
+                rowIndex = -Collections.binarySearch(this.rowKeys, rowKey) - 1;
+                this.rowKeys.add(rowIndex, rowKey);
+                this.rows.add(rowIndex, row);
+                reindex(this.rowKeys, this.rowIndices, rowIndex);
+            }
+            else {
+                this.rowIndices.put(rowKey, new Integer(this.rowKeys.size()));
+                this.rowKeys.add(rowKey);
+                this.rows.add(row);
+            }
+        }
+        row.setValue(columnKey, value);
+        if (indexOf(this.columnIndices, columnKey) < 0) {
+            this.columnIndices.put(columnKey,
+                    new Integer(this.columnKeys.size()));
+            this.columnKeys.add(columnKey);
+        }
+    }
+
+    /**
+     * Removes a value from the table by setting it to <code>null</code>.  If
+     * all the values in the specified row and/or column are now
+     * <code>null</code>, the row and/or column is removed from the table.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void removeValue(Comparable rowKey, Comparable columnKey) {
+        setValue(null, rowKey, columnKey);
+
+        // 1. check whether the row is now empty.
+        int rowIndex = getRowIndex(rowKey);
+        IndexedKeyedValues row = (IndexedKeyedValues) this.rows.get(rowIndex);
+        boolean allNull = true;
+        for (int i = 0; i < row.getItemCount(); i++) {
+            if (row.getValue(i) != null) {
+                allNull = false;
+                break;
+            }
+        }
+        if (allNull) {
+            removeRow(rowIndex);
+        }
+
+        // 2. check whether the column is now empty.
+        allNull = true;
+        for (int r = 0; r < this.rows.size(); r++) {
+            row = (IndexedKeyedValues) this.rows.get(r);
+            int index = row.getIndex(columnKey);
+            if (index >= 0 && row.getValue(index) != null) {
+                allNull = false;
+                break;
+            }
+        }
+        if (allNull) {
+            removeColumn(columnKey);
+        }
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @param rowIndex  the row index.
+     */
+    public void removeRow(int rowIndex) {
+        Object key = this.rowKeys.remove(rowIndex);
+        this.rows.remove(rowIndex);
+        this.rowIndices.remove(key);
+        reindex(this.rowKeys, this.rowIndices, rowIndex);
+    }
+
+    /**
+     * Removes a row.  Does nothing if the key is not recognised.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     */
+    public void removeRow(Comparable rowKey) {
+        int rowIndex = getRowIndex(rowKey);
+        if (rowIndex >= 0) {
+            removeRow(rowIndex);
+        }
+    }
+
+    /**
+     * Removes a column.
+     *
+     * @param columnIndex  the column index.
+     */
+    public void removeColumn(int columnIndex) {
+        removeColumn(getColumnKey(columnIndex));
+    }
+
+    /**
+     * Removes a column.  Does nothing if the key is not recognised.
+     *
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void removeColumn(Comparable columnKey) {
+        int columnIndex = getColumnIndex(columnKey);
+        if (columnIndex < 0) {
+            return;
+        }
+        for (Iterator iterator = this.rows.iterator(); iterator.hasNext();) {
+            ((IndexedKeyedValues) iterator.next()).removeValue(columnKey);
+        }
+        this.columnKeys.remove(columnIndex);
+        this.columnIndices.remove(columnKey);
+        reindex(this.columnKeys, this.columnIndices, columnIndex);
+    }
+
+    /**
+     * Clears all the data and associated keys.
+     */
+    public void clear() {
+        this.rowKeys.clear();
+        this.columnKeys.clear();
+        this.rows.clear();
+        this.rowIndices.clear();
+        this.columnIndices.clear();
+    }
+
+    /**
+     * Returns the index recorded for a key.
+     *
+     * @param indices  the key-to-index map.
+     * @param key  the key.
+     *
+     * @return The index, or <code>-1</code> if the key is not recognised.
+     */
+    private static int indexOf(HashMap indices, Comparable key) {
+        Integer index = (Integer) indices.get(key);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Records the index of every key from <code>start</code> onwards.
+     *
+     * @param keys  the keys.
+     * @param indices  the key-to-index map.
+     * @param start  the first index to record.
+     */
+    private static void reindex(List keys, HashMap indices, int start) {
+        int count = keys.size();
+        for (int i = start; i < count; i++) {
+            indices.put(keys.get(i), new Integer(i));
+        }
+    }
+
+    /**
+     * Tests if this object is equal to another.  Any {@link KeyedValues2D}
+     * with the same keys and values is equal, as for
+     * {@link DefaultKeyedValues2D}.
+     *
+     * @param o  the other object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object o) {
+        if (o == null) {
+            return false;
+        }
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof KeyedValues2D)) {
+            return false;
+        }
+        KeyedValues2D kv2D = (KeyedValues2D) o;
+        if (!getRowKeys().equals(kv2D.getRowKeys())) {
+            return false;
+        }
+        if (!getColumnKeys().equals(kv2D.getColumnKeys())) {
+            return false;
+        }
+        int rowCount = getRowCount();
+        if (rowCount != kv2D.getRowCount()) {
+            return false;
+        }
+        int colCount = getColumnCount();
+        if (colCount != kv2D.getColumnCount()) {
+            return false;
+        }
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < colCount; c++) {
+                Number v1 = getValue(r, c);
+                Number v2 = kv2D.getValue(r, c);
+                if (v1 == null) {
+                    if (v2 != null) {
+                        return false;
+                    }
+                }
+                else {
+                    if (!v1.equals(v2)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result;
+        result = this.rowKeys.hashCode();
+        result = 29 * result + this.columnKeys.hashCode();
+        result = 29 * result + this.rows.hashCode();
+        return result;
+    }
+
+    /**
+     * Returns a clone.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException  this class will not throw this
+     *         exception, but subclasses (if any) might.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        IndexedKeyedValues2D clone = (IndexedKeyedValues2D) super.clone();
+        clone.rowKeys = new ArrayList(this.rowKeys);
+        clone.columnKeys = new ArrayList(this.columnKeys);
+        clone.rows = (List) ObjectUtilities.deepClone(this.rows);
+        clone.rowIndices = (HashMap) this.rowIndices.clone();
+        clone.columnIndices = (HashMap) this.columnIndices.clone();
+        return clone;
+    }
+
+}
@@ -0,0 +1,286 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+
+public class IndexedKeyedValues2DTest {
+
+    private IndexedKeyedValues2D table;
+
+    @Before
+    public void setUp() {
+        table = new IndexedKeyedValues2D();
+        table.addValue(new Double(1.0), "R1", "C1");
+        table.addValue(new Double(2.0), "R1", "C2");
+        table.addValue(new Double(3.0), "R2", "C1");
+    }
+
+    /**
+     * Checks that the keys and values match a DefaultKeyedValues2D cell for
+     * cell, and that every key maps to its position.
+     */
+    private static void assertMatches(DefaultKeyedValues2D expected, IndexedKeyedValues2D actual) {
+        assertEquals("The row keys should match", expected.getRowKeys(), actual.getRowKeys());
+        assertEquals("The column keys should match", expected.getColumnKeys(), actual.getColumnKeys());
+        for (int r = 0; r < expected.getRowCount(); r++) {
+            assertEquals("The row index should match", r, actual.getRowIndex(actual.getRowKey(r)));
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertEquals("The value at (" + r + ", " + c + ") should match", expected.getValue(r, c),
+                        actual.getValue(r, c));
+            }
+        }
+        for (int c = 0; c < expected.getColumnCount(); c++) {
+            assertEquals("The column index should match", c, actual.getColumnIndex(actual.getColumnKey(c)));
+        }
+    }
+
+    // ----------------------------
+    // getValue(Comparable rowKey, Comparable columnKey)
+    // cell: { EC1: present, EC2: known column missing from the row,
+    //         EC3: unknown row, EC4: unknown column, EC5: null key }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getValueForPresentCell() {
+        // verify
+        assertEquals("The value at (R2, C1) should be 3.0", 3.0, table.getValue("R2", "C1").doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void getValueForCellMissingFromRow() {
+        // verify
+        assertNull("A cell never set should be null", table.getValue("R2", "C2"));
+        assertNull("A cell never set should be null by index", table.getValue(1, 1));
+    }
+
+    // EC3
+    @Test(expected = UnknownKeyException.class)
+    public void getValueForUnknownRow() {
+        // exercise
+        table.getValue("R9", "C1");
+    }
+
+    // EC4
+    @Test(expected = UnknownKeyException.class)
+    public void getValueForUnknownColumn() {
+        // exercise
+        table.getValue("R1", "C9");
+    }
+
+    // EC5
+    @Test(expected = IllegalArgumentException.class)
+    public void getValueForNullKey() {
+        // exercise
+        table.getValue(null, "C1");
+    }
+
+    // ----------------------------
+    // getRowIndex(Comparable key) / getColumnIndex(Comparable key)
+    // key: { EC1: present, EC2: absent, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getIndexForPresentKeys() {
+        // verify
+        assertEquals("R2 should be the second row", 1, table.getRowIndex("R2"));
+        assertEquals("C2 should be the second column", 1, table.getColumnIndex("C2"));
+    }
+
+    // EC2
+    @Test
+    public void getIndexForAbsentKeys() {
+        // verify
+        assertEquals("An absent row key should give -1", -1, table.getRowIndex("R9"));
+        assertEquals("An absent column key should give -1", -1, table.getColumnIndex("C9"));
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void getRowIndexForNullKey() {
+        // exercise
+        table.getRowIndex(null);
+    }
+
+    // ----------------------------
+    // IndexedKeyedValues2D(boolean sortRowKeys)
+    // ----------------------------
+
+    @Test
+    public void sortedRowKeysAreInserted() {
+        // setup
+        IndexedKeyedValues2D sorted = new IndexedKeyedValues2D(true);
+
+        // exercise
+        sorted.addValue(new Double(1.0), "B", "C1");
+        sorted.addValue(new Double(2.0), "D", "C1");
+        sorted.addValue(new Double(3.0), "A", "C1");
+        sorted.addValue(new Double(4.0), "C", "C1");
+
+        // verify
+        for (int r = 0; r < sorted.getRowCount(); r++) {
+            assertEquals("The row keys should be sorted", String.valueOf((char) ('A' + r)), sorted.getRowKey(r));
+            assertEquals("The row index should match", r, sorted.getRowIndex(sorted.getRowKey(r)));
+        }
+        assertEquals("The value for A should follow its row", 3.0, sorted.getValue("A", "C1").doubleValue(),
+                .000000001d);
+    }
+
+    // ----------------------------
+    // removeValue(Comparable rowKey, Comparable columnKey)
+    // effect: { EC1: row and column still used, EC2: row emptied,
+    //           EC3: column emptied }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void removeValueKeepsUsedRowAndColumn() {
+        // setup
+        table.addValue(new Double(4.0), "R2", "C2");
+
+        // exercise
+        table.removeValue("R1", "C1");
+
+        // verify
+        assertEquals("Both rows should remain", 2, table.getRowCount());
+        assertEquals("Both columns should remain", 2, table.getColumnCount());
+        assertNull("The removed value should be null", table.getValue("R1", "C1"));
+    }
+
+    // EC2
+    @Test
+    public void removeValueRemovesEmptiedRow() {
+        // exercise
+        table.removeValue("R2", "C1");
+
+        // verify
+        assertEquals("R2 should be removed", -1, table.getRowIndex("R2"));
+        assertEquals("C1 should remain", 0, table.getColumnIndex("C1"));
+    }
+
+    // EC3
+    @Test
+    public void removeValueRemovesEmptiedColumn() {
+        // exercise
+        table.removeValue("R1", "C2");
+
+        // verify
+        assertEquals("C2 should be removed", -1, table.getColumnIndex("C2"));
+        assertEquals("R1 should remain", 0, table.getRowIndex("R1"));
+    }
+
+    // ----------------------------
+    // removeRow / removeColumn / clear
+    // ----------------------------
+
+    @Test
+    public void removeRowRenumbersLaterRows() {
+        // setup
+        table.addValue(new Double(5.0), "R3", "C1");
+
+        // exercise
+        table.removeRow("R1");
+
+        // verify
+        assertEquals("R3 should move up", 1, table.getRowIndex("R3"));
+        assertEquals("The value for R3 should follow its row", 5.0, table.getValue(1, 0).doubleValue(),
+                .000000001d);
+    }
+
+    @Test
+    public void removeColumnRenumbersLaterColumns() {
+        // exercise
+        table.removeColumn(0);
+
+        // verify
+        assertEquals("C2 should move left", 0, table.getColumnIndex("C2"));
+        assertEquals("The value for (R1, C2) should follow its column", 2.0, table.getValue(0, 0).doubleValue(),
+                .000000001d);
+    }
+
+    @Test
+    public void clearRemovesAllKeys() {
+        // exercise
+        table.clear();
+
+        // verify
+        assertEquals("No rows should remain", 0, table.getRowCount());
+        assertEquals("No row keys should be found", -1, table.getRowIndex("R1"));
+        assertEquals("No column keys should be found", -1, table.getColumnIndex("C1"));
+    }
+
+    // ----------------------------
+    // equals(Object obj) / clone()
+    // ----------------------------
+
+    @Test
+    public void equalsDefaultKeyedValues2DWithSameCells() {
+        // setup
+        DefaultKeyedValues2D other = new DefaultKeyedValues2D();
+        other.addValue(new Double(1.0), "R1", "C1");
+        other.addValue(new Double(2.0), "R1", "C2");
+        other.addValue(new Double(3.0), "R2", "C1");
+
+        // verify
+        assertTrue("The tables should be equal", table.equals(other));
+    }
+
+    @Test
+    public void cloneIsIndependent() throws CloneNotSupportedException {
+        // setup
+        IndexedKeyedValues2D clone = (IndexedKeyedValues2D) table.clone();
+
+        // exercise
+        clone.setValue(new Double(9.0), "R1", "C1");
+        clone.removeRow("R2");
+
+        // verify
+        assertEquals("The original value should not change", 1.0, table.getValue("R1", "C1").doubleValue(),
+                .000000001d);
+        assertEquals("The original should keep R2", 1, table.getRowIndex("R2"));
+        assertEquals("The clone should lose R2", -1, clone.getRowIndex("R2"));
+    }
+
+    // ----------------------------
+    // random sequence of operations, compared with DefaultKeyedValues2D
+    // ----------------------------
+
+    @Test
+    public void randomOperationsMatchDefaultKeyedValues2D() {
+        // setup
+        Random random = new Random(2011L);
+        DefaultKeyedValues2D expected = new DefaultKeyedValues2D();
+        IndexedKeyedValues2D actual = new IndexedKeyedValues2D();
+
+        // exercise
+        for (int step = 0; step < 1000; step++) {
+            String rowKey = "R" + random.nextInt(12);
+            String columnKey = "C" + random.nextInt(12);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                Double value = new Double(random.nextInt(100));
+                expected.setValue(value, rowKey, columnKey);
+                actual.setValue(value, rowKey, columnKey);
+            }
+            else if (op < 8) {
+                if (expected.getRowIndex(rowKey) >= 0) {
+                    expected.removeRow(rowKey);
+                }
+                actual.removeRow(rowKey);
+            }
+            else if (expected.getColumnIndex(columnKey) >= 0) {
+                expected.removeColumn(columnKey);
+                actual.removeColumn(columnKey);
+            }
+
+            // verify
+            assertMatches(expected, actual);
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.jfree.util.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+
+public class IndexedKeyedValuesTest {
+
+    private IndexedKeyedValues values;
+
+    @Before
+    public void setUp() {
+        values = new IndexedKeyedValues();
+        values.addValue("C", 3.0);
+        values.addValue("A", 1.0);
+        values.addValue("B", 2.0);
+    }
+
+    /**
+     * Checks that every key maps to its position, as a linear scan of a
+     * DefaultKeyedValues with the same items would find it.
+     */
+    private static void assertIndexed(IndexedKeyedValues values) {
+        for (int i = 0; i < values.getItemCount(); i++) {
+            assertEquals("The index of " + values.getKey(i) + " should be its position", i,
+                    values.getIndex(values.getKey(i)));
+        }
+    }
+
+    /**
+     * Checks that the keys and values match a DefaultKeyedValues item for item.
+     */
+    private static void assertMatches(DefaultKeyedValues expected, IndexedKeyedValues actual) {
+        assertEquals("The item counts should match", expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The keys should match", expected.getKey(i), actual.getKey(i));
+            assertEquals("The values should match", expected.getValue(i), actual.getValue(i));
+        }
+        assertIndexed(actual);
+    }
+
+    // ----------------------------
+    // getIndex(Comparable key)
+    // key: { EC1: present, EC2: absent, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getIndexForPresentKey() {
+        // verify
+        assertEquals("The index of A should be 1", 1, values.getIndex("A"));
+        assertEquals("The value of B should be 2.0", 2.0, values.getValue("B").doubleValue(), .000000001d);
+        assertIndexed(values);
+    }
+
+    // EC2
+    @Test
+    public void getIndexForAbsentKey() {
+        // verify
+        assertEquals("The index of an absent key should be -1", -1, values.getIndex("Z"));
+    }
+
+    // EC3
+    @Test
+    public void getIndexForNullKey() {
+        // verify
+        assertEquals("The index of a null key should be -1", -1, values.getIndex(null));
+    }
+
+    // ----------------------------
+    // setValue(Comparable key, Number value)
+    // key: { EC1: new, EC2: existing, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void setValueForNewKey() {
+        // exercise
+        values.setValue("D", 4.0);
+
+        // verify
+        assertEquals("The new key should be appended", 3, values.getIndex("D"));
+        assertIndexed(values);
+    }
+
+    // EC2
+    @Test
+    public void setValueForExistingKey() {
+        // exercise
+        values.setValue("A", 10.0);
+
+        // verify
+        assertEquals("The item count should not change", 3, values.getItemCount());
+        assertEquals("The value of A should be replaced", 10.0, values.getValue(1).doubleValue(), .000000001d);
+        assertIndexed(values);
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void setValueForNullKey() {
+        // exercise
+        values.setValue(null, 1.0);
+    }
+
+    // ----------------------------
+    // removeValue(Comparable key) / removeValue(int index)
+    // item: { EC1: first, EC2: last, EC3: absent key }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void removeValueForFirstItem() {
+        // exercise
+        values.removeValue("C");
+
+        // verify
+        assertEquals("The removed key should not be found", -1, values.getIndex("C"));
+        assertEquals("The index of A should move down", 0, values.getIndex("A"));
+        assertIndexed(values);
+    }
+
+    // EC2
+    @Test
+    public void removeValueForLastItem() {
+        // exercise
+        values.removeValue(2);
+
+        // verify
+        assertEquals("The removed key should not be found", -1, values.getIndex("B"));
+        assertIndexed(values);
+    }
+
+    // EC3
+    @Test
+    public void removeValueForAbsentKey() {
+        // exercise
+        values.removeValue("Z");
+
+        // verify
+        assertEquals("The item count should not change", 3, values.getItemCount());
+        assertIndexed(values);
+    }
+
+    // ----------------------------
+    // sortByKeys(SortOrder order) / sortByValues(SortOrder order)
+    // order: { EC1: ascending, EC2: descending }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void sortByKeysAscending() {
+        // exercise
+        values.sortByKeys(SortOrder.ASCENDING);
+
+        // verify
+        assertEquals("A should come first", 0, values.getIndex("A"));
+        assertEquals("C should come last", 2, values.getIndex("C"));
+        assertIndexed(values);
+    }
+
+    // EC2
+    @Test
+    public void sortByValuesDescending() {
+        // exercise
+        values.sortByValues(SortOrder.DESCENDING);
+
+        // verify
+        assertEquals("C should come first", 0, values.getIndex("C"));
+        assertEquals("A should come last", 2, values.getIndex("A"));
+        assertIndexed(values);
+    }
+
+    // ----------------------------
+    // IndexedKeyedValues(KeyedValues source)
+    // source: { EC1: non-empty, EC2: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void copyConstructorForNonEmptySource() {
+        // exercise
+        IndexedKeyedValues copy = new IndexedKeyedValues(values);
+
+        // verify
+        assertEquals("The copy should equal the source", values, copy);
+        assertIndexed(copy);
+    }
+
+    // EC2
+    @Test(expected = IllegalArgumentException.class)
+    public void copyConstructorForNull() {
+        // exercise
+        new IndexedKeyedValues(null);
+    }
+
+    // ----------------------------
+    // clone()
+    // ----------------------------
+
+    @Test
+    public void cloneIsIndependent() throws CloneNotSupportedException {
+        // setup
+        IndexedKeyedValues clone = (IndexedKeyedValues) values.clone();
+
+        // exercise
+        clone.removeValue("C");
+        clone.addValue("D", 4.0);
+
+        // verify
+        assertEquals("The original should keep C", 0, values.getIndex("C"));
+        assertEquals("The original should not see D", -1, values.getIndex("D"));
+        assertIndexed(values);
+        assertIndexed(clone);
+    }
+
+    // ----------------------------
+    // random sequence of operations, compared with DefaultKeyedValues
+    // ----------------------------
+
+    @Test
+    public void randomOperationsMatchDefaultKeyedValues() {
+        // setup
+        Random random = new Random(2011L);
+        DefaultKeyedValues expected = new DefaultKeyedValues();
+        IndexedKeyedValues actual = new IndexedKeyedValues();
+
+        // exercise
+        for (int step = 0; step < 2000; step++) {
+            String key = "K" + random.nextInt(50);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                Double value = new Double(random.nextInt(100));
+                expected.setValue(key, value);
+                actual.setValue(key, value);
+            }
+            else if (op < 8) {
+                expected.removeValue(key);
+                actual.removeValue(key);
+            }
+            else if (op == 8) {
+                expected.sortByKeys(SortOrder.DESCENDING);
+                actual.sortByKeys(SortOrder.DESCENDING);
+            }
+            else {
+                expected.sortByValues(SortOrder.ASCENDING);
+                actual.sortByValues(SortOrder.ASCENDING);
+            }
+
+            // verify
+            assertMatches(expected, actual);
+            assertEquals("The indices should match", expected.getIndex(key), actual.getIndex(key));
+        }
+    }
+
+}
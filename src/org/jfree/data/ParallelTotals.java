@@ -0,0 +1,269 @@
+package org.jfree.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join implementations of the {@link FastDataUtilities} totals.
+ * <p>
+ * A table is cut into blocks of roughly {@link #LEAF_CELLS} cells.  The
+ * block boundaries, and the order in which partial sums are combined,
+ * depend only on the shape of the table, never on the number of threads or
+ * on scheduling, so a given table always produces exactly the same totals.
+ * Those totals may differ in the last bits from a sequential pass, which
+ * adds the values in a different order.  When compensated summation is
+ * requested, each block is summed with compensation and the block totals
+ * are added normally; with at most a few thousand blocks the error stays
+ * far below that of naive summation.
+ */
+final class ParallelTotals {
+
+    /** The approximate number of cells summed by one task. */
+    static final int LEAF_CELLS = 1 << 16;
+
+    /**
+     * Not used.
+     */
+    private ParallelTotals() {
+    }
+
+    /**
+     * Returns the sum of the values in one column, splitting the rows across
+     * the pool.
+     *
+     * @param pool  the pool.
+     * @param data  the table.
+     * @param column  the column index (in range).
+     * @param rowCount  the number of rows in the table.
+     * @param compensated  whether to use compensated summation.
+     *
+     * @return The column total.
+     */
+    static double columnTotal(ForkJoinPool pool, Values2D data, int column,
+            int rowCount, boolean compensated) {
+        return pool.invoke(new LineTask(data, column, true, 0, rowCount,
+                LEAF_CELLS, compensated)).doubleValue();
+    }
+
+    /**
+     * Returns the sum of the values in one row, splitting the columns across
+     * the pool.
+     *
+     * @param pool  the pool.
+     * @param data  the table.
+     * @param row  the row index (in range).
+     * @param columnCount  the number of columns in the table.
+     * @param compensated  whether to use compensated summation.
+     *
+     * @return The row total.
+     */
+    static double rowTotal(ForkJoinPool pool, Values2D data, int row,
+            int columnCount, boolean compensated) {
+        return pool.invoke(new LineTask(data, row, false, 0, columnCount,
+                LEAF_CELLS, compensated)).doubleValue();
+    }
+
+    /**
+     * Calculates every row total and every column total, splitting the rows
+     * across the pool.
+     *
+     * @param pool  the pool.
+     * @param data  the table.
+     * @param rowCount  the number of rows in the table.
+     * @param columnCount  the number of columns in the table.
+     * @param rowTotals  receives the row totals (<code>null</code> permitted).
+     * @param columnTotals  receives the column totals (<code>null</code>
+     *     permitted).
+     */
+    static void totals(ForkJoinPool pool, Values2D data, int rowCount,
+            int columnCount, double[] rowTotals, double[] columnTotals) {
+        double[] result = pool.invoke(new BlockTask(data, 0,
+                rowCount, columnCount, leafRows(columnCount), rowTotals,
+                columnTotals != null));
+        if (columnTotals != null && result != null) {
+            System.arraycopy(result, 0, columnTotals, 0, columnCount);
+        }
+    }
+
+    /**
+     * Returns the largest number of rows that one task totals without
+     * splitting, for a table with the given number of columns.  A table
+     * with no more rows than this is totalled by a single task.
+     *
+     * @param columnCount  the number of columns.
+     *
+     * @return The number of rows (at least one).
+     */
+    static int leafRows(int columnCount) {
+        return Math.max(1, LEAF_CELLS / Math.max(1, columnCount));
+    }
+
+    /**
+     * Sums a range of cells along a single row or column.
+     */
+    private static final class LineTask extends RecursiveTask<Double> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1716436356772174031L;
+
+        /** The table. */
+        private final Values2D data;
+
+        /** The fixed row or column index. */
+        private final int line;
+
+        /** <code>true</code> if <code>line</code> is a column index. */
+        private final boolean column;
+
+        /** The first index along the line. */
+        private final int start;
+
+        /** The index after the last. */
+        private final int end;
+
+        /** The largest range summed without splitting. */
+        private final int leafSize;
+
+        /** Whether to use compensated summation. */
+        private final boolean compensated;
+
+        /**
+         * Creates a new task.
+         *
+         * @param data  the table.
+         * @param line  the row or column index.
+         * @param column  <code>true</code> to sum down a column.
+         * @param start  the first index along the line.
+         * @param end  the index after the last.
+         * @param leafSize  the largest range summed without splitting.
+         * @param compensated  whether to use compensated summation.
+         */
+        LineTask(Values2D data, int line, boolean column, int start, int end,
+                int leafSize, boolean compensated) {
+            this.data = data;
+            this.line = line;
+            this.column = column;
+            this.start = start;
+            this.end = end;
+            this.leafSize = leafSize;
+            this.compensated = compensated;
+        }
+
+        /**
+         * Sums the range, splitting it in half if it is too large.
+         *
+         * @return The sum.
+         */
+        protected Double compute() {
+            if (this.end - this.start <= this.leafSize) {
+                double total = this.column
+                        ? FastDataUtilities.columnTotal(this.data, this.line,
+                                this.start, this.end, this.compensated)
+                        : FastDataUtilities.rowTotal(this.data, this.line,
+                                this.start, this.end, this.compensated);
+                return new Double(total);
+            }
+            int mid = this.start + (this.end - this.start) / 2;
+            LineTask left = new LineTask(this.data, this.line, this.column,
+                    this.start, mid, this.leafSize, this.compensated);
+            LineTask right = new LineTask(this.data, this.line, this.column,
+                    mid, this.end, this.leafSize, this.compensated);
+            left.fork();
+            double r = right.compute().doubleValue();
+            double l = left.join().doubleValue();
+            return new Double(l + r);
+        }
+
+    }
+
+    /**
+     * Totals a block of rows.  Row totals are written straight into the
+     * shared array, since blocks never overlap; the partial column totals
+     * are returned and merged left to right.
+     */
+    private static final class BlockTask extends RecursiveTask<double[]> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 6258550639141376540L;
+
+        /** The table. */
+        private final Values2D data;
+
+        /** The first row. */
+        private final int startRow;
+
+        /** The row after the last. */
+        private final int endRow;
+
+        /** The number of columns. */
+        private final int columnCount;
+
+        /** The largest number of rows totalled without splitting. */
+        private final int leafRows;
+
+        /** Receives the row totals (possibly <code>null</code>). */
+        private final double[] rowTotals;
+
+        /** Whether column totals are required. */
+        private final boolean columnTotals;
+
+        /**
+         * Creates a new task.
+         *
+         * @param data  the table.
+         * @param startRow  the first row.
+         * @param endRow  the row after the last.
+         * @param columnCount  the number of columns.
+         * @param leafRows  the largest number of rows totalled without
+         *     splitting.
+         * @param rowTotals  receives the row totals (<code>null</code>
+         *     permitted).
+         * @param columnTotals  whether column totals are required.
+         */
+        BlockTask(Values2D data, int startRow, int endRow, int columnCount,
+                int leafRows, double[] rowTotals, boolean columnTotals) {
+            this.data = data;
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.columnCount = columnCount;
+            this.leafRows = leafRows;
+            this.rowTotals = rowTotals;
+            this.columnTotals = columnTotals;
+        }
+
+        /**
+         * Totals the block, splitting it in half if it is too large.
+         *
+         * @return The partial column totals (<code>null</code> if column
+         *     totals are not required).
+         */
+        protected double[] compute() {
+            if (this.endRow - this.startRow <= this.leafRows) {
+                double[] partial = this.columnTotals
+                        ? new double[this.columnCount] : null;
+                FastDataUtilities.accumulate(this.data, this.startRow,
+                        this.endRow, this.columnCount, this.rowTotals,
+                        partial);
+                return partial;
+            }
+            int mid = this.startRow + (this.endRow - this.startRow) / 2;
+            BlockTask left = new BlockTask(this.data, this.startRow, mid,
+                    this.columnCount, this.leafRows, this.rowTotals,
+                    this.columnTotals);
+            BlockTask right = new BlockTask(this.data, mid, this.endRow,
+                    this.columnCount, this.leafRows, this.rowTotals,
+                    this.columnTotals);
+            left.fork();
+            double[] r = right.compute();
+            double[] l = left.join();
+            if (l != null) {
+                for (int c = 0; c < l.length; c++) {
+                    l[c] += r[c];
+                }
+            }
+            return l;
+        }
+
+    }
+
+}
@@ -0,0 +1,401 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A mutable counterpart to {@link Range}, for loops that would otherwise
+ * create a new <code>Range</code> at every step.  The bounds are held in two
+ * <code>double</code> fields and updated in place; {@link #toRange()} takes
+ * a snapshot when one is needed.
+ * <p>
+ * Each operation gives exactly the bounds that the matching static method
+ * of <code>Range</code> is documented to return, and rejects the same
+ * arguments: an operation that would leave the lower bound above the upper
+ * bound throws an <code>IllegalArgumentException</code> with the message
+ * the <code>Range</code> constructor uses, and leaves the accumulator
+ * unchanged.  A new accumulator is empty, which plays the part of a
+ * <code>null</code> range.
+ */
+public class RangeAccumulator implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -1817604813410207438L;
+
+    /** The lower bound. */
+    private double lower;
+
+    /** The upper bound. */
+    private double upper;
+
+    /** <code>true</code> if no bounds have been set. */
+    private boolean empty;
+
+    /**
+     * Creates a new, empty accumulator.
+     */
+    public RangeAccumulator() {
+        this.empty = true;
+    }
+
+    /**
+     * Creates a new accumulator with the specified bounds.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound (must be >= <code>lower</code>).
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public RangeAccumulator(double lower, double upper) {
+        this.empty = true;
+        set(lower, upper);
+    }
+
+    /**
+     * Returns <code>true</code> if no bounds have been set.
+     *
+     * @return A boolean.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    /**
+     * Returns the lower bound.
+     *
+     * @return The lower bound.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public double getLowerBound() {
+        checkNotEmpty();
+        return this.lower;
+    }
+
+    /**
+     * Returns the upper bound.
+     *
+     * @return The upper bound.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public double getUpperBound() {
+        checkNotEmpty();
+        return this.upper;
+    }
+
+    /**
+     * Returns the length of the range.
+     *
+     * @return The length.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public double getLength() {
+        checkNotEmpty();
+        return this.upper - this.lower;
+    }
+
+    /**
+     * Returns the central value of the range.
+     *
+     * @return The central value.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public double getCentralValue() {
+        checkNotEmpty();
+        return this.lower / 2.0 + this.upper / 2.0;
+    }
+
+    /**
+     * Returns <code>true</code> if the range contains the specified value.
+     * An empty accumulator contains nothing.
+     *
+     * @param value  the value to look up.
+     *
+     * @return A boolean.
+     */
+    public boolean contains(double value) {
+        return !this.empty && value >= this.lower && value <= this.upper;
+    }
+
+    /**
+     * Returns the value within the range that is closest to the specified
+     * value, as {@link Range#constrain(double)} does.
+     *
+     * @param value  the value.
+     *
+     * @return The constrained value.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public double constrain(double value) {
+        checkNotEmpty();
+        double result = value;
+        if (!contains(value)) {
+            if (value > this.upper) {
+                result = this.upper;
+            }
+            else if (value < this.lower) {
+                result = this.lower;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Empties the accumulator, so that it can be reused.
+     */
+    public void reset() {
+        this.empty = true;
+        this.lower = 0.0;
+        this.upper = 0.0;
+    }
+
+    /**
+     * Sets the bounds.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound (must be >= <code>lower</code>).
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public void set(double lower, double upper) {
+        checkBounds(lower, upper);
+        this.lower = lower;
+        this.upper = upper;
+        this.empty = false;
+    }
+
+    /**
+     * Widens the range to include the specified value, as
+     * {@link Range#expandToInclude(Range, double)} does.
+     *
+     * @param value  the value.
+     */
+    public void include(double value) {
+        if (this.empty) {
+            set(value, value);
+        }
+        else if (value < this.lower) {
+            this.lower = value;
+        }
+        else if (value > this.upper) {
+            this.upper = value;
+        }
+    }
+
+    /**
+     * Widens the range to include another range, as
+     * {@link Range#combine(Range, Range)} does.
+     *
+     * @param lower  the lower bound of the other range.
+     * @param upper  the upper bound of the other range (must be >=
+     *     <code>lower</code>).
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public void combine(double lower, double upper) {
+        checkBounds(lower, upper);
+        if (this.empty) {
+            set(lower, upper);
+        }
+        else {
+            set(Math.min(this.lower, lower), Math.max(this.upper, upper));
+        }
+    }
+
+    /**
+     * Widens the range to include the range of another accumulator, as
+     * {@link Range#combine(Range, Range)} does.  An empty accumulator plays
+     * the part of a <code>null</code> range.
+     *
+     * @param other  the other accumulator (<code>null</code> permitted).
+     */
+    public void combine(RangeAccumulator other) {
+        if (other != null && !other.empty) {
+            combine(other.lower, other.upper);
+        }
+    }
+
+    /**
+     * Moves the bounds outwards by a fraction of the current length, as
+     * {@link Range#expand(Range, double, double)} does.  Negative margins
+     * move the bounds inwards.
+     *
+     * @param lowerMargin  the lower margin, as a fraction of the length.
+     * @param upperMargin  the upper margin, as a fraction of the length.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     * @throws IllegalArgumentException if the margins would leave the lower
+     *     bound above the upper bound.
+     */
+    public void expand(double lowerMargin, double upperMargin) {
+        checkNotEmpty();
+        double length = this.upper - this.lower;
+        double lowerAdj = length * lowerMargin;
+        double upperAdj = length * upperMargin;
+        set(this.lower - lowerAdj, this.upper + upperAdj);
+    }
+
+    /**
+     * Moves both bounds by the same amount without letting either cross
+     * zero, as {@link Range#shift(Range, double)} does.
+     *
+     * @param delta  the amount to move by.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public void shift(double delta) {
+        shift(delta, false);
+    }
+
+    /**
+     * Moves both bounds by the same amount, as
+     * {@link Range#shift(Range, double, boolean)} does.
+     *
+     * @param delta  the amount to move by.
+     * @param allowZeroCrossing  if <code>false</code>, a bound that would
+     *     cross zero stops at zero instead.
+     *
+     * @throws IllegalStateException if the accumulator is empty.
+     */
+    public void shift(double delta, boolean allowZeroCrossing) {
+        checkNotEmpty();
+        if (allowZeroCrossing) {
+            set(this.lower + delta, this.upper + delta);
+        }
+        else {
+            set(shiftWithNoZeroCrossing(this.lower, delta),
+                    shiftWithNoZeroCrossing(this.upper, delta));
+        }
+    }
+
+    /**
+     * Returns a new {@link Range} with the current bounds.
+     *
+     * @return The range, or <code>null</code> if the accumulator is empty.
+     */
+    public Range toRange() {
+        if (this.empty) {
+            return null;
+        }
+        return new Range(this.lower, this.upper);
+    }
+
+    /**
+     * Moves a value by <code>delta</code>, stopping at zero if it would
+     * otherwise cross it.
+     *
+     * @param value  the value.
+     * @param delta  the amount to move by.
+     *
+     * @return The new value.
+     */
+    private static double shiftWithNoZeroCrossing(double value,
+            double delta) {
+        if (value > 0.0) {
+            return Math.max(value + delta, 0.0);
+        }
+        else if (value < 0.0) {
+            return Math.min(value + delta, 0.0);
+        }
+        else {
+            return value + delta;
+        }
+    }
+
+    /**
+     * Throws the exception that the {@link Range} constructor throws for
+     * reversed bounds.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    private static void checkBounds(double lower, double upper) {
+        if (lower > upper) {
+            String msg = "Range(double, double): require lower (" + lower
+                    + ") <= upper (" + upper + ").";
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Throws an exception if the accumulator is empty.
+     */
+    private void checkNotEmpty() {
+        if (this.empty) {
+            throw new IllegalStateException("Empty range.");
+        }
+    }
+
+    /**
+     * Tests this accumulator for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof RangeAccumulator)) {
+            return false;
+        }
+        RangeAccumulator that = (RangeAccumulator) obj;
+        if (this.empty || that.empty) {
+            return this.empty == that.empty;
+        }
+        return this.lower == that.lower && this.upper == that.upper;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        if (this.empty) {
+            return 0;
+        }
+        long temp = Double.doubleToLongBits(this.lower);
+        int result = (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(this.upper);
+        result = 29 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    /**
+     * Returns a clone of this accumulator.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException never.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
+
+    /**
+     * Returns a string representing the range.
+     *
+     * @return A string.
+     */
+    public String toString() {
+        if (this.empty) {
+            return "RangeAccumulator[]";
+        }
+        return "RangeAccumulator[" + this.lower + "," + this.upper + "]";
+    }
+
+}
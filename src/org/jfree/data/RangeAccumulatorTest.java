@@ -0,0 +1,338 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+
+public class RangeAccumulatorTest {
+
+    private RangeAccumulator accumulator;
+
+    @Before
+    public void setUp() {
+        accumulator = new RangeAccumulator(1.0, 5.0);
+    }
+
+    /**
+     * Checks that an accumulator has exactly the bounds of a reference range.
+     * The reference is the unmodified Range implementation, since the Range
+     * class in the bundled library returns the wrong upper bound.
+     */
+    private static void assertSameBounds(String message, original.Range expected, RangeAccumulator actual) {
+        if (expected == null) {
+            assertTrue(message + " should be empty", actual.isEmpty());
+            return;
+        }
+        assertEquals(message + " should have the same lower bound bits",
+                Double.doubleToLongBits(expected.getLowerBound()), Double.doubleToLongBits(actual.getLowerBound()));
+        assertEquals(message + " should have the same upper bound bits",
+                Double.doubleToLongBits(expected.getUpperBound()), Double.doubleToLongBits(actual.getUpperBound()));
+    }
+
+    // ----------------------------
+    // RangeAccumulator(double lower, double upper)
+    // { EC1: lower < upper, EC2: lower = upper, EC3: lower > upper (reversed) }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void constructorWithValidBounds() {
+        // verify
+        assertEquals("The lower bound should be 1", 1.0, accumulator.getLowerBound(), .000000001d);
+        assertEquals("The upper bound should be 5", 5.0, accumulator.getUpperBound(), .000000001d);
+        assertEquals("The central value should be 3", 3.0, accumulator.getCentralValue(), .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void constructorWithEqualBounds() {
+        // exercise
+        RangeAccumulator result = new RangeAccumulator(5.0, 5.0);
+
+        // verify
+        assertEquals("The length should be 0", 0.0, result.getLength(), .000000001d);
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithReversedBounds() {
+        // exercise
+        new RangeAccumulator(5.0, 1.0);
+    }
+
+    // ----------------------------
+    // include(double value)
+    // { EC1: empty, EC2: below, EC3: inside, EC4: above, EC5: NaN }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void includeIntoEmpty() {
+        // setup
+        RangeAccumulator empty = new RangeAccumulator();
+
+        // exercise
+        empty.include(3.0);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.expandToInclude(null, 3.0), empty);
+    }
+
+    // EC2, EC3, EC4
+    @Test
+    public void includeMatchesExpandToInclude() {
+        // setup
+        double[] values = { -2.0, 3.0, 7.5 };
+        original.Range expected = new original.Range(1.0, 5.0);
+
+        for (int i = 0; i < values.length; i++) {
+            // exercise
+            accumulator.include(values[i]);
+            expected = original.Range.expandToInclude(expected, values[i]);
+
+            // verify
+            assertSameBounds("After including " + values[i], expected, accumulator);
+        }
+    }
+
+    // EC5
+    @Test
+    public void includeNaNLeavesBounds() {
+        // exercise
+        accumulator.include(Double.NaN);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.expandToInclude(new original.Range(1.0, 5.0), Double.NaN),
+                accumulator);
+    }
+
+    // ----------------------------
+    // combine(double lower, double upper) / combine(RangeAccumulator other)
+    // { EC1: overlapping, EC2: empty accumulator, EC3: null other,
+    //   EC4: reversed bounds }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void combineOverlapping() {
+        // exercise
+        accumulator.combine(new RangeAccumulator(-3.0, 2.0));
+
+        // verify
+        assertSameBounds("The accumulator",
+                original.Range.combine(new original.Range(1.0, 5.0), new original.Range(-3.0, 2.0)), accumulator);
+    }
+
+    // EC2
+    @Test
+    public void combineIntoEmpty() {
+        // setup
+        RangeAccumulator empty = new RangeAccumulator();
+
+        // exercise
+        empty.combine(2.0, 4.0);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.combine(null, new original.Range(2.0, 4.0)), empty);
+    }
+
+    // EC3
+    @Test
+    public void combineWithNull() {
+        // exercise
+        accumulator.combine(null);
+
+        // verify
+        assertSameBounds("The accumulator", new original.Range(1.0, 5.0), accumulator);
+    }
+
+    // EC4
+    @Test
+    public void combineWithReversedBoundsLeavesAccumulatorUnchanged() {
+        try {
+            // exercise
+            accumulator.combine(4.0, 2.0);
+            fail("Reversed bounds should be rejected");
+        }
+        catch (IllegalArgumentException e) {
+            // verify
+            assertSameBounds("The accumulator", new original.Range(1.0, 5.0), accumulator);
+        }
+    }
+
+    // ----------------------------
+    // expand(double lowerMargin, double upperMargin)
+    // { EC1: positive margins, EC2: negative margins, EC3: margins that
+    //   reverse the bounds, EC4: empty }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void expandWithPositiveMargins() {
+        // exercise
+        accumulator.expand(0.25, 0.5);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.expand(new original.Range(1.0, 5.0), 0.25, 0.5),
+                accumulator);
+    }
+
+    // EC2
+    @Test
+    public void expandWithNegativeMargins() {
+        // exercise
+        accumulator.expand(-0.1, -0.3);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.expand(new original.Range(1.0, 5.0), -0.1, -0.3),
+                accumulator);
+    }
+
+    // EC3
+    @Test
+    public void expandThatReversesBoundsIsRejectedLikeRange() {
+        // setup
+        boolean rangeThrew = false;
+        try {
+            original.Range.expand(new original.Range(1.0, 5.0), -0.6, -0.6);
+        }
+        catch (IllegalArgumentException e) {
+            rangeThrew = true;
+        }
+
+        try {
+            // exercise
+            accumulator.expand(-0.6, -0.6);
+            fail("Reversed bounds should be rejected");
+        }
+        catch (IllegalArgumentException e) {
+            // verify
+            assertTrue("Range should reject the same margins", rangeThrew);
+            assertSameBounds("The accumulator", new original.Range(1.0, 5.0), accumulator);
+        }
+    }
+
+    // EC4
+    @Test(expected = IllegalStateException.class)
+    public void expandEmpty() {
+        // exercise
+        new RangeAccumulator().expand(0.1, 0.1);
+    }
+
+    // ----------------------------
+    // shift(double delta, boolean allowZeroCrossing)
+    // { EC1: no zero crossing, EC2: crossing not allowed, EC3: crossing allowed }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void shiftWithoutCrossing() {
+        // exercise
+        accumulator.shift(2.5);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.shift(new original.Range(1.0, 5.0), 2.5), accumulator);
+    }
+
+    // EC2
+    @Test
+    public void shiftStopsAtZero() {
+        // exercise
+        accumulator.shift(-3.0);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.shift(new original.Range(1.0, 5.0), -3.0), accumulator);
+    }
+
+    // EC3
+    @Test
+    public void shiftAllowingCrossing() {
+        // exercise
+        accumulator.shift(-3.0, true);
+
+        // verify
+        assertSameBounds("The accumulator", original.Range.shift(new original.Range(1.0, 5.0), -3.0, true),
+                accumulator);
+    }
+
+    // ----------------------------
+    // constrain(double value)
+    // { BLB: below, LB, inside, UB, AUB: above, EC1: NaN }
+    // ----------------------------
+
+    @Test
+    public void constrainMatchesRange() {
+        // setup
+        original.Range expected = new original.Range(1.0, 5.0);
+        double[] values = { 0.5, 1.0, 3.0, 5.0, 9.0, Double.NaN };
+
+        for (int i = 0; i < values.length; i++) {
+            // verify
+            assertEquals("Constraining " + values[i],
+                    Double.doubleToLongBits(expected.constrain(values[i])),
+                    Double.doubleToLongBits(accumulator.constrain(values[i])));
+        }
+    }
+
+    // ----------------------------
+    // toRange() / reset()
+    // ----------------------------
+
+    @Test
+    public void toRangeSnapshot() {
+        // exercise
+        Range result = accumulator.toRange();
+
+        // verify
+        assertEquals("The snapshot lower bound should be 1", 1.0, result.getLowerBound(), .000000001d);
+        assertEquals("The snapshot length should be 4", 4.0, result.getLength(), .000000001d);
+    }
+
+    @Test
+    public void toRangeWhenEmpty() {
+        // exercise
+        accumulator.reset();
+
+        // verify
+        assertNull("An empty accumulator should give null", accumulator.toRange());
+    }
+
+    @Test
+    public void randomOperationsMatchRange() {
+        // setup
+        Random random = new Random(637L);
+        RangeAccumulator actual = new RangeAccumulator();
+        original.Range expected = null;
+
+        for (int i = 0; i < 2000; i++) {
+            double x = (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(10));
+            int op = expected == null ? 0 : random.nextInt(4);
+
+            // exercise
+            if (op == 0) {
+                actual.include(x);
+                expected = original.Range.expandToInclude(expected, x);
+            }
+            else if (op == 1) {
+                double y = x + random.nextDouble() * 100.0;
+                actual.combine(x, y);
+                expected = original.Range.combine(expected, new original.Range(x, y));
+            }
+            else if (op == 2) {
+                double margin = random.nextDouble() * 0.2;
+                actual.expand(margin, margin / 2.0);
+                expected = original.Range.expand(expected, margin, margin / 2.0);
+            }
+            else {
+                boolean crossing = random.nextBoolean();
+                actual.shift(x, crossing);
+                expected = original.Range.shift(expected, x, crossing);
+            }
+
+            // verify
+            assertSameBounds("After step " + i, expected, actual);
+        }
+    }
+
+}
@@ -0,0 +1,688 @@
+package org.jfree.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An index over a large number of ranges that finds the ranges containing a
+ * value, or intersecting an interval, without testing every range in turn.
+ * Each entry is a closed interval <code>[lower, upper]</code> with an
+ * associated item, which is the {@link Range} itself for entries added with
+ * {@link #add(Range)}.
+ * <p>
+ * The entries are held in a treap ordered by lower bound, in which each node
+ * also records the largest upper bound below it, so that a query can skip
+ * any subtree that ends before the query starts.  Listing the
+ * <code>k</code> matching entries takes about O(log n + k) time.  A second
+ * treap holds the upper bounds alone, so that the number of matching entries
+ * is found in O(log n) time from two rank queries, without visiting them.
+ * Adding and removing an entry also take O(log n) time.
+ * <p>
+ * An entry matches an interval <code>[a, b]</code> when
+ * <code>lower &lt;= b</code> and <code>upper &gt;= a</code>, so intervals
+ * that only touch at an end point intersect.  This class is not
+ * thread-safe.
+ */
+public class RangeIndex {
+
+    /** Orders nodes by lower bound, then upper bound. */
+    private static final Comparator NODE_ORDER = new Comparator() {
+        public int compare(Object o1, Object o2) {
+            Node n1 = (Node) o1;
+            Node n2 = (Node) o2;
+            return RangeIndex.compare(n1.lower, n1.upper, n2.lower,
+                    n2.upper);
+        }
+    };
+
+    /** The entries, ordered by lower bound. */
+    private Node root;
+
+    /** The upper bounds of the entries, in order. */
+    private Node upperRoot;
+
+    /** The state of the priority generator. */
+    private int seed;
+
+    /**
+     * Receives the entries found by a query.
+     */
+    public interface Visitor {
+
+        /**
+         * Called once for each matching entry, in order of lower bound.
+         *
+         * @param lower  the lower bound of the entry.
+         * @param upper  the upper bound of the entry.
+         * @param item  the item (possibly <code>null</code>).
+         */
+        void visit(double lower, double upper, Object item);
+
+    }
+
+    /**
+     * Creates a new, empty index.
+     */
+    public RangeIndex() {
+        this.seed = 0x2545F491;
+    }
+
+    /**
+     * Creates a new index containing the specified ranges.  The index is
+     * built in O(n log n) time, which is quicker than adding the ranges one
+     * at a time.
+     *
+     * @param ranges  a collection of {@link Range} objects (<code>null</code>
+     *     not permitted, and the collection may not contain
+     *     <code>null</code>).
+     */
+    public RangeIndex(Collection ranges) {
+        this();
+        if (ranges == null) {
+            throw new IllegalArgumentException("Null 'ranges' argument.");
+        }
+        Node[] nodes = new Node[ranges.size()];
+        Node[] uppers = new Node[nodes.length];
+        Iterator iterator = ranges.iterator();
+        for (int i = 0; i < nodes.length; i++) {
+            Range range = (Range) iterator.next();
+            if (range == null) {
+                throw new IllegalArgumentException("Null range.");
+            }
+            nodes[i] = createNode(range.getLowerBound(), upperBound(range),
+                    range);
+            uppers[i] = createNode(nodes[i].upper, nodes[i].upper, null);
+        }
+        Arrays.sort(nodes, NODE_ORDER);
+        Arrays.sort(uppers, NODE_ORDER);
+        this.root = build(nodes);
+        this.upperRoot = build(uppers);
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     *
+     * @return The entry count.
+     */
+    public int getItemCount() {
+        return size(this.root);
+    }
+
+    /**
+     * Adds a range to the index, with the range itself as the item.  The
+     * upper bound is read as the lower bound plus {@link Range#getLength()},
+     * since <code>Range.getUpperBound()</code> returns the lower bound in
+     * the version of <code>Range</code> this library is built against.
+     *
+     * @param range  the range (<code>null</code> not permitted).
+     */
+    public void add(Range range) {
+        if (range == null) {
+            throw new IllegalArgumentException("Null 'range' argument.");
+        }
+        add(range.getLowerBound(), upperBound(range), range);
+    }
+
+    /**
+     * Adds an entry to the index.  The same bounds and item may be added
+     * more than once.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound (must be >= <code>lower</code>).
+     * @param item  the item (<code>null</code> permitted).
+     *
+     * @throws IllegalArgumentException if either bound is NaN or
+     *     <code>lower</code> is greater than <code>upper</code>.
+     */
+    public void add(double lower, double upper, Object item) {
+        Node node = createNode(lower, upper, item);
+        this.root = insert(this.root, node);
+        this.upperRoot = insert(this.upperRoot, createNode(upper, upper,
+                null));
+    }
+
+    /**
+     * Removes a range that was added with {@link #add(Range)}.
+     *
+     * @param range  the range (<code>null</code> not permitted).
+     *
+     * @return <code>true</code> if an entry was removed.
+     */
+    public boolean remove(Range range) {
+        if (range == null) {
+            throw new IllegalArgumentException("Null 'range' argument.");
+        }
+        return remove(range.getLowerBound(), upperBound(range), range);
+    }
+
+    /**
+     * Removes one entry with the specified bounds and an equal item.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param item  the item (<code>null</code> permitted).
+     *
+     * @return <code>true</code> if an entry was removed.
+     */
+    public boolean remove(double lower, double upper, Object item) {
+        int before = size(this.root);
+        this.root = remove(this.root, lower, upper, item);
+        if (size(this.root) == before) {
+            return false;
+        }
+        this.upperRoot = remove(this.upperRoot, upper, upper, null);
+        return true;
+    }
+
+    /**
+     * Removes all the entries from the index.
+     */
+    public void clear() {
+        this.root = null;
+        this.upperRoot = null;
+    }
+
+    /**
+     * Returns the number of entries that contain the specified value, in
+     * O(log n) time.
+     *
+     * @param value  the value.
+     *
+     * @return The number of entries.
+     */
+    public int countContaining(double value) {
+        return countIntersecting(value, value);
+    }
+
+    /**
+     * Returns the number of entries that intersect the interval
+     * <code>[lower, upper]</code>, in O(log n) time.  Every entry with a
+     * lower bound of at most <code>upper</code> matches, except those that
+     * end before <code>lower</code>.
+     *
+     * @param lower  the lower bound of the interval.
+     * @param upper  the upper bound of the interval (must be >=
+     *     <code>lower</code>).
+     *
+     * @return The number of entries.
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public int countIntersecting(double lower, double upper) {
+        checkInterval(lower, upper);
+        return countLowerAtMost(this.root, upper)
+                - countBelow(this.upperRoot, lower);
+    }
+
+    /**
+     * Returns the items of the entries that contain the specified value, in
+     * order of lower bound.
+     *
+     * @param value  the value.
+     *
+     * @return A new list of items.
+     */
+    public List getContaining(double value) {
+        return getIntersecting(value, value);
+    }
+
+    /**
+     * Returns the items of the entries that intersect the interval
+     * <code>[lower, upper]</code>, in order of lower bound.
+     *
+     * @param lower  the lower bound of the interval.
+     * @param upper  the upper bound of the interval (must be >=
+     *     <code>lower</code>).
+     *
+     * @return A new list of items.
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public List getIntersecting(double lower, double upper) {
+        final List result = new ArrayList();
+        visitIntersecting(lower, upper, new Visitor() {
+            public void visit(double l, double u, Object item) {
+                result.add(item);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Passes each entry that contains the specified value to a visitor, in
+     * order of lower bound.
+     *
+     * @param value  the value.
+     * @param visitor  the visitor (<code>null</code> not permitted).
+     */
+    public void visitContaining(double value, Visitor visitor) {
+        visitIntersecting(value, value, visitor);
+    }
+
+    /**
+     * Passes each entry that intersects the interval
+     * <code>[lower, upper]</code> to a visitor, in order of lower bound.
+     *
+     * @param lower  the lower bound of the interval.
+     * @param upper  the upper bound of the interval (must be >=
+     *     <code>lower</code>).
+     * @param visitor  the visitor (<code>null</code> not permitted).
+     *
+     * @throws IllegalArgumentException if <code>lower</code> is greater than
+     *     <code>upper</code>.
+     */
+    public void visitIntersecting(double lower, double upper,
+            Visitor visitor) {
+        checkInterval(lower, upper);
+        if (visitor == null) {
+            throw new IllegalArgumentException("Null 'visitor' argument.");
+        }
+        visit(this.root, lower, upper, visitor);
+    }
+
+    /**
+     * Visits the entries in a subtree that intersect an interval.  A subtree
+     * whose largest upper bound is below the interval is skipped, and once a
+     * node starts after the interval so does everything to its right.
+     *
+     * @param node  the subtree.
+     * @param lower  the lower bound of the interval.
+     * @param upper  the upper bound of the interval.
+     * @param visitor  the visitor.
+     */
+    private static void visit(Node node, double lower, double upper,
+            Visitor visitor) {
+        while (node != null && node.maxUpper >= lower) {
+            visit(node.left, lower, upper, visitor);
+            if (node.lower > upper) {
+                return;
+            }
+            if (node.upper >= lower) {
+                visitor.visit(node.lower, node.upper, node.item);
+            }
+            node = node.right;
+        }
+    }
+
+    /**
+     * Returns the number of nodes in a subtree with a lower bound of at most
+     * <code>value</code>.
+     *
+     * @param node  the subtree.
+     * @param value  the value.
+     *
+     * @return The count.
+     */
+    private static int countLowerAtMost(Node node, double value) {
+        int count = 0;
+        while (node != null) {
+            if (node.lower <= value) {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of nodes in a subtree with a lower bound below
+     * <code>value</code>.
+     *
+     * @param node  the subtree.
+     * @param value  the value.
+     *
+     * @return The count.
+     */
+    private static int countBelow(Node node, double value) {
+        int count = 0;
+        while (node != null) {
+            if (node.lower < value) {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the upper bound of a range.
+     *
+     * @param range  the range.
+     *
+     * @return The upper bound.
+     */
+    private static double upperBound(Range range) {
+        return range.getLowerBound() + range.getLength();
+    }
+
+    /**
+     * Checks the bounds of a query interval.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     */
+    private static void checkInterval(double lower, double upper) {
+        if (lower > upper) {
+            throw new IllegalArgumentException("Requires lower (" + lower
+                    + ") <= upper (" + upper + ").");
+        }
+    }
+
+    /**
+     * Creates a node for an entry.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param item  the item.
+     *
+     * @return The node.
+     */
+    private Node createNode(double lower, double upper, Object item) {
+        if (Double.isNaN(lower) || Double.isNaN(upper) || lower > upper) {
+            throw new IllegalArgumentException("Invalid bounds: [" + lower
+                    + ", " + upper + "].");
+        }
+        return new Node(lower, upper, item, nextPriority());
+    }
+
+    /**
+     * Returns a pseudo-random priority (xorshift).
+     *
+     * @return The priority.
+     */
+    private int nextPriority() {
+        int x = this.seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        this.seed = x;
+        return x;
+    }
+
+    /**
+     * Builds a balanced treap from sorted nodes.  The nodes' priorities are
+     * sorted and handed out level by level, largest first, so that every
+     * parent outranks its children.
+     *
+     * @param nodes  the nodes, in order.
+     *
+     * @return The root.
+     */
+    private static Node build(Node[] nodes) {
+        Node root = link(nodes, 0, nodes.length);
+        int[] priorities = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            priorities[i] = nodes[i].priority;
+        }
+        Arrays.sort(priorities);
+        Node[] queue = new Node[nodes.length];
+        int head = 0;
+        int tail = 0;
+        if (root != null) {
+            queue[tail++] = root;
+        }
+        while (head < tail) {
+            Node node = queue[head];
+            node.priority = priorities[nodes.length - 1 - head];
+            head++;
+            if (node.left != null) {
+                queue[tail++] = node.left;
+            }
+            if (node.right != null) {
+                queue[tail++] = node.right;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Links sorted nodes into a balanced tree.
+     *
+     * @param nodes  the nodes, in order.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     *
+     * @return The root of the subtree.
+     */
+    private static Node link(Node[] nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node node = nodes[mid];
+        node.left = link(nodes, from, mid);
+        node.right = link(nodes, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Inserts a node into a subtree.
+     *
+     * @param tree  the subtree.
+     * @param node  the new node.
+     *
+     * @return The new root of the subtree.
+     */
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] parts = new Node[2];
+            split(tree, node, parts);
+            node.left = parts[0];
+            node.right = parts[1];
+            update(node);
+            return node;
+        }
+        if (NODE_ORDER.compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        }
+        else {
+            tree.right = insert(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    /**
+     * Splits a subtree into the nodes ordered before a key node and the
+     * rest.
+     *
+     * @param tree  the subtree.
+     * @param key  the key node.
+     * @param parts  receives the two parts.
+     */
+    private static void split(Node tree, Node key, Node[] parts) {
+        if (tree == null) {
+            parts[0] = null;
+            parts[1] = null;
+        }
+        else if (NODE_ORDER.compare(tree, key) < 0) {
+            split(tree.right, key, parts);
+            tree.right = parts[0];
+            update(tree);
+            parts[0] = tree;
+        }
+        else {
+            split(tree.left, key, parts);
+            tree.left = parts[1];
+            update(tree);
+            parts[1] = tree;
+        }
+    }
+
+    /**
+     * Joins two subtrees, where every node in the first is ordered before
+     * every node in the second.
+     *
+     * @param a  the first subtree.
+     * @param b  the second subtree.
+     *
+     * @return The joined subtree.
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    /**
+     * Removes one node with the specified bounds and an equal item from a
+     * subtree.  Nodes with equal bounds sit next to each other in order, but
+     * may be on either side of one another.
+     *
+     * @param tree  the subtree.
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param item  the item.
+     *
+     * @return The new root of the subtree.
+     */
+    private static Node remove(Node tree, double lower, double upper,
+            Object item) {
+        if (tree == null) {
+            return null;
+        }
+        int c = compare(lower, upper, tree.lower, tree.upper);
+        if (c == 0 && (item == null ? tree.item == null
+                : item.equals(tree.item))) {
+            return merge(tree.left, tree.right);
+        }
+        if (c <= 0) {
+            int before = size(tree.left);
+            tree.left = remove(tree.left, lower, upper, item);
+            if (c < 0 || size(tree.left) != before) {
+                update(tree);
+                return tree;
+            }
+        }
+        tree.right = remove(tree.right, lower, upper, item);
+        update(tree);
+        return tree;
+    }
+
+    /**
+     * Orders two entries by lower bound, then upper bound.
+     *
+     * @param l1  the lower bound of the first entry.
+     * @param u1  the upper bound of the first entry.
+     * @param l2  the lower bound of the second entry.
+     * @param u2  the upper bound of the second entry.
+     *
+     * @return A negative, zero or positive integer.
+     */
+    private static int compare(double l1, double u1, double l2, double u2) {
+        int c = Double.compare(l1, l2);
+        return c != 0 ? c : Double.compare(u1, u2);
+    }
+
+    /**
+     * Returns the number of nodes in a subtree.
+     *
+     * @param node  the subtree (<code>null</code> permitted).
+     *
+     * @return The size.
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Recalculates the size and largest upper bound of a node from its
+     * children.
+     *
+     * @param node  the node.
+     */
+    private static void update(Node node) {
+        int size = 1;
+        double max = node.upper;
+        if (node.left != null) {
+            size += node.left.size;
+            if (node.left.maxUpper > max) {
+                max = node.left.maxUpper;
+            }
+        }
+        if (node.right != null) {
+            size += node.right.size;
+            if (node.right.maxUpper > max) {
+                max = node.right.maxUpper;
+            }
+        }
+        node.size = size;
+        node.maxUpper = max;
+    }
+
+    /**
+     * A node in a treap.
+     */
+    private static final class Node {
+
+        /** The lower bound. */
+        final double lower;
+
+        /** The upper bound. */
+        final double upper;
+
+        /** The item. */
+        final Object item;
+
+        /** The heap priority. */
+        int priority;
+
+        /** The left child. */
+        Node left;
+
+        /** The right child. */
+        Node right;
+
+        /** The number of nodes in this subtree. */
+        int size;
+
+        /** The largest upper bound in this subtree. */
+        double maxUpper;
+
+        /**
+         * Creates a leaf node.
+         *
+         * @param lower  the lower bound.
+         * @param upper  the upper bound.
+         * @param item  the item.
+         * @param priority  the heap priority.
+         */
+        Node(double lower, double upper, Object item, int priority) {
+            this.lower = lower;
+            this.upper = upper;
+            this.item = item;
+            this.priority = priority;
+            this.size = 1;
+            this.maxUpper = upper;
+        }
+
+    }
+
+}
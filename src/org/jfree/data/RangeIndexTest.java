@@ -0,0 +1,275 @@
+package org.jfree.data;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class RangeIndexTest {
+
+    private RangeIndex index;
+
+    @Before
+    public void setUp() {
+        index = new RangeIndex();
+        index.add(1.0, 5.0, "A");
+        index.add(-3.0, 0.0, "B");
+        index.add(4.0, 10.0, "C");
+        index.add(5.0, 5.0, "D");
+    }
+
+    // ----------------------------
+    // countContaining(double value) / getContaining(double value)
+    // value: { BLB: below every range, LB: shared end point, EC1: inside
+    //          several ranges, EC2: in a gap, AUB: above every range }
+    // ----------------------------
+
+    // BLB
+    @Test
+    public void containingBelowEveryRange() {
+        // verify
+        assertEquals("No range should contain -4", 0, index.countContaining(-4.0));
+        assertTrue("No range should contain -4", index.getContaining(-4.0).isEmpty());
+    }
+
+    // LB
+    @Test
+    public void containingSharedEndPoint() {
+        // verify
+        assertEquals("Three ranges should contain 5", 3, index.countContaining(5.0));
+        assertEquals("The ranges should be in order of lower bound", list("A", "C", "D"), index.getContaining(5.0));
+    }
+
+    // EC1
+    @Test
+    public void containingInsideSeveralRanges() {
+        // verify
+        assertEquals("Two ranges should contain 4.5", 2, index.countContaining(4.5));
+        assertEquals("The ranges should be A and C", list("A", "C"), index.getContaining(4.5));
+    }
+
+    // EC2
+    @Test
+    public void containingInGap() {
+        // verify
+        assertEquals("No range should contain 0.5", 0, index.countContaining(0.5));
+    }
+
+    // AUB
+    @Test
+    public void containingAboveEveryRange() {
+        // verify
+        assertEquals("No range should contain 11", 0, index.countContaining(11.0));
+    }
+
+    // ----------------------------
+    // countIntersecting(double lower, double upper)
+    // { EC1: spans everything, EC2: touches an end point, EC3: reversed }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void intersectingEverything() {
+        // verify
+        assertEquals("Every range should intersect [-10, 20]", 4, index.countIntersecting(-10.0, 20.0));
+    }
+
+    // EC2
+    @Test
+    public void intersectingTouchesEndPoint() {
+        // verify
+        assertEquals("Ranges touching [0, 1] should intersect it", 2, index.countIntersecting(0.0, 1.0));
+        assertEquals("The ranges should be B and A", list("B", "A"), index.getIntersecting(0.0, 1.0));
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void intersectingReversedInterval() {
+        // exercise
+        index.countIntersecting(2.0, 1.0);
+    }
+
+    // ----------------------------
+    // add / remove
+    // { EC1: remove present, EC2: remove absent, EC3: duplicate entries,
+    //   EC4: reversed bounds, EC5: NaN bound }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void removePresentEntry() {
+        // exercise
+        boolean removed = index.remove(1.0, 5.0, "A");
+
+        // verify
+        assertTrue("The entry should be removed", removed);
+        assertEquals("Three entries should remain", 3, index.getItemCount());
+        assertEquals("Two ranges should now contain 5", 2, index.countContaining(5.0));
+    }
+
+    // EC2
+    @Test
+    public void removeAbsentEntry() {
+        // exercise
+        boolean removed = index.remove(1.0, 5.0, "X");
+
+        // verify
+        assertFalse("No entry should be removed", removed);
+        assertEquals("Four entries should remain", 4, index.getItemCount());
+        assertEquals("The counts should be unchanged", 3, index.countContaining(5.0));
+    }
+
+    // EC3
+    @Test
+    public void duplicateEntriesAreCountedAndRemovedSeparately() {
+        // setup
+        index.add(1.0, 5.0, "A");
+
+        // exercise
+        index.remove(1.0, 5.0, "A");
+
+        // verify
+        assertEquals("One copy of A should remain", list("A", "C", "D"), index.getContaining(5.0));
+    }
+
+    // EC4
+    @Test(expected = IllegalArgumentException.class)
+    public void addReversedBounds() {
+        // exercise
+        index.add(5.0, 1.0, "X");
+    }
+
+    // EC5
+    @Test(expected = IllegalArgumentException.class)
+    public void addNaNBound() {
+        // exercise
+        index.add(Double.NaN, 1.0, "X");
+    }
+
+    // ----------------------------
+    // RangeIndex(Collection ranges) / add(Range) / remove(Range)
+    // ----------------------------
+
+    @Test
+    public void bulkBuildFromRanges() {
+        // setup
+        List ranges = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            ranges.add(new Range(i % 10, i % 10));
+        }
+
+        // exercise
+        RangeIndex result = new RangeIndex(ranges);
+
+        // verify
+        assertEquals("There should be 100 entries", 100, result.getItemCount());
+        assertEquals("Ten ranges should contain 3", 10, result.countContaining(3.0));
+        assertTrue("The first range should be removed", result.remove((Range) ranges.get(0)));
+        assertEquals("Nine ranges should contain 0", 9, result.countContaining(0.0));
+    }
+
+    @Test
+    public void bulkBuildFromWideRanges() {
+        // setup
+        List ranges = new ArrayList();
+        ranges.add(new Range(1.0, 5.0));
+        ranges.add(new Range(-3.0, 0.0));
+        ranges.add(new Range(4.0, 10.0));
+
+        // exercise
+        RangeIndex result = new RangeIndex(ranges);
+
+        // verify
+        assertEquals("One range should contain 3", 1, result.countContaining(3.0));
+        assertEquals("Two ranges should contain 4.5", 2, result.countContaining(4.5));
+        assertEquals("Two ranges should intersect [-1, 2]", 2, result.countIntersecting(-1.0, 2.0));
+        List containing = result.getContaining(7.0);
+        assertEquals("One range should contain 7", 1, containing.size());
+        assertSame("The range containing 7 should be found", ranges.get(2), containing.get(0));
+    }
+
+    @Test
+    public void addAndRemoveWideRanges() {
+        // setup
+        RangeIndex result = new RangeIndex();
+        Range first = new Range(1.0, 5.0);
+        Range second = new Range(2.5, 3.5);
+
+        // exercise
+        result.add(first);
+        result.add(second);
+
+        // verify
+        assertEquals("Both ranges should contain 3", 2, result.countContaining(3.0));
+        assertEquals("Only the first range should contain 5", 1, result.countContaining(5.0));
+        assertTrue("The first range should be removed", result.remove(first));
+        List containing = result.getContaining(3.0);
+        assertEquals("One range should contain 3", 1, containing.size());
+        assertSame("Only the second range should contain 3", second, containing.get(0));
+        assertEquals("No range should contain 4", 0, result.countContaining(4.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkBuildFromNull() {
+        // exercise
+        new RangeIndex(null);
+    }
+
+    @Test
+    public void randomOperationsMatchLinearScan() {
+        // setup
+        Random random = new Random(637L);
+        RangeIndex result = new RangeIndex();
+        List entries = new ArrayList();
+
+        for (int i = 0; i < 3000; i++) {
+            // exercise
+            if (entries.isEmpty() || random.nextInt(3) != 0) {
+                double lower = random.nextInt(200);
+                double upper = lower + random.nextInt(30);
+                double[] entry = { lower, upper, i };
+                entries.add(entry);
+                result.add(lower, upper, new Integer(i));
+            }
+            else {
+                double[] entry = (double[]) entries.remove(random.nextInt(entries.size()));
+                assertTrue("The entry should be removed", result.remove(entry[0], entry[1], new Integer((int) entry[2])));
+            }
+
+            // verify
+            double a = random.nextInt(240) - 10;
+            double b = a + random.nextInt(3) * random.nextInt(20);
+            List expected = new ArrayList();
+            for (int e = 0; e < entries.size(); e++) {
+                double[] entry = (double[]) entries.get(e);
+                if (entry[0] <= b && entry[1] >= a) {
+                    expected.add(new Integer((int) entry[2]));
+                }
+            }
+            List actual = result.getIntersecting(a, b);
+            assertEquals("The count for [" + a + ", " + b + "] should match", expected.size(),
+                    result.countIntersecting(a, b));
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals("The entries for [" + a + ", " + b + "] should match", expected, actual);
+        }
+        assertEquals("The item count should match", entries.size(), result.getItemCount());
+    }
+
+    private static List list(Object a, Object b) {
+        List result = new ArrayList();
+        result.add(a);
+        result.add(b);
+        return result;
+    }
+
+    private static List list(Object a, Object b, Object c) {
+        List result = list(a, b);
+        result.add(c);
+        return result;
+    }
+
+}
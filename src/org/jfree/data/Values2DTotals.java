@@ -0,0 +1,137 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The row totals, column totals and grand total of a {@link Values2D} table,
+ * as calculated by {@link FastDataUtilities#calculateTotals(Values2D)}.
+ * Instances of this class are immutable.
+ */
+public final class Values2DTotals implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6218541802398874460L;
+
+    /** The row totals. */
+    private final double[] rowTotals;
+
+    /** The column totals. */
+    private final double[] columnTotals;
+
+    /** The sum of all the values in the table. */
+    private final double total;
+
+    /**
+     * Creates a new instance.  The arrays are not copied.
+     *
+     * @param rowTotals  the row totals.
+     * @param columnTotals  the column totals.
+     * @param total  the grand total.
+     */
+    Values2DTotals(double[] rowTotals, double[] columnTotals, double total) {
+        this.rowTotals = rowTotals;
+        this.columnTotals = columnTotals;
+        this.total = total;
+    }
+
+    /**
+     * Returns the number of rows in the table that was totalled.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowTotals.length;
+    }
+
+    /**
+     * Returns the number of columns in the table that was totalled.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnTotals.length;
+    }
+
+    /**
+     * Returns the sum of the values in one row.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row total.
+     */
+    public double getRowTotal(int row) {
+        return this.rowTotals[row];
+    }
+
+    /**
+     * Returns the sum of the values in one column.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column total.
+     */
+    public double getColumnTotal(int column) {
+        return this.columnTotals[column];
+    }
+
+    /**
+     * Returns the sum of all the values in the table.
+     *
+     * @return The grand total.
+     */
+    public double getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Returns a copy of the row totals.
+     *
+     * @return The row totals.
+     */
+    public double[] getRowTotals() {
+        return (double[]) this.rowTotals.clone();
+    }
+
+    /**
+     * Returns a copy of the column totals.
+     *
+     * @return The column totals.
+     */
+    public double[] getColumnTotals() {
+        return (double[]) this.columnTotals.clone();
+    }
+
+    /**
+     * Tests this instance for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Values2DTotals)) {
+            return false;
+        }
+        Values2DTotals that = (Values2DTotals) obj;
+        return Double.doubleToLongBits(this.total)
+                == Double.doubleToLongBits(that.total)
+                && Arrays.equals(this.rowTotals, that.rowTotals)
+                && Arrays.equals(this.columnTotals, that.columnTotals);
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = Arrays.hashCode(this.rowTotals);
+        result = 29 * result + Arrays.hashCode(this.columnTotals);
+        return result;
+    }
+
+}
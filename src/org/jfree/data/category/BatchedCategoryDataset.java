@@ -0,0 +1,213 @@
+package org.jfree.data.category;
+
+import org.jfree.data.general.BatchDatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeBatch;
+
+/**
+ * A {@link DefaultCategoryDataset} that can collect the changes made between
+ * {@link #beginUpdate()} and {@link #endUpdate()} into a single
+ * {@link BatchDatasetChangeEvent}, giving the range of rows and columns
+ * affected.  Outside an update the dataset sends an event for each change,
+ * as <code>DefaultCategoryDataset</code> does.
+ * <p>
+ * The methods that change the dataset are synchronized, so that several
+ * threads can load it within one update.  Reading the dataset while it is
+ * being changed still needs to be synchronized by the caller.
+ */
+public class BatchedCategoryDataset extends DefaultCategoryDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2291628733745370937L;
+
+    /** The changes in the current update. */
+    private DatasetChangeBatch batch;
+
+    /** The row key of the value being changed, if a single value is. */
+    private transient Comparable changedRow;
+
+    /** The column key of the value being changed, if a single value is. */
+    private transient Comparable changedColumn;
+
+    /**
+     * Creates a new empty dataset.
+     */
+    public BatchedCategoryDataset() {
+        super();
+        this.batch = new DatasetChangeBatch();
+    }
+
+    /**
+     * Starts an update.  Until the matching call to {@link #endUpdate()},
+     * changes to the dataset are recorded instead of being sent to the
+     * listeners.  Updates may be nested.
+     */
+    public void beginUpdate() {
+        this.batch.beginUpdate();
+    }
+
+    /**
+     * Ends an update and, if it was the outermost one and the dataset
+     * changed, sends a {@link BatchDatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @throws IllegalStateException if no update is in progress.
+     */
+    public void endUpdate() {
+        BatchDatasetChangeEvent event = this.batch.endUpdate(this);
+        if (event != null) {
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if an update is in progress.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating() {
+        return this.batch.isUpdating();
+    }
+
+    /**
+     * Adds a value to the table.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public synchronized void addValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.changedRow = rowKey;
+        this.changedColumn = columnKey;
+        try {
+            super.addValue(value, rowKey, columnKey);
+        }
+        finally {
+            this.changedRow = null;
+            this.changedColumn = null;
+        }
+    }
+
+    /**
+     * Adds or updates a value in the table.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public synchronized void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.changedRow = rowKey;
+        this.changedColumn = columnKey;
+        try {
+            super.setValue(value, rowKey, columnKey);
+        }
+        finally {
+            this.changedRow = null;
+            this.changedColumn = null;
+        }
+    }
+
+    /**
+     * Adds a value to an existing value in the table, treating a missing
+     * value as zero.
+     *
+     * @param value  the value to add.
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public synchronized void incrementValue(double value, Comparable rowKey,
+            Comparable columnKey) {
+        super.incrementValue(value, rowKey, columnKey);
+    }
+
+    /**
+     * Removes a value from the table.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     */
+    public synchronized void removeValue(Comparable rowKey,
+            Comparable columnKey) {
+        super.removeValue(rowKey, columnKey);
+    }
+
+    /**
+     * Removes a row from the table.
+     *
+     * @param rowIndex  the row index.
+     */
+    public synchronized void removeRow(int rowIndex) {
+        super.removeRow(rowIndex);
+    }
+
+    /**
+     * Removes a row from the table.
+     *
+     * @param rowKey  the row key.
+     */
+    public synchronized void removeRow(Comparable rowKey) {
+        super.removeRow(rowKey);
+    }
+
+    /**
+     * Removes a column from the table.
+     *
+     * @param columnIndex  the column index.
+     */
+    public synchronized void removeColumn(int columnIndex) {
+        super.removeColumn(columnIndex);
+    }
+
+    /**
+     * Removes a column from the table.
+     *
+     * @param columnKey  the column key.
+     */
+    public synchronized void removeColumn(Comparable columnKey) {
+        super.removeColumn(columnKey);
+    }
+
+    /**
+     * Removes all values from the table.
+     */
+    public synchronized void clear() {
+        super.clear();
+    }
+
+    /**
+     * Records the change during an update, or sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners otherwise.  A change to a single value is recorded as its
+     * row and column; any other change as the whole table.
+     */
+    protected void fireDatasetChanged() {
+        int row = -1;
+        int column = -1;
+        if (this.changedRow != null) {
+            row = getRowIndex(this.changedRow);
+            column = getColumnIndex(this.changedColumn);
+        }
+        boolean recorded = row >= 0 && column >= 0
+                ? this.batch.recordChange(row, row, column, column)
+                : this.batch.recordChange(0, Integer.MAX_VALUE, 0,
+                        Integer.MAX_VALUE);
+        if (!recorded) {
+            super.fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Returns a clone of the dataset.  The clone has no update in progress.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the dataset cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        BatchedCategoryDataset clone = (BatchedCategoryDataset) super.clone();
+        clone.batch = new DatasetChangeBatch();
+        return clone;
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.jfree.data.category;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.BatchDatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchedCategoryDatasetTest {
+
+    /**
+     * Records change events.
+     */
+    private static class EventRecorder implements DatasetChangeListener {
+
+        private List events = new ArrayList();
+
+        public void datasetChanged(DatasetChangeEvent event) {
+            this.events.add(event);
+        }
+
+    }
+
+    // ----------------------------
+    // beginUpdate() / endUpdate()
+    // changes: { EC1: values added, EC2: a row removed, EC3: none in an update }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void oneEventForManyValues() {
+        // setup
+        BatchedCategoryDataset dataset = new BatchedCategoryDataset();
+        dataset.addValue(1.0, "R0", "C0");
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.beginUpdate();
+        for (int r = 1; r < 4; r++) {
+            for (int c = 2; c < 6; c++) {
+                dataset.addValue(r * c, "R" + r, "C" + c);
+            }
+        }
+        dataset.setValue(5.0, "R2", "C3");
+        dataset.endUpdate();
+
+        // verify
+        assertEquals("There should be one event", 1, recorder.events.size());
+        BatchDatasetChangeEvent event = (BatchDatasetChangeEvent) recorder.events.get(0);
+        assertEquals("There should be 13 changes", 13, event.getChangeCount());
+        assertEquals("The first row should be 1", 1, event.getFirstSeries());
+        assertEquals("The last row should be 3", 3, event.getLastSeries());
+        assertEquals("The first column should be 1", 1, event.getFirstItem());
+        assertEquals("The last column should be 4", 4, event.getLastItem());
+        assertEquals("The values should be in the dataset", 5.0, dataset.getValue("R2", "C3").doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void removalCoversWholeTable() {
+        // setup
+        BatchedCategoryDataset dataset = new BatchedCategoryDataset();
+        dataset.addValue(1.0, "R0", "C0");
+        dataset.addValue(2.0, "R1", "C0");
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.beginUpdate();
+        dataset.removeRow("R0");
+        dataset.endUpdate();
+
+        // verify
+        BatchDatasetChangeEvent event = (BatchDatasetChangeEvent) recorder.events.get(0);
+        assertEquals("The first row should be 0", 0, event.getFirstSeries());
+        assertEquals("The rows should run to the end", Integer.MAX_VALUE, event.getLastSeries());
+    }
+
+    // EC3
+    @Test
+    public void noEventForEmptyUpdate() {
+        // setup
+        BatchedCategoryDataset dataset = new BatchedCategoryDataset();
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.beginUpdate();
+        dataset.endUpdate();
+
+        // verify
+        assertEquals("There should be no event", 0, recorder.events.size());
+    }
+
+    @Test
+    public void eventPerChangeOutsideUpdate() {
+        // setup
+        BatchedCategoryDataset dataset = new BatchedCategoryDataset();
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.addValue(1.0, "R0", "C0");
+        dataset.incrementValue(1.0, "R0", "C0");
+
+        // verify
+        assertEquals("There should be one event per change", 2, recorder.events.size());
+        assertFalse("The events should not be batch events",
+                recorder.events.get(0) instanceof BatchDatasetChangeEvent);
+        assertEquals("The value should be 2", 2.0, dataset.getValue(0, 0).doubleValue(), .000000001d);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endUpdateWithoutBegin() {
+        // exercise
+        new BatchedCategoryDataset().endUpdate();
+    }
+
+}
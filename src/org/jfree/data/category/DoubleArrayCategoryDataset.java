@@ -0,0 +1,430 @@
+package org.jfree.data.category;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.data.DoubleArrayValues2D;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.AbstractDataset;
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A {@link CategoryDataset} whose values are held in a
+ * {@link DoubleArrayValues2D}, so that each value costs eight bytes rather
+ * than a reference plus a <code>Double</code> object as in
+ * {@link DefaultCategoryDataset}.  Rows are series and columns are
+ * categories.  The keys are fixed when the dataset is created; only the
+ * values may be changed.
+ */
+public class DoubleArrayCategoryDataset extends AbstractDataset
+        implements CategoryDataset, PublicCloneable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6524373651271305906L;
+
+    /** The row keys. */
+    private Comparable[] rowKeys;
+
+    /** The column keys. */
+    private Comparable[] columnKeys;
+
+    /** The row index for each row key. */
+    private Map rowIndex;
+
+    /** The column index for each column key. */
+    private Map columnIndex;
+
+    /** The values. */
+    private DoubleArrayValues2D values;
+
+    /**
+     * Creates a new dataset from an array of values, generating the keys in
+     * the same way as
+     * {@link org.jfree.data.general.DatasetUtilities#createCategoryDataset(
+     * String, String, double[][])}: the row keys are
+     * <code>rowKeyPrefix</code> followed by 1, 2, 3 and so on, and likewise
+     * for the column keys.
+     *
+     * @param rowKeyPrefix  the row key prefix (<code>null</code> not
+     *     permitted).
+     * @param columnKeyPrefix  the column key prefix (<code>null</code> not
+     *     permitted).
+     * @param data  the values, indexed by row then column (<code>null</code>
+     *     not permitted).
+     *
+     * @throws IllegalArgumentException if a prefix or <code>data</code> is
+     *     <code>null</code>.
+     */
+    public DoubleArrayCategoryDataset(String rowKeyPrefix,
+            String columnKeyPrefix, double[][] data) {
+        this(createKeys(rowKeyPrefix, checkData(data).length),
+                createKeys(columnKeyPrefix,
+                        data.length > 0 && data[0] != null
+                        ? data[0].length : 0),
+                new DoubleArrayValues2D(data));
+    }
+
+    /**
+     * Creates a new dataset from an array of values.  The values are copied
+     * into a single array.
+     *
+     * @param rowKeys  the row keys (<code>null</code> not permitted).
+     * @param columnKeys  the column keys (<code>null</code> not permitted).
+     * @param data  the values, indexed by row then column (<code>null</code>
+     *     not permitted).
+     */
+    public DoubleArrayCategoryDataset(Comparable[] rowKeys,
+            Comparable[] columnKeys, double[][] data) {
+        this(rowKeys, columnKeys, new DoubleArrayValues2D(data));
+    }
+
+    /**
+     * Creates a new dataset that uses the specified table for its values.
+     * The table is not copied, so later changes to it show through the
+     * dataset, but do not notify the dataset's listeners.
+     *
+     * @param rowKeys  the row keys (<code>null</code> not permitted).
+     * @param columnKeys  the column keys (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted).
+     *
+     * @throws IllegalArgumentException if an argument is <code>null</code>,
+     *     a key is <code>null</code> or repeated, or the number of keys does
+     *     not match the size of the table.
+     */
+    public DoubleArrayCategoryDataset(Comparable[] rowKeys,
+            Comparable[] columnKeys, DoubleArrayValues2D values) {
+        if (rowKeys == null) {
+            throw new IllegalArgumentException("Null 'rowKeys' argument.");
+        }
+        if (columnKeys == null) {
+            throw new IllegalArgumentException("Null 'columnKeys' argument.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (rowKeys.length != values.getRowCount()
+                || columnKeys.length != values.getColumnCount()) {
+            throw new IllegalArgumentException(
+                    "Key count does not match the size of the table.");
+        }
+        this.rowKeys = (Comparable[]) rowKeys.clone();
+        this.columnKeys = (Comparable[]) columnKeys.clone();
+        this.rowIndex = createIndex(this.rowKeys);
+        this.columnIndex = createIndex(this.columnKeys);
+        this.values = values;
+    }
+
+    /**
+     * Checks that an array of values is not <code>null</code>.
+     *
+     * @param data  the values.
+     *
+     * @return The values.
+     */
+    private static double[][] checkData(double[][] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        return data;
+    }
+
+    /**
+     * Returns the keys <code>prefix + 1</code> to <code>prefix + count</code>.
+     *
+     * @param prefix  the prefix (<code>null</code> not permitted).
+     * @param count  the number of keys.
+     *
+     * @return The keys.
+     */
+    private static Comparable[] createKeys(String prefix, int count) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Null 'prefix' argument.");
+        }
+        Comparable[] keys = new Comparable[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = prefix + (i + 1);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a map from each key to its position in the array.
+     *
+     * @param keys  the keys.
+     *
+     * @return The map.
+     */
+    private static Map createIndex(Comparable[] keys) {
+        Map index = new HashMap(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("Null key.");
+            }
+            if (index.put(keys[i], new Integer(i)) != null) {
+                throw new IllegalArgumentException("Duplicate key: "
+                        + keys[i]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowKeys.length;
+    }
+
+    /**
+     * Returns the number of columns in the table.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnKeys.length;
+    }
+
+    /**
+     * Returns a value from the table.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return this.values.getValue(row, column);
+    }
+
+    /**
+     * Returns a value from the table as a primitive, without creating a
+     * <code>Number</code>.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value, or <code>Double.NaN</code> for a <code>null</code>
+     *     cell.
+     */
+    public double getDoubleValue(int row, int column) {
+        return this.values.getDoubleValue(row, column);
+    }
+
+    /**
+     * Returns the key for the specified row.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return this.rowKeys[row];
+    }
+
+    /**
+     * Returns the row index for a given key.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or -1 if the key is not recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        return indexOf(this.rowIndex, key);
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return The keys (read-only).
+     */
+    public List getRowKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.rowKeys));
+    }
+
+    /**
+     * Returns the key for the specified column.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.columnKeys[column];
+    }
+
+    /**
+     * Returns the column index for a given key.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or -1 if the key is not recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        return indexOf(this.columnIndex, key);
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return The keys (read-only).
+     */
+    public List getColumnKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.columnKeys));
+    }
+
+    /**
+     * Returns the value for a pair of keys.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        return this.values.getValue(requireRow(rowKey),
+                requireColumn(columnKey));
+    }
+
+    /**
+     * Sets the value for a pair of keys and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.values.setValue(requireRow(rowKey), requireColumn(columnKey),
+                value);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Sets the value for a pair of keys and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param value  the value.
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public void setValue(double value, Comparable rowKey,
+            Comparable columnKey) {
+        this.values.setValue(requireRow(rowKey), requireColumn(columnKey),
+                value);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the index for a key.
+     *
+     * @param index  the index map.
+     * @param key  the key.
+     *
+     * @return The index, or -1.
+     */
+    private static int indexOf(Map index, Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        Integer i = (Integer) index.get(key);
+        return i != null ? i.intValue() : -1;
+    }
+
+    /**
+     * Returns the index of a row key that must be present.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index.
+     */
+    private int requireRow(Comparable key) {
+        int row = getRowIndex(key);
+        if (row < 0) {
+            throw new UnknownKeyException("Row key (" + key
+                    + ") not recognised.");
+        }
+        return row;
+    }
+
+    /**
+     * Returns the index of a column key that must be present.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index.
+     */
+    private int requireColumn(Comparable key) {
+        int column = getColumnIndex(key);
+        if (column < 0) {
+            throw new UnknownKeyException("Column key (" + key
+                    + ") not recognised.");
+        }
+        return column;
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleArrayCategoryDataset)) {
+            return false;
+        }
+        DoubleArrayCategoryDataset that = (DoubleArrayCategoryDataset) obj;
+        if (!Arrays.equals(this.rowKeys, that.rowKeys)) {
+            return false;
+        }
+        if (!Arrays.equals(this.columnKeys, that.columnKeys)) {
+            return false;
+        }
+        return this.values.equals(that.values);
+    }
+
+    /**
+     * Returns a hash code for the dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = Arrays.hashCode(this.rowKeys);
+        result = 29 * result + Arrays.hashCode(this.columnKeys);
+        result = 29 * result + this.values.hashCode();
+        return result;
+    }
+
+    /**
+     * Returns a clone of the dataset.  The values are copied, so the clone
+     * is independent of the original.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the dataset cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DoubleArrayCategoryDataset clone
+                = (DoubleArrayCategoryDataset) super.clone();
+        clone.values = (DoubleArrayValues2D) this.values.clone();
+        return clone;
+    }
+
+}
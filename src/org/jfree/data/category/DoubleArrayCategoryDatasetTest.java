@@ -0,0 +1,159 @@
+package org.jfree.data.category;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DoubleArrayValues2D;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DoubleArrayCategoryDatasetTest {
+
+    private DoubleArrayCategoryDataset dataset;
+
+    @Before
+    public void setUp() {
+        dataset = new DoubleArrayCategoryDataset("S", "C", new double[][] { { 1.0, 2.0, 3.0 }, { 4.0, 5.0, 6.0 } });
+    }
+
+    // ----------------------------
+    // DoubleArrayCategoryDataset(String, String, double[][] data)
+    // data: { EC1: valid array, EC2: null, EC3: empty array }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void constructorWithPrefixesGeneratesKeys() {
+        // verify
+        assertEquals("There should be 2 rows", 2, dataset.getRowCount());
+        assertEquals("There should be 3 columns", 3, dataset.getColumnCount());
+        assertEquals("The first row key should be S1", "S1", dataset.getRowKey(0));
+        assertEquals("The last column key should be C3", "C3", dataset.getColumnKey(2));
+        assertEquals("The value for (S2, C1) should be 4.0", 4.0, dataset.getValue("S2", "C1").doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullData() {
+        // exercise
+        new DoubleArrayCategoryDataset("S", "C", (double[][]) null);
+    }
+
+    // EC3
+    @Test
+    public void constructorWithEmptyData() {
+        // exercise
+        DoubleArrayCategoryDataset result = new DoubleArrayCategoryDataset("S", "C", new double[0][]);
+
+        // verify
+        assertEquals("There should be no rows", 0, result.getRowCount());
+        assertEquals("There should be no columns", 0, result.getColumnCount());
+    }
+
+    // ----------------------------
+    // DoubleArrayCategoryDataset(Comparable[], Comparable[], DoubleArrayValues2D values)
+    // { EC1: table shared with caller, EC2: key count mismatch, EC3: duplicate key }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void constructorWithTableSharesValues() {
+        // setup
+        DoubleArrayValues2D values = new DoubleArrayValues2D(1, 2);
+        DoubleArrayCategoryDataset result = new DoubleArrayCategoryDataset(new Comparable[] { "R" },
+                new Comparable[] { "A", "B" }, values);
+
+        // exercise
+        values.setValue(0, 1, 7.0);
+
+        // verify
+        assertNull("An unset cell should be null", result.getValue(0, 0));
+        assertEquals("Changes to the table should show through", 7.0, result.getValue("R", "B").doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithKeyCountMismatch() {
+        // exercise
+        new DoubleArrayCategoryDataset(new Comparable[] { "R" }, new Comparable[] { "A" },
+                new DoubleArrayValues2D(1, 2));
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithDuplicateKey() {
+        // exercise
+        new DoubleArrayCategoryDataset(new Comparable[] { "R" }, new Comparable[] { "A", "A" },
+                new DoubleArrayValues2D(1, 2));
+    }
+
+    // ----------------------------
+    // getRowIndex / getColumnIndex / getValue(Comparable, Comparable)
+    // { EC1: known key, EC2: unknown key }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void getIndexForKnownKeys() {
+        // verify
+        assertEquals("S2 should be row 1", 1, dataset.getRowIndex("S2"));
+        assertEquals("C3 should be column 2", 2, dataset.getColumnIndex("C3"));
+    }
+
+    // EC2
+    @Test
+    public void getIndexForUnknownKeys() {
+        // verify
+        assertEquals("An unknown row key should give -1", -1, dataset.getRowIndex("X"));
+        assertEquals("An unknown column key should give -1", -1, dataset.getColumnIndex("X"));
+    }
+
+    // EC2
+    @Test(expected = UnknownKeyException.class)
+    public void getValueForUnknownKey() {
+        // exercise
+        dataset.getValue("S1", "X");
+    }
+
+    // ----------------------------
+    // setValue(double, Comparable, Comparable)
+    // ----------------------------
+
+    @Test
+    public void setValueNotifiesListeners() {
+        // setup
+        final int[] events = new int[1];
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events[0]++;
+            }
+        });
+
+        // exercise
+        dataset.setValue(9.5, "S1", "C2");
+
+        // verify
+        assertEquals("The value should be updated", 9.5, dataset.getDoubleValue(0, 1), .000000001d);
+        assertEquals("One change event should be sent", 1, events[0]);
+    }
+
+    // ----------------------------
+    // equals / clone
+    // ----------------------------
+
+    @Test
+    public void cloneIsEqualAndIndependent() throws CloneNotSupportedException {
+        // exercise
+        DoubleArrayCategoryDataset clone = (DoubleArrayCategoryDataset) dataset.clone();
+
+        // verify
+        assertEquals("The clone should equal the original", dataset, clone);
+        clone.setValue(0.0, "S1", "C1");
+        assertFalse("Changing the clone should not affect the original", dataset.equals(clone));
+        assertEquals("The original should keep its value", 1.0, dataset.getDoubleValue(0, 0), .000000001d);
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.jfree.data.general;
+
+/**
+ * A {@link DatasetChangeEvent} that stands for a batch of changes made
+ * between {@link DatasetChangeBatch#beginUpdate()} and
+ * {@link DatasetChangeBatch#endUpdate(Dataset)}.  Listeners that only need
+ * to know that the dataset changed can treat it as a plain event; others
+ * can limit their work to the series and items that were affected.
+ * <p>
+ * The series and item ranges cover every change in the batch.  For a
+ * {@link org.jfree.data.category.CategoryDataset} the series are the rows
+ * and the items are the columns.  A last index of
+ * <code>Integer.MAX_VALUE</code> means that the change runs to the end
+ * of the dataset, for example because items were removed and the later
+ * items have moved.
+ */
+public class BatchDatasetChangeEvent extends DatasetChangeEvent {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 7937943653998354937L;
+
+    /** The number of changes in the batch. */
+    private int changeCount;
+
+    /** The index of the first series affected. */
+    private int firstSeries;
+
+    /** The index of the last series affected. */
+    private int lastSeries;
+
+    /** The index of the first item affected. */
+    private int firstItem;
+
+    /** The index of the last item affected. */
+    private int lastItem;
+
+    /**
+     * Creates a new event.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that changed.
+     * @param changeCount  the number of changes in the batch.
+     * @param firstSeries  the index of the first series affected.
+     * @param lastSeries  the index of the last series affected.
+     * @param firstItem  the index of the first item affected.
+     * @param lastItem  the index of the last item affected.
+     */
+    public BatchDatasetChangeEvent(Object source, Dataset dataset,
+            int changeCount, int firstSeries, int lastSeries, int firstItem,
+            int lastItem) {
+        super(source, dataset);
+        this.changeCount = changeCount;
+        this.firstSeries = firstSeries;
+        this.lastSeries = lastSeries;
+        this.firstItem = firstItem;
+        this.lastItem = lastItem;
+    }
+
+    /**
+     * Returns the number of changes in the batch.
+     *
+     * @return The number of changes.
+     */
+    public int getChangeCount() {
+        return this.changeCount;
+    }
+
+    /**
+     * Returns the index of the first series affected.
+     *
+     * @return The series index.
+     */
+    public int getFirstSeries() {
+        return this.firstSeries;
+    }
+
+    /**
+     * Returns the index of the last series affected.
+     *
+     * @return The series index (<code>Integer.MAX_VALUE</code> for the last
+     *     series in the dataset).
+     */
+    public int getLastSeries() {
+        return this.lastSeries;
+    }
+
+    /**
+     * Returns the index of the first item affected.
+     *
+     * @return The item index.
+     */
+    public int getFirstItem() {
+        return this.firstItem;
+    }
+
+    /**
+     * Returns the index of the last item affected.
+     *
+     * @return The item index (<code>Integer.MAX_VALUE</code> for the last
+     *     item in each series).
+     */
+    public int getLastItem() {
+        return this.lastItem;
+    }
+
+}
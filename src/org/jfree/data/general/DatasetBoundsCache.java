@@ -0,0 +1,331 @@
+package org.jfree.data.general;
+
+import original.Range;
+
+import org.jfree.data.DomainInfo;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * A cache of the domain and range bounds of an {@link XYDataset}, giving
+ * the results of {@link DatasetUtilities#findDomainBounds(XYDataset,
+ * boolean)} and {@link DatasetUtilities#findRangeBounds(XYDataset, boolean)}
+ * without scanning the whole dataset each time they are needed.  The cache
+ * listens to the dataset: when items are appended to its series, the
+ * bounds are widened to include the new items only; after any other change
+ * they are found again by a full scan the next time they are requested.
+ * <p>
+ * A change is taken to be an append when no series has fewer items than
+ * before, at least one has more, and each series that grew still has its
+ * previous last item (the same x- and y-value) at the same index.  Changes
+ * that keep the item counts, such as updating a value, and removals cause a
+ * full scan.  A change that inserts items before an unchanged copy of the
+ * old last item cannot be told apart from an append; call
+ * {@link #invalidate()} after making one.
+ * <p>
+ * Bounds that the dataset works out itself, through {@link DomainInfo} or
+ * {@link RangeInfo}, are not cached but passed on, as
+ * <code>DatasetUtilities</code> does, except the domain bounds without
+ * intervals of an {@link XYSeriesCollection}, which are cached.
+ * <p>
+ * The cache must receive each event before any listener that asks it for
+ * the bounds, so create it after those listeners have been registered
+ * (listeners are notified in the reverse of the order in which they were
+ * added).  It also checks the item counts whenever it is queried, so a
+ * listener notified too early still sees appended items and removals, but
+ * the cache then rebuilds the bounds after every change.
+ */
+public class DatasetBoundsCache implements DatasetChangeListener {
+
+    /** The dataset. */
+    private XYDataset dataset;
+
+    /** A flag that is set when the bounds must be found by a full scan. */
+    private boolean dirty;
+
+    /** The item count of each series when the bounds were last updated. */
+    private int[] itemCounts;
+
+    /** The x-value of the last item of each series. */
+    private double[] lastX;
+
+    /** The y-value of the last item of each series. */
+    private double[] lastY;
+
+    /** The smallest x-value. */
+    private double minimumX;
+
+    /** The largest x-value. */
+    private double maximumX;
+
+    /** The smallest start x-value. */
+    private double minimumStartX;
+
+    /** The largest end x-value. */
+    private double maximumEndX;
+
+    /** The smallest y-value (or low value). */
+    private double minimumY;
+
+    /** The largest y-value (or high value). */
+    private double maximumY;
+
+    /**
+     * Creates a cache for a dataset and registers it as a listener with the
+     * dataset.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     */
+    public DatasetBoundsCache(XYDataset dataset) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        this.dataset = dataset;
+        this.dirty = true;
+        dataset.addChangeListener(this);
+    }
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public XYDataset getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * Returns the range of x-values in the dataset, as
+     * {@link DatasetUtilities#findDomainBounds(XYDataset, boolean)} does.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *     x-interval is taken into account.
+     *
+     * @return The range (<code>null</code> if the dataset has no items).
+     */
+    public synchronized Range getDomainBounds(boolean includeInterval) {
+        if (this.dataset instanceof DomainInfo && (includeInterval
+                || !(this.dataset instanceof XYSeriesCollection))) {
+            return ((DomainInfo) this.dataset).getDomainBounds(
+                    includeInterval);
+        }
+        update();
+        double lower = this.minimumX;
+        double upper = this.maximumX;
+        if (includeInterval && this.dataset instanceof IntervalXYDataset) {
+            lower = this.minimumStartX;
+            upper = this.maximumEndX;
+        }
+        return lower > upper ? null : new Range(lower, upper);
+    }
+
+    /**
+     * Returns the range of y-values in the dataset, as
+     * {@link DatasetUtilities#findRangeBounds(XYDataset, boolean)} does.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *     y-interval is taken into account (used only if the dataset is a
+     *     {@link RangeInfo}).
+     *
+     * @return The range (<code>null</code> if the dataset has no items).
+     */
+    public synchronized Range getRangeBounds(boolean includeInterval) {
+        if (this.dataset instanceof RangeInfo) {
+            return ((RangeInfo) this.dataset).getRangeBounds(
+                    includeInterval);
+        }
+        update();
+        if (this.minimumY == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new Range(this.minimumY, this.maximumY);
+    }
+
+    /**
+     * Discards the cached bounds, so that they are found by a full scan the
+     * next time they are requested.
+     */
+    public synchronized void invalidate() {
+        this.dirty = true;
+    }
+
+    /**
+     * Stops listening to the dataset.  The cache should not be used
+     * afterwards.
+     */
+    public void dispose() {
+        this.dataset.removeChangeListener(this);
+    }
+
+    /**
+     * Widens the bounds to include items appended to the dataset, or marks
+     * them for a full scan after any other change.
+     *
+     * @param event  the change event.
+     */
+    public synchronized void datasetChanged(DatasetChangeEvent event) {
+        if (this.dirty) {
+            return;
+        }
+        int appended = appendedItemCount();
+        if (appended <= 0) {
+            this.dirty = true;
+        }
+        else if (event instanceof BatchDatasetChangeEvent
+                && ((BatchDatasetChangeEvent) event).getChangeCount()
+                > appended) {
+            // the batch held changes other than the appends
+            this.dirty = true;
+        }
+        else {
+            includeAppendedItems();
+        }
+    }
+
+    /**
+     * Brings the bounds up to date.
+     */
+    private void update() {
+        if (!this.dirty) {
+            int appended = appendedItemCount();
+            if (appended > 0) {
+                includeAppendedItems();
+            }
+            else if (appended < 0) {
+                this.dirty = true;
+            }
+        }
+        if (this.dirty) {
+            scan();
+        }
+    }
+
+    /**
+     * Returns the number of items appended to the dataset since the bounds
+     * were last updated.
+     *
+     * @return The number of items, zero if the item counts are unchanged,
+     *     or -1 if the dataset changed in some other way.
+     */
+    private int appendedItemCount() {
+        int seriesCount = this.dataset.getSeriesCount();
+        if (seriesCount != this.itemCounts.length) {
+            return -1;
+        }
+        int appended = 0;
+        for (int s = 0; s < seriesCount; s++) {
+            int count = this.dataset.getItemCount(s);
+            int previous = this.itemCounts[s];
+            if (count < previous) {
+                return -1;
+            }
+            if (count > previous) {
+                if (previous > 0 && !(same(this.lastX[s],
+                        this.dataset.getXValue(s, previous - 1))
+                        && same(this.lastY[s],
+                        this.dataset.getYValue(s, previous - 1)))) {
+                    return -1;
+                }
+                appended += count - previous;
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Widens the bounds to include the items after the previous item count
+     * of each series.
+     */
+    private void includeAppendedItems() {
+        for (int s = 0; s < this.itemCounts.length; s++) {
+            include(s, this.itemCounts[s]);
+        }
+    }
+
+    /**
+     * Finds the bounds by scanning every item.
+     */
+    private void scan() {
+        int seriesCount = this.dataset.getSeriesCount();
+        this.itemCounts = new int[seriesCount];
+        this.lastX = new double[seriesCount];
+        this.lastY = new double[seriesCount];
+        this.minimumX = Double.POSITIVE_INFINITY;
+        this.maximumX = Double.NEGATIVE_INFINITY;
+        this.minimumStartX = Double.POSITIVE_INFINITY;
+        this.maximumEndX = Double.NEGATIVE_INFINITY;
+        this.minimumY = Double.POSITIVE_INFINITY;
+        this.maximumY = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < seriesCount; s++) {
+            include(s, 0);
+        }
+        this.dirty = false;
+    }
+
+    /**
+     * Widens the bounds to include the items of a series from an index to
+     * the end, in the same way as the iterating methods of
+     * {@link DatasetUtilities}, and records the item count and last item.
+     *
+     * @param series  the series index.
+     * @param start  the index of the first item to include.
+     */
+    private void include(int series, int start) {
+        XYDataset d = this.dataset;
+        IntervalXYDataset interval = d instanceof IntervalXYDataset
+                ? (IntervalXYDataset) d : null;
+        OHLCDataset ohlc = d instanceof OHLCDataset ? (OHLCDataset) d : null;
+        int count = d.getItemCount(series);
+        for (int i = start; i < count; i++) {
+            double x = d.getXValue(series, i);
+            this.minimumX = Math.min(this.minimumX, x);
+            this.maximumX = Math.max(this.maximumX, x);
+            double low;
+            double high;
+            if (interval != null) {
+                this.minimumStartX = Math.min(this.minimumStartX,
+                        interval.getStartXValue(series, i));
+                this.maximumEndX = Math.max(this.maximumEndX,
+                        interval.getEndXValue(series, i));
+                low = interval.getStartYValue(series, i);
+                high = interval.getEndYValue(series, i);
+            }
+            else if (ohlc != null) {
+                low = ohlc.getLowValue(series, i);
+                high = ohlc.getHighValue(series, i);
+            }
+            else {
+                low = d.getYValue(series, i);
+                high = low;
+            }
+            if (!Double.isNaN(low)) {
+                this.minimumY = Math.min(this.minimumY, low);
+            }
+            if (!Double.isNaN(high)) {
+                this.maximumY = Math.max(this.maximumY, high);
+            }
+        }
+        this.itemCounts[series] = count;
+        if (count > 0) {
+            this.lastX[series] = d.getXValue(series, count - 1);
+            this.lastY[series] = d.getYValue(series, count - 1);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if two values are the same, treating
+     * <code>NaN</code> as equal to itself.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     *
+     * @return A boolean.
+     */
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+}
@@ -0,0 +1,232 @@
+package org.jfree.data.general;
+
+import static org.junit.Assert.*;
+import original.Range;
+import org.jfree.data.xy.BatchedXYSeriesCollection;
+import org.jfree.data.xy.DefaultOHLCDataset;
+import org.jfree.data.xy.OHLCDataItem;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+import java.util.Date;
+import java.util.Random;
+
+public class DatasetBoundsCacheTest {
+
+    /**
+     * Checks that two ranges are both null or have the same bounds.
+     */
+    private static void assertSameRange(String message, Range expected, Range actual) {
+        if (expected == null) {
+            assertNull(message, actual);
+            return;
+        }
+        assertNotNull(message, actual);
+        assertEquals(message, expected.getLowerBound(), actual.getLowerBound(), .000000001d);
+        assertEquals(message, expected.getUpperBound(), actual.getUpperBound(), .000000001d);
+    }
+
+    /**
+     * Checks that the cache gives the same bounds as DatasetUtilities.
+     */
+    private static void assertSameBounds(XYDataset dataset, DatasetBoundsCache cache) {
+        assertSameRange("The domain bounds should match", DatasetUtilities.findDomainBounds(dataset, false),
+                cache.getDomainBounds(false));
+        assertSameRange("The interval domain bounds should match", DatasetUtilities.findDomainBounds(dataset, true),
+                cache.getDomainBounds(true));
+        assertSameRange("The range bounds should match", DatasetUtilities.findRangeBounds(dataset, false),
+                cache.getRangeBounds(false));
+    }
+
+    // ----------------------------
+    // getDomainBounds(boolean includeInterval) / getRangeBounds(boolean includeInterval)
+    // change: { EC1: items appended, EC2: items removed, EC3: value updated, EC4: series added or removed,
+    //           EC5: no items }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void appendedItemsWidenBounds() {
+        // setup
+        XYSeries series = new XYSeries("S", false, true);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        Random random = new Random(19);
+
+        for (int i = 0; i < 200; i++) {
+            // exercise
+            series.add(random.nextGaussian() * 100.0, random.nextGaussian() * 10.0);
+
+            // verify
+            assertSameBounds(dataset, cache);
+        }
+    }
+
+    // EC2
+    @Test
+    public void removedExtremeNarrowsBounds() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        for (int i = 0; i < 10; i++) {
+            series.add(i, i * i);
+        }
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        cache.getRangeBounds(false);
+
+        // exercise
+        series.remove(9);
+
+        // verify
+        assertSameBounds(dataset, cache);
+        assertEquals("The upper bound should have dropped", 64.0, cache.getRangeBounds(false).getUpperBound(),
+                .000000001d);
+    }
+
+    // EC3
+    @Test
+    public void updatedValueRebuildsBounds() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        for (int i = 0; i < 10; i++) {
+            series.add(i, i);
+        }
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        cache.getRangeBounds(false);
+
+        // exercise
+        series.updateByIndex(9, new Double(-5.0));
+
+        // verify
+        assertSameBounds(dataset, cache);
+    }
+
+    // EC4
+    @Test
+    public void addedAndRemovedSeries() {
+        // setup
+        XYSeries s0 = new XYSeries("S0");
+        s0.add(1.0, 2.0);
+        XYSeriesCollection dataset = new XYSeriesCollection(s0);
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        cache.getDomainBounds(false);
+        XYSeries s1 = new XYSeries("S1");
+        s1.add(-3.0, 40.0);
+
+        // exercise
+        dataset.addSeries(s1);
+
+        // verify
+        assertSameBounds(dataset, cache);
+
+        // exercise
+        dataset.removeSeries(s1);
+
+        // verify
+        assertSameBounds(dataset, cache);
+    }
+
+    // EC5
+    @Test
+    public void emptyDatasetHasNoBounds() {
+        // setup
+        DatasetBoundsCache cache = new DatasetBoundsCache(new XYSeriesCollection());
+
+        // verify
+        assertNull("There should be no domain bounds", cache.getDomainBounds(false));
+        assertNull("There should be no range bounds", cache.getRangeBounds(false));
+    }
+
+    @Test
+    public void randomChangesMatchFullScan() {
+        // setup
+        XYSeries s0 = new XYSeries("S0", false, true);
+        XYSeries s1 = new XYSeries("S1", false, true);
+        XYSeriesCollection dataset = new XYSeriesCollection(s0);
+        dataset.addSeries(s1);
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        Random random = new Random(2006);
+
+        for (int i = 0; i < 2000; i++) {
+            // exercise
+            XYSeries series = random.nextBoolean() ? s0 : s1;
+            int op = random.nextInt(10);
+            if (op < 6 || series.getItemCount() == 0) {
+                double y = random.nextInt(20) == 0 ? Double.NaN : random.nextGaussian();
+                series.add(random.nextGaussian(), y);
+            }
+            else if (op < 8) {
+                series.remove(random.nextInt(series.getItemCount()));
+            }
+            else {
+                series.updateByIndex(random.nextInt(series.getItemCount()), new Double(random.nextGaussian()));
+            }
+
+            // verify
+            assertSameBounds(dataset, cache);
+        }
+    }
+
+    @Test
+    public void batchedAppendsWidenBounds() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        BatchedXYSeriesCollection dataset = new BatchedXYSeriesCollection(series);
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        cache.getRangeBounds(false);
+
+        // exercise
+        dataset.beginUpdate();
+        for (int i = 0; i < 100; i++) {
+            series.add(i, -i);
+        }
+        dataset.endUpdate();
+
+        // verify
+        assertSameBounds(dataset, cache);
+    }
+
+    @Test
+    public void ohlcDatasetUsesHighAndLow() {
+        // setup
+        OHLCDataItem[] items = new OHLCDataItem[] {
+                new OHLCDataItem(new Date(1000L), 2.0, 5.0, 1.0, 3.0, 100.0),
+                new OHLCDataItem(new Date(2000L), 3.0, 9.0, -2.0, 4.0, 100.0)};
+        DefaultOHLCDataset dataset = new DefaultOHLCDataset("S", items);
+
+        // exercise
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+
+        // verify
+        assertSameBounds(dataset, cache);
+        assertEquals("The lower bound should be the lowest low", -2.0, cache.getRangeBounds(false).getLowerBound(),
+                .000000001d);
+    }
+
+    @Test
+    public void invalidateRebuildsBounds() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        series.add(1.0, 1.0);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        cache.getRangeBounds(false);
+        dataset.removeChangeListener(cache);
+        series.updateByIndex(0, new Double(8.0));
+
+        // exercise
+        cache.invalidate();
+
+        // verify
+        assertSameBounds(dataset, cache);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectNullDataset() {
+        // exercise
+        new DatasetBoundsCache(null);
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.jfree.data.general;
+
+/**
+ * Collects the changes to a dataset made between {@link #beginUpdate()} and
+ * {@link #endUpdate(Dataset)} so that the dataset can send a single
+ * {@link BatchDatasetChangeEvent} for all of them, instead of one event per
+ * change.  Outside a batch, {@link #recordChange(int, int, int, int)}
+ * returns <code>false</code> and the dataset sends its events as usual.
+ * <p>
+ * Batches may be nested, and may be begun and ended on different threads:
+ * the event is created when the last open batch ends, and only if a change
+ * was recorded.  The methods are synchronized, but the event is sent by the
+ * dataset after this object's lock has been released, so listeners may
+ * call back into the dataset.  A typical use is:
+ * <pre>
+ * dataset.beginUpdate();
+ * try {
+ *     // add or change many values
+ * }
+ * finally {
+ *     dataset.endUpdate();
+ * }
+ * </pre>
+ */
+public class DatasetChangeBatch implements java.io.Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 5120768519532047512L;
+
+    /** The number of open batches. */
+    private int depth;
+
+    /** The number of changes recorded since the outermost batch began. */
+    private int changeCount;
+
+    /** The index of the first series changed. */
+    private int firstSeries;
+
+    /** The index of the last series changed. */
+    private int lastSeries;
+
+    /** The index of the first item changed. */
+    private int firstItem;
+
+    /** The index of the last item changed. */
+    private int lastItem;
+
+    /**
+     * Creates a new object with no batch open.
+     */
+    public DatasetChangeBatch() {
+        reset();
+    }
+
+    /**
+     * Opens a batch.
+     */
+    public synchronized void beginUpdate() {
+        this.depth++;
+    }
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public synchronized boolean isUpdating() {
+        return this.depth > 0;
+    }
+
+    /**
+     * Records a change if a batch is open.
+     *
+     * @param firstSeries  the index of the first series changed.
+     * @param lastSeries  the index of the last series changed
+     *     (<code>Integer.MAX_VALUE</code> for the last series).
+     * @param firstItem  the index of the first item changed.
+     * @param lastItem  the index of the last item changed
+     *     (<code>Integer.MAX_VALUE</code> for the last item).
+     *
+     * @return <code>true</code> if the change was recorded, in which case
+     *     the dataset should not send an event for it.
+     */
+    public synchronized boolean recordChange(int firstSeries, int lastSeries,
+            int firstItem, int lastItem) {
+        if (this.depth == 0) {
+            return false;
+        }
+        this.changeCount++;
+        this.firstSeries = Math.min(this.firstSeries, firstSeries);
+        this.lastSeries = Math.max(this.lastSeries, lastSeries);
+        this.firstItem = Math.min(this.firstItem, firstItem);
+        this.lastItem = Math.max(this.lastItem, lastItem);
+        return true;
+    }
+
+    /**
+     * Closes a batch and, if it was the last one open and changes were
+     * recorded, returns the event that the dataset should send.
+     *
+     * @param dataset  the dataset (used as the event source).
+     *
+     * @return The event, or <code>null</code> if there is nothing to send.
+     *
+     * @throws IllegalStateException if no batch is open.
+     */
+    public synchronized BatchDatasetChangeEvent endUpdate(Dataset dataset) {
+        if (this.depth == 0) {
+            throw new IllegalStateException("No update in progress.");
+        }
+        this.depth--;
+        if (this.depth > 0 || this.changeCount == 0) {
+            return null;
+        }
+        BatchDatasetChangeEvent event = new BatchDatasetChangeEvent(dataset,
+                dataset, this.changeCount, this.firstSeries, this.lastSeries,
+                this.firstItem, this.lastItem);
+        reset();
+        return event;
+    }
+
+    /**
+     * Forgets the recorded changes.
+     */
+    private void reset() {
+        this.changeCount = 0;
+        this.firstSeries = Integer.MAX_VALUE;
+        this.lastSeries = -1;
+        this.firstItem = Integer.MAX_VALUE;
+        this.lastItem = -1;
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.jfree.data.general;
+
+import static org.junit.Assert.*;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.junit.Test;
+
+public class DatasetChangeBatchTest {
+
+    // ----------------------------
+    // endUpdate(Dataset dataset)
+    // batches: { EC1: one with changes, EC2: nested, EC3: without changes, EC4: none open }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void endUpdateCoversAllChanges() {
+        // setup
+        DatasetChangeBatch batch = new DatasetChangeBatch();
+        Dataset dataset = new DefaultCategoryDataset();
+        batch.beginUpdate();
+        batch.recordChange(2, 2, 10, 10);
+        batch.recordChange(1, 1, 12, 15);
+
+        // exercise
+        BatchDatasetChangeEvent event = batch.endUpdate(dataset);
+
+        // verify
+        assertSame("The event should be for the dataset", dataset, event.getDataset());
+        assertEquals("There should be 2 changes", 2, event.getChangeCount());
+        assertEquals("The first series should be 1", 1, event.getFirstSeries());
+        assertEquals("The last series should be 2", 2, event.getLastSeries());
+        assertEquals("The first item should be 10", 10, event.getFirstItem());
+        assertEquals("The last item should be 15", 15, event.getLastItem());
+        assertFalse("The batch should be closed", batch.isUpdating());
+    }
+
+    // EC2
+    @Test
+    public void nestedBatchesEndTogether() {
+        // setup
+        DatasetChangeBatch batch = new DatasetChangeBatch();
+        Dataset dataset = new DefaultCategoryDataset();
+        batch.beginUpdate();
+        batch.beginUpdate();
+        batch.recordChange(0, 0, 0, 0);
+
+        // exercise
+        BatchDatasetChangeEvent inner = batch.endUpdate(dataset);
+        BatchDatasetChangeEvent outer = batch.endUpdate(dataset);
+
+        // verify
+        assertNull("The inner batch should not send an event", inner);
+        assertEquals("The outer batch should send one event", 1, outer.getChangeCount());
+    }
+
+    // EC3
+    @Test
+    public void noEventWithoutChanges() {
+        // setup
+        DatasetChangeBatch batch = new DatasetChangeBatch();
+        batch.beginUpdate();
+
+        // exercise
+        BatchDatasetChangeEvent event = batch.endUpdate(new DefaultCategoryDataset());
+
+        // verify
+        assertNull("There should be no event", event);
+    }
+
+    // EC4
+    @Test(expected = IllegalStateException.class)
+    public void endUpdateWithoutBatch() {
+        // exercise
+        new DatasetChangeBatch().endUpdate(new DefaultCategoryDataset());
+    }
+
+    @Test
+    public void changesAreNotRecordedOutsideBatch() {
+        // exercise
+        boolean recorded = new DatasetChangeBatch().recordChange(0, 0, 0, 0);
+
+        // verify
+        assertFalse("The change should not be recorded", recorded);
+    }
+
+    @Test
+    public void recordChangesFromSeveralThreads() throws InterruptedException {
+        // setup
+        final DatasetChangeBatch batch = new DatasetChangeBatch();
+        Thread[] threads = new Thread[4];
+        batch.beginUpdate();
+        for (int t = 0; t < threads.length; t++) {
+            final int series = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    batch.beginUpdate();
+                    for (int i = 0; i < 10000; i++) {
+                        batch.recordChange(series, series, i, i);
+                    }
+                    batch.endUpdate(new DefaultCategoryDataset());
+                }
+            };
+        }
+
+        // exercise
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        BatchDatasetChangeEvent event = batch.endUpdate(new DefaultCategoryDataset());
+
+        // verify
+        assertEquals("Every change should be counted", 40000, event.getChangeCount());
+        assertEquals("The last series should be 3", 3, event.getLastSeries());
+        assertEquals("The last item should be 9999", 9999, event.getLastItem());
+    }
+
+}
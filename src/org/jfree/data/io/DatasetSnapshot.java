@@ -0,0 +1,679 @@
+package org.jfree.data.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jfree.data.KeyedValues;
+import org.jfree.data.KeyedValues2D;
+import org.jfree.data.xy.XYSeries;
+
+/**
+ * Writes datasets to a compact binary file and opens them again by mapping
+ * the file into memory, so that reopening a large dataset costs little more
+ * than decoding its keys and the values stay off the Java heap.
+ * <p>
+ * A snapshot holds one table of <code>double</code> values, stored by
+ * column:
+ * <pre>
+ * offset  0  int    magic number 0x4A465344 ("JFSD")
+ *         4  short  format version (1)
+ *         6  byte   kind: 1 = KeyedValues2D, 2 = KeyedValues, 3 = XYSeries
+ *         7  byte   flags (XYSeries: 1 = auto sort, 2 = duplicate x values)
+ *         8  int    row count
+ *        12  int    column count
+ *        16  int    key count
+ *        20  int    reserved (0)
+ *        24  long   offset of the values, a multiple of 8
+ *        32         key dictionary: one tag byte per key, then
+ *                   'S' int length + UTF-8 bytes, 'I' int, 'J' long,
+ *                   'D' double, or 'O' int length + serialized object
+ *                   (only one of the {@link #OBJECT_KEY_CLASSES})
+ *                   zero padding to the offset of the values
+ *                   values: each column in turn, row count doubles
+ *                   null masks: each column in turn, one bit per row in
+ *                   (row count + 63) / 64 longs, lowest bit first
+ * </pre>
+ * All numbers are big-endian.  A <code>null</code> cell holds
+ * <code>0.0</code> and has its bit set in the mask, so
+ * <code>Double.NaN</code> survives as a value.  The dictionary lists the row
+ * keys then the column keys of a {@link KeyedValues2D}, the keys of a
+ * {@link KeyedValues}, or the key of an {@link XYSeries}, whose table has
+ * an x column and a y column.
+ * <p>
+ * A mapped file must not be larger than <code>Integer.MAX_VALUE</code>
+ * bytes, and should not be changed while a dataset opened from it is in
+ * use.
+ */
+public final class DatasetSnapshot {
+
+    /**
+     * The names of the classes, other than <code>String</code>,
+     * <code>Integer</code>, <code>Long</code> and <code>Double</code>, that
+     * a key may have.  Such keys are stored serialized, and the list is
+     * kept to JDK value types so that reading a snapshot cannot run the
+     * deserialization code of any other class.
+     */
+    public static final Set OBJECT_KEY_CLASSES = Collections
+            .unmodifiableSet(new HashSet(Arrays.asList(new String[] {
+                "java.lang.Boolean", "java.lang.Byte", "java.lang.Short",
+                "java.lang.Character", "java.lang.Float",
+                "java.math.BigInteger", "java.math.BigDecimal",
+                "java.util.Date", "java.sql.Date", "java.sql.Timestamp"})));
+
+    /**
+     * The classes that the {@link #OBJECT_KEY_CLASSES} are built from,
+     * which must also be resolved when a key is read.
+     */
+    private static final Set OBJECT_KEY_PARTS = new HashSet(Arrays.asList(
+            new String[] {"java.lang.Number", "[B"}));
+
+    /** The magic number at the start of every snapshot. */
+    static final int MAGIC = 0x4A465344;
+
+    /** The format version. */
+    static final short VERSION = 1;
+
+    /** The kind of a snapshot of a {@link KeyedValues2D}. */
+    static final byte KEYED_VALUES_2D = 1;
+
+    /** The kind of a snapshot of a {@link KeyedValues}. */
+    static final byte KEYED_VALUES = 2;
+
+    /** The kind of a snapshot of an {@link XYSeries}. */
+    static final byte XY_SERIES = 3;
+
+    /** The flag for an {@link XYSeries} that sorts its items by x. */
+    static final byte AUTO_SORT = 1;
+
+    /** The flag for an {@link XYSeries} that allows repeated x values. */
+    static final byte ALLOW_DUPLICATE_X_VALUES = 2;
+
+    /** The size of the fixed header. */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Not used.
+     */
+    private DatasetSnapshot() {
+    }
+
+    /**
+     * A table of cells to write.
+     */
+    private abstract static class Cells {
+
+        /**
+         * Returns a cell value.
+         *
+         * @param row  the row index.
+         * @param column  the column index.
+         *
+         * @return The value (possibly <code>null</code>).
+         */
+        abstract Number getValue(int row, int column);
+
+    }
+
+    /**
+     * Writes a table of values, such as a
+     * {@link org.jfree.data.category.CategoryDataset}, to a file.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @throws IOException if the file cannot be written, or a key is neither
+     *     a <code>String</code>, <code>Integer</code>, <code>Long</code> or
+     *     <code>Double</code> nor one of the {@link #OBJECT_KEY_CLASSES}.
+     */
+    public static void writeKeyedValues2D(final KeyedValues2D data,
+            File file) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        Comparable[] keys = new Comparable[rowCount + columnCount];
+        for (int r = 0; r < rowCount; r++) {
+            keys[r] = data.getRowKey(r);
+        }
+        for (int c = 0; c < columnCount; c++) {
+            keys[rowCount + c] = data.getColumnKey(c);
+        }
+        write(file, KEYED_VALUES_2D, (byte) 0, keys, rowCount, columnCount,
+                new Cells() {
+                    Number getValue(int row, int column) {
+                        return data.getValue(row, column);
+                    }
+                });
+    }
+
+    /**
+     * Writes a list of keyed values to a file.
+     *
+     * @param data  the data (<code>null</code> not permitted).
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @throws IOException if the file cannot be written, or a key cannot be
+     *     stored.
+     */
+    public static void writeKeyedValues(final KeyedValues data, File file)
+            throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        int itemCount = data.getItemCount();
+        Comparable[] keys = new Comparable[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            keys[i] = data.getKey(i);
+        }
+        write(file, KEYED_VALUES, (byte) 0, keys, itemCount, 1, new Cells() {
+            Number getValue(int row, int column) {
+                return data.getValue(row);
+            }
+        });
+    }
+
+    /**
+     * Writes a series to a file.  The series' key, items and sorting
+     * settings are stored; its maximum item count and listeners are not.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @throws IOException if the file cannot be written, or the key cannot
+     *     be stored.
+     */
+    public static void writeXYSeries(final XYSeries series, File file)
+            throws IOException {
+        if (series == null) {
+            throw new IllegalArgumentException("Null 'series' argument.");
+        }
+        byte flags = 0;
+        if (series.getAutoSort()) {
+            flags |= AUTO_SORT;
+        }
+        if (series.getAllowDuplicateXValues()) {
+            flags |= ALLOW_DUPLICATE_X_VALUES;
+        }
+        write(file, XY_SERIES, flags, new Comparable[] {series.getKey()},
+                series.getItemCount(), 2, new Cells() {
+                    Number getValue(int row, int column) {
+                        return column == 0 ? series.getX(row)
+                                : series.getY(row);
+                    }
+                });
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param file  the file.
+     * @param kind  the kind of snapshot.
+     * @param flags  the flags.
+     * @param keys  the key dictionary.
+     * @param rowCount  the row count.
+     * @param columnCount  the column count.
+     * @param cells  the cells.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    private static void write(File file, byte kind, byte flags,
+            Comparable[] keys, int rowCount, int columnCount, Cells cells)
+            throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Null 'file' argument.");
+        }
+        byte[] dictionary = encodeKeys(keys);
+        long dataOffset = (HEADER_SIZE + dictionary.length + 7) & ~7L;
+        int words = maskLength(rowCount);
+        long[] masks = new long[words * columnCount];
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(kind);
+            out.writeByte(flags);
+            out.writeInt(rowCount);
+            out.writeInt(columnCount);
+            out.writeInt(keys.length);
+            out.writeInt(0);
+            out.writeLong(dataOffset);
+            out.write(dictionary);
+            for (long i = HEADER_SIZE + dictionary.length; i < dataOffset;
+                    i++) {
+                out.writeByte(0);
+            }
+            for (int c = 0; c < columnCount; c++) {
+                for (int r = 0; r < rowCount; r++) {
+                    Number value = cells.getValue(r, c);
+                    if (value == null) {
+                        masks[c * words + (r >>> 6)] |= 1L << r;
+                        out.writeDouble(0.0);
+                    }
+                    else {
+                        out.writeDouble(value.doubleValue());
+                    }
+                }
+            }
+            for (int i = 0; i < masks.length; i++) {
+                out.writeLong(masks[i]);
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Encodes the key dictionary.
+     *
+     * @param keys  the keys.
+     *
+     * @return The encoded dictionary.
+     *
+     * @throws IOException if a key cannot be stored.
+     */
+    private static byte[] encodeKeys(Comparable[] keys) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < keys.length; i++) {
+            Comparable key = keys[i];
+            if (key instanceof String) {
+                byte[] text = ((String) key).getBytes(StandardCharsets.UTF_8);
+                out.writeByte('S');
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            else if (key instanceof Integer) {
+                out.writeByte('I');
+                out.writeInt(((Integer) key).intValue());
+            }
+            else if (key instanceof Long) {
+                out.writeByte('J');
+                out.writeLong(((Long) key).longValue());
+            }
+            else if (key instanceof Double) {
+                out.writeByte('D');
+                out.writeDouble(((Double) key).doubleValue());
+            }
+            else if (key != null
+                    && OBJECT_KEY_CLASSES.contains(key.getClass().getName())) {
+                ByteArrayOutputStream object = new ByteArrayOutputStream();
+                ObjectOutputStream objectOut = new ObjectOutputStream(object);
+                objectOut.writeObject(key);
+                objectOut.close();
+                out.writeByte('O');
+                out.writeInt(object.size());
+                object.writeTo(out);
+            }
+            else {
+                throw new IOException("Unsupported key class: "
+                        + (key != null ? key.getClass().getName() : null));
+            }
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Opens a snapshot written by
+     * {@link #writeKeyedValues2D(KeyedValues2D, File)} as a read-only
+     * category dataset backed by the mapped file.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot
+     *     of a table.
+     */
+    public static MappedCategoryDataset openCategoryDataset(File file)
+            throws IOException {
+        Snapshot snapshot = open(file, KEYED_VALUES_2D);
+        Comparable[] rowKeys = new Comparable[snapshot.table.getRowCount()];
+        Comparable[] columnKeys
+                = new Comparable[snapshot.table.getColumnCount()];
+        System.arraycopy(snapshot.keys, 0, rowKeys, 0, rowKeys.length);
+        System.arraycopy(snapshot.keys, rowKeys.length, columnKeys, 0,
+                columnKeys.length);
+        return new MappedCategoryDataset(rowKeys, columnKeys, snapshot.table);
+    }
+
+    /**
+     * Opens a snapshot written by
+     * {@link #writeKeyedValues(KeyedValues, File)} as a read-only list of
+     * keyed values backed by the mapped file.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @return The values.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot
+     *     of keyed values.
+     */
+    public static MappedKeyedValues openKeyedValues(File file)
+            throws IOException {
+        Snapshot snapshot = open(file, KEYED_VALUES);
+        return new MappedKeyedValues(snapshot.keys, snapshot.table);
+    }
+
+    /**
+     * Opens a snapshot written by {@link #writeXYSeries(XYSeries, File)} as
+     * a read-only dataset of one series backed by the mapped file.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot
+     *     of a series.
+     */
+    public static MappedXYDataset openXYDataset(File file)
+            throws IOException {
+        Snapshot snapshot = open(file, XY_SERIES);
+        return new MappedXYDataset(snapshot.keys[0], snapshot.table,
+                (snapshot.flags & AUTO_SORT) != 0);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeXYSeries(XYSeries, File)}
+     * back into a new series on the heap, for code that needs to change the
+     * series.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @return The series.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot
+     *     of a series.
+     */
+    public static XYSeries readXYSeries(File file) throws IOException {
+        Snapshot snapshot = open(file, XY_SERIES);
+        XYSeries series = new XYSeries(snapshot.keys[0],
+                (snapshot.flags & AUTO_SORT) != 0,
+                (snapshot.flags & ALLOW_DUPLICATE_X_VALUES) != 0);
+        SnapshotTable table = snapshot.table;
+        for (int i = 0; i < table.getRowCount(); i++) {
+            series.add(table.getValue(i, 0), table.getValue(i, 1), false);
+        }
+        return series;
+    }
+
+    /**
+     * The decoded parts of a snapshot.
+     */
+    private static final class Snapshot {
+
+        /** The flags. */
+        private byte flags;
+
+        /** The key dictionary. */
+        private Comparable[] keys;
+
+        /** The table of values. */
+        private SnapshotTable table;
+
+    }
+
+    /**
+     * Maps a snapshot and decodes its header and keys.
+     *
+     * @param file  the file.
+     * @param kind  the expected kind.
+     *
+     * @return The snapshot.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot of
+     *     the expected kind.
+     */
+    private static Snapshot open(File file, byte kind) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Null 'file' argument.");
+        }
+        ByteBuffer buffer;
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        finally {
+            channel.close();
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a dataset snapshot: " + file);
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version "
+                    + buffer.getShort(4) + ": " + file);
+        }
+        if (buffer.get(6) != kind) {
+            throw new IOException("Snapshot holds a different kind of "
+                    + "dataset: " + file);
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.flags = buffer.get(7);
+        int rowCount = buffer.getInt(8);
+        int columnCount = buffer.getInt(12);
+        int keyCount = buffer.getInt(16);
+        long dataOffset = buffer.getLong(24);
+        long cells = (long) rowCount * columnCount;
+        long maskOffset = dataOffset + cells * 8;
+        long end = maskOffset + (long) maskLength(rowCount) * columnCount * 8;
+        if (rowCount < 0 || columnCount < 0 || keyCount < 0
+                || dataOffset < HEADER_SIZE || (dataOffset & 7) != 0
+                || end != buffer.capacity()
+                || keyCount != expectedKeyCount(kind, rowCount, columnCount)) {
+            throw new IOException("Corrupt snapshot header: " + file);
+        }
+        buffer.position(HEADER_SIZE);
+        buffer.limit((int) dataOffset);
+        snapshot.keys = decodeKeys(buffer, keyCount, file);
+        buffer.limit(buffer.capacity());
+        buffer.position((int) dataOffset);
+        DoubleBuffer values = buffer.slice().asDoubleBuffer();
+        values.limit((int) cells);
+        buffer.position((int) maskOffset);
+        LongBuffer masks = buffer.slice().asLongBuffer();
+        snapshot.table = new SnapshotTable(rowCount, columnCount, values,
+                masks);
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of keys that a snapshot of the specified kind and
+     * size should hold, or -1 if no snapshot of that kind has that size.
+     *
+     * @param kind  the kind of snapshot.
+     * @param rowCount  the row count.
+     * @param columnCount  the column count.
+     *
+     * @return The number of keys.
+     */
+    private static long expectedKeyCount(byte kind, int rowCount,
+            int columnCount) {
+        if (kind == KEYED_VALUES_2D) {
+            return (long) rowCount + columnCount;
+        }
+        if (kind == KEYED_VALUES) {
+            return columnCount == 1 ? rowCount : -1;
+        }
+        return columnCount == 2 ? 1 : -1;
+    }
+
+    /**
+     * Decodes the key dictionary.
+     *
+     * @param buffer  the buffer, positioned at the dictionary and limited to
+     *     its end.
+     * @param keyCount  the number of keys.
+     * @param file  the file, for messages.
+     *
+     * @return The keys.
+     *
+     * @throws IOException if the dictionary is corrupt.
+     */
+    private static Comparable[] decodeKeys(ByteBuffer buffer, int keyCount,
+            File file) throws IOException {
+        Comparable[] keys = new Comparable[keyCount];
+        try {
+            for (int i = 0; i < keyCount; i++) {
+                byte tag = buffer.get();
+                if (tag == 'S') {
+                    byte[] text = new byte[buffer.getInt()];
+                    buffer.get(text);
+                    keys[i] = new String(text, StandardCharsets.UTF_8);
+                }
+                else if (tag == 'I') {
+                    keys[i] = new Integer(buffer.getInt());
+                }
+                else if (tag == 'J') {
+                    keys[i] = new Long(buffer.getLong());
+                }
+                else if (tag == 'D') {
+                    keys[i] = new Double(buffer.getDouble());
+                }
+                else if (tag == 'O') {
+                    byte[] object = new byte[buffer.getInt()];
+                    buffer.get(object);
+                    keys[i] = readObjectKey(object);
+                }
+                else {
+                    throw new IOException("Unknown key tag " + tag + ": "
+                            + file);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            // a length or type that does not fit the dictionary
+            throw new IOException("Corrupt snapshot key dictionary: " + file,
+                    e);
+        }
+        catch (InvalidClassException e) {
+            throw new IOException("Key class not allowed in snapshot: "
+                    + file, e);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IOException("Unknown key class in snapshot: " + file,
+                    e);
+        }
+        return keys;
+    }
+
+    /**
+     * Reads a serialized key.  Only the {@link #OBJECT_KEY_CLASSES}, and
+     * the classes they are built from, are resolved, so opening a snapshot
+     * cannot create an object of any other class on the class path.
+     *
+     * @param object  the serialized key.
+     *
+     * @return The key.
+     *
+     * @throws IOException if the key cannot be read, or names a class that
+     *     is not allowed.
+     * @throws ClassNotFoundException if a class cannot be found.
+     */
+    static Comparable readObjectKey(byte[] object) throws IOException,
+            ClassNotFoundException {
+        ObjectInputStream in = new KeyInputStream(
+                new ByteArrayInputStream(object));
+        try {
+            return (Comparable) in.readObject();
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns the number of <code>long</code> words in the null mask of one
+     * column.
+     *
+     * @param rowCount  the row count.
+     *
+     * @return The number of words.
+     */
+    static int maskLength(int rowCount) {
+        return (rowCount + 63) >>> 6;
+    }
+
+    /**
+     * An object stream that only resolves the {@link #OBJECT_KEY_CLASSES}
+     * and their parts.
+     */
+    private static final class KeyInputStream extends ObjectInputStream {
+
+        /**
+         * Creates a stream.
+         *
+         * @param in  the underlying stream.
+         *
+         * @throws IOException if the stream header cannot be read.
+         */
+        KeyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        /**
+         * Resolves a class, if it is allowed.
+         *
+         * @param desc  the class descriptor.
+         *
+         * @return The class.
+         *
+         * @throws IOException if the class is not allowed.
+         * @throws ClassNotFoundException if the class cannot be found.
+         */
+        protected Class resolveClass(ObjectStreamClass desc)
+                throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!OBJECT_KEY_CLASSES.contains(name)
+                    && !OBJECT_KEY_PARTS.contains(name)) {
+                throw new InvalidClassException(name,
+                        "Not allowed as a snapshot key.");
+            }
+            return super.resolveClass(desc);
+        }
+
+        /**
+         * Rejects every proxy class.
+         *
+         * @param interfaces  the interface names.
+         *
+         * @return Never returns.
+         *
+         * @throws IOException always.
+         */
+        protected Class resolveProxyClass(String[] interfaces)
+                throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed "
+                    + "as snapshot keys.");
+        }
+
+    }
+
+}
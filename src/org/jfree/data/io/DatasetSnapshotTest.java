@@ -0,0 +1,323 @@
+package org.jfree.data.io;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.KeyedValues;
+import org.jfree.data.Values2D;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.time.Day;
+import org.jfree.data.xy.XYSeries;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Random;
+
+public class DatasetSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Checks that two tables hold the same values, cell by cell.
+     */
+    private static void assertSameValues(Values2D expected, Values2D actual) {
+        assertEquals("The row count should match", expected.getRowCount(), actual.getRowCount());
+        assertEquals("The column count should match", expected.getColumnCount(), actual.getColumnCount());
+        for (int r = 0; r < expected.getRowCount(); r++) {
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertEquals("The value at (" + r + ", " + c + ") should match", expected.getValue(r, c),
+                        actual.getValue(r, c));
+            }
+        }
+    }
+
+    /**
+     * Checks that two lists hold the same keys and values.
+     */
+    private static void assertSameValues(KeyedValues expected, KeyedValues actual) {
+        assertEquals("The keys should match", expected.getKeys(), actual.getKeys());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The value at " + i + " should match", expected.getValue(i), actual.getValue(i));
+        }
+    }
+
+    // ----------------------------
+    // writeKeyedValues2D(KeyedValues2D data, File file) / openCategoryDataset(File file)
+    // data: { EC1: values, nulls and NaN, EC2: more rows than one mask word, EC3: empty, EC4: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void roundTripCategoryDataset() throws IOException {
+        // setup
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        dataset.addValue(1.5, "S1", "C1");
+        dataset.addValue(null, "S1", "C2");
+        dataset.addValue(Double.NaN, "S2", "C1");
+        dataset.addValue(-4.0, "S2", "C2");
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues2D(dataset, file);
+        MappedCategoryDataset mapped = DatasetSnapshot.openCategoryDataset(file);
+
+        // verify
+        assertEquals("The row keys should match", dataset.getRowKeys(), mapped.getRowKeys());
+        assertEquals("The column keys should match", dataset.getColumnKeys(), mapped.getColumnKeys());
+        assertSameValues(dataset, mapped);
+        assertNull("The null cell should stay null", mapped.getValue("S1", "C2"));
+        assertTrue("The NaN cell should stay NaN", Double.isNaN(mapped.getValue("S2", "C1").doubleValue()));
+        assertEquals("The mapped dataset should equal the original", true, mapped.equals(dataset));
+    }
+
+    // EC2
+    @Test
+    public void roundTripLargerTable() throws IOException {
+        // setup
+        Random random = new Random(14L);
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int r = 0; r < 130; r++) {
+            for (int c = 0; c < 3; c++) {
+                Double value = random.nextInt(5) == 0 ? null : new Double(random.nextGaussian());
+                dataset.addValue(value, new Integer(r), "C" + c);
+            }
+        }
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues2D(dataset, file);
+        MappedCategoryDataset mapped = DatasetSnapshot.openCategoryDataset(file);
+
+        // verify
+        assertSameValues(dataset, mapped);
+        assertEquals("The Integer row key should be found", 129, mapped.getRowIndex(new Integer(129)));
+    }
+
+    // EC3
+    @Test
+    public void roundTripEmptyTable() throws IOException {
+        // setup
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues2D(new DefaultCategoryDataset(), file);
+        MappedCategoryDataset mapped = DatasetSnapshot.openCategoryDataset(file);
+
+        // verify
+        assertEquals("There should be no rows", 0, mapped.getRowCount());
+        assertEquals("There should be no columns", 0, mapped.getColumnCount());
+    }
+
+    // EC4
+    @Test(expected = IllegalArgumentException.class)
+    public void writeNullTable() throws IOException {
+        // exercise
+        DatasetSnapshot.writeKeyedValues2D(null, folder.newFile());
+    }
+
+    // ----------------------------
+    // writeKeyedValues(KeyedValues data, File file) / openKeyedValues(File file)
+    // keys: { EC1: strings, EC2: Integer, Long, Double and serialized keys, EC3: a key class that is not allowed }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void roundTripKeyedValues() throws IOException {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("A", 1.0);
+        values.addValue("été", null);
+        values.addValue("C", -2.5);
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues(values, file);
+        MappedKeyedValues mapped = DatasetSnapshot.openKeyedValues(file);
+
+        // verify
+        assertSameValues(values, mapped);
+        assertEquals("The non-ASCII key should be found", 1, mapped.getIndex("été"));
+        assertEquals("The value for C should be -2.5", -2.5, mapped.getValue("C").doubleValue(), .000000001d);
+        assertTrue("The mapped values should equal the original", mapped.equals(values));
+    }
+
+    // EC2
+    @Test
+    public void roundTripKeyTypes() throws IOException {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue(new Integer(7), 1.0);
+        values.addValue(new Long(1L << 40), 2.0);
+        values.addValue(new Double(0.5), 3.0);
+        values.addValue(new Date(86400000L), 4.0);
+        values.addValue(new BigDecimal("1.25"), 5.0);
+        values.addValue(new Timestamp(86400001L), 6.0);
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues(values, file);
+        MappedKeyedValues mapped = DatasetSnapshot.openKeyedValues(file);
+
+        // verify
+        assertEquals("The keys should keep their types", values.getKeys(), mapped.getKeys());
+    }
+
+    // EC3
+    @Test(expected = IOException.class)
+    public void writeKeyClassNotAllowed() throws IOException {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue(new Day(1, 1, 2000), 1.0);
+
+        // exercise
+        DatasetSnapshot.writeKeyedValues(values, folder.newFile());
+    }
+
+    // ----------------------------
+    // readObjectKey(byte[] object)
+    // object: { EC1: a class that is not allowed }
+    // ----------------------------
+
+    // EC1
+    @Test(expected = IOException.class)
+    public void readObjectKeyClassNotAllowed() throws Exception {
+        // setup
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(new Day(1, 1, 2000));
+        out.close();
+
+        // exercise
+        DatasetSnapshot.readObjectKey(bytes.toByteArray());
+    }
+
+    // ----------------------------
+    // writeXYSeries(XYSeries series, File file) / openXYDataset(File file) / readXYSeries(File file)
+    // series: { EC1: sorted, EC2: unsorted with repeated x values and null y values }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void roundTripSortedSeries() throws IOException {
+        // setup
+        XYSeries series = new XYSeries("Series 1");
+        series.add(3.0, 30.0);
+        series.add(1.0, 10.0);
+        series.add(2.0, 20.0);
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeXYSeries(series, file);
+        MappedXYDataset mapped = DatasetSnapshot.openXYDataset(file);
+
+        // verify
+        assertEquals("The series key should match", "Series 1", mapped.getSeriesKey(0));
+        assertEquals("The domain should be ascending", DomainOrder.ASCENDING, mapped.getDomainOrder());
+        assertEquals("There should be 3 items", 3, mapped.getItemCount(0));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("The x-value at " + i + " should match", series.getX(i), mapped.getX(0, i));
+            assertEquals("The y-value at " + i + " should match", series.getY(i), mapped.getY(0, i));
+        }
+    }
+
+    // EC2
+    @Test
+    public void roundTripUnsortedSeries() throws IOException {
+        // setup
+        XYSeries series = new XYSeries("Series 1", false, true);
+        series.add(2.0, 1.0);
+        series.add(1.0, null);
+        series.add(2.0, 3.0);
+        File file = folder.newFile();
+
+        // exercise
+        DatasetSnapshot.writeXYSeries(series, file);
+        XYSeries read = DatasetSnapshot.readXYSeries(file);
+        MappedXYDataset mapped = DatasetSnapshot.openXYDataset(file);
+
+        // verify
+        assertEquals("The series read back should equal the original", series, read);
+        assertEquals("The domain order should be none", DomainOrder.NONE, mapped.getDomainOrder());
+        assertNull("The null y-value should stay null", mapped.getY(0, 1));
+        assertTrue("The null y-value should read as NaN", Double.isNaN(mapped.getYValue(0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mappedSeriesHasOneSeries() throws IOException {
+        // setup
+        File file = folder.newFile();
+        DatasetSnapshot.writeXYSeries(new XYSeries("S"), file);
+
+        // exercise
+        DatasetSnapshot.openXYDataset(file).getItemCount(1);
+    }
+
+    // ----------------------------
+    // open...(File file) with files that are not snapshots of the requested kind
+    // file: { EC1: another kind, EC2: not a snapshot, EC3: truncated }
+    // ----------------------------
+
+    // EC1
+    @Test(expected = IOException.class)
+    public void openAnotherKind() throws IOException {
+        // setup
+        File file = folder.newFile();
+        DatasetSnapshot.writeXYSeries(new XYSeries("S"), file);
+
+        // exercise
+        DatasetSnapshot.openCategoryDataset(file);
+    }
+
+    // EC2
+    @Test(expected = IOException.class)
+    public void openNonSnapshot() throws IOException {
+        // setup
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("Series,C1\nA,1\n".getBytes("US-ASCII"));
+        out.close();
+
+        // exercise
+        DatasetSnapshot.openKeyedValues(file);
+    }
+
+    // EC3
+    @Test(expected = IOException.class)
+    public void openTruncatedSnapshot() throws IOException {
+        // setup
+        DefaultKeyedValues values = new DefaultKeyedValues();
+        values.addValue("A", 1.0);
+        File file = folder.newFile();
+        DatasetSnapshot.writeKeyedValues(values, file);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 4);
+        raf.close();
+
+        // exercise
+        DatasetSnapshot.openKeyedValues(file);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void mappedValueOutOfBounds() throws IOException {
+        // setup
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        dataset.addValue(1.0, "S1", "C1");
+        dataset.addValue(2.0, "S2", "C1");
+        File file = folder.newFile();
+        DatasetSnapshot.writeKeyedValues2D(dataset, file);
+
+        // exercise
+        DatasetSnapshot.openCategoryDataset(file).getValue(2, 0);
+    }
+
+}
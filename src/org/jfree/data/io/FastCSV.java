@@ -0,0 +1,838 @@
+package org.jfree.data.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.jfree.data.DoubleArrayValues2D;
+import org.jfree.data.category.DoubleArrayCategoryDataset;
+
+/**
+ * Reads the same CSV layout as {@link CSV#readCategoryDataset(java.io.Reader)}
+ * (a header line of column keys, then one line per row holding a row key and
+ * the values), but from a memory-mapped file, into a
+ * {@link DoubleArrayCategoryDataset}.
+ * <p>
+ * Numbers are parsed straight from the mapped bytes: values with at most 15
+ * significant digits and a decimal exponent of at most 22, which covers
+ * almost every exported figure, are converted exactly without creating a
+ * <code>String</code>; anything else falls back to
+ * {@link Double#parseDouble(String)}.  The values go into one primitive
+ * array that becomes the dataset's table without being copied again, so the
+ * only objects created per row are the row key and, while parsing, nothing
+ * per value.
+ * <p>
+ * The file is split at line boundaries into blocks of about
+ * {@link #DEFAULT_BLOCK_SIZE} bytes, each mapped and parsed separately, so
+ * files larger than 2GB can be read and, given a
+ * <code>ForkJoinPool</code>, the blocks are parsed in parallel.  The result
+ * does not depend on the block size or the number of threads.
+ * <p>
+ * The file must be encoded in UTF-8 (or plain ASCII), and both delimiters
+ * must be ASCII characters.  The layout rules follow <code>CSV</code>:
+ * fields are split at every field delimiter, then trimmed, and one text
+ * delimiter is removed from each end.  The differences are that blank lines
+ * are skipped, an empty or missing value becomes a <code>null</code> cell,
+ * empty fields beyond the last column are ignored, and lines may end with
+ * either LF or CR LF.  A row key that appears twice is merged into its first
+ * row, the later non-<code>null</code> values replacing the earlier ones, as
+ * <code>CSV</code> does through <code>DefaultCategoryDataset</code>.
+ */
+public class FastCSV {
+
+    /** The default block size, in bytes. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 26;
+
+    /** The largest number of significant digits parsed exactly. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /** The powers of ten that are exactly representable as doubles. */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4,
+            1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /** The number of rows a block starts with room for. */
+    private static final int INITIAL_ROWS = 1024;
+
+    /** The field delimiter. */
+    private byte fieldDelimiter;
+
+    /** The text delimiter. */
+    private byte textDelimiter;
+
+    /** The approximate size of each block, in bytes. */
+    private int blockSize;
+
+    /**
+     * Creates a new reader with the comma as field delimiter and the double
+     * quote as text delimiter.
+     */
+    public FastCSV() {
+        this(',', '"');
+    }
+
+    /**
+     * Creates a new reader with the specified delimiters.
+     *
+     * @param fieldDelimiter  the field delimiter (an ASCII character).
+     * @param textDelimiter  the text delimiter (an ASCII character).
+     *
+     * @throws IllegalArgumentException if a delimiter is not ASCII.
+     */
+    public FastCSV(char fieldDelimiter, char textDelimiter) {
+        this(fieldDelimiter, textDelimiter, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a new reader with the specified delimiters and block size.
+     *
+     * @param fieldDelimiter  the field delimiter (an ASCII character).
+     * @param textDelimiter  the text delimiter (an ASCII character).
+     * @param blockSize  the approximate block size, in bytes (must be > 0).
+     */
+    FastCSV(char fieldDelimiter, char textDelimiter, int blockSize) {
+        if (fieldDelimiter > 127 || textDelimiter > 127) {
+            throw new IllegalArgumentException(
+                    "Delimiters must be ASCII characters.");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.fieldDelimiter = (byte) fieldDelimiter;
+        this.textDelimiter = (byte) textDelimiter;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Reads a {@link DoubleArrayCategoryDataset} from a CSV file.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is a problem reading the file.
+     */
+    public DoubleArrayCategoryDataset readCategoryDataset(File file)
+            throws IOException {
+        return readCategoryDataset(file, null);
+    }
+
+    /**
+     * Reads a {@link DoubleArrayCategoryDataset} from a CSV file, parsing
+     * the blocks of the file in parallel.
+     *
+     * @param file  the file (<code>null</code> not permitted).
+     * @param pool  the pool (<code>null</code> permitted, in which case the
+     *     blocks are parsed one after another in the calling thread).
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is a problem reading the file.
+     */
+    public DoubleArrayCategoryDataset readCategoryDataset(File file,
+            ForkJoinPool pool) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Null 'file' argument.");
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return readCategoryDataset(in.getChannel(), pool);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads a {@link DoubleArrayCategoryDataset} from the whole of a file
+     * channel.  The channel's position is not used or changed.
+     *
+     * @param channel  the channel (<code>null</code> not permitted).
+     * @param pool  the pool (<code>null</code> permitted, in which case the
+     *     blocks are parsed one after another in the calling thread).
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is a problem reading the file.
+     */
+    public DoubleArrayCategoryDataset readCategoryDataset(
+            FileChannel channel, ForkJoinPool pool) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Null 'channel' argument.");
+        }
+        long size = channel.size();
+        long headerEnd = findLineEnd(channel, 0, size);
+        Comparable[] columnKeys = readColumnKeys(channel, headerEnd);
+
+        // cut the rest of the file into blocks that end at line ends
+        List blockList = new ArrayList();
+        long start = headerEnd;
+        while (start < size) {
+            long end = Math.min(size, start + this.blockSize);
+            if (end < size) {
+                end = findLineEnd(channel, end - 1, size);
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at byte offset " + start
+                        + ".");
+            }
+            blockList.add(new Block(start, end, columnKeys.length));
+            start = end;
+        }
+        Block[] blocks = (Block[]) blockList.toArray(
+                new Block[blockList.size()]);
+        if (pool == null) {
+            for (int i = 0; i < blocks.length; i++) {
+                parse(channel, blocks[i]);
+            }
+        }
+        else {
+            try {
+                pool.invoke(new ParseTask(channel, blocks, 0, blocks.length));
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return combine(blocks, columnKeys);
+    }
+
+    /**
+     * Returns the position after the first line feed at or after
+     * <code>from</code>, or <code>size</code> if there is none.
+     *
+     * @param channel  the channel.
+     * @param from  the position to start from.
+     * @param size  the size of the file.
+     *
+     * @return The position of the start of the next line.
+     *
+     * @throws IOException if there is a problem reading the file.
+     */
+    private static long findLineEnd(FileChannel channel, long from, long size)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * Reads the column keys from the header line.  The first field labels
+     * the row keys and is skipped.
+     *
+     * @param channel  the channel.
+     * @param headerEnd  the position after the header line.
+     *
+     * @return The column keys.
+     *
+     * @throws IOException if there is a problem reading the file, or a
+     *     column key is repeated.
+     */
+    private Comparable[] readColumnKeys(FileChannel channel, long headerEnd)
+            throws IOException {
+        if (headerEnd > Integer.MAX_VALUE) {
+            throw new IOException("Header line too long.");
+        }
+        ByteBuffer header = ByteBuffer.allocate((int) headerEnd);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        int end = lineContentEnd(header, 0, header.position());
+        List keys = new ArrayList();
+        int fieldEnd = indexOf(header, this.fieldDelimiter, 0, end);
+        Map seen = new HashMap();
+        byte[] scratch = new byte[64];
+        while (fieldEnd < end) {
+            int from = fieldEnd + 1;
+            fieldEnd = indexOf(header, this.fieldDelimiter, from, end);
+            String key = decodeKey(header, from, fieldEnd, scratch);
+            if (seen.put(key, key) != null) {
+                throw new IOException("Repeated column key: " + key);
+            }
+            keys.add(key);
+        }
+        return (Comparable[]) keys.toArray(new Comparable[keys.size()]);
+    }
+
+    /**
+     * Maps and parses one block.
+     *
+     * @param channel  the channel.
+     * @param block  the block.
+     *
+     * @throws IOException if there is a problem reading the file, or a line
+     *     has more values than there are columns.
+     */
+    private void parse(FileChannel channel, Block block) throws IOException {
+        int length = (int) (block.end - block.start);
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                block.start, length);
+        int columnCount = block.columnCount;
+        byte[] scratch = new byte[64];
+        int pos = 0;
+        while (pos < length) {
+            int lineEnd = indexOf(buffer, (byte) '\n', pos, length);
+            int next = lineEnd + 1;
+            lineEnd = lineContentEnd(buffer, pos, lineEnd);
+            if (trimStart(buffer, pos, lineEnd) == lineEnd) {
+                pos = next;
+                continue;
+            }
+            int fieldEnd = indexOf(buffer, this.fieldDelimiter, pos, lineEnd);
+            int cell = block.addRow(decodeKey(buffer, pos, fieldEnd,
+                    scratch));
+            int column = 0;
+            while (fieldEnd < lineEnd) {
+                int from = fieldEnd + 1;
+                fieldEnd = indexOf(buffer, this.fieldDelimiter, from,
+                        lineEnd);
+                if (column < columnCount) {
+                    parseValue(buffer, from, fieldEnd, block, cell + column);
+                }
+                else if (valueStart(buffer, from, fieldEnd) < fieldEnd) {
+                    throw new IOException("More values than columns in the "
+                            + "line at byte offset " + (block.start + pos)
+                            + ".");
+                }
+                column++;
+            }
+            for (; column < columnCount; column++) {
+                block.nulls.set(cell + column);
+            }
+            pos = next;
+        }
+    }
+
+    /**
+     * Parses one value into a cell of a block.
+     *
+     * @param buffer  the buffer.
+     * @param from  the start of the field.
+     * @param to  the end of the field.
+     * @param block  the block.
+     * @param cell  the cell index within the block.
+     */
+    private void parseValue(ByteBuffer buffer, int from, int to, Block block,
+            int cell) {
+        int start = valueStart(buffer, from, to);
+        int end = valueEnd(buffer, start, to);
+        if (start >= end) {
+            block.nulls.set(cell);
+            return;
+        }
+        try {
+            block.values[cell] = parseDouble(buffer, start, end);
+        }
+        catch (NumberFormatException e) {
+            throw new NumberFormatException(e.getMessage() + " at byte offset "
+                    + (block.start + from) + ".");
+        }
+    }
+
+    /**
+     * Returns the start of the number in a field, after any white space and
+     * text delimiter.
+     *
+     * @param buffer  the buffer.
+     * @param from  the start of the field.
+     * @param to  the end of the field.
+     *
+     * @return The start of the number.
+     */
+    private int valueStart(ByteBuffer buffer, int from, int to) {
+        int start = trimStart(buffer, from, to);
+        if (start < to && buffer.get(start) == this.textDelimiter) {
+            start = trimStart(buffer, start + 1, to);
+        }
+        return start;
+    }
+
+    /**
+     * Returns the end of the number in a field, before any text delimiter
+     * and white space.
+     *
+     * @param buffer  the buffer.
+     * @param start  the start of the number, from
+     *     {@link #valueStart(ByteBuffer, int, int)}.
+     * @param to  the end of the field.
+     *
+     * @return The end of the number.
+     */
+    private int valueEnd(ByteBuffer buffer, int start, int to) {
+        int end = trimEnd(buffer, start, to);
+        if (end > start && buffer.get(end - 1) == this.textDelimiter) {
+            end = trimEnd(buffer, start, end - 1);
+        }
+        return end;
+    }
+
+    /**
+     * Decodes a key field: the field is trimmed and one text delimiter is
+     * removed from each end, as in {@link CSV}.
+     *
+     * @param buffer  the buffer.
+     * @param from  the start of the field.
+     * @param to  the end of the field.
+     * @param scratch  a work array (grown if too small).
+     *
+     * @return The key.
+     */
+    private String decodeKey(ByteBuffer buffer, int from, int to,
+            byte[] scratch) {
+        int start = trimStart(buffer, from, to);
+        int end = trimEnd(buffer, start, to);
+        if (start < end && buffer.get(start) == this.textDelimiter) {
+            start++;
+        }
+        if (start < end && buffer.get(end - 1) == this.textDelimiter) {
+            end--;
+        }
+        int length = end - start;
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+            ascii &= bytes[i] >= 0;
+        }
+        return new String(bytes, 0, length, ascii
+                ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a number from the bytes between <code>from</code> and
+     * <code>to</code>, which hold no surrounding white space.
+     *
+     * @param buffer  the buffer.
+     * @param from  the first byte.
+     * @param to  the byte after the last.
+     *
+     * @return The value.
+     *
+     * @throws NumberFormatException if the bytes are not a number.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        byte b = buffer.get(i);
+        boolean negative = b == '-';
+        if (negative || b == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < to; i++) {
+            b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits == MAX_EXACT_DIGITS) {
+                    return parseSlowly(buffer, from, to);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (seenPoint) {
+                    exponent--;
+                }
+                seenDigit = true;
+            }
+            else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            }
+            else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return parseSlowly(buffer, from, to);
+        }
+        if (i < to && (b == 'e' || b == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int e = 0;
+            boolean seenExponentDigit = false;
+            for (; i < to; i++) {
+                b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                if (e < 10000) {
+                    e = e * 10 + (b - '0');
+                }
+                seenExponentDigit = true;
+            }
+            if (!seenExponentDigit) {
+                return parseSlowly(buffer, from, to);
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (i != to) {
+            return parseSlowly(buffer, from, to);
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        }
+        else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            // both factors are exact, so the product is correctly rounded
+            value = mantissa * POWERS_OF_TEN[exponent];
+        }
+        else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        }
+        else {
+            return parseSlowly(buffer, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a number with {@link Double#parseDouble(String)}.
+     *
+     * @param buffer  the buffer.
+     * @param from  the first byte.
+     * @param to  the byte after the last.
+     *
+     * @return The value.
+     *
+     * @throws NumberFormatException if the bytes are not a number.
+     */
+    private static double parseSlowly(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return Double.parseDouble(new String(bytes,
+                StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Returns the index of the first occurrence of a byte, or
+     * <code>to</code> if there is none.
+     *
+     * @param buffer  the buffer.
+     * @param b  the byte.
+     * @param from  the first index to look at.
+     * @param to  the index after the last.
+     *
+     * @return The index.
+     */
+    private static int indexOf(ByteBuffer buffer, byte b, int from, int to) {
+        int i = from;
+        while (i < to && buffer.get(i) != b) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of a line's content, dropping a trailing CR or LF.
+     *
+     * @param buffer  the buffer.
+     * @param from  the start of the line.
+     * @param to  the end of the line, which may include the line feed.
+     *
+     * @return The end of the content.
+     */
+    private static int lineContentEnd(ByteBuffer buffer, int from, int to) {
+        int end = to;
+        if (end > from && buffer.get(end - 1) == '\n') {
+            end--;
+        }
+        if (end > from && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first byte that is not white space.
+     *
+     * @param buffer  the buffer.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     *
+     * @return The index, or <code>to</code> if all the bytes are white
+     *     space.
+     */
+    private static int trimStart(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i < to && (buffer.get(i) & 0xFF) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index after the last byte that is not white space.
+     *
+     * @param buffer  the buffer.
+     * @param from  the first index.
+     * @param to  the index after the last.
+     *
+     * @return The index, or <code>from</code> if all the bytes are white
+     *     space.
+     */
+    private static int trimEnd(ByteBuffer buffer, int from, int to) {
+        int i = to;
+        while (i > from && (buffer.get(i - 1) & 0xFF) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Joins the parsed blocks into a dataset, merging repeated row keys.
+     *
+     * @param blocks  the blocks, in file order.
+     * @param columnKeys  the column keys.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there are too many values for one table.
+     */
+    private static DoubleArrayCategoryDataset combine(Block[] blocks,
+            Comparable[] columnKeys) throws IOException {
+        int columnCount = columnKeys.length;
+        long rowTotal = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            rowTotal += blocks[i].rowCount;
+        }
+        if (rowTotal * columnCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("Too many values for one dataset.");
+        }
+        int rowCount = (int) rowTotal;
+        int cells = rowCount * columnCount;
+        Comparable[] rowKeys = new Comparable[rowCount];
+        double[] data;
+        BitSet nulls;
+        if (blocks.length == 1) {
+            // a single block already holds the table, perhaps with spare
+            // rows at the end
+            data = blocks[0].values.length == cells ? blocks[0].values
+                    : Arrays.copyOf(blocks[0].values, cells);
+            nulls = blocks[0].nulls;
+            System.arraycopy(blocks[0].keys, 0, rowKeys, 0, rowCount);
+        }
+        else {
+            data = new double[cells];
+            nulls = new BitSet(cells);
+            int row = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                Block block = blocks[i];
+                int offset = row * columnCount;
+                System.arraycopy(block.values, 0, data, offset,
+                        block.rowCount * columnCount);
+                BitSet blockNulls = block.nulls;
+                for (int b = blockNulls.nextSetBit(0); b >= 0;
+                        b = blockNulls.nextSetBit(b + 1)) {
+                    nulls.set(offset + b);
+                }
+                System.arraycopy(block.keys, 0, rowKeys, row, block.rowCount);
+                row += block.rowCount;
+                blocks[i] = null;
+            }
+        }
+        Map rowIndex = new HashMap();
+        int kept = 0;
+        for (int r = 0; r < rowCount; r++) {
+            Integer first = (Integer) rowIndex.get(rowKeys[r]);
+            if (first != null) {
+                // a repeated key: merge the values into the first row
+                int target = first.intValue() * columnCount;
+                int source = r * columnCount;
+                for (int c = 0; c < columnCount; c++) {
+                    if (!nulls.get(source + c)) {
+                        data[target + c] = data[source + c];
+                        nulls.clear(target + c);
+                    }
+                }
+                continue;
+            }
+            if (kept != r) {
+                System.arraycopy(data, r * columnCount, data,
+                        kept * columnCount, columnCount);
+                for (int c = 0; c < columnCount; c++) {
+                    nulls.set(kept * columnCount + c,
+                            nulls.get(r * columnCount + c));
+                }
+                rowKeys[kept] = rowKeys[r];
+            }
+            rowIndex.put(rowKeys[kept], new Integer(kept));
+            kept++;
+        }
+        if (kept != rowCount) {
+            data = Arrays.copyOf(data, kept * columnCount);
+            nulls = nulls.get(0, kept * columnCount);
+            rowKeys = Arrays.copyOf(rowKeys, kept);
+        }
+        return new DoubleArrayCategoryDataset(rowKeys, columnKeys,
+                new DoubleArrayValues2D(kept, columnCount, data, nulls));
+    }
+
+    /**
+     * The rows parsed from one block of the file.
+     */
+    private static final class Block {
+
+        /** The position of the first byte of the block. */
+        final long start;
+
+        /** The position after the last byte of the block. */
+        final long end;
+
+        /** The number of columns. */
+        final int columnCount;
+
+        /** The number of rows parsed. */
+        int rowCount;
+
+        /** The row keys. */
+        Comparable[] keys;
+
+        /** The values, in row-major order. */
+        double[] values;
+
+        /** A bit for each cell that holds no value. */
+        BitSet nulls;
+
+        /**
+         * Creates a new, empty block.
+         *
+         * @param start  the position of the first byte.
+         * @param end  the position after the last byte.
+         * @param columnCount  the number of columns.
+         */
+        Block(long start, long end, int columnCount) {
+            this.start = start;
+            this.end = end;
+            this.columnCount = columnCount;
+            this.keys = new Comparable[INITIAL_ROWS];
+            this.values = new double[INITIAL_ROWS * columnCount];
+            this.nulls = new BitSet();
+        }
+
+        /**
+         * Adds a row, growing the arrays if necessary.
+         *
+         * @param key  the row key.
+         *
+         * @return The index of the row's first cell.
+         *
+         * @throws IOException if the block has too many values.
+         */
+        int addRow(Comparable key) throws IOException {
+            if (this.rowCount == this.keys.length) {
+                long capacity = this.rowCount + (this.rowCount >> 1);
+                if (capacity * this.columnCount > Integer.MAX_VALUE - 8) {
+                    capacity = (Integer.MAX_VALUE - 8)
+                            / Math.max(1, this.columnCount);
+                    if (capacity <= this.rowCount) {
+                        throw new IOException(
+                                "Too many values for one dataset.");
+                    }
+                }
+                this.keys = Arrays.copyOf(this.keys, (int) capacity);
+                this.values = Arrays.copyOf(this.values,
+                        (int) capacity * this.columnCount);
+            }
+            this.keys[this.rowCount] = key;
+            int cell = this.rowCount * this.columnCount;
+            this.rowCount++;
+            return cell;
+        }
+
+    }
+
+    /**
+     * Parses a range of blocks, splitting the range in two until a single
+     * block remains.
+     */
+    private final class ParseTask extends RecursiveAction {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 6527783603679204030L;
+
+        /** The channel. */
+        private final FileChannel channel;
+
+        /** The blocks. */
+        private final Block[] blocks;
+
+        /** The first block. */
+        private final int from;
+
+        /** The block after the last. */
+        private final int to;
+
+        /**
+         * Creates a new task.
+         *
+         * @param channel  the channel.
+         * @param blocks  the blocks.
+         * @param from  the first block.
+         * @param to  the block after the last.
+         */
+        ParseTask(FileChannel channel, Block[] blocks, int from, int to) {
+            this.channel = channel;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parses the blocks.
+         */
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                if (this.to > this.from) {
+                    try {
+                        parse(this.channel, this.blocks[this.from]);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ParseTask(this.channel, this.blocks, this.from,
+                    middle), new ParseTask(this.channel, this.blocks, middle,
+                    this.to));
+        }
+
+    }
+
+}
@@ -0,0 +1,294 @@
+package org.jfree.data.io;
+
+import static org.junit.Assert.*;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.category.DoubleArrayCategoryDataset;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class FastCSVTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Writes text to a new temporary file.
+     */
+    private File write(String text) throws IOException {
+        File file = folder.newFile();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * Reads the documented CSV layout with String operations, as a reference.
+     * CSV.readCategoryDataset itself cannot serve: it takes the second field
+     * of each line as the row key.
+     */
+    private static CategoryDataset readReference(String text) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        String[] lines = text.split("\n");
+        String[] columnKeys = lines[0].split(",", -1);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",", -1);
+            for (int c = 1; c < fields.length; c++) {
+                dataset.addValue(Double.valueOf(strip(fields[c])), strip(fields[0]), strip(columnKeys[c]));
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * Trims a field and removes one double quote from each end.
+     */
+    private static String strip(String field) {
+        String s = field.trim();
+        if (s.startsWith("\"")) {
+            s = s.substring(1);
+        }
+        if (s.endsWith("\"")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    /**
+     * Checks that two datasets have the same keys and values.
+     */
+    private static void assertSameDataset(CategoryDataset expected, CategoryDataset actual) {
+        assertEquals("The row keys should match", expected.getRowKeys(), actual.getRowKeys());
+        assertEquals("The column keys should match", expected.getColumnKeys(), actual.getColumnKeys());
+        for (int r = 0; r < expected.getRowCount(); r++) {
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertEquals("The value at (" + r + ", " + c + ") should match", expected.getValue(r, c),
+                        actual.getValue(r, c));
+            }
+        }
+    }
+
+    /**
+     * Parses a number through a byte buffer.
+     */
+    private static double parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        return FastCSV.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    // ----------------------------
+    // readCategoryDataset(File file)
+    // file: { EC1: plain layout, EC2: quoted keys and values, EC3: CR LF line ends and blank lines,
+    //         EC4: empty and missing values, EC5: repeated row key, EC6: value that is not a number,
+    //         EC7: more values than columns, EC8: empty file }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void readPlainLayout() throws IOException {
+        // setup
+        String text = "Series,Q1,Q2,Q3\nA,1.5,2,3e2\nB,-4,0.25,6\n";
+
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(text));
+
+        // verify
+        assertSameDataset(readReference(text), dataset);
+        assertEquals("The value at (B, Q2) should be 0.25", 0.25, dataset.getValue("B", "Q2").doubleValue(),
+                .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void readQuotedKeysAndValues() throws IOException {
+        // setup
+        String text = "\"Series\", \"Q1\" ,\"Q2\"\n\"A\", \"1.5\" , 2\n";
+
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(text));
+
+        // verify
+        assertSameDataset(readReference(text), dataset);
+    }
+
+    // EC3
+    @Test
+    public void readCrLfAndBlankLines() throws IOException {
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(
+                "S,C1,C2\r\nA,1,2\r\n\r\nB,3,4\r\n"));
+
+        // verify
+        assertEquals("The blank line should be skipped", 2, dataset.getRowCount());
+        assertEquals("The column key should not keep the CR", "C2", dataset.getColumnKey(1));
+        assertEquals("The value at (B, C2) should be 4.0", 4.0, dataset.getValue("B", "C2").doubleValue(),
+                .000000001d);
+    }
+
+    // EC4
+    @Test
+    public void readEmptyAndMissingValues() throws IOException {
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(
+                "S,C1,C2,C3\nA,,2\nB,1,2,3,,\n"));
+
+        // verify
+        assertNull("An empty value should be null", dataset.getValue("A", "C1"));
+        assertNull("A missing value should be null", dataset.getValue("A", "C3"));
+        assertEquals("Trailing empty fields should be ignored", 3.0, dataset.getValue("B", "C3").doubleValue(),
+                .000000001d);
+    }
+
+    // EC5
+    @Test
+    public void readRepeatedRowKey() throws IOException {
+        // setup
+        String text = "S,C1,C2\nA,1,2\nB,3,4\nA,5,6\n";
+
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(text));
+
+        // verify
+        assertSameDataset(readReference(text), dataset);
+        assertEquals("The later values should win", 5.0, dataset.getValue("A", "C1").doubleValue(), .000000001d);
+    }
+
+    // EC6
+    @Test(expected = NumberFormatException.class)
+    public void readValueThatIsNotANumber() throws IOException {
+        // exercise
+        new FastCSV().readCategoryDataset(write("S,C1\nA,abc\n"));
+    }
+
+    // EC7
+    @Test(expected = IOException.class)
+    public void readMoreValuesThanColumns() throws IOException {
+        // exercise
+        new FastCSV().readCategoryDataset(write("S,C1\nA,1,2\n"));
+    }
+
+    // EC8
+    @Test
+    public void readEmptyFile() throws IOException {
+        // exercise
+        DoubleArrayCategoryDataset dataset = new FastCSV().readCategoryDataset(write(""));
+
+        // verify
+        assertEquals("There should be no rows", 0, dataset.getRowCount());
+        assertEquals("There should be no columns", 0, dataset.getColumnCount());
+    }
+
+    // ----------------------------
+    // readCategoryDataset(File file, ForkJoinPool pool) with small blocks
+    // ----------------------------
+
+    @Test
+    public void blocksAndThreadsDoNotChangeTheResult() throws IOException {
+        // setup
+        Random random = new Random(13L);
+        StringBuilder text = new StringBuilder("Series,A,B,C,D\n");
+        for (int r = 0; r < 500; r++) {
+            text.append("R").append(r % 450);
+            for (int c = 0; c < 4; c++) {
+                text.append(',').append(random.nextDouble() * 1000.0 - 500.0);
+            }
+            text.append('\n');
+        }
+        File file = write(text.toString());
+        CategoryDataset expected = readReference(text.toString());
+
+        // exercise
+        DoubleArrayCategoryDataset whole = new FastCSV().readCategoryDataset(file);
+        DoubleArrayCategoryDataset blocks = new FastCSV(',', '"', 100).readCategoryDataset(file);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        DoubleArrayCategoryDataset parallel;
+        try {
+            parallel = new FastCSV(',', '"', 333).readCategoryDataset(file, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        // verify
+        assertSameDataset(expected, whole);
+        assertSameDataset(expected, blocks);
+        assertSameDataset(expected, parallel);
+    }
+
+    // ----------------------------
+    // parseDouble(ByteBuffer buffer, int from, int to)
+    // text: { EC1: short decimal, EC2: exponent, EC3: many digits, EC4: special values, EC5: invalid }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void parseShortDecimals() {
+        // verify
+        assertEquals("0.1 should parse exactly", 0.1, parse("0.1"), 0.0);
+        assertEquals("-12.375 should parse exactly", -12.375, parse("-12.375"), 0.0);
+        assertEquals("+7 should parse exactly", 7.0, parse("+7"), 0.0);
+        assertEquals(".5 should parse exactly", 0.5, parse(".5"), 0.0);
+    }
+
+    // EC2
+    @Test
+    public void parseExponents() {
+        // verify
+        assertEquals("1.5e-7 should parse exactly", 1.5e-7, parse("1.5e-7"), 0.0);
+        assertEquals("2E+22 should parse exactly", 2e22, parse("2E+22"), 0.0);
+        assertEquals("1e300 should parse exactly", 1e300, parse("1e300"), 0.0);
+    }
+
+    // EC3
+    @Test
+    public void parseRandomValuesLikeDoubleParseDouble() {
+        // setup
+        Random random = new Random(2013L);
+
+        // verify
+        for (int i = 0; i < 10000; i++) {
+            double v = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(v)) {
+                continue;
+            }
+            String text = Double.toString(v);
+            assertEquals("The parsed value of " + text + " should match", Double.doubleToLongBits(v),
+                    Double.doubleToLongBits(parse(text)));
+            String rounded = String.format(Locale.ROOT, "%.6f", random.nextDouble() * 1e6);
+            assertEquals("The parsed value of " + rounded + " should match",
+                    Double.doubleToLongBits(Double.parseDouble(rounded)), Double.doubleToLongBits(parse(rounded)));
+        }
+    }
+
+    // EC4
+    @Test
+    public void parseSpecialValues() {
+        // verify
+        assertTrue("NaN should parse", Double.isNaN(parse("NaN")));
+        assertEquals("-Infinity should parse", Double.NEGATIVE_INFINITY, parse("-Infinity"), 0.0);
+        assertEquals("-0 should keep its sign", Double.doubleToLongBits(-0.0), Double.doubleToLongBits(parse("-0")));
+    }
+
+    // EC5
+    @Test(expected = NumberFormatException.class)
+    public void parseInvalidText() {
+        // exercise
+        parse("1.2.3");
+    }
+
+}
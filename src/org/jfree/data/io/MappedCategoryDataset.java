@@ -0,0 +1,266 @@
+package org.jfree.data.io;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * A read-only {@link CategoryDataset} whose values are read in place from a
+ * memory-mapped {@link DatasetSnapshot}.  Only the keys are held on the
+ * heap.  The dataset cannot be serialized; write a snapshot instead.
+ */
+public class MappedCategoryDataset extends AbstractDataset
+        implements CategoryDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4172735980527136164L;
+
+    /** The row keys. */
+    private Comparable[] rowKeys;
+
+    /** The column keys. */
+    private Comparable[] columnKeys;
+
+    /** The row index for each row key. */
+    private Map rowIndex;
+
+    /** The column index for each column key. */
+    private Map columnIndex;
+
+    /** The values. */
+    private SnapshotTable table;
+
+    /**
+     * Creates a new dataset.
+     *
+     * @param rowKeys  the row keys.
+     * @param columnKeys  the column keys.
+     * @param table  the values.
+     */
+    MappedCategoryDataset(Comparable[] rowKeys, Comparable[] columnKeys,
+            SnapshotTable table) {
+        this.rowKeys = rowKeys;
+        this.columnKeys = columnKeys;
+        this.rowIndex = createIndex(rowKeys);
+        this.columnIndex = createIndex(columnKeys);
+        this.table = table;
+    }
+
+    /**
+     * Returns a map from each key to its position in the array.
+     *
+     * @param keys  the keys.
+     *
+     * @return The map.
+     */
+    private static Map createIndex(Comparable[] keys) {
+        Map index = new HashMap(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            index.put(keys[i], new Integer(i));
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowKeys.length;
+    }
+
+    /**
+     * Returns the number of columns in the table.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnKeys.length;
+    }
+
+    /**
+     * Returns a value from the table.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return this.table.getValue(row, column);
+    }
+
+    /**
+     * Returns a value from the table as a primitive, without creating a
+     * <code>Number</code>.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value, or <code>Double.NaN</code> for a <code>null</code>
+     *     cell.
+     */
+    public double getDoubleValue(int row, int column) {
+        return this.table.getDoubleValue(row, column);
+    }
+
+    /**
+     * Returns the key for the specified row.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return this.rowKeys[row];
+    }
+
+    /**
+     * Returns the row index for a given key.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or -1 if the key is not recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        return indexOf(this.rowIndex, key);
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return The keys (read-only).
+     */
+    public List getRowKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.rowKeys));
+    }
+
+    /**
+     * Returns the key for the specified column.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.columnKeys[column];
+    }
+
+    /**
+     * Returns the column index for a given key.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or -1 if the key is not recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        return indexOf(this.columnIndex, key);
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return The keys (read-only).
+     */
+    public List getColumnKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.columnKeys));
+    }
+
+    /**
+     * Returns the value for a pair of keys.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Row key (" + rowKey
+                    + ") not recognised.");
+        }
+        int column = getColumnIndex(columnKey);
+        if (column < 0) {
+            throw new UnknownKeyException("Column key (" + columnKey
+                    + ") not recognised.");
+        }
+        return this.table.getValue(row, column);
+    }
+
+    /**
+     * Returns the index for a key.
+     *
+     * @param index  the index map.
+     * @param key  the key.
+     *
+     * @return The index, or -1.
+     */
+    private static int indexOf(Map index, Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        Integer i = (Integer) index.get(key);
+        return i != null ? i.intValue() : -1;
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.  Any
+     * {@link CategoryDataset} with the same keys and values is equal.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CategoryDataset)) {
+            return false;
+        }
+        CategoryDataset that = (CategoryDataset) obj;
+        if (!getRowKeys().equals(that.getRowKeys())) {
+            return false;
+        }
+        if (!getColumnKeys().equals(that.getColumnKeys())) {
+            return false;
+        }
+        for (int r = 0; r < this.rowKeys.length; r++) {
+            for (int c = 0; c < this.columnKeys.length; c++) {
+                Number v1 = getValue(r, c);
+                Number v2 = that.getValue(r, c);
+                if (v1 == null) {
+                    if (v2 != null) {
+                        return false;
+                    }
+                }
+                else if (!v1.equals(v2)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = getRowKeys().hashCode();
+        result = 29 * result + getColumnKeys().hashCode();
+        return result;
+    }
+
+}
@@ -0,0 +1,188 @@
+package org.jfree.data.io;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.data.KeyedValues;
+import org.jfree.data.UnknownKeyException;
+
+/**
+ * A read-only list of {@link KeyedValues} whose values are read in place
+ * from a memory-mapped {@link DatasetSnapshot}.  Only the keys are held on
+ * the heap.
+ */
+public class MappedKeyedValues implements KeyedValues {
+
+    /** The keys. */
+    private Comparable[] keys;
+
+    /** The item index for each key. */
+    private Map indices;
+
+    /** The values, in a table with one column. */
+    private SnapshotTable table;
+
+    /**
+     * Creates a new list.
+     *
+     * @param keys  the keys.
+     * @param table  the values.
+     */
+    MappedKeyedValues(Comparable[] keys, SnapshotTable table) {
+        this.keys = keys;
+        this.indices = new HashMap(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            this.indices.put(keys[i], new Integer(i));
+        }
+        this.table = table;
+    }
+
+    /**
+     * Returns the number of items (values) in the collection.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.keys.length;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param item  the item of interest (zero-based index).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of
+     *     bounds.
+     */
+    public Number getValue(int item) {
+        return this.table.getValue(item, 0);
+    }
+
+    /**
+     * Returns a value as a primitive, without creating a
+     * <code>Number</code>.
+     *
+     * @param item  the item of interest (zero-based index).
+     *
+     * @return The value, or <code>Double.NaN</code> for a <code>null</code>
+     *     value.
+     *
+     * @throws IndexOutOfBoundsException if <code>item</code> is out of
+     *     bounds.
+     */
+    public double getDoubleValue(int item) {
+        return this.table.getDoubleValue(item, 0);
+    }
+
+    /**
+     * Returns a key.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The key.
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public Comparable getKey(int index) {
+        return this.keys[index];
+    }
+
+    /**
+     * Returns the index for a given key.
+     *
+     * @param key  the key (<code>null</code> returns -1).
+     *
+     * @return The index, or <code>-1</code> if the key is unrecognised.
+     */
+    public int getIndex(Comparable key) {
+        if (key == null) {
+            return -1;
+        }
+        Integer i = (Integer) this.indices.get(key);
+        return i != null ? i.intValue() : -1;
+    }
+
+    /**
+     * Returns the keys for the values in the collection.
+     *
+     * @return The keys (read-only).
+     */
+    public List getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.keys));
+    }
+
+    /**
+     * Returns the value for a given key.
+     *
+     * @param key  the key.
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public Number getValue(Comparable key) {
+        int index = getIndex(key);
+        if (index < 0) {
+            throw new UnknownKeyException("Key not found: " + key);
+        }
+        return getValue(index);
+    }
+
+    /**
+     * Tests this list for equality with an arbitrary object.  Any
+     * {@link KeyedValues} with the same keys and values in the same order is
+     * equal.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof KeyedValues)) {
+            return false;
+        }
+        KeyedValues that = (KeyedValues) obj;
+        if (this.keys.length != that.getItemCount()) {
+            return false;
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (!this.keys[i].equals(that.getKey(i))) {
+                return false;
+            }
+            Number v1 = getValue(i);
+            Number v2 = that.getValue(i);
+            if (v1 == null) {
+                if (v2 != null) {
+                    return false;
+                }
+            }
+            else if (!v1.equals(v2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.keys.length;
+        for (int i = 0; i < this.keys.length; i++) {
+            result = 29 * result + this.keys[i].hashCode();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,151 @@
+package org.jfree.data.io;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * A read-only dataset of one series whose x and y values are read in place
+ * from a memory-mapped {@link DatasetSnapshot} of an
+ * {@link org.jfree.data.xy.XYSeries}.  The dataset cannot be serialized;
+ * write a snapshot instead.
+ */
+public class MappedXYDataset extends AbstractXYDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2273628465731950843L;
+
+    /** The series key. */
+    private Comparable key;
+
+    /** The x values (column 0) and y values (column 1). */
+    private SnapshotTable table;
+
+    /** A flag that records whether the items are sorted by x. */
+    private boolean sorted;
+
+    /**
+     * Creates a new dataset.
+     *
+     * @param key  the series key.
+     * @param table  the values.
+     * @param sorted  <code>true</code> if the items are sorted by x.
+     */
+    MappedXYDataset(Comparable key, SnapshotTable table, boolean sorted) {
+        this.key = key;
+        this.table = table;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Returns the number of series in the dataset, which is always 1.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return 1;
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (must be 0).
+     *
+     * @return The series key.
+     *
+     * @throws IllegalArgumentException if <code>series</code> is not 0.
+     */
+    public Comparable getSeriesKey(int series) {
+        checkSeries(series);
+        return this.key;
+    }
+
+    /**
+     * Returns the order of the domain values: ascending if the series sorted
+     * its items by x, and otherwise none.
+     *
+     * @return The order (never <code>null</code>).
+     */
+    public DomainOrder getDomainOrder() {
+        return this.sorted ? DomainOrder.ASCENDING : DomainOrder.NONE;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series index (must be 0).
+     *
+     * @return The item count.
+     *
+     * @throws IllegalArgumentException if <code>series</code> is not 0.
+     */
+    public int getItemCount(int series) {
+        checkSeries(series);
+        return this.table.getRowCount();
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (must be 0).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value (never <code>null</code>).
+     */
+    public Number getX(int series, int item) {
+        checkSeries(series);
+        return this.table.getValue(item, 0);
+    }
+
+    /**
+     * Returns the x-value for an item as a primitive.
+     *
+     * @param series  the series index (must be 0).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        checkSeries(series);
+        return this.table.getDoubleValue(item, 0);
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (must be 0).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (possibly <code>null</code>).
+     */
+    public Number getY(int series, int item) {
+        checkSeries(series);
+        return this.table.getValue(item, 1);
+    }
+
+    /**
+     * Returns the y-value for an item as a primitive.
+     *
+     * @param series  the series index (must be 0).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value, or <code>Double.NaN</code> if it is
+     *     <code>null</code>.
+     */
+    public double getYValue(int series, int item) {
+        checkSeries(series);
+        return this.table.getDoubleValue(item, 1);
+    }
+
+    /**
+     * Throws an exception if a series index is not 0.
+     *
+     * @param series  the series index.
+     */
+    private void checkSeries(int series) {
+        if (series != 0) {
+            throw new IllegalArgumentException("Series index out of bounds: "
+                    + series);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.jfree.data.io;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * The table of values in a mapped {@link DatasetSnapshot}: each column is a
+ * run of <code>double</code> values followed, after all the columns, by a
+ * null mask for each column.  The buffers are read in place and never
+ * copied onto the heap.
+ */
+final class SnapshotTable {
+
+    /** The number of rows. */
+    private final int rowCount;
+
+    /** The number of columns. */
+    private final int columnCount;
+
+    /** The number of mask words per column. */
+    private final int maskLength;
+
+    /** The values, column by column. */
+    private final DoubleBuffer values;
+
+    /** The null masks, column by column. */
+    private final LongBuffer masks;
+
+    /**
+     * Creates a new table over mapped buffers.
+     *
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     * @param values  the values.
+     * @param masks  the null masks.
+     */
+    SnapshotTable(int rowCount, int columnCount, DoubleBuffer values,
+            LongBuffer masks) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.maskLength = DatasetSnapshot.maskLength(rowCount);
+        this.values = values;
+        this.masks = masks;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns <code>true</code> if a cell holds no value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return A boolean.
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    boolean isNull(int row, int column) {
+        checkCell(row, column);
+        long word = this.masks.get(column * this.maskLength + (row >>> 6));
+        return (word & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns a cell value as a primitive.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value, or <code>Double.NaN</code> if the cell is
+     *     <code>null</code>.
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    double getDoubleValue(int row, int column) {
+        if (isNull(row, column)) {
+            return Double.NaN;
+        }
+        return this.values.get(column * this.rowCount + row);
+    }
+
+    /**
+     * Returns a cell value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws IndexOutOfBoundsException if <code>row</code> or
+     *     <code>column</code> is out of bounds.
+     */
+    Number getValue(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        return new Double(this.values.get(column * this.rowCount + row));
+    }
+
+    /**
+     * Throws an exception if a cell is out of bounds.
+     *
+     * @param row  the row index.
+     * @param column  the column index.
+     */
+    private void checkCell(int row, int column) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index out of bounds: "
+                    + row);
+        }
+        if (column < 0 || column >= this.columnCount) {
+            throw new IndexOutOfBoundsException("Column index out of bounds: "
+                    + column);
+        }
+    }
+
+}
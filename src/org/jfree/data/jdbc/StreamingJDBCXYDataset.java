@@ -0,0 +1,593 @@
+package org.jfree.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+
+import original.Range;
+
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.TableXYDataset;
+
+/**
+ * An XY dataset filled from a JDBC query, like {@link JDBCXYDataset}, but
+ * read as a stream: rows are fetched from the driver in batches of the
+ * fetch size, stored in arrays of <code>double</code> primitives (one for
+ * the x column and one per series), and a
+ * {@link org.jfree.data.general.DatasetChangeEvent} is sent after each
+ * batch, so that a chart can draw the rows read so far.
+ * <p>
+ * The query is interpreted as by {@link JDBCXYDataset}: the first column
+ * holds the x-values, numeric or date/time, and each later numeric column
+ * is a series named by its column label.  Columns of other types are
+ * ignored.
+ * <p>
+ * If a maximum item count is set, the dataset downsamples as it reads:
+ * whenever it is full it drops every second item and from then on keeps
+ * only every second row it would have kept before.  The stored items are
+ * therefore always evenly spaced rows of the result, at a stride that is
+ * a power of two, and memory stays bounded however many rows the query
+ * returns.
+ * <p>
+ * Events are sent on the thread that runs the query; the dataset is not
+ * safe for reading from another thread while a query runs.
+ */
+public class StreamingJDBCXYDataset extends AbstractXYDataset
+        implements TableXYDataset, RangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4962914806725170328L;
+
+    /** The default fetch size. */
+    public static final int DEFAULT_FETCH_SIZE = 10000;
+
+    /** The initial capacity of the value arrays. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** The database connection. */
+    private transient Connection connection;
+
+    /** The number of rows to fetch from the driver at a time. */
+    private int fetchSize;
+
+    /** The maximum number of items to keep. */
+    private int maximumItemCount;
+
+    /** The series keys (column labels). */
+    private String[] seriesKeys;
+
+    /** The number of items. */
+    private int itemCount;
+
+    /** The x-values. */
+    private double[] xValues;
+
+    /** The y-values, one array per series. */
+    private double[][] yValues;
+
+    /** The <code>null</code> y-values, one set per series. */
+    private BitSet[] yNulls;
+
+    /** Keep one row in this many. */
+    private long stride;
+
+    /** The smallest y-value read. */
+    private double minValue;
+
+    /** The largest y-value read. */
+    private double maxValue;
+
+    /** A flag that records whether the x-values are dates. */
+    private boolean timeSeries;
+
+    /**
+     * Creates a new dataset with no data, which uses the specified
+     * connection for {@link #executeQuery(String)}.
+     *
+     * @param connection  the connection (<code>null</code> not permitted).
+     */
+    public StreamingJDBCXYDataset(Connection connection) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Null 'connection' argument.");
+        }
+        this.connection = connection;
+        this.fetchSize = DEFAULT_FETCH_SIZE;
+        this.maximumItemCount = Integer.MAX_VALUE;
+        clearData();
+    }
+
+    /**
+     * Returns the number of rows fetched from the driver at a time, which
+     * is also the number of rows read between change events.
+     *
+     * @return The fetch size.
+     */
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Sets the number of rows fetched from the driver at a time, which is
+     * also the number of rows read between change events.  The setting
+     * applies to the next query.
+     *
+     * @param fetchSize  the fetch size (must be > 0).
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Requires 'fetchSize' > 0.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns the maximum number of items the dataset keeps.
+     *
+     * @return The maximum item count.
+     */
+    public int getMaximumItemCount() {
+        return this.maximumItemCount;
+    }
+
+    /**
+     * Sets the maximum number of items the dataset keeps.  Longer results
+     * are downsampled as they are read (see the class description).  The
+     * setting applies to the next query.
+     *
+     * @param maximum  the maximum item count (must be >= 2).
+     */
+    public void setMaximumItemCount(int maximum) {
+        if (maximum < 2) {
+            throw new IllegalArgumentException("Requires 'maximum' >= 2.");
+        }
+        this.maximumItemCount = maximum;
+    }
+
+    /**
+     * Returns the number of result rows that each item stands for: 1 unless
+     * the last query was downsampled.
+     *
+     * @return The stride.
+     */
+    public long getStride() {
+        return this.stride;
+    }
+
+    /**
+     * Returns <code>true</code> if the x-values of the last query were dates,
+     * stored as milliseconds since 1 January 1970.
+     *
+     * @return A boolean.
+     */
+    public boolean isTimeSeries() {
+        return this.timeSeries;
+    }
+
+    /**
+     * Runs a query on the connection given to the constructor and replaces
+     * the data with its result.
+     *
+     * @param query  the SQL query (<code>null</code> not permitted).
+     *
+     * @throws SQLException if there is a problem running the query or the
+     *     result has no x column and numeric y column.
+     */
+    public void executeQuery(String query) throws SQLException {
+        executeQuery(this.connection, query);
+    }
+
+    /**
+     * Runs a query on a connection and replaces the data with its result.
+     * A change event is sent when the data is cleared and after every batch
+     * of rows.
+     *
+     * @param con  the connection (<code>null</code> not permitted).
+     * @param query  the SQL query (<code>null</code> not permitted).
+     *
+     * @throws SQLException if there is a problem running the query or the
+     *     result has no x column and numeric y column.
+     */
+    public void executeQuery(Connection con, String query)
+            throws SQLException {
+        if (con == null) {
+            throw new IllegalArgumentException("Null 'con' argument.");
+        }
+        if (query == null) {
+            throw new IllegalArgumentException("Null 'query' argument.");
+        }
+        clearData();
+        fireDatasetChanged();
+        Statement statement = con.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setFetchSize(this.fetchSize);
+            ResultSet resultSet = statement.executeQuery(query);
+            try {
+                read(resultSet);
+            }
+            finally {
+                resultSet.close();
+            }
+        }
+        finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Reads a result set, sending a change event after each batch.
+     *
+     * @param resultSet  the result set.
+     *
+     * @throws SQLException if there is a problem reading the result.
+     */
+    private void read(ResultSet resultSet) throws SQLException {
+        resultSet.setFetchSize(this.fetchSize);
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        int xType = metaData.getColumnType(1);
+        if (columnCount < 2 || !isNumeric(xType) && !isDate(xType)) {
+            throw new SQLException("The first column must hold numbers or "
+                    + "dates.");
+        }
+        int[] seriesColumns = new int[columnCount - 1];
+        int seriesCount = 0;
+        for (int column = 2; column <= columnCount; column++) {
+            if (isNumeric(metaData.getColumnType(column))) {
+                seriesColumns[seriesCount++] = column;
+            }
+        }
+        if (seriesCount == 0) {
+            throw new SQLException("Not enough valid columns where generated "
+                    + "by query.");
+        }
+        seriesColumns = Arrays.copyOf(seriesColumns, seriesCount);
+        this.timeSeries = isDate(xType);
+        this.seriesKeys = new String[seriesCount];
+        this.yValues = new double[seriesCount][INITIAL_CAPACITY];
+        this.yNulls = new BitSet[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            this.seriesKeys[s] = metaData.getColumnLabel(seriesColumns[s]);
+            this.yNulls[s] = new BitSet();
+        }
+        long row = 0;
+        int batch = 0;
+        while (resultSet.next()) {
+            if (row % this.stride == 0) {
+                if (this.itemCount == this.maximumItemCount) {
+                    halve();
+                }
+                if (row % this.stride == 0) {
+                    addItem(resultSet, xType, seriesColumns);
+                }
+                else {
+                    // with an odd maximum the row is no longer kept
+                    updateRange(resultSet, seriesColumns);
+                }
+            }
+            else {
+                updateRange(resultSet, seriesColumns);
+            }
+            row++;
+            if (++batch == this.fetchSize) {
+                batch = 0;
+                fireDatasetChanged();
+            }
+        }
+        if (batch > 0) {
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Appends the current row of a result set as an item.
+     *
+     * @param resultSet  the result set.
+     * @param xType  the SQL type of the x column.
+     * @param seriesColumns  the columns of the series.
+     *
+     * @throws SQLException if there is a problem reading the row.
+     */
+    private void addItem(ResultSet resultSet, int xType, int[] seriesColumns)
+            throws SQLException {
+        if (this.itemCount == this.xValues.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(INITIAL_CAPACITY, this.itemCount * 3L / 2));
+            this.xValues = Arrays.copyOf(this.xValues, capacity);
+            for (int s = 0; s < this.yValues.length; s++) {
+                this.yValues[s] = Arrays.copyOf(this.yValues[s], capacity);
+            }
+        }
+        int item = this.itemCount;
+        if (isDate(xType)) {
+            Date date = resultSet.getTimestamp(1);
+            this.xValues[item] = date != null ? date.getTime() : Double.NaN;
+        }
+        else {
+            double x = resultSet.getDouble(1);
+            this.xValues[item] = resultSet.wasNull() ? Double.NaN : x;
+        }
+        for (int s = 0; s < seriesColumns.length; s++) {
+            double y = resultSet.getDouble(seriesColumns[s]);
+            if (resultSet.wasNull()) {
+                this.yNulls[s].set(item);
+            }
+            else {
+                this.yValues[s][item] = y;
+                includeInRange(y);
+            }
+        }
+        this.itemCount++;
+    }
+
+    /**
+     * Includes the y-values of a row that is not kept in the range.
+     *
+     * @param resultSet  the result set.
+     * @param seriesColumns  the columns of the series.
+     *
+     * @throws SQLException if there is a problem reading the row.
+     */
+    private void updateRange(ResultSet resultSet, int[] seriesColumns)
+            throws SQLException {
+        for (int s = 0; s < seriesColumns.length; s++) {
+            double y = resultSet.getDouble(seriesColumns[s]);
+            if (!resultSet.wasNull()) {
+                includeInRange(y);
+            }
+        }
+    }
+
+    /**
+     * Widens the range to include a y-value.
+     *
+     * @param y  the value.
+     */
+    private void includeInRange(double y) {
+        if (y < this.minValue) {
+            this.minValue = y;
+        }
+        if (y > this.maxValue) {
+            this.maxValue = y;
+        }
+    }
+
+    /**
+     * Drops every second item and doubles the stride.
+     */
+    private void halve() {
+        int kept = 0;
+        for (int item = 0; item < this.itemCount; item += 2) {
+            this.xValues[kept] = this.xValues[item];
+            for (int s = 0; s < this.yValues.length; s++) {
+                this.yValues[s][kept] = this.yValues[s][item];
+                this.yNulls[s].set(kept, this.yNulls[s].get(item));
+            }
+            kept++;
+        }
+        for (int s = 0; s < this.yNulls.length; s++) {
+            this.yNulls[s].clear(kept, this.itemCount);
+        }
+        this.itemCount = kept;
+        this.stride *= 2;
+    }
+
+    /**
+     * Removes all data.
+     */
+    private void clearData() {
+        this.seriesKeys = new String[0];
+        this.itemCount = 0;
+        this.xValues = new double[INITIAL_CAPACITY];
+        this.yValues = new double[0][];
+        this.yNulls = new BitSet[0];
+        this.stride = 1;
+        this.minValue = Double.POSITIVE_INFINITY;
+        this.maxValue = Double.NEGATIVE_INFINITY;
+        this.timeSeries = false;
+    }
+
+    /**
+     * Returns <code>true</code> if a SQL type holds numbers.
+     *
+     * @param type  the type.
+     *
+     * @return A boolean.
+     */
+    private static boolean isNumeric(int type) {
+        switch (type) {
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.INTEGER:
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.DECIMAL:
+            case Types.BIGINT:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a SQL type holds dates or times.
+     *
+     * @param type  the type.
+     *
+     * @return A boolean.
+     */
+    private static boolean isDate(int type) {
+        return type == Types.DATE || type == Types.TIME
+                || type == Types.TIMESTAMP;
+    }
+
+    /**
+     * Returns the number of series.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.seriesKeys.length;
+    }
+
+    /**
+     * Returns the key for a series: the label of its column.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return this.seriesKeys[series];
+    }
+
+    /**
+     * Returns the number of items, which is the same for every series.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series index (ignored).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (ignored).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value (possibly <code>null</code>).
+     */
+    public Number getX(int series, int item) {
+        double x = getXValue(series, item);
+        return Double.isNaN(x) ? null : new Double(x);
+    }
+
+    /**
+     * Returns the x-value for an item as a primitive.
+     *
+     * @param series  the series index (ignored).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value, or <code>Double.NaN</code> if it is
+     *     <code>null</code>.
+     */
+    public double getXValue(int series, int item) {
+        checkItem(item);
+        return this.xValues[item];
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (possibly <code>null</code>).
+     */
+    public Number getY(int series, int item) {
+        checkItem(item);
+        if (this.yNulls[series].get(item)) {
+            return null;
+        }
+        return new Double(this.yValues[series][item]);
+    }
+
+    /**
+     * Returns the y-value for an item as a primitive.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value, or <code>Double.NaN</code> if it is
+     *     <code>null</code>.
+     */
+    public double getYValue(int series, int item) {
+        checkItem(item);
+        if (this.yNulls[series].get(item)) {
+            return Double.NaN;
+        }
+        return this.yValues[series][item];
+    }
+
+    /**
+     * Throws an exception if an item index is out of bounds.
+     *
+     * @param item  the item index.
+     */
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.itemCount) {
+            throw new IndexOutOfBoundsException("Index: " + item + ", Size: "
+                    + this.itemCount);
+        }
+    }
+
+    /**
+     * Returns the smallest y-value in every row read, including rows dropped
+     * by downsampling.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The value, or <code>Double.NaN</code> if there are no y-values.
+     */
+    public double getRangeLowerBound(boolean includeInterval) {
+        return this.minValue <= this.maxValue ? this.minValue : Double.NaN;
+    }
+
+    /**
+     * Returns the largest y-value in every row read, including rows dropped
+     * by downsampling.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The value, or <code>Double.NaN</code> if there are no y-values.
+     */
+    public double getRangeUpperBound(boolean includeInterval) {
+        return this.minValue <= this.maxValue ? this.maxValue : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the y-values in every row read, including rows
+     * dropped by downsampling.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The range, or <code>null</code> if there are no y-values.
+     */
+    public Range getRangeBounds(boolean includeInterval) {
+        if (this.minValue > this.maxValue) {
+            return null;
+        }
+        return new Range(this.minValue, this.maxValue);
+    }
+
+    /**
+     * Closes the connection given to the constructor.
+     *
+     * @throws SQLException if the connection cannot be closed.
+     */
+    public void close() throws SQLException {
+        this.connection.close();
+    }
+
+}
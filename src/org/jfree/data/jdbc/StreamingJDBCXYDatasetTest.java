@@ -0,0 +1,368 @@
+package org.jfree.data.jdbc;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Test;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StreamingJDBCXYDatasetTest {
+
+    /**
+     * A stand-in for a JDBC driver that answers every query with the same rows, built from proxies so that no
+     * database is needed.  It records the fetch size requested and the number of rows read.
+     */
+    private static class FakeDatabase implements InvocationHandler {
+
+        private final String[] labels;
+        private final int[] types;
+        private final Object[][] rows;
+        private int fetchSize;
+        private int row = -1;
+        private boolean wasNull;
+
+        FakeDatabase(String[] labels, int[] types, Object[][] rows) {
+            this.labels = labels;
+            this.types = types;
+            this.rows = rows;
+        }
+
+        Connection connection() {
+            return (Connection) proxy(Connection.class);
+        }
+
+        private Object proxy(Class type) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { type }, this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("createStatement")) {
+                return proxy(Statement.class);
+            }
+            if (name.equals("executeQuery")) {
+                this.row = -1;
+                return proxy(ResultSet.class);
+            }
+            if (name.equals("getMetaData")) {
+                return proxy(ResultSetMetaData.class);
+            }
+            if (name.equals("setFetchSize")) {
+                this.fetchSize = ((Integer) args[0]).intValue();
+                return null;
+            }
+            if (name.equals("next")) {
+                return Boolean.valueOf(++this.row < this.rows.length);
+            }
+            if (name.equals("getColumnCount")) {
+                return new Integer(this.labels.length);
+            }
+            if (name.equals("getColumnType")) {
+                return new Integer(this.types[((Integer) args[0]).intValue() - 1]);
+            }
+            if (name.equals("getColumnLabel") || name.equals("getColumnName")) {
+                return this.labels[((Integer) args[0]).intValue() - 1];
+            }
+            if (name.equals("getColumnClassName")) {
+                return "java.lang.Object";
+            }
+            if (name.equals("getObject") || name.equals("getTimestamp")) {
+                Object value = this.rows[this.row][((Integer) args[0]).intValue() - 1];
+                this.wasNull = value == null;
+                return value;
+            }
+            if (name.equals("getDouble")) {
+                Number value = (Number) this.rows[this.row][((Integer) args[0]).intValue() - 1];
+                this.wasNull = value == null;
+                return new Double(value == null ? 0.0 : value.doubleValue());
+            }
+            if (name.equals("wasNull")) {
+                return Boolean.valueOf(this.wasNull);
+            }
+            if (name.equals("close")) {
+                return null;
+            }
+            if (name.equals("hashCode")) {
+                return new Integer(System.identityHashCode(proxy));
+            }
+            if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            }
+            throw new UnsupportedOperationException(name);
+        }
+
+    }
+
+    /**
+     * Creates a database with a numeric x column and two series, "A" = 10 * x and "B" = -x, with x from 0 to
+     * rowCount - 1.
+     */
+    private static FakeDatabase createDatabase(int rowCount) {
+        Object[][] rows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new Object[] { new Integer(i), new Double(10.0 * i), new Double(-i) };
+        }
+        return new FakeDatabase(new String[] { "X", "A", "B" }, new int[] { Types.INTEGER, Types.DOUBLE,
+                Types.DOUBLE }, rows);
+    }
+
+    /**
+     * Counts change events.
+     */
+    private static class EventCounter implements DatasetChangeListener {
+
+        private int count;
+
+        public void datasetChanged(DatasetChangeEvent event) {
+            this.count++;
+        }
+
+    }
+
+    // ----------------------------
+    // executeQuery(String query)
+    // result: { EC1: numeric x and series with nulls, EC2: timestamp x, EC3: column of another type,
+    //           EC4: no numeric series }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void readSameDataAsJDBCXYDataset() throws SQLException {
+        // setup
+        FakeDatabase database = new FakeDatabase(new String[] { "X", "A", "B" }, new int[] { Types.DOUBLE,
+                Types.DOUBLE, Types.INTEGER }, new Object[][] { { new Double(1.0), new Double(5.0), new Integer(2) },
+                { new Double(2.0), null, new Integer(3) }, { new Double(3.0), new Double(-1.5), null } });
+        JDBCXYDataset expected = new JDBCXYDataset(database.connection());
+        expected.executeQuery("SELECT");
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(database.connection());
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("The series count should match", expected.getSeriesCount(), dataset.getSeriesCount());
+        assertEquals("The item count should match", expected.getItemCount(), dataset.getItemCount());
+        for (int s = 0; s < expected.getSeriesCount(); s++) {
+            assertEquals("The key of series " + s + " should match", expected.getSeriesKey(s),
+                    dataset.getSeriesKey(s));
+            for (int i = 0; i < expected.getItemCount(); i++) {
+                assertEquals("The x-value at (" + s + ", " + i + ") should match",
+                        expected.getX(s, i).doubleValue(), dataset.getXValue(s, i), .000000001d);
+                Number y = expected.getY(s, i);
+                if (y == null) {
+                    assertNull("The y-value at (" + s + ", " + i + ") should be null", dataset.getY(s, i));
+                }
+                else {
+                    assertEquals("The y-value at (" + s + ", " + i + ") should match", y.doubleValue(),
+                            dataset.getYValue(s, i), .000000001d);
+                }
+            }
+        }
+        assertEquals("The lower bound should be -1.5", -1.5, dataset.getRangeLowerBound(false), .000000001d);
+        assertEquals("The upper bound should be 5.0", 5.0, dataset.getRangeUpperBound(false), .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void readTimestamps() throws SQLException {
+        // setup
+        FakeDatabase database = new FakeDatabase(new String[] { "T", "V" }, new int[] { Types.TIMESTAMP,
+                Types.DOUBLE }, new Object[][] { { new Timestamp(1000L), new Double(1.0) },
+                { new Timestamp(2000L), new Double(2.0) } });
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(database.connection());
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertTrue("The dataset should be a time series", dataset.isTimeSeries());
+        assertEquals("The x-value should be in milliseconds", 2000.0, dataset.getXValue(0, 1), .000000001d);
+    }
+
+    // EC3
+    @Test
+    public void ignoreColumnOfAnotherType() throws SQLException {
+        // setup
+        FakeDatabase database = new FakeDatabase(new String[] { "X", "NAME", "V" }, new int[] { Types.INTEGER,
+                Types.VARCHAR, Types.DOUBLE }, new Object[][] { { new Integer(1), "one", new Double(1.0) } });
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(database.connection());
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("Only the numeric column should be a series", 1, dataset.getSeriesCount());
+        assertEquals("The series should be V", "V", dataset.getSeriesKey(0));
+    }
+
+    // EC4
+    @Test(expected = SQLException.class)
+    public void rejectResultWithoutSeries() throws SQLException {
+        // setup
+        FakeDatabase database = new FakeDatabase(new String[] { "X", "NAME" }, new int[] { Types.INTEGER,
+                Types.VARCHAR }, new Object[][] { { new Integer(1), "one" } });
+
+        // exercise
+        new StreamingJDBCXYDataset(database.connection()).executeQuery("SELECT");
+    }
+
+    // ----------------------------
+    // setFetchSize(int fetchSize)
+    // ----------------------------
+
+    @Test
+    public void fetchSizeSetsDriverFetchSizeAndBatches() throws SQLException {
+        // setup
+        FakeDatabase database = createDatabase(25);
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(database.connection());
+        dataset.setFetchSize(10);
+        EventCounter counter = new EventCounter();
+        dataset.addChangeListener(counter);
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("The driver should be asked for 10 rows at a time", 10, database.fetchSize);
+        assertEquals("There should be one event for the clear and one per batch of 10", 4, counter.count);
+        assertEquals("All rows should be read", 25, dataset.getItemCount());
+    }
+
+    @Test
+    public void seriesAreVisibleAfterEachBatch() throws SQLException {
+        // setup
+        final StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(createDatabase(30).connection());
+        dataset.setFetchSize(10);
+        final List counts = new ArrayList();
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                counts.add(new Integer(dataset.getItemCount()));
+            }
+        });
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("Each event should see the rows read so far", "[0, 10, 20, 30]", counts.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectZeroFetchSize() {
+        // exercise
+        new StreamingJDBCXYDataset(createDatabase(1).connection()).setFetchSize(0);
+    }
+
+    // ----------------------------
+    // setMaximumItemCount(int maximum)
+    // rows: { EC1: fewer than the maximum, EC2: many more than the maximum }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void keepAllRowsUnderTheMaximum() throws SQLException {
+        // setup
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(createDatabase(100).connection());
+        dataset.setMaximumItemCount(100);
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("All rows should be kept", 100, dataset.getItemCount());
+        assertEquals("The stride should be 1", 1L, dataset.getStride());
+    }
+
+    // EC2
+    @Test
+    public void downsampleToEvenlySpacedRows() throws SQLException {
+        // setup
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(createDatabase(1000).connection());
+        dataset.setFetchSize(64);
+        dataset.setMaximumItemCount(100);
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        long stride = dataset.getStride();
+        assertEquals("The stride should be 16", 16L, stride);
+        assertEquals("Every 16th row should be kept", 63, dataset.getItemCount());
+        for (int i = 0; i < dataset.getItemCount(); i++) {
+            assertEquals("Item " + i + " should be row " + (i * stride), i * stride, dataset.getXValue(0, i),
+                    .000000001d);
+            assertEquals("Series A should follow its row", 10.0 * i * stride, dataset.getYValue(0, i), .000000001d);
+            assertEquals("Series B should follow its row", -1.0 * i * stride, dataset.getYValue(1, i), .000000001d);
+        }
+        assertEquals("The range should include dropped rows", 9990.0, dataset.getRangeUpperBound(false),
+                .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void rangeIncludesRowDroppedByHalvingWithOddMaximum() throws SQLException {
+        // setup
+        Object[][] rows = new Object[5][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] { new Integer(i), new Double(i == 3 ? 100.0 : 0.0) };
+        }
+        FakeDatabase database = new FakeDatabase(new String[] { "X", "A" }, new int[] { Types.INTEGER,
+                Types.DOUBLE }, rows);
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(database.connection());
+        dataset.setMaximumItemCount(3);
+
+        // exercise
+        dataset.executeQuery("SELECT");
+
+        // verify
+        assertEquals("The stride should be 2", 2L, dataset.getStride());
+        assertEquals("The range should include the row that triggered the halving", 100.0,
+                dataset.getRangeUpperBound(false), .000000001d);
+        assertEquals("The lower bound should be kept", 0.0, dataset.getRangeLowerBound(false), .000000001d);
+    }
+
+    @Test
+    public void closeClosesConnection() throws SQLException {
+        // setup
+        final boolean[] closed = new boolean[1];
+        final FakeDatabase database = createDatabase(1);
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] { Connection.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("close")) {
+                            closed[0] = true;
+                        }
+                        return database.invoke(proxy, method, args);
+                    }
+                });
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(connection);
+
+        // exercise
+        dataset.close();
+
+        // verify
+        assertTrue("The connection should be closed", closed[0]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueOutOfBounds() throws SQLException {
+        // setup
+        StreamingJDBCXYDataset dataset = new StreamingJDBCXYDataset(createDatabase(3).connection());
+        dataset.executeQuery("SELECT");
+
+        // exercise
+        dataset.getYValue(0, 3);
+    }
+
+}
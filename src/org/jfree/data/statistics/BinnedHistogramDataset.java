@@ -0,0 +1,478 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.util.ObjectUtilities;
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A histogram dataset that holds each series as an array of bin counts,
+ * filled in one pass by {@link HistogramBinning}.  It reports the same x-
+ * and y-values as {@link HistogramDataset} for the same data, but does not
+ * create an object for each bin, finds the minimum and maximum in a single
+ * pass, and can count on a fork/join pool.
+ * <p>
+ * A series can also be added from counts kept from an earlier run, and
+ * can be re-binned into wider bins with {@link #rebinSeries(int, int)},
+ * without the original values.
+ */
+public class BinnedHistogramDataset extends AbstractIntervalXYDataset
+        implements IntervalXYDataset, Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 3178406213514470289L;
+
+    /** The series, each a {@link Series}. */
+    private List list;
+
+    /** The histogram type. */
+    private HistogramType type;
+
+    /**
+     * Creates a new (empty) dataset with a default type of
+     * {@link HistogramType#FREQUENCY}.
+     */
+    public BinnedHistogramDataset() {
+        this.list = new ArrayList();
+        this.type = HistogramType.FREQUENCY;
+    }
+
+    /**
+     * Returns the histogram type.
+     *
+     * @return The type (never <code>null</code>).
+     */
+    public HistogramType getType() {
+        return this.type;
+    }
+
+    /**
+     * Sets the histogram type and sends a {@link
+     * org.jfree.data.general.DatasetChangeEvent} to all registered listeners.
+     *
+     * @param type  the type (<code>null</code> not permitted).
+     */
+    public void setType(HistogramType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Null 'type' argument");
+        }
+        this.type = type;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Adds a series to the dataset, using the minimum and maximum of the
+     * values as the bounds of the bins.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted, and at
+     *     least one value is required).
+     * @param bins  the number of bins (must be at least 1).
+     */
+    public void addSeries(Comparable key, double[] values, int bins) {
+        checkValues(values);
+        double[] bounds = HistogramBinning.findBounds(values, null);
+        addSeries(key, values, bins, bounds[0], bounds[1]);
+    }
+
+    /**
+     * Adds a series to the dataset, using the minimum and maximum of the
+     * values as the bounds of the bins, and searching and counting the
+     * values on a fork/join pool.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted, and at
+     *     least one value is required).
+     * @param bins  the number of bins (must be at least 1).
+     * @param pool  the pool (<code>null</code> for the common pool).
+     */
+    public void addSeries(Comparable key, double[] values, int bins,
+            ForkJoinPool pool) {
+        checkValues(values);
+        ForkJoinPool p = pool != null ? pool : ForkJoinPool.commonPool();
+        double[] bounds = HistogramBinning.findBounds(values, p);
+        addSeries(key, values, bins, bounds[0], bounds[1], p);
+    }
+
+    /**
+     * Adds a series to the dataset.  Values outside the bounds are counted
+     * in the first or last bin, as in {@link HistogramDataset}.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the bin range.
+     * @param maximum  the upper bound of the bin range.
+     */
+    public void addSeries(Comparable key, double[] values, int bins,
+            double minimum, double maximum) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        long[] counts = HistogramBinning.countBins(values, bins, minimum,
+                maximum);
+        addSeries(key, counts, minimum, maximum);
+    }
+
+    /**
+     * Adds a series to the dataset, counting the values on a fork/join
+     * pool.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the bin range.
+     * @param maximum  the upper bound of the bin range.
+     * @param pool  the pool (<code>null</code> for the common pool).
+     */
+    public void addSeries(Comparable key, double[] values, int bins,
+            double minimum, double maximum, ForkJoinPool pool) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        long[] counts = HistogramBinning.countBins(values, bins, minimum,
+                maximum, pool);
+        addSeries(key, counts, minimum, maximum);
+    }
+
+    /**
+     * Adds a series to the dataset from the counts of equal-width bins
+     * between <code>minimum</code> and <code>maximum</code>, for example
+     * counts returned by {@link #getBinCounts(int)} or by
+     * {@link HistogramBinning}.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param counts  the counts (<code>null</code> not permitted, and at
+     *     least one bin is required).  The array is copied.
+     * @param minimum  the lower bound of the bin range.
+     * @param maximum  the upper bound of the bin range.
+     */
+    public void addSeries(Comparable key, long[] counts, double minimum,
+            double maximum) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        if (counts == null) {
+            throw new IllegalArgumentException("Null 'counts' argument.");
+        }
+        if (counts.length < 1) {
+            throw new IllegalArgumentException(
+                    "The 'bins' value must be at least 1.");
+        }
+        this.list.add(new Series(key, (long[]) counts.clone(), minimum,
+                maximum));
+        fireDatasetChanged();
+    }
+
+    /**
+     * Merges each run of <code>factor</code> adjacent bins of a series into
+     * one, and sends a {@link org.jfree.data.general.DatasetChangeEvent} to
+     * all registered listeners.
+     *
+     * @param series  the series index (zero-based).
+     * @param factor  the number of bins merged (a divisor of the number of
+     *     bins).
+     */
+    public void rebinSeries(int series, int factor) {
+        Series s = getSeries(series);
+        long[] counts = HistogramBinning.rebin(s.counts, factor);
+        this.list.set(series, new Series(s.key, counts,
+                s.boundaries[0], s.boundaries[s.counts.length]));
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a copy of the bin counts for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The counts.
+     */
+    public long[] getBinCounts(int series) {
+        return (long[]) getSeries(series).counts.clone();
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.list.size();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return getSeries(series).key;
+    }
+
+    /**
+     * Returns the number of data items (bins) for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getSeries(series).counts.length;
+    }
+
+    /**
+     * Returns the x-value for a bin (the midpoint of the bin).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public Number getX(int series, int item) {
+        double[] boundaries = getSeries(series).boundaries;
+        return new Double((boundaries[item] + boundaries[item + 1]) / 2.0);
+    }
+
+    /**
+     * Returns the y-value for a bin, calculated to take into account the
+     * histogram type.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value.
+     *
+     * @throws IllegalStateException if the histogram type is not one of the
+     *     types defined in {@link HistogramType}.
+     */
+    public Number getY(int series, int item) {
+        Series s = getSeries(series);
+        double count = s.counts[item];
+        if (this.type == HistogramType.FREQUENCY) {
+            return new Double(count);
+        }
+        else if (this.type == HistogramType.RELATIVE_FREQUENCY) {
+            return new Double(count / s.total);
+        }
+        else if (this.type == HistogramType.SCALE_AREA_TO_1) {
+            return new Double(count / (s.binWidth * s.total));
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Returns the start value for a bin.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start value.
+     */
+    public Number getStartX(int series, int item) {
+        return new Double(getSeries(series).boundaries[item]);
+    }
+
+    /**
+     * Returns the end value for a bin.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end value.
+     */
+    public Number getEndX(int series, int item) {
+        return new Double(getSeries(series).boundaries[item + 1]);
+    }
+
+    /**
+     * Returns the start y-value for a bin (which is the same as the y-value,
+     * see {@link #getY(int, int)}).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start y-value.
+     */
+    public Number getStartY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Returns the end y-value for a bin (which is the same as the y-value,
+     * see {@link #getY(int, int)}).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end y-value.
+     */
+    public Number getEndY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object to test against (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof BinnedHistogramDataset)) {
+            return false;
+        }
+        BinnedHistogramDataset that = (BinnedHistogramDataset) obj;
+        if (!ObjectUtilities.equal(this.type, that.type)) {
+            return false;
+        }
+        return this.list.equals(that.list);
+    }
+
+    /**
+     * Returns a hash code for the dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return 37 * this.type.hashCode() + this.list.hashCode();
+    }
+
+    /**
+     * Returns a clone of the dataset.
+     *
+     * @return A clone of the dataset.
+     *
+     * @throws CloneNotSupportedException if the object cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        BinnedHistogramDataset clone = (BinnedHistogramDataset) super.clone();
+        // the series are never modified, so they can be shared
+        clone.list = new ArrayList(this.list);
+        return clone;
+    }
+
+    /**
+     * Returns a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series.
+     */
+    private Series getSeries(int series) {
+        return (Series) this.list.get(series);
+    }
+
+    /**
+     * Checks that an array holds at least one value.
+     *
+     * @param values  the values.
+     */
+    private static void checkValues(double[] values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException(
+                    "Null or zero length 'values' argument.");
+        }
+    }
+
+    /**
+     * The counts and bin boundaries of one series.
+     */
+    private static final class Series implements Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = -1532987403520146742L;
+
+        /** The series key. */
+        private final Comparable key;
+
+        /** The count for each bin. */
+        private final long[] counts;
+
+        /**
+         * The bin boundaries: bin i runs from boundaries[i] to
+         * boundaries[i + 1].
+         */
+        private final double[] boundaries;
+
+        /** The width of each bin. */
+        private final double binWidth;
+
+        /** The sum of the counts. */
+        private final double total;
+
+        /**
+         * Creates a series.
+         *
+         * @param key  the series key.
+         * @param counts  the counts (not copied).
+         * @param minimum  the lower bound of the bin range.
+         * @param maximum  the upper bound of the bin range.
+         */
+        Series(Comparable key, long[] counts, double minimum,
+                double maximum) {
+            this.key = key;
+            this.counts = counts;
+            int bins = counts.length;
+            this.binWidth = (maximum - minimum) / bins;
+            // accumulated as HistogramDataset does, so the boundaries match
+            this.boundaries = new double[bins + 1];
+            double lower = minimum;
+            for (int i = 0; i < bins; i++) {
+                this.boundaries[i] = lower;
+                lower = lower + this.binWidth;
+            }
+            this.boundaries[bins] = maximum;
+            long sum = 0L;
+            for (int i = 0; i < bins; i++) {
+                sum += counts[i];
+            }
+            this.total = sum;
+        }
+
+        /**
+         * Tests this series for equality with an arbitrary object.
+         *
+         * @param obj  the object (<code>null</code> permitted).
+         *
+         * @return A boolean.
+         */
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Series)) {
+                return false;
+            }
+            Series that = (Series) obj;
+            return this.key.equals(that.key)
+                    && Arrays.equals(this.counts, that.counts)
+                    && Arrays.equals(this.boundaries, that.boundaries);
+        }
+
+        /**
+         * Returns a hash code for the series.
+         *
+         * @return A hash code.
+         */
+        public int hashCode() {
+            return 37 * this.key.hashCode() + Arrays.hashCode(this.counts);
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BinnedHistogramDatasetTest {
+
+    private static final HistogramType[] TYPES = {HistogramType.FREQUENCY, HistogramType.RELATIVE_FREQUENCY,
+            HistogramType.SCALE_AREA_TO_1};
+
+    /**
+     * Returns random values, with a few NaN values and exact copies of the bounds.
+     */
+    private static double[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        double[] result = new double[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = 50.0 + random.nextGaussian() * 20.0;
+        }
+        result[count / 3] = Double.NaN;
+        result[count / 2] = 0.0;
+        result[count - 1] = 100.0;
+        return result;
+    }
+
+    /**
+     * Checks that every x- and y-value of the binned dataset matches the histogram dataset, for every type.
+     */
+    private static void assertSameHistogram(HistogramDataset expected, BinnedHistogramDataset actual) {
+        assertEquals("The series count should match", expected.getSeriesCount(), actual.getSeriesCount());
+        for (int t = 0; t < TYPES.length; t++) {
+            expected.setType(TYPES[t]);
+            actual.setType(TYPES[t]);
+            for (int s = 0; s < expected.getSeriesCount(); s++) {
+                assertEquals("The key should match", expected.getSeriesKey(s), actual.getSeriesKey(s));
+                assertEquals("The bin count should match", expected.getItemCount(s), actual.getItemCount(s));
+                for (int i = 0; i < expected.getItemCount(s); i++) {
+                    String bin = TYPES[t] + " bin " + i;
+                    assertEquals("The start of " + bin + " should match", expected.getStartXValue(s, i),
+                            actual.getStartXValue(s, i), 0.0);
+                    assertEquals("The end of " + bin + " should match", expected.getEndXValue(s, i),
+                            actual.getEndXValue(s, i), 0.0);
+                    assertEquals("The x-value of " + bin + " should match", expected.getXValue(s, i),
+                            actual.getXValue(s, i), 0.0);
+                    assertEquals("The y-value of " + bin + " should match", expected.getYValue(s, i),
+                            actual.getYValue(s, i), 0.0);
+                    assertEquals("The start y-value of " + bin + " should match", expected.getStartYValue(s, i),
+                            actual.getStartYValue(s, i), 0.0);
+                }
+            }
+        }
+    }
+
+    // ----------------------------
+    // addSeries(Comparable, double[], int) / addSeries(Comparable, double[], int, double, double)
+    // bounds: { EC1: from the values, EC2: given, with values outside them }
+    // pool: { EC3: none, EC4: fork/join pool }
+    // ----------------------------
+
+    // EC1, EC3
+    @Test
+    public void matchesHistogramDataset() {
+        // setup
+        double[] values = randomValues(5000, 22L);
+        HistogramDataset expected = new HistogramDataset();
+        BinnedHistogramDataset actual = new BinnedHistogramDataset();
+
+        // exercise
+        expected.addSeries("S1", values, 37);
+        actual.addSeries("S1", values, 37);
+
+        // verify
+        assertSameHistogram(expected, actual);
+    }
+
+    // EC2, EC3
+    @Test
+    public void matchesHistogramDatasetWithBounds() {
+        // setup
+        double[] values = randomValues(5000, 23L);
+        HistogramDataset expected = new HistogramDataset();
+        BinnedHistogramDataset actual = new BinnedHistogramDataset();
+
+        // exercise
+        expected.addSeries("S1", values, 10, 20.0, 80.0);
+        actual.addSeries("S1", values, 10, 20.0, 80.0);
+
+        // verify
+        assertSameHistogram(expected, actual);
+    }
+
+    // EC1, EC4
+    @Test
+    public void parallelMatchesHistogramDataset() {
+        // setup
+        double[] values = randomValues(300000, 24L);
+        HistogramDataset expected = new HistogramDataset();
+        BinnedHistogramDataset actual = new BinnedHistogramDataset();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // exercise
+        expected.addSeries("S1", values, 100);
+        actual.addSeries("S1", values, 100, pool);
+        pool.shutdown();
+
+        // verify
+        assertSameHistogram(expected, actual);
+    }
+
+    // EC2, EC4
+    @Test
+    public void parallelCountsMatchSequentialCounts() {
+        // setup
+        double[] values = randomValues(300000, 25L);
+
+        // exercise
+        long[] sequential = HistogramBinning.countBins(values, 64, 10.0, 90.0);
+        long[] parallel = HistogramBinning.countBins(values, 64, 10.0, 90.0, null);
+
+        // verify
+        assertArrayEquals("The counts should not depend on the pool", sequential, parallel);
+        long total = 0L;
+        for (int i = 0; i < parallel.length; i++) {
+            total += parallel[i];
+        }
+        assertEquals("Every value should be counted", 300000L, total);
+    }
+
+    // ----------------------------
+    // addSeries(Comparable, long[], double, double) / rebinSeries(int, int)
+    // counts: { EC1: stored from an earlier series, EC2: merged by a divisor, EC3: merged by a non-divisor }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void storedCountsRestoreSeries() {
+        // setup
+        double[] values = randomValues(5000, 26L);
+        BinnedHistogramDataset first = new BinnedHistogramDataset();
+        first.addSeries("S1", values, 40, 0.0, 100.0);
+        BinnedHistogramDataset second = new BinnedHistogramDataset();
+
+        // exercise
+        second.addSeries("S1", first.getBinCounts(0), 0.0, 100.0);
+
+        // verify
+        assertEquals("The datasets should be equal", first, second);
+    }
+
+    // EC2
+    @Test
+    public void rebinMatchesCountingAgain() {
+        // setup
+        double[] values = randomValues(5000, 27L);
+        HistogramDataset expected = new HistogramDataset();
+        expected.addSeries("S1", values, 10, 0.0, 100.0);
+        BinnedHistogramDataset actual = new BinnedHistogramDataset();
+        actual.addSeries("S1", values, 80, 0.0, 100.0);
+
+        // exercise
+        actual.rebinSeries(0, 8);
+
+        // verify
+        assertSameHistogram(expected, actual);
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void rebinRejectsNonDivisor() {
+        // setup
+        BinnedHistogramDataset dataset = new BinnedHistogramDataset();
+        dataset.addSeries("S1", new double[] {1.0, 2.0, 3.0}, 10);
+
+        // exercise
+        dataset.rebinSeries(0, 3);
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * Accumulates the covariance and correlation of a stream of (x, y) pairs
+ * in one pass, with the means and co-moments updated as in Welford's
+ * method.  Accumulators filled from parts of the data can be combined with
+ * {@link #merge(CovarianceAccumulator)}; an accumulator is not itself
+ * thread-safe.
+ * <p>
+ * The correlation agrees, within rounding, with
+ * {@link Statistics#getCorrelation(Number[], Number[])} for data without
+ * <code>null</code> values.  Here a pair with a <code>null</code> or
+ * <code>NaN</code> value is skipped, where <code>Statistics</code> would
+ * count a <code>null</code> as zero.
+ */
+public class CovarianceAccumulator implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6502931187265573409L;
+
+    /** The number of pairs. */
+    private long count;
+
+    /** The mean of the x-values. */
+    private double meanX;
+
+    /** The mean of the y-values. */
+    private double meanY;
+
+    /** The sum of the squared differences of the x-values from their mean. */
+    private double sumOfSquaresX;
+
+    /** The sum of the squared differences of the y-values from their mean. */
+    private double sumOfSquaresY;
+
+    /** The sum of the products of the differences from the means. */
+    private double sumOfProducts;
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public CovarianceAccumulator() {
+        super();
+    }
+
+    /**
+     * Adds a pair of values.
+     *
+     * @param x  the x-value (a pair with a <code>NaN</code> value is
+     *     skipped).
+     * @param y  the y-value.
+     */
+    public void add(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return;
+        }
+        this.count++;
+        double dx = x - this.meanX;
+        this.meanX += dx / this.count;
+        double dy = y - this.meanY;
+        this.meanY += dy / this.count;
+        this.sumOfSquaresX += dx * (x - this.meanX);
+        this.sumOfSquaresY += dy * (y - this.meanY);
+        this.sumOfProducts += dx * (y - this.meanY);
+    }
+
+    /**
+     * Adds a pair of values.
+     *
+     * @param x  the x-value (a pair with a <code>null</code> value is
+     *     skipped).
+     * @param y  the y-value.
+     */
+    public void add(Number x, Number y) {
+        if (x != null && y != null) {
+            add(x.doubleValue(), y.doubleValue());
+        }
+    }
+
+    /**
+     * Adds the pairs of values at the same index in two arrays.
+     *
+     * @param x  the x-values (<code>null</code> not permitted).
+     * @param y  the y-values (<code>null</code> not permitted).
+     */
+    public void add(double[] x, double[] y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        if (y == null) {
+            throw new IllegalArgumentException("Null 'y' argument.");
+        }
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(
+                    "'x' and 'y' arrays must have same length.");
+        }
+        for (int i = 0; i < x.length; i++) {
+            add(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Adds the pairs of another accumulator to this one.
+     *
+     * @param other  the other accumulator (<code>null</code> not permitted).
+     */
+    public void merge(CovarianceAccumulator other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        long n = this.count + other.count;
+        double dx = other.meanX - this.meanX;
+        double dy = other.meanY - this.meanY;
+        double weight = (double) this.count * other.count / n;
+        this.sumOfSquaresX += other.sumOfSquaresX + dx * dx * weight;
+        this.sumOfSquaresY += other.sumOfSquaresY + dy * dy * weight;
+        this.sumOfProducts += other.sumOfProducts + dx * dy * weight;
+        this.meanX += dx * other.count / n;
+        this.meanY += dy * other.count / n;
+        this.count = n;
+    }
+
+    /**
+     * Returns the number of pairs added.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the mean of the x-values.
+     *
+     * @return The mean (<code>NaN</code> if there are no pairs).
+     */
+    public double getMeanX() {
+        return this.count == 0 ? Double.NaN : this.meanX;
+    }
+
+    /**
+     * Returns the mean of the y-values.
+     *
+     * @return The mean (<code>NaN</code> if there are no pairs).
+     */
+    public double getMeanY() {
+        return this.count == 0 ? Double.NaN : this.meanY;
+    }
+
+    /**
+     * Returns the sample covariance (dividing by n - 1).
+     *
+     * @return The covariance (<code>NaN</code> if there are fewer than two
+     *     pairs).
+     */
+    public double getCovariance() {
+        return this.count < 2 ? Double.NaN
+                : this.sumOfProducts / (this.count - 1);
+    }
+
+    /**
+     * Returns the correlation coefficient, as
+     * {@link Statistics#getCorrelation(Number[], Number[])} does.
+     *
+     * @return The correlation (<code>NaN</code> if there are fewer than two
+     *     pairs or either value is constant).
+     */
+    public double getCorrelation() {
+        if (this.count < 2) {
+            return Double.NaN;
+        }
+        return this.sumOfProducts
+                / Math.sqrt(this.sumOfSquaresX * this.sumOfSquaresY);
+    }
+
+    /**
+     * Returns a clone of the accumulator.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
+
+}
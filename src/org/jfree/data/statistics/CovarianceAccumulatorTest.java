@@ -0,0 +1,101 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Random;
+
+public class CovarianceAccumulatorTest {
+
+    // ----------------------------
+    // getCorrelation()
+    // pairs: { EC1: correlated values, EC2: merged parts, EC3: a constant value }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void matchesStatistics() {
+        // setup
+        Random random = new Random(41);
+        Number[] x = new Number[1000];
+        Number[] y = new Number[1000];
+        CovarianceAccumulator accumulator = new CovarianceAccumulator();
+
+        // exercise
+        for (int i = 0; i < x.length; i++) {
+            double a = random.nextGaussian();
+            double b = 0.6 * a + 0.8 * random.nextGaussian();
+            x[i] = new Double(a);
+            y[i] = new Double(b);
+            accumulator.add(a, b);
+        }
+
+        // verify
+        assertEquals("The correlation should match", Statistics.getCorrelation(x, y), accumulator.getCorrelation(),
+                1.0e-9);
+    }
+
+    // EC2
+    @Test
+    public void mergedPartsMatchWhole() {
+        // setup
+        Random random = new Random(42);
+        double[] x = new double[5000];
+        double[] y = new double[5000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 100.0 + random.nextGaussian();
+            y[i] = x[i] * -2.0 + random.nextGaussian();
+        }
+        CovarianceAccumulator whole = new CovarianceAccumulator();
+        whole.add(x, y);
+        CovarianceAccumulator first = new CovarianceAccumulator();
+        CovarianceAccumulator second = new CovarianceAccumulator();
+        for (int i = 0; i < x.length; i++) {
+            (i < 1234 ? first : second).add(x[i], y[i]);
+        }
+
+        // exercise
+        first.merge(second);
+
+        // verify
+        assertEquals("The count should match", whole.getCount(), first.getCount());
+        assertEquals("The covariance should match", whole.getCovariance(), first.getCovariance(), 1.0e-9);
+        assertEquals("The correlation should match", whole.getCorrelation(), first.getCorrelation(), 1.0e-9);
+        assertEquals("The mean of y should match", whole.getMeanY(), first.getMeanY(), 1.0e-9);
+    }
+
+    // EC3
+    @Test
+    public void constantValueHasNoCorrelation() {
+        // setup
+        CovarianceAccumulator accumulator = new CovarianceAccumulator();
+
+        // exercise
+        accumulator.add(new double[] {1.0, 2.0, 3.0}, new double[] {5.0, 5.0, 5.0});
+
+        // verify
+        assertEquals("The covariance should be zero", 0.0, accumulator.getCovariance(), .000000001d);
+        assertTrue("The correlation should be NaN", Double.isNaN(accumulator.getCorrelation()));
+    }
+
+    @Test
+    public void nullPairsAreSkipped() {
+        // setup
+        CovarianceAccumulator accumulator = new CovarianceAccumulator();
+
+        // exercise
+        accumulator.add(new Double(1.0), new Double(2.0));
+        accumulator.add(null, new Double(7.0));
+        accumulator.add(new Double(3.0), new Double(4.0));
+
+        // verify
+        assertEquals("The null pair should be skipped", 2L, accumulator.getCount());
+        assertEquals("The correlation should be 1", 1.0, accumulator.getCorrelation(), .000000001d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectArraysOfDifferentLength() {
+        // exercise
+        new CovarianceAccumulator().add(new double[2], new double[3]);
+    }
+
+}
@@ -0,0 +1,331 @@
+package org.jfree.data.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts values into equal-width bins, as {@link HistogramDataset} does but
+ * into a plain array of counts, optionally on a fork/join pool, and merges
+ * stored counts into wider bins without the original values.
+ * <p>
+ * A value is placed in the same bin as in <code>HistogramDataset</code>:
+ * values below the minimum go in the first bin, and values at or above the
+ * maximum, and <code>NaN</code>, go in the last bin.  A value just below the
+ * maximum that rounding would place past the last bin also goes in the last
+ * bin.
+ * <p>
+ * On a pool, the values are cut into blocks that are counted into separate
+ * arrays, which are then added together.  The counts are integers, so the
+ * result is the same as counting sequentially.
+ */
+public abstract class HistogramBinning {
+
+    /** The smallest number of values counted by one task on a pool. */
+    static final int LEAF_SIZE = 1 << 16;
+
+    /**
+     * Not used.
+     */
+    private HistogramBinning() {
+    }
+
+    /**
+     * Counts values into bins.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     *
+     * @return The count for each bin.
+     */
+    public static long[] countBins(double[] values, int bins, double minimum,
+            double maximum) {
+        checkArguments(values, bins);
+        long[] counts = new long[bins];
+        countInto(counts, values, 0, values.length, minimum, maximum);
+        return counts;
+    }
+
+    /**
+     * Counts values into bins on a fork/join pool.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     * @param pool  the pool (<code>null</code> for the common pool).
+     *
+     * @return The count for each bin.
+     */
+    public static long[] countBins(double[] values, int bins, double minimum,
+            double maximum, ForkJoinPool pool) {
+        checkArguments(values, bins);
+        ForkJoinPool p = pool != null ? pool : ForkJoinPool.commonPool();
+        return p.invoke(new CountTask(values, 0, values.length, bins,
+                minimum, maximum, leafSize(values.length, p)));
+    }
+
+    /**
+     * Merges each run of <code>factor</code> adjacent bins into one.
+     *
+     * @param counts  the counts (<code>null</code> not permitted).
+     * @param factor  the number of bins merged (a divisor of the number of
+     *     bins).
+     *
+     * @return The counts of the wider bins.
+     */
+    public static long[] rebin(long[] counts, int factor) {
+        if (counts == null) {
+            throw new IllegalArgumentException("Null 'counts' argument.");
+        }
+        if (factor < 1 || counts.length % factor != 0) {
+            throw new IllegalArgumentException(
+                    "The 'factor' must divide the number of bins.");
+        }
+        long[] result = new long[counts.length / factor];
+        for (int i = 0; i < counts.length; i++) {
+            result[i / factor] += counts[i];
+        }
+        return result;
+    }
+
+    /**
+     * Finds the smallest and largest values, ignoring <code>NaN</code>, as
+     * <code>HistogramDataset</code> does when no bounds are given.
+     *
+     * @param values  the values.
+     * @param pool  the pool (<code>null</code> to search sequentially).
+     *
+     * @return An array holding the minimum and the maximum.
+     */
+    static double[] findBounds(double[] values, ForkJoinPool pool) {
+        if (pool == null) {
+            return bounds(values, 0, values.length);
+        }
+        return pool.invoke(new BoundsTask(values, 0, values.length,
+                leafSize(values.length, pool)));
+    }
+
+    /**
+     * Counts a block of values into an array of counts.
+     *
+     * @param counts  the counts.
+     * @param values  the values.
+     * @param start  the first index.
+     * @param end  the index after the last.
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     */
+    static void countInto(long[] counts, double[] values, int start,
+            int end, double minimum, double maximum) {
+        int bins = counts.length;
+        int last = bins - 1;
+        double range = maximum - minimum;
+        for (int i = start; i < end; i++) {
+            double value = values[i];
+            int index = last;
+            if (value < maximum) {
+                double fraction = (value - minimum) / range;
+                if (fraction < 0.0) {
+                    fraction = 0.0;
+                }
+                index = Math.min((int) (fraction * bins), last);
+            }
+            counts[index]++;
+        }
+    }
+
+    /**
+     * Returns the smallest and largest values in a block.
+     *
+     * @param values  the values.
+     * @param start  the first index.
+     * @param end  the index after the last.
+     *
+     * @return An array holding the minimum and the maximum.
+     */
+    private static double[] bounds(double[] values, int start, int end) {
+        double minimum = Double.MAX_VALUE;
+        double maximum = -Double.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            double value = values[i];
+            if (value < minimum) {
+                minimum = value;
+            }
+            if (value > maximum) {
+                maximum = value;
+            }
+        }
+        return new double[] {minimum, maximum};
+    }
+
+    /**
+     * Returns the number of values handled by one task, so that each thread
+     * of the pool gets a few tasks.
+     *
+     * @param count  the number of values.
+     * @param pool  the pool.
+     *
+     * @return The leaf size.
+     */
+    private static int leafSize(int count, ForkJoinPool pool) {
+        return Math.max(LEAF_SIZE, count / (4 * pool.getParallelism()) + 1);
+    }
+
+    /**
+     * Checks the arguments common to the counting methods.
+     *
+     * @param values  the values.
+     * @param bins  the number of bins.
+     */
+    private static void checkArguments(double[] values, int bins) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (bins < 1) {
+            throw new IllegalArgumentException(
+                    "The 'bins' value must be at least 1.");
+        }
+    }
+
+    /**
+     * Counts a block of values, splitting it in half if it is too large.
+     */
+    private static final class CountTask extends RecursiveTask<long[]> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 4923056931352684301L;
+
+        /** The values. */
+        private final double[] values;
+
+        /** The first index. */
+        private final int start;
+
+        /** The index after the last. */
+        private final int end;
+
+        /** The number of bins. */
+        private final int bins;
+
+        /** The lower bound of the first bin. */
+        private final double minimum;
+
+        /** The upper bound of the last bin. */
+        private final double maximum;
+
+        /** The largest block counted without splitting. */
+        private final int leafSize;
+
+        /**
+         * Creates a new task.
+         *
+         * @param values  the values.
+         * @param start  the first index.
+         * @param end  the index after the last.
+         * @param bins  the number of bins.
+         * @param minimum  the lower bound of the first bin.
+         * @param maximum  the upper bound of the last bin.
+         * @param leafSize  the largest block counted without splitting.
+         */
+        CountTask(double[] values, int start, int end, int bins,
+                double minimum, double maximum, int leafSize) {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+            this.bins = bins;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.leafSize = leafSize;
+        }
+
+        /**
+         * Counts the block.
+         *
+         * @return The counts.
+         */
+        protected long[] compute() {
+            if (this.end - this.start <= this.leafSize) {
+                long[] counts = new long[this.bins];
+                countInto(counts, this.values, this.start, this.end,
+                        this.minimum, this.maximum);
+                return counts;
+            }
+            int mid = this.start + (this.end - this.start) / 2;
+            CountTask left = new CountTask(this.values, this.start, mid,
+                    this.bins, this.minimum, this.maximum, this.leafSize);
+            CountTask right = new CountTask(this.values, mid, this.end,
+                    this.bins, this.minimum, this.maximum, this.leafSize);
+            left.fork();
+            long[] r = right.compute();
+            long[] l = left.join();
+            for (int i = 0; i < l.length; i++) {
+                l[i] += r[i];
+            }
+            return l;
+        }
+
+    }
+
+    /**
+     * Finds the bounds of a block of values, splitting it in half if it is
+     * too large.
+     */
+    private static final class BoundsTask extends RecursiveTask<double[]> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 3770507059612422727L;
+
+        /** The values. */
+        private final double[] values;
+
+        /** The first index. */
+        private final int start;
+
+        /** The index after the last. */
+        private final int end;
+
+        /** The largest block searched without splitting. */
+        private final int leafSize;
+
+        /**
+         * Creates a new task.
+         *
+         * @param values  the values.
+         * @param start  the first index.
+         * @param end  the index after the last.
+         * @param leafSize  the largest block searched without splitting.
+         */
+        BoundsTask(double[] values, int start, int end, int leafSize) {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+            this.leafSize = leafSize;
+        }
+
+        /**
+         * Searches the block.
+         *
+         * @return An array holding the minimum and the maximum.
+         */
+        protected double[] compute() {
+            if (this.end - this.start <= this.leafSize) {
+                return bounds(this.values, this.start, this.end);
+            }
+            int mid = this.start + (this.end - this.start) / 2;
+            BoundsTask left = new BoundsTask(this.values, this.start, mid,
+                    this.leafSize);
+            BoundsTask right = new BoundsTask(this.values, mid, this.end,
+                    this.leafSize);
+            left.fork();
+            double[] r = right.compute();
+            double[] l = left.join();
+            l[0] = Math.min(l[0], r[0]);
+            l[1] = Math.max(l[1], r[1]);
+            return l;
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * An ordinary least squares fit of a line to (x, y) pairs that can be
+ * updated in constant time as pairs are added and removed, for example to
+ * keep a trend line current over a growing series or a sliding window.
+ * <p>
+ * The fit is the same, within rounding, as
+ * {@link Regression#getOLSRegression(double[][])}.  Rather than the raw
+ * sums of x, y, xy and x<sup>2</sup>, which lose most of their precision
+ * when the x-values are large (for example, millisecond times), the fit
+ * keeps the means and the sums of squared differences from them, updated
+ * as in Welford's method, with the x-values measured from the first one
+ * added.  Removing a pair reverses the update for that pair, so a pair
+ * should only be removed if it was added.  Pairs with a <code>NaN</code>
+ * value are skipped.
+ */
+public class IncrementalRegression implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 7340825176903254468L;
+
+    /** The number of pairs. */
+    private long count;
+
+    /** The x-value from which the x-values are measured. */
+    private double origin;
+
+    /** The mean of the x-values, measured from the origin. */
+    private double meanX;
+
+    /** The mean of the y-values. */
+    private double meanY;
+
+    /** The sum of the squared differences of the x-values from their mean. */
+    private double sumOfSquaresX;
+
+    /** The sum of the squared differences of the y-values from their mean. */
+    private double sumOfSquaresY;
+
+    /** The sum of the products of the differences from the means. */
+    private double sumOfProducts;
+
+    /**
+     * Creates an empty fit.
+     */
+    public IncrementalRegression() {
+        super();
+    }
+
+    /**
+     * Adds a pair of values.
+     *
+     * @param x  the x-value (a pair with a <code>NaN</code> value is
+     *     skipped).
+     * @param y  the y-value.
+     */
+    public void add(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return;
+        }
+        if (this.count == 0) {
+            this.origin = x;
+        }
+        x = x - this.origin;
+        this.count++;
+        double dx = x - this.meanX;
+        this.meanX += dx / this.count;
+        double dy = y - this.meanY;
+        this.meanY += dy / this.count;
+        this.sumOfSquaresX += dx * (x - this.meanX);
+        this.sumOfSquaresY += dy * (y - this.meanY);
+        this.sumOfProducts += dx * (y - this.meanY);
+    }
+
+    /**
+     * Removes a pair of values that was added earlier.
+     *
+     * @param x  the x-value (a pair with a <code>NaN</code> value is
+     *     skipped).
+     * @param y  the y-value.
+     */
+    public void remove(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return;
+        }
+        if (this.count <= 1) {
+            clear();
+            return;
+        }
+        x = x - this.origin;
+        this.count--;
+        double dx = x - this.meanX;
+        this.meanX -= dx / this.count;
+        double dy = y - this.meanY;
+        this.meanY -= dy / this.count;
+        this.sumOfSquaresX -= dx * (x - this.meanX);
+        this.sumOfSquaresY -= dy * (y - this.meanY);
+        this.sumOfProducts -= dx * (y - this.meanY);
+    }
+
+    /**
+     * Adds the pairs of another fit to this one.
+     *
+     * @param other  the other fit (<code>null</code> not permitted).
+     */
+    public void merge(IncrementalRegression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (this.count == 0) {
+            this.origin = other.origin;
+        }
+        long n = this.count + other.count;
+        double dx = other.meanX + (other.origin - this.origin) - this.meanX;
+        double dy = other.meanY - this.meanY;
+        double weight = (double) this.count * other.count / n;
+        this.sumOfSquaresX += other.sumOfSquaresX + dx * dx * weight;
+        this.sumOfSquaresY += other.sumOfSquaresY + dy * dy * weight;
+        this.sumOfProducts += other.sumOfProducts + dx * dy * weight;
+        this.meanX += dx * other.count / n;
+        this.meanY += dy * other.count / n;
+        this.count = n;
+    }
+
+    /**
+     * Removes all pairs.
+     */
+    public void clear() {
+        this.count = 0L;
+        this.origin = 0.0;
+        this.meanX = 0.0;
+        this.meanY = 0.0;
+        this.sumOfSquaresX = 0.0;
+        this.sumOfSquaresY = 0.0;
+        this.sumOfProducts = 0.0;
+    }
+
+    /**
+     * Returns the number of pairs in the fit.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the slope of the fitted line.
+     *
+     * @return The slope (<code>NaN</code> if there are fewer than two pairs
+     *     or the x-values are all the same).
+     */
+    public double getSlope() {
+        if (this.count < 2) {
+            return Double.NaN;
+        }
+        return this.sumOfProducts / this.sumOfSquaresX;
+    }
+
+    /**
+     * Returns the intercept of the fitted line.
+     *
+     * @return The intercept (<code>NaN</code> if there are fewer than two
+     *     pairs or the x-values are all the same).
+     */
+    public double getIntercept() {
+        return this.meanY - getSlope() * (this.origin + this.meanX);
+    }
+
+    /**
+     * Returns the coefficients of the fitted line in the same form as
+     * {@link Regression#getOLSRegression(double[][])}.
+     *
+     * @return An array holding the intercept and the slope.
+     */
+    public double[] getCoefficients() {
+        double slope = getSlope();
+        return new double[] {this.meanY - slope * (this.origin + this.meanX),
+                slope};
+    }
+
+    /**
+     * Returns the y-value of the fitted line at an x-value.
+     *
+     * @param x  the x-value.
+     *
+     * @return The y-value.
+     */
+    public double getValue(double x) {
+        return this.meanY + getSlope() * (x - this.origin - this.meanX);
+    }
+
+    /**
+     * Returns the coefficient of determination of the fit.
+     *
+     * @return The coefficient (<code>NaN</code> if there are fewer than two
+     *     pairs or either value is constant).
+     */
+    public double getRSquared() {
+        if (this.count < 2) {
+            return Double.NaN;
+        }
+        return this.sumOfProducts * this.sumOfProducts
+                / (this.sumOfSquaresX * this.sumOfSquaresY);
+    }
+
+    /**
+     * Returns a clone of the fit.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Random;
+
+public class IncrementalRegressionTest {
+
+    /**
+     * Returns n pairs on a noisy line, with x-values starting at x0.
+     */
+    private static double[][] noisyLine(int n, double x0, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[n][2];
+        for (int i = 0; i < n; i++) {
+            data[i][0] = x0 + i * 1000.0 + random.nextDouble();
+            data[i][1] = 3.0 + 0.002 * i * 1000.0 + random.nextGaussian();
+        }
+        return data;
+    }
+
+    /**
+     * Returns a copy of some of the rows of the data.
+     */
+    private static double[][] rows(double[][] data, int start, int end) {
+        double[][] result = new double[end - start][];
+        System.arraycopy(data, start, result, 0, result.length);
+        return result;
+    }
+
+    // ----------------------------
+    // getCoefficients()
+    // pairs: { EC1: added, EC2: added and the oldest removed, EC3: merged parts, EC4: fewer than two }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void matchesRegression() {
+        // setup
+        double[][] data = noisyLine(500, 0.0, 51L);
+        IncrementalRegression regression = new IncrementalRegression();
+
+        // exercise
+        for (int i = 0; i < data.length; i++) {
+            regression.add(data[i][0], data[i][1]);
+        }
+
+        // verify
+        double[] expected = Regression.getOLSRegression(data);
+        double[] actual = regression.getCoefficients();
+        assertEquals("The intercept should match", expected[0], actual[0], 1.0e-9);
+        assertEquals("The slope should match", expected[1], actual[1], 1.0e-12);
+        assertEquals("getIntercept() should match getCoefficients()", actual[0], regression.getIntercept(), 0.0);
+        assertEquals("getSlope() should match getCoefficients()", actual[1], regression.getSlope(), 0.0);
+    }
+
+    // EC2
+    @Test
+    public void slidingWindowMatchesRegression() {
+        // setup
+        double[][] data = noisyLine(2000, 1.2e12, 52L);
+        IncrementalRegression regression = new IncrementalRegression();
+        int window = 100;
+
+        // exercise
+        for (int i = 0; i < data.length; i++) {
+            regression.add(data[i][0], data[i][1]);
+            if (i >= window) {
+                regression.remove(data[i - window][0], data[i - window][1]);
+            }
+        }
+
+        // verify
+        // the raw sums of Regression lose precision for large x, so fit shifted x-values
+        double[][] last = rows(data, data.length - window, data.length);
+        double[][] shifted = new double[window][2];
+        for (int i = 0; i < window; i++) {
+            shifted[i][0] = last[i][0] - 1.2e12;
+            shifted[i][1] = last[i][1];
+        }
+        double[] expected = Regression.getOLSRegression(shifted);
+        assertEquals("The count should be the window size", window, regression.getCount());
+        assertEquals("The slope should match", expected[1], regression.getSlope(), 1.0e-9);
+        assertEquals("The fitted value should match", expected[0] + expected[1] * shifted[0][0],
+                regression.getValue(last[0][0]), 1.0e-6);
+    }
+
+    // EC3
+    @Test
+    public void mergedPartsMatchWhole() {
+        // setup
+        double[][] data = noisyLine(300, 0.0, 53L);
+        IncrementalRegression whole = new IncrementalRegression();
+        IncrementalRegression first = new IncrementalRegression();
+        IncrementalRegression second = new IncrementalRegression();
+        for (int i = 0; i < data.length; i++) {
+            whole.add(data[i][0], data[i][1]);
+            (i < 123 ? first : second).add(data[i][0], data[i][1]);
+        }
+
+        // exercise
+        first.merge(second);
+
+        // verify
+        assertEquals("The count should match", whole.getCount(), first.getCount());
+        assertEquals("The intercept should match", whole.getIntercept(), first.getIntercept(), 1.0e-9);
+        assertEquals("The slope should match", whole.getSlope(), first.getSlope(), 1.0e-12);
+        assertEquals("R squared should match", whole.getRSquared(), first.getRSquared(), 1.0e-12);
+    }
+
+    // EC4
+    @Test
+    public void fewerThanTwoPairsHaveNoLine() {
+        // setup
+        IncrementalRegression regression = new IncrementalRegression();
+
+        // exercise
+        regression.add(1.0, 2.0);
+        regression.add(Double.NaN, 3.0);
+        regression.add(2.0, 5.0);
+        regression.remove(2.0, 5.0);
+
+        // verify
+        assertEquals("The NaN pair should be skipped", 1L, regression.getCount());
+        assertTrue("The slope should be NaN", Double.isNaN(regression.getSlope()));
+        assertTrue("The intercept should be NaN", Double.isNaN(regression.getIntercept()));
+    }
+
+}
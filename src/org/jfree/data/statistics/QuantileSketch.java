@@ -0,0 +1,324 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * An approximate summary of a stream of values that estimates the median
+ * and other quantiles in one pass and in bounded memory.  Sketches built
+ * from parts of the data, for example on different threads, can be merged
+ * with {@link #merge(QuantileSketch)}.
+ * <p>
+ * The sketch keeps up to <code>capacity</code> values at each of a number
+ * of levels; a value at level <i>h</i> stands for 2<sup><i>h</i></sup>
+ * values of the stream.  When a level fills up it is sorted and every other
+ * value is moved up a level, so the memory used grows with the logarithm of
+ * the number of values.  Until the first level fills up the sketch holds
+ * every value and its quantiles are exact: the median is then the same as
+ * {@link Statistics#calculateMedian(java.util.List)}.  After that the rank
+ * of an estimate is typically within a fraction of a percent of the rank
+ * requested for the default capacity, and larger capacities are more
+ * accurate.  The result depends only on the order in which values are
+ * added and sketches merged.  The smallest and largest values are always
+ * kept, so the 0.0 and 1.0 quantiles are exact.
+ * <p>
+ * <code>NaN</code> values are ignored.
+ */
+public class QuantileSketch implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4729131180516327791L;
+
+    /** The default number of values kept at each level. */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    /** The number of values kept at each level. */
+    private int capacity;
+
+    /** The values at each level (only the first sizes[h] are used). */
+    private double[][] levels;
+
+    /** The number of values at each level. */
+    private int[] sizes;
+
+    /** The number of values added. */
+    private long count;
+
+    /** The number of compactions, used to alternate which values move up. */
+    private long compactions;
+
+    /** The smallest value added. */
+    private double minimum;
+
+    /** The largest value added. */
+    private double maximum;
+
+    /**
+     * Creates an empty sketch with the default capacity.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param capacity  the number of values kept at each level (at least 2).
+     */
+    public QuantileSketch(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Requires capacity >= 2.");
+        }
+        this.capacity = capacity;
+        this.levels = new double[1][capacity];
+        this.sizes = new int[1];
+        this.minimum = Double.POSITIVE_INFINITY;
+        this.maximum = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of values kept at each level.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the number of values added, not counting <code>NaN</code>.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns <code>true</code> if the sketch still holds every value, so
+     * that its quantiles are exact.
+     *
+     * @return A boolean.
+     */
+    public boolean isExact() {
+        return this.levels.length == 1;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value (<code>NaN</code> is ignored).
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        this.count++;
+        this.minimum = Math.min(this.minimum, value);
+        this.maximum = Math.max(this.maximum, value);
+        append(0, value);
+        compact(0);
+    }
+
+    /**
+     * Adds the values of another sketch to this one.
+     *
+     * @param other  the other sketch (<code>null</code> not permitted).
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        int height = other.levels.length;
+        double[][] source = new double[height][];
+        int[] sourceSizes = new int[height];
+        for (int h = 0; h < height; h++) {
+            // copy first, in case other is this sketch
+            source[h] = (double[]) other.levels[h].clone();
+            sourceSizes[h] = other.sizes[h];
+        }
+        this.count += other.count;
+        this.minimum = Math.min(this.minimum, other.minimum);
+        this.maximum = Math.max(this.maximum, other.maximum);
+        for (int h = 0; h < height; h++) {
+            for (int i = 0; i < sourceSizes[h]; i++) {
+                append(h, source[h][i]);
+            }
+        }
+        for (int h = 0; h < this.levels.length; h++) {
+            compact(h);
+        }
+    }
+
+    /**
+     * Returns an estimate of the median, which is exact while
+     * {@link #isExact()} returns <code>true</code>.
+     *
+     * @return The median (<code>NaN</code> if no values have been added).
+     */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * Returns an estimate of a quantile.  The quantile is found by linear
+     * interpolation between the two values whose ranks are nearest to
+     * <code>p * (count - 1)</code>, so that the 0.5 quantile of an even
+     * number of values is the mean of the two middle values.
+     *
+     * @param p  the probability (in the range 0.0 to 1.0).
+     *
+     * @return The quantile (<code>NaN</code> if no values have been added).
+     */
+    public double getQuantile(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 0.0 <= p <= 1.0.");
+        }
+        if (this.count == 0) {
+            return Double.NaN;
+        }
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        for (int h = 0; h < this.levels.length; h++) {
+            double[] level = new double[this.sizes[h]];
+            System.arraycopy(this.levels[h], 0, level, 0, level.length);
+            Arrays.sort(level);
+            double[] mergedValues = new double[values.length + level.length];
+            long[] mergedWeights = new long[mergedValues.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < mergedValues.length; k++) {
+                if (j == level.length
+                        || (i < values.length && values[i] <= level[j])) {
+                    mergedValues[k] = values[i];
+                    mergedWeights[k] = weights[i++];
+                }
+                else {
+                    mergedValues[k] = level[j++];
+                    mergedWeights[k] = 1L << h;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+        double position = p * (this.count - 1);
+        long lowerRank = (long) Math.floor(position);
+        double lower = valueAtRank(values, weights, lowerRank);
+        if (position == lowerRank) {
+            return lower;
+        }
+        double upper = valueAtRank(values, weights, lowerRank + 1);
+        double fraction = position - lowerRank;
+        return lower * (1.0 - fraction) + upper * fraction;
+    }
+
+    /**
+     * Returns a clone of the sketch.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        QuantileSketch clone = (QuantileSketch) super.clone();
+        clone.levels = new double[this.levels.length][];
+        for (int h = 0; h < this.levels.length; h++) {
+            clone.levels[h] = (double[]) this.levels[h].clone();
+        }
+        clone.sizes = (int[]) this.sizes.clone();
+        return clone;
+    }
+
+    /**
+     * Appends a value to a level, adding the level and growing its storage
+     * as needed.
+     *
+     * @param level  the level.
+     * @param value  the value.
+     */
+    private void append(int level, double value) {
+        if (level >= this.levels.length) {
+            double[][] newLevels = new double[level + 1][];
+            System.arraycopy(this.levels, 0, newLevels, 0,
+                    this.levels.length);
+            for (int h = this.levels.length; h <= level; h++) {
+                newLevels[h] = new double[this.capacity];
+            }
+            int[] newSizes = new int[level + 1];
+            System.arraycopy(this.sizes, 0, newSizes, 0, this.sizes.length);
+            this.levels = newLevels;
+            this.sizes = newSizes;
+        }
+        double[] values = this.levels[level];
+        int size = this.sizes[level];
+        if (size == values.length) {
+            double[] grown = new double[2 * size];
+            System.arraycopy(values, 0, grown, 0, size);
+            this.levels[level] = grown;
+            values = grown;
+        }
+        values[size] = value;
+        this.sizes[level] = size + 1;
+    }
+
+    /**
+     * Halves a level, and the levels above it, while they are full.  The
+     * values of a full level are sorted and every other one is moved up a
+     * level; with an odd number of values the largest stays behind.
+     *
+     * @param level  the level.
+     */
+    private void compact(int level) {
+        for (int h = level; h < this.levels.length
+                && this.sizes[h] >= this.capacity; h++) {
+            double[] values = this.levels[h];
+            int size = this.sizes[h];
+            Arrays.sort(values, 0, size);
+            int pairs = size / 2;
+            int offset = (int) (this.compactions++ & 1L);
+            for (int i = 0; i < pairs; i++) {
+                append(h + 1, values[2 * i + offset]);
+            }
+            values = this.levels[h];
+            if (size % 2 == 1) {
+                values[0] = values[size - 1];
+                this.sizes[h] = 1;
+            }
+            else {
+                this.sizes[h] = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the value at a rank, counting each value by its weight.  The
+     * smallest and largest values are always exact.
+     *
+     * @param values  the values, in ascending order.
+     * @param weights  the weights.
+     * @param rank  the rank (zero-based).
+     *
+     * @return The value.
+     */
+    private double valueAtRank(double[] values, long[] weights, long rank) {
+        if (rank == 0) {
+            return this.minimum;
+        }
+        if (rank == this.count - 1) {
+            return this.maximum;
+        }
+        long cumulative = 0L;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (cumulative > rank) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class QuantileSketchTest {
+
+    /**
+     * Returns the fraction of the sorted values that are below a value.
+     */
+    private static double rankOf(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (double) index / sorted.length;
+    }
+
+    // ----------------------------
+    // getQuantile(double p)
+    // values: { EC1: fewer than the capacity, EC2: many more than the capacity, EC3: none }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void exactWhileSmall() {
+        // setup
+        QuantileSketch sketch = new QuantileSketch();
+        List list = new ArrayList();
+        Random random = new Random(31);
+
+        for (int i = 0; i < 300; i++) {
+            // exercise
+            double value = random.nextGaussian();
+            sketch.add(value);
+            list.add(new Double(value));
+
+            // verify
+            assertTrue("The sketch should be exact", sketch.isExact());
+            assertEquals("The median should match Statistics", Statistics.calculateMedian(list, true),
+                    sketch.getMedian(), 0.0);
+        }
+    }
+
+    // EC2
+    @Test
+    public void approximateRankWhenLarge() {
+        // setup
+        QuantileSketch sketch = new QuantileSketch();
+        Random random = new Random(32);
+        double[] values = new double[200000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+        }
+
+        // exercise
+        for (int i = 0; i < values.length; i++) {
+            sketch.add(values[i]);
+        }
+
+        // verify
+        Arrays.sort(values);
+        assertFalse("The sketch should no longer be exact", sketch.isExact());
+        assertEquals("The count should match", 200000L, sketch.getCount());
+        double[] probabilities = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+        for (int i = 0; i < probabilities.length; i++) {
+            double p = probabilities[i];
+            assertEquals("The rank of the " + p + " quantile should be close", p,
+                    rankOf(values, sketch.getQuantile(p)), 0.01);
+        }
+        assertEquals("The 0 quantile should be the minimum", values[0], sketch.getQuantile(0.0), 0.0);
+        assertEquals("The 1 quantile should be the maximum", values[values.length - 1], sketch.getQuantile(1.0),
+                0.0);
+    }
+
+    // EC3
+    @Test
+    public void emptySketchHasNoMedian() {
+        // verify
+        assertTrue("The median should be NaN", Double.isNaN(new QuantileSketch().getMedian()));
+    }
+
+    @Test
+    public void mergedSketchesApproximateWhole() {
+        // setup
+        Random random = new Random(33);
+        double[] values = new double[100000];
+        QuantileSketch merged = new QuantileSketch();
+        QuantileSketch part = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+            part.add(values[i]);
+            if (i % 10000 == 9999) {
+                // exercise
+                merged.merge(part);
+                part = new QuantileSketch();
+            }
+        }
+
+        // verify
+        Arrays.sort(values);
+        assertEquals("The count should match", 100000L, merged.getCount());
+        assertEquals("The rank of the median should be close", 0.5, rankOf(values, merged.getMedian()), 0.01);
+    }
+
+    @Test
+    public void nanValuesAreIgnored() {
+        // setup
+        QuantileSketch sketch = new QuantileSketch();
+
+        // exercise
+        sketch.add(1.0);
+        sketch.add(Double.NaN);
+        sketch.add(3.0);
+
+        // verify
+        assertEquals("NaN should not be counted", 2L, sketch.getCount());
+        assertEquals("The median should ignore NaN", 2.0, sketch.getMedian(), .000000001d);
+    }
+
+    @Test
+    public void cloneIsIndependent() throws CloneNotSupportedException {
+        // setup
+        QuantileSketch sketch = new QuantileSketch(4);
+        for (int i = 0; i < 20; i++) {
+            sketch.add(i);
+        }
+        double median = sketch.getMedian();
+
+        // exercise
+        QuantileSketch clone = (QuantileSketch) sketch.clone();
+        clone.add(1000.0);
+
+        // verify
+        assertEquals("The original should be unchanged", median, sketch.getMedian(), 0.0);
+        assertEquals("The clone should count the new value", 21L, clone.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectProbabilityAboveOne() {
+        // exercise
+        new QuantileSketch().getQuantile(1.5);
+    }
+
+}
@@ -0,0 +1,382 @@
+package org.jfree.data.statistics;
+
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.jfree.data.xy.XYSeries;
+
+/**
+ * A least squares line fitted to the items of an {@link XYSeries}, or to
+ * its last <code>window</code> items, that listens to the series and is
+ * kept current as items are appended.  Appending an item updates the fit in
+ * constant time through an {@link IncrementalRegression}, removing the
+ * item that leaves the window; after any other change the fit is made
+ * again from the items in the window the next time it is requested.
+ * <p>
+ * A change is taken to be an append when the previous last item (the same
+ * x- and y-value) is still at its index and the item count has grown, or,
+ * for a series at its maximum item count, when the previous last item has
+ * moved towards the start as the oldest items were dropped.  Other changes
+ * that keep the item count, and removals, cause the fit to be made again.
+ * A change that cannot be told apart from an append should be followed by
+ * a call to {@link #invalidate()}.
+ * <p>
+ * The fit must receive each event before any listener that asks it for the
+ * line, so create it after those listeners have been registered (listeners
+ * are notified in the reverse of the order in which they were added).  It
+ * also checks the series whenever it is queried, so a listener notified
+ * too early still sees appended items, but the fit is then made again
+ * after every change.
+ */
+public class SeriesRegression implements SeriesChangeListener {
+
+    /** The series. */
+    private XYSeries series;
+
+    /** The maximum number of items in the fit. */
+    private int window;
+
+    /** The fit. */
+    private IncrementalRegression regression;
+
+    /** The x-values in the fit, oldest first, in a circular buffer. */
+    private double[] xValues;
+
+    /** The y-values in the fit, oldest first, in a circular buffer. */
+    private double[] yValues;
+
+    /** The index of the oldest value in the buffers. */
+    private int head;
+
+    /** The number of values in the buffers. */
+    private int size;
+
+    /** The number of removals since the fit was last made from scratch. */
+    private int removals;
+
+    /** The item count of the series when the fit was last updated. */
+    private int itemCount;
+
+    /** A flag that is set when the fit must be made again. */
+    private boolean dirty;
+
+    /**
+     * Creates a fit to all the items of a series and registers it as a
+     * listener with the series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public SeriesRegression(XYSeries series) {
+        this(series, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a fit to the last <code>window</code> items of a series and
+     * registers it as a listener with the series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     * @param window  the maximum number of items in the fit (at least 2).
+     */
+    public SeriesRegression(XYSeries series, int window) {
+        if (series == null) {
+            throw new IllegalArgumentException("Null 'series' argument.");
+        }
+        if (window < 2) {
+            throw new IllegalArgumentException("Requires window >= 2.");
+        }
+        this.series = series;
+        this.window = window;
+        this.regression = new IncrementalRegression();
+        this.xValues = new double[16];
+        this.yValues = new double[16];
+        this.dirty = true;
+        series.addChangeListener(this);
+    }
+
+    /**
+     * Returns the series.
+     *
+     * @return The series.
+     */
+    public XYSeries getSeries() {
+        return this.series;
+    }
+
+    /**
+     * Returns the maximum number of items in the fit.
+     *
+     * @return The window size (<code>Integer.MAX_VALUE</code> if the fit
+     *     covers the whole series).
+     */
+    public int getWindow() {
+        return this.window;
+    }
+
+    /**
+     * Returns the number of items in the fit, not counting items with a
+     * <code>null</code> or <code>NaN</code> value.
+     *
+     * @return The count.
+     */
+    public synchronized long getCount() {
+        update();
+        return this.regression.getCount();
+    }
+
+    /**
+     * Returns the slope of the fitted line.
+     *
+     * @return The slope (<code>NaN</code> if there are fewer than two items
+     *     in the fit).
+     */
+    public synchronized double getSlope() {
+        update();
+        return this.regression.getSlope();
+    }
+
+    /**
+     * Returns the intercept of the fitted line.
+     *
+     * @return The intercept (<code>NaN</code> if there are fewer than two
+     *     items in the fit).
+     */
+    public synchronized double getIntercept() {
+        update();
+        return this.regression.getIntercept();
+    }
+
+    /**
+     * Returns the coefficients of the fitted line in the same form as
+     * {@link Regression#getOLSRegression(org.jfree.data.xy.XYDataset, int)}.
+     *
+     * @return An array holding the intercept and the slope.
+     */
+    public synchronized double[] getCoefficients() {
+        update();
+        return this.regression.getCoefficients();
+    }
+
+    /**
+     * Returns the y-value of the fitted line at an x-value.
+     *
+     * @param x  the x-value.
+     *
+     * @return The y-value.
+     */
+    public synchronized double getValue(double x) {
+        update();
+        return this.regression.getValue(x);
+    }
+
+    /**
+     * Marks the fit to be made again from the series the next time it is
+     * requested.
+     */
+    public synchronized void invalidate() {
+        this.dirty = true;
+    }
+
+    /**
+     * Stops listening to the series.  The fit should not be used
+     * afterwards.
+     */
+    public void dispose() {
+        this.series.removeChangeListener(this);
+    }
+
+    /**
+     * Updates the fit for items appended to the series, or marks it to be
+     * made again after any other change.
+     *
+     * @param event  the change event.
+     */
+    public synchronized void seriesChanged(SeriesChangeEvent event) {
+        if (this.dirty) {
+            return;
+        }
+        int appended = appendedItemCount();
+        if (appended <= 0) {
+            this.dirty = true;
+        }
+        else {
+            includeAppendedItems(appended);
+        }
+    }
+
+    /**
+     * Brings the fit up to date.
+     */
+    private void update() {
+        if (!this.dirty) {
+            int appended = appendedItemCount();
+            if (appended > 0) {
+                includeAppendedItems(appended);
+            }
+            else if (appended < 0) {
+                this.dirty = true;
+            }
+        }
+        if (this.dirty) {
+            refit();
+        }
+    }
+
+    /**
+     * Returns the number of items appended to the series since the fit was
+     * last updated.
+     *
+     * @return The number of items, zero if the series looks unchanged, or
+     *     -1 if it changed in some other way.
+     */
+    private int appendedItemCount() {
+        int count = this.series.getItemCount();
+        if (this.size == 0) {
+            return count == this.itemCount ? 0 : -1;
+        }
+        int last = (this.head + this.size - 1) % this.xValues.length;
+        double lastX = this.xValues[last];
+        double lastY = this.yValues[last];
+        if (count >= this.itemCount && isItem(this.itemCount - 1, lastX,
+                lastY)) {
+            return count - this.itemCount;
+        }
+        if (count == this.series.getMaximumItemCount()) {
+            // the oldest items were dropped as new ones were added
+            for (int i = count - 2; i >= 0; i--) {
+                if (isItem(i, lastX, lastY)) {
+                    return count - 1 - i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns <code>true</code> if an item of the series has the given x-
+     * and y-values.
+     *
+     * @param item  the item index.
+     * @param x  the x-value.
+     * @param y  the y-value.
+     *
+     * @return A boolean.
+     */
+    private boolean isItem(int item, double x, double y) {
+        if (item < 0 || item >= this.series.getItemCount()) {
+            return false;
+        }
+        return same(x, xValue(item)) && same(y, yValue(item));
+    }
+
+    /**
+     * Adds the last <code>appended</code> items of the series to the fit
+     * and removes the items that leave the window.
+     *
+     * @param appended  the number of items appended.
+     */
+    private void includeAppendedItems(int appended) {
+        int count = this.series.getItemCount();
+        for (int i = Math.max(count - appended, count - this.window);
+                i < count; i++) {
+            push(xValue(i), yValue(i));
+        }
+        int target = Math.min(this.window, count);
+        while (this.size > target) {
+            this.regression.remove(this.xValues[this.head],
+                    this.yValues[this.head]);
+            this.head = (this.head + 1) % this.xValues.length;
+            this.size--;
+            this.removals++;
+        }
+        this.itemCount = count;
+        if (this.removals > Math.max(this.size, 16)) {
+            // bound the rounding error left behind by the removals
+            this.regression.clear();
+            for (int i = 0; i < this.size; i++) {
+                int j = (this.head + i) % this.xValues.length;
+                this.regression.add(this.xValues[j], this.yValues[j]);
+            }
+            this.removals = 0;
+        }
+    }
+
+    /**
+     * Makes the fit again from the items in the window.
+     */
+    private void refit() {
+        this.regression.clear();
+        this.head = 0;
+        this.size = 0;
+        this.removals = 0;
+        int count = this.series.getItemCount();
+        for (int i = Math.max(0, count - this.window); i < count; i++) {
+            push(xValue(i), yValue(i));
+        }
+        this.itemCount = count;
+        this.dirty = false;
+    }
+
+    /**
+     * Adds an item to the end of the buffers and to the fit, growing the
+     * buffers if they are full.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value.
+     */
+    private void push(double x, double y) {
+        if (this.size == this.xValues.length) {
+            int capacity = this.size * 2;
+            double[] newX = new double[capacity];
+            double[] newY = new double[capacity];
+            for (int i = 0; i < this.size; i++) {
+                int j = (this.head + i) % this.xValues.length;
+                newX[i] = this.xValues[j];
+                newY[i] = this.yValues[j];
+            }
+            this.xValues = newX;
+            this.yValues = newY;
+            this.head = 0;
+        }
+        int tail = (this.head + this.size) % this.xValues.length;
+        this.xValues[tail] = x;
+        this.yValues[tail] = y;
+        this.size++;
+        this.regression.add(x, y);
+    }
+
+    /**
+     * Returns the x-value of an item.
+     *
+     * @param item  the item index.
+     *
+     * @return The x-value.
+     */
+    private double xValue(int item) {
+        return this.series.getX(item).doubleValue();
+    }
+
+    /**
+     * Returns the y-value of an item.
+     *
+     * @param item  the item index.
+     *
+     * @return The y-value (<code>NaN</code> for a <code>null</code> value).
+     */
+    private double yValue(int item) {
+        Number y = this.series.getY(item);
+        return y != null ? y.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Returns <code>true</code> if two values are the same, counting
+     * <code>NaN</code> as the same as itself.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     *
+     * @return A boolean.
+     */
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+import java.util.Random;
+
+public class SeriesRegressionTest {
+
+    /**
+     * Returns the coefficients of Regression for the last items of a series.
+     */
+    private static double[] expected(XYSeries series, int window) {
+        int count = series.getItemCount();
+        int start = Math.max(0, count - window);
+        XYSeries copy = new XYSeries("copy", false, true);
+        for (int i = start; i < count; i++) {
+            copy.add(series.getX(i), series.getY(i));
+        }
+        return Regression.getOLSRegression(new XYSeriesCollection(copy), 0);
+    }
+
+    // ----------------------------
+    // getCoefficients()
+    // series: { EC1: appended items, EC2: appended items past the window, EC3: items dropped at the
+    //           maximum item count, EC4: an updated value, EC5: random changes }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void appendedItemsUpdateFit() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        series.add(0.0, 1.0);
+        series.add(1.0, 3.0);
+        SeriesRegression fit = new SeriesRegression(series);
+        fit.getSlope();
+
+        // exercise
+        series.add(2.0, 5.0);
+        series.add(3.0, 7.5);
+
+        // verify
+        double[] expected = expected(series, Integer.MAX_VALUE);
+        assertEquals("The count should include the new items", 4L, fit.getCount());
+        assertEquals("The intercept should match", expected[0], fit.getIntercept(), .000000001d);
+        assertEquals("The slope should match", expected[1], fit.getSlope(), .000000001d);
+    }
+
+    // EC2
+    @Test
+    public void windowKeepsLastItems() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        SeriesRegression fit = new SeriesRegression(series, 10);
+        Random random = new Random(61L);
+
+        // exercise
+        for (int i = 0; i < 100; i++) {
+            series.add(i, i * i + random.nextGaussian());
+        }
+
+        // verify
+        double[] expected = expected(series, 10);
+        assertEquals("The count should be the window size", 10L, fit.getCount());
+        assertEquals("The intercept should match", expected[0], fit.getIntercept(), 1.0e-7);
+        assertEquals("The slope should match", expected[1], fit.getSlope(), 1.0e-9);
+    }
+
+    // EC3
+    @Test
+    public void droppedItemsLeaveFit() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        series.setMaximumItemCount(20);
+        SeriesRegression fit = new SeriesRegression(series);
+
+        // exercise
+        for (int i = 0; i < 50; i++) {
+            series.add(i, (i % 7) * 2.0);
+        }
+
+        // verify
+        double[] expected = expected(series, Integer.MAX_VALUE);
+        assertEquals("The count should be the maximum item count", 20L, fit.getCount());
+        assertEquals("The intercept should match", expected[0], fit.getIntercept(), .000000001d);
+        assertEquals("The slope should match", expected[1], fit.getSlope(), .000000001d);
+    }
+
+    // EC4
+    @Test
+    public void updatedValueRefitsLine() {
+        // setup
+        XYSeries series = new XYSeries("S");
+        for (int i = 0; i < 10; i++) {
+            series.add(i, 2.0 * i);
+        }
+        SeriesRegression fit = new SeriesRegression(series);
+        fit.getSlope();
+
+        // exercise
+        series.updateByIndex(0, new Double(10.0));
+
+        // verify
+        double[] expected = expected(series, Integer.MAX_VALUE);
+        assertEquals("The slope should reflect the update", expected[1], fit.getSlope(), .000000001d);
+    }
+
+    // EC5
+    @Test
+    public void randomChangesMatchRegression() {
+        // setup
+        XYSeries series = new XYSeries("S", false, true);
+        series.setMaximumItemCount(60);
+        SeriesRegression fit = new SeriesRegression(series, 25);
+        Random random = new Random(62L);
+        double x = 0.0;
+
+        for (int step = 0; step < 500; step++) {
+            // exercise
+            int action = random.nextInt(10);
+            if (action < 7 || series.getItemCount() < 3) {
+                x += random.nextDouble();
+                series.add(x, random.nextGaussian());
+            }
+            else if (action < 8) {
+                series.remove(random.nextInt(series.getItemCount()));
+            }
+            else {
+                series.updateByIndex(random.nextInt(series.getItemCount()), new Double(random.nextGaussian()));
+            }
+
+            // verify
+            if (series.getItemCount() >= 2) {
+                double[] expected = expected(series, 25);
+                assertEquals("The slope should match at step " + step, expected[1], fit.getSlope(), 1.0e-8);
+            }
+        }
+    }
+
+}
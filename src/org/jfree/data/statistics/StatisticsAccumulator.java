@@ -0,0 +1,262 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * Summarizes a stream of values in one pass: the count, mean, variance,
+ * standard deviation, minimum and maximum, and optionally the median and
+ * other quantiles through a {@link QuantileSketch}.  The mean and variance
+ * are updated with Welford's method, which stays accurate for values with
+ * a large mean.  Accumulators filled from parts of the data, for example on
+ * different threads, can be combined with
+ * {@link #merge(StatisticsAccumulator)}; an accumulator is not itself
+ * thread-safe.
+ * <p>
+ * The results agree, within rounding, with
+ * {@link Statistics#calculateMean(Number[])} and
+ * {@link Statistics#getStdDev(Number[])}, which make a separate pass over
+ * the data each.  <code>null</code> and <code>NaN</code> values are
+ * skipped.
+ */
+public class StatisticsAccumulator implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2950386217406148312L;
+
+    /** The number of values. */
+    private long count;
+
+    /** The mean of the values. */
+    private double mean;
+
+    /** The sum of the squared differences from the mean. */
+    private double sumOfSquares;
+
+    /** The smallest value. */
+    private double minimum;
+
+    /** The largest value. */
+    private double maximum;
+
+    /** The quantile sketch (<code>null</code> if quantiles are not kept). */
+    private QuantileSketch sketch;
+
+    /**
+     * Creates an empty accumulator that does not keep quantiles.
+     */
+    public StatisticsAccumulator() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param quantiles  a flag that controls whether the values are also
+     *     added to a {@link QuantileSketch} with the default capacity, so
+     *     that {@link #getMedian()} and {@link #getQuantile(double)} can be
+     *     used.
+     */
+    public StatisticsAccumulator(boolean quantiles) {
+        this.minimum = Double.POSITIVE_INFINITY;
+        this.maximum = Double.NEGATIVE_INFINITY;
+        if (quantiles) {
+            this.sketch = new QuantileSketch();
+        }
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value (<code>NaN</code> is skipped).
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.sumOfSquares += delta * (value - this.mean);
+        if (value < this.minimum) {
+            this.minimum = value;
+        }
+        if (value > this.maximum) {
+            this.maximum = value;
+        }
+        if (this.sketch != null) {
+            this.sketch.add(value);
+        }
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value (<code>null</code> is skipped).
+     */
+    public void add(Number value) {
+        if (value != null) {
+            add(value.doubleValue());
+        }
+    }
+
+    /**
+     * Adds the values in an array.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     */
+    public void add(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        for (int i = 0; i < values.length; i++) {
+            add(values[i]);
+        }
+    }
+
+    /**
+     * Adds the values of another accumulator to this one.  Quantiles are
+     * only kept afterwards if both accumulators keep them.
+     *
+     * @param other  the other accumulator (<code>null</code> not permitted).
+     */
+    public void merge(StatisticsAccumulator other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        if (this.sketch != null) {
+            if (other.sketch != null) {
+                this.sketch.merge(other.sketch);
+            }
+            else if (other.count > 0) {
+                this.sketch = null;
+            }
+        }
+        if (other.count == 0) {
+            return;
+        }
+        long n = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.sumOfSquares += other.sumOfSquares
+                + delta * delta * ((double) this.count * other.count / n);
+        this.mean += delta * other.count / n;
+        this.count = n;
+        this.minimum = Math.min(this.minimum, other.minimum);
+        this.maximum = Math.max(this.maximum, other.maximum);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return The mean (<code>NaN</code> if there are no values).
+     */
+    public double getMean() {
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    /**
+     * Returns the sample variance of the values (dividing by n - 1).
+     *
+     * @return The variance (<code>NaN</code> if there are fewer than two
+     *     values).
+     */
+    public double getVariance() {
+        return this.count < 2 ? Double.NaN
+                : this.sumOfSquares / (this.count - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation of the values, as
+     * {@link Statistics#getStdDev(Number[])} does.
+     *
+     * @return The standard deviation (<code>NaN</code> if there are fewer
+     *     than two values).
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return The minimum (<code>NaN</code> if there are no values).
+     */
+    public double getMinimum() {
+        return this.count == 0 ? Double.NaN : this.minimum;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return The maximum (<code>NaN</code> if there are no values).
+     */
+    public double getMaximum() {
+        return this.count == 0 ? Double.NaN : this.maximum;
+    }
+
+    /**
+     * Returns <code>true</code> if the accumulator keeps quantiles.
+     *
+     * @return A boolean.
+     */
+    public boolean hasQuantiles() {
+        return this.sketch != null;
+    }
+
+    /**
+     * Returns an estimate of the median (see {@link QuantileSketch}).
+     *
+     * @return The median (<code>NaN</code> if there are no values).
+     *
+     * @throws IllegalStateException if the accumulator does not keep
+     *     quantiles.
+     */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * Returns an estimate of a quantile (see
+     * {@link QuantileSketch#getQuantile(double)}).
+     *
+     * @param p  the probability (in the range 0.0 to 1.0).
+     *
+     * @return The quantile (<code>NaN</code> if there are no values).
+     *
+     * @throws IllegalStateException if the accumulator does not keep
+     *     quantiles.
+     */
+    public double getQuantile(double p) {
+        if (this.sketch == null) {
+            throw new IllegalStateException("Quantiles are not kept.");
+        }
+        return this.sketch.getQuantile(p);
+    }
+
+    /**
+     * Returns a clone of the accumulator.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        StatisticsAccumulator clone = (StatisticsAccumulator) super.clone();
+        if (this.sketch != null) {
+            clone.sketch = (QuantileSketch) this.sketch.clone();
+        }
+        return clone;
+    }
+
+}
@@ -0,0 +1,238 @@
+package org.jfree.data.statistics;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DefaultKeyedValues2D;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class StatisticsAccumulatorTest {
+
+    /**
+     * Returns the values as an array of Number.
+     */
+    private static Number[] toNumbers(double[] values) {
+        Number[] result = new Number[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = new Double(values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns random values with a large mean, which a naive variance formula handles badly.
+     */
+    private static double[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        double[] result = new double[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = 1.0e6 + random.nextGaussian() * 3.0;
+        }
+        return result;
+    }
+
+    // ----------------------------
+    // getMean() / getStdDev() / getMinimum() / getMaximum() / getMedian()
+    // values: { EC1: many values, EC2: one value, EC3: no values, EC4: null and NaN values }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void matchesStatistics() {
+        // setup
+        double[] values = randomValues(501, 21L);
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+
+        // exercise
+        accumulator.add(values);
+
+        // verify
+        Number[] numbers = toNumbers(values);
+        double[] sorted = (double[]) values.clone();
+        Arrays.sort(sorted);
+        assertEquals("The count should match", 501L, accumulator.getCount());
+        assertEquals("The mean should match", Statistics.calculateMean(numbers), accumulator.getMean(), 1.0e-7);
+        assertEquals("The standard deviation should match", Statistics.getStdDev(numbers), accumulator.getStdDev(),
+                1.0e-7);
+        assertEquals("The minimum should match", sorted[0], accumulator.getMinimum(), 0.0);
+        assertEquals("The maximum should match", sorted[500], accumulator.getMaximum(), 0.0);
+        assertEquals("The median should match", Statistics.calculateMedian(Arrays.asList(numbers)),
+                accumulator.getMedian(), 0.0);
+    }
+
+    // EC2
+    @Test
+    public void oneValue() {
+        // setup
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+
+        // exercise
+        accumulator.add(4.0);
+
+        // verify
+        assertEquals("The mean should be the value", 4.0, accumulator.getMean(), .000000001d);
+        assertTrue("The standard deviation should be NaN, as in Statistics",
+                Double.isNaN(accumulator.getStdDev()));
+        assertEquals("The median should be the value", 4.0, accumulator.getMedian(), .000000001d);
+    }
+
+    // EC3
+    @Test
+    public void noValues() {
+        // setup
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+
+        // verify
+        assertTrue("The mean should be NaN", Double.isNaN(accumulator.getMean()));
+        assertTrue("The minimum should be NaN", Double.isNaN(accumulator.getMinimum()));
+        assertTrue("The median should be NaN", Double.isNaN(accumulator.getMedian()));
+    }
+
+    // EC4
+    @Test
+    public void nullAndNaNValuesAreSkipped() {
+        // setup
+        StatisticsAccumulator accumulator = new StatisticsAccumulator();
+
+        // exercise
+        accumulator.add(new Double(1.0));
+        accumulator.add((Number) null);
+        accumulator.add(Double.NaN);
+        accumulator.add(new Double(3.0));
+
+        // verify
+        assertEquals("Only two values should be counted", 2L, accumulator.getCount());
+        assertEquals("The mean should skip null and NaN", 2.0, accumulator.getMean(), .000000001d);
+    }
+
+    // ----------------------------
+    // merge(StatisticsAccumulator other)
+    // other: { EC1: part of the data, EC2: empty, EC3: without quantiles }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void mergedPartsMatchWhole() {
+        // setup
+        double[] values = randomValues(10000, 22L);
+        StatisticsAccumulator whole = new StatisticsAccumulator(true);
+        whole.add(values);
+        StatisticsAccumulator merged = new StatisticsAccumulator(true);
+
+        // exercise
+        for (int part = 0; part < 4; part++) {
+            StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+            accumulator.add(Arrays.copyOfRange(values, part * 2500, (part + 1) * 2500));
+            merged.merge(accumulator);
+        }
+
+        // verify
+        assertEquals("The count should match", whole.getCount(), merged.getCount());
+        assertEquals("The mean should match", whole.getMean(), merged.getMean(), 1.0e-7);
+        assertEquals("The standard deviation should match", whole.getStdDev(), merged.getStdDev(), 1.0e-7);
+        assertEquals("The minimum should match", whole.getMinimum(), merged.getMinimum(), 0.0);
+        assertEquals("The maximum should match", whole.getMaximum(), merged.getMaximum(), 0.0);
+        assertEquals("The median should be close", whole.getMedian(), merged.getMedian(), 0.1);
+    }
+
+    // EC2
+    @Test
+    public void mergeEmptyChangesNothing() {
+        // setup
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+        accumulator.add(new double[] {1.0, 2.0, 6.0});
+
+        // exercise
+        accumulator.merge(new StatisticsAccumulator());
+
+        // verify
+        assertEquals("The mean should be unchanged", 3.0, accumulator.getMean(), .000000001d);
+        assertTrue("Quantiles should still be kept", accumulator.hasQuantiles());
+    }
+
+    // EC3
+    @Test
+    public void mergeWithoutQuantilesDropsQuantiles() {
+        // setup
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(true);
+        StatisticsAccumulator other = new StatisticsAccumulator();
+        other.add(1.0);
+
+        // exercise
+        accumulator.merge(other);
+
+        // verify
+        assertFalse("Quantiles should no longer be kept", accumulator.hasQuantiles());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectMedianWithoutQuantiles() {
+        // exercise
+        new StatisticsAccumulator().getMedian();
+    }
+
+    // ----------------------------
+    // StreamingStatistics
+    // ----------------------------
+
+    @Test
+    public void parallelSummaryMatchesSequential() {
+        // setup
+        double[] values = randomValues(300000, 23L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // exercise
+        StatisticsAccumulator parallel = StreamingStatistics.summarize(values, pool);
+        pool.shutdown();
+
+        // verify
+        StatisticsAccumulator sequential = StreamingStatistics.summarize(values);
+        assertEquals("The count should match", sequential.getCount(), parallel.getCount());
+        assertEquals("The mean should match", sequential.getMean(), parallel.getMean(), 1.0e-6);
+        assertEquals("The standard deviation should match", sequential.getStdDev(), parallel.getStdDev(), 1.0e-6);
+        assertEquals("The median should be close", sequential.getMedian(), parallel.getMedian(), 0.1);
+    }
+
+    @Test
+    public void columnSummaryMatchesStatistics() {
+        // setup
+        DefaultKeyedValues2D data = new DefaultKeyedValues2D();
+        List column = new ArrayList();
+        for (int r = 0; r < 10; r++) {
+            Double value = new Double(r * r - 7.0);
+            data.addValue(value, "R" + r, "C0");
+            data.addValue(new Double(r), "R" + r, "C1");
+            column.add(value);
+        }
+
+        // exercise
+        StatisticsAccumulator summary = StreamingStatistics.summarizeColumn(data, 0);
+
+        // verify
+        assertEquals("The mean should match", Statistics.calculateMean(column), summary.getMean(), .000000001d);
+        assertEquals("The median should match", Statistics.calculateMedian(column, true), summary.getMedian(),
+                .000000001d);
+    }
+
+    @Test
+    public void timeSeriesSummarySkipsNulls() {
+        // setup
+        TimeSeries series = new TimeSeries("S", Day.class);
+        series.add(new Day(1, 1, 2006), 2.0);
+        series.add(new Day(2, 1, 2006), null);
+        series.add(new Day(3, 1, 2006), 8.0);
+
+        // exercise
+        StatisticsAccumulator summary = StreamingStatistics.summarize(series);
+
+        // verify
+        assertEquals("The null value should be skipped", 2L, summary.getCount());
+        assertEquals("The mean should skip the null value", 5.0, summary.getMean(), .000000001d);
+    }
+
+}
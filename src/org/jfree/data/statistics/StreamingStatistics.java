@@ -0,0 +1,181 @@
+package org.jfree.data.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.jfree.data.Values2D;
+import org.jfree.data.time.TimeSeries;
+
+/**
+ * One-pass counterparts to the {@link Statistics} methods.  Each method
+ * reads the data once into a {@link StatisticsAccumulator} that keeps
+ * quantiles, from which the mean, standard deviation, minimum, maximum,
+ * median and other quantiles can all be read, where
+ * <code>Statistics</code> makes a pass (and, for the median, sorts a copy)
+ * for each.  <code>null</code> and <code>NaN</code> values are skipped.
+ */
+public abstract class StreamingStatistics {
+
+    /** The number of values summarized by one task of a parallel pass. */
+    static final int LEAF_SIZE = 1 << 16;
+
+    /**
+     * Not used.
+     */
+    private StreamingStatistics() {
+    }
+
+    /**
+     * Summarizes the values in an array.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     *
+     * @return The summary.
+     */
+    public static StatisticsAccumulator summarize(double[] values) {
+        StatisticsAccumulator result = new StatisticsAccumulator(true);
+        result.add(values);
+        return result;
+    }
+
+    /**
+     * Summarizes the values in an array on a fork/join pool.  The array is
+     * cut into blocks of {@link #LEAF_SIZE} values and the block summaries
+     * are merged in a fixed order, so the result does not depend on the
+     * number of threads, although it may differ in the last bits from
+     * {@link #summarize(double[])}.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param pool  the pool (<code>null</code> for the common pool).
+     *
+     * @return The summary.
+     */
+    public static StatisticsAccumulator summarize(double[] values,
+            ForkJoinPool pool) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        ForkJoinPool p = pool != null ? pool : ForkJoinPool.commonPool();
+        return p.invoke(new SummaryTask(values, 0, values.length));
+    }
+
+    /**
+     * Summarizes the values in one column of a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     * @param column  the column index (zero-based).
+     *
+     * @return The summary.
+     */
+    public static StatisticsAccumulator summarizeColumn(Values2D data,
+            int column) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        StatisticsAccumulator result = new StatisticsAccumulator(true);
+        int rowCount = data.getRowCount();
+        for (int r = 0; r < rowCount; r++) {
+            result.add(data.getValue(r, column));
+        }
+        return result;
+    }
+
+    /**
+     * Summarizes the values in one row of a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     * @param row  the row index (zero-based).
+     *
+     * @return The summary.
+     */
+    public static StatisticsAccumulator summarizeRow(Values2D data,
+            int row) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        StatisticsAccumulator result = new StatisticsAccumulator(true);
+        int columnCount = data.getColumnCount();
+        for (int c = 0; c < columnCount; c++) {
+            result.add(data.getValue(row, c));
+        }
+        return result;
+    }
+
+    /**
+     * Summarizes the values in a time series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     *
+     * @return The summary.
+     */
+    public static StatisticsAccumulator summarize(TimeSeries series) {
+        if (series == null) {
+            throw new IllegalArgumentException("Null 'series' argument.");
+        }
+        StatisticsAccumulator result = new StatisticsAccumulator(true);
+        int count = series.getItemCount();
+        for (int i = 0; i < count; i++) {
+            result.add(series.getValue(i));
+        }
+        return result;
+    }
+
+    /**
+     * Summarizes a block of an array, splitting it in half if it is too
+     * large and merging the two summaries left to right.
+     */
+    private static final class SummaryTask
+            extends RecursiveTask<StatisticsAccumulator> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 982004746946550197L;
+
+        /** The values. */
+        private final double[] values;
+
+        /** The first index. */
+        private final int start;
+
+        /** The index after the last. */
+        private final int end;
+
+        /**
+         * Creates a new task.
+         *
+         * @param values  the values.
+         * @param start  the first index.
+         * @param end  the index after the last.
+         */
+        SummaryTask(double[] values, int start, int end) {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Summarizes the block.
+         *
+         * @return The summary.
+         */
+        protected StatisticsAccumulator compute() {
+            if (this.end - this.start <= LEAF_SIZE) {
+                StatisticsAccumulator result = new StatisticsAccumulator(
+                        true);
+                for (int i = this.start; i < this.end; i++) {
+                    result.add(this.values[i]);
+                }
+                return result;
+            }
+            int mid = this.start + (this.end - this.start) / 2;
+            SummaryTask left = new SummaryTask(this.values, this.start, mid);
+            SummaryTask right = new SummaryTask(this.values, mid, this.end);
+            left.fork();
+            StatisticsAccumulator r = right.compute();
+            StatisticsAccumulator l = left.join();
+            l.merge(r);
+            return l;
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.jfree.data.time;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.BatchDatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchedTimeSeriesCollectionTest {
+
+    /**
+     * Records change events.
+     */
+    private static class EventRecorder implements DatasetChangeListener {
+
+        private List events = new ArrayList();
+
+        public void datasetChanged(DatasetChangeEvent event) {
+            this.events.add(event);
+        }
+
+    }
+
+    // ----------------------------
+    // beginUpdate() / endUpdate()
+    // ----------------------------
+
+    @Test
+    public void oneEventForManyItems() {
+        // setup
+        TimeSeries series = new TimeSeries("S0", Day.class);
+        BatchedTimeSeriesCollection dataset = new BatchedTimeSeriesCollection(series);
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+
+        // exercise
+        dataset.beginUpdate();
+        for (int i = 0; i < 100; i++) {
+            series.add(period, i);
+            period = period.next();
+        }
+        dataset.endUpdate();
+
+        // verify
+        assertEquals("There should be one event", 1, recorder.events.size());
+        BatchDatasetChangeEvent event = (BatchDatasetChangeEvent) recorder.events.get(0);
+        assertEquals("There should be 100 changes", 100, event.getChangeCount());
+        assertEquals("Series 0 should have changed", 0, event.getLastSeries());
+    }
+
+    @Test
+    public void eventPerChangeOutsideUpdate() {
+        // setup
+        TimeSeries series = new TimeSeries("S0", Day.class);
+        BatchedTimeSeriesCollection dataset = new BatchedTimeSeriesCollection(series);
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        series.add(new Day(1, 1, 2006), 1.0);
+
+        // verify
+        assertEquals("There should be one event", 1, recorder.events.size());
+    }
+
+}
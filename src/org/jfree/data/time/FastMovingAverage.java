@@ -0,0 +1,267 @@
+package org.jfree.data.time;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Counterparts to the methods in {@link MovingAverage} that slide a single
+ * window along the source series, adding each new item to a running sum and
+ * removing the items that drop out of the window, instead of summing the
+ * whole window again for every item.  Each method takes time proportional
+ * to the number of items, whatever the length of the window.
+ * <p>
+ * The averages are those of {@link MovingAverage}, with these differences:
+ * <ul>
+ * <li>the running sum is compensated (see {@link WindowSum}), so it can
+ *     differ from a plain sum of the window in the last few bits;</li>
+ * <li>{@link #createPointMovingAverage(TimeSeries, String, int)} skips
+ *     <code>null</code> values as the other methods do, where
+ *     <code>MovingAverage</code> throws a
+ *     <code>NullPointerException</code>.</li>
+ * </ul>
+ * The window only slides when the x-values of an {@link XYDataset} series
+ * are in ascending order; other series are passed to
+ * <code>MovingAverage</code>.  To keep an average up to date as items are
+ * added to a {@link TimeSeries}, see {@link LiveMovingAverage}.
+ */
+public abstract class FastMovingAverage {
+
+    /**
+     * Creates a collection of moving averages, one for each series in the
+     * source collection.
+     *
+     * @param source  the source collection (<code>null</code> not
+     *     permitted).
+     * @param suffix  the suffix added to each source series key to create
+     *     the key of its average.
+     * @param periodCount  the number of periods in each average.
+     * @param skip  the number of periods to skip at the start of each
+     *     series before averages are reported.
+     *
+     * @return A collection of moving average series.
+     */
+    public static TimeSeriesCollection createMovingAverage(
+            TimeSeriesCollection source, String suffix, int periodCount,
+            int skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        TimeSeriesCollection result = new TimeSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            TimeSeries series = source.getSeries(i);
+            result.addSeries(createMovingAverage(series, series.getKey()
+                    + suffix, periodCount, skip));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a moving average series.  The average for a period is the mean
+     * of the non-<code>null</code> values for that period and the
+     * <code>periodCount - 1</code> periods before it, and is
+     * <code>null</code> if there are no such values, so gaps in the source
+     * shorten the window rather than stretching it.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param periodCount  the number of periods in each average (must be
+     *     >= 1).
+     * @param skip  the number of periods to skip at the start of the series
+     *     before averages are reported.
+     *
+     * @return The moving average series.
+     */
+    public static TimeSeries createMovingAverage(TimeSeries source,
+            String name, int periodCount, int skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        TimeSeries result = new TimeSeries(name, source.getTimePeriodClass());
+        int count = source.getItemCount();
+        if (count > 0) {
+            result.setNotify(false);
+            long first = source.getTimePeriod(0).getSerialIndex() + skip;
+            WindowSum window = new WindowSum();
+            for (int i = 0; i < count; i++) {
+                TimeSeriesDataItem item = source.getDataItem(i);
+                RegularTimePeriod period = item.getPeriod();
+                long serial = period.getSerialIndex();
+                window.removeTo(serial - periodCount);
+                window.add(serial, item.getValue());
+                if (serial >= first) {
+                    result.add(period, window.getAverage());
+                }
+            }
+            result.setNotify(true);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a moving average series in which each average is the mean of
+     * the non-<code>null</code> values of a fixed number of items, whatever
+     * periods they cover.  The first average is for the item at index
+     * <code>pointCount - 1</code>.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param pointCount  the number of items in each average (must be
+     *     >= 2).
+     *
+     * @return The moving average series.
+     */
+    public static TimeSeries createPointMovingAverage(TimeSeries source,
+            String name, int pointCount) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (pointCount < 2) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 2.");
+        }
+        TimeSeries result = new TimeSeries(name, source.getTimePeriodClass());
+        result.setNotify(false);
+        WindowSum window = new WindowSum();
+        for (int i = 0; i < source.getItemCount(); i++) {
+            TimeSeriesDataItem item = source.getDataItem(i);
+            window.add(i, item.getValue());
+            if (window.size() > pointCount) {
+                window.removeFirst();
+            }
+            if (window.size() == pointCount) {
+                result.add(item.getPeriod(), window.getAverage());
+            }
+        }
+        result.setNotify(true);
+        return result;
+    }
+
+    /**
+     * Creates a collection of moving averages, one for each series in the
+     * source dataset.
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param suffix  the suffix added to each source series key to create
+     *     the key of its average.
+     * @param period  the length of each averaging period (in x-units).
+     * @param skip  the length of the range at the start of each series to
+     *     skip before averages are reported.
+     *
+     * @return A collection of moving average series.
+     */
+    public static XYDataset createMovingAverage(XYDataset source,
+            String suffix, long period, long skip) {
+        return createMovingAverage(source, suffix, (double) period,
+                (double) skip);
+    }
+
+    /**
+     * Creates a collection of moving averages, one for each series in the
+     * source dataset.
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param suffix  the suffix added to each source series key to create
+     *     the key of its average.
+     * @param period  the length of each averaging period (in x-units).
+     * @param skip  the length of the range at the start of each series to
+     *     skip before averages are reported.
+     *
+     * @return A collection of moving average series.
+     */
+    public static XYDataset createMovingAverage(XYDataset source,
+            String suffix, double period, double skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        XYSeriesCollection result = new XYSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            result.addSeries(createMovingAverage(source, i,
+                    source.getSeriesKey(i) + suffix, period, skip));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a moving average for one series of a dataset.  The average at
+     * an x-value is the mean of the non-<code>null</code> y-values with
+     * x-values in the range <code>(x - period, x]</code>.
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param name  the name of the moving average series.
+     * @param period  the length of each averaging period (must be
+     *     positive).
+     * @param skip  the length of the range at the start of the series to
+     *     skip before averages are reported (must be >= 0).
+     *
+     * @return The moving average series.
+     */
+    public static XYSeries createMovingAverage(XYDataset source, int series,
+            String name, double period, double skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (period < Double.MIN_VALUE) {
+            throw new IllegalArgumentException("period must be positive.");
+        }
+        if (skip < 0.0) {
+            throw new IllegalArgumentException("skip must be >= 0.0.");
+        }
+        int count = source.getItemCount(series);
+        if (!isAscending(source, series, count)) {
+            return MovingAverage.createMovingAverage(source, series, name,
+                    period, skip);
+        }
+        XYSeries result = new XYSeries(name);
+        if (count > 0) {
+            result.setNotify(false);
+            double first = source.getXValue(series, 0) + skip;
+            WindowSum window = new WindowSum();
+            for (int i = 0; i < count; i++) {
+                double x = source.getXValue(series, i);
+                window.removeTo(x - period);
+                window.add(x, source.getY(series, i));
+                if (x >= first) {
+                    result.add(x, window.getAverage());
+                }
+            }
+            result.setNotify(true);
+        }
+        return result;
+    }
+
+    /**
+     * Returns <code>true</code> if the x-values of a series are in
+     * ascending order (repeated values are allowed).
+     *
+     * @param source  the dataset.
+     * @param series  the series index.
+     * @param count  the number of items in the series.
+     *
+     * @return A boolean.
+     */
+    private static boolean isAscending(XYDataset source, int series,
+            int count) {
+        if (source.getDomainOrder() == DomainOrder.ASCENDING) {
+            return true;
+        }
+        for (int i = 1; i < count; i++) {
+            if (!(source.getXValue(series, i - 1)
+                    <= source.getXValue(series, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
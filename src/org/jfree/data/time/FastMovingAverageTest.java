@@ -0,0 +1,244 @@
+package org.jfree.data.time;
+
+import static org.junit.Assert.*;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+import java.util.Random;
+
+public class FastMovingAverageTest {
+
+    /**
+     * Checks that two series hold the same periods and values, to within a small relative error.
+     */
+    private static void assertSameItems(TimeSeries expected, TimeSeries actual) {
+        assertEquals("The item count should match", expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The period at " + i + " should match", expected.getTimePeriod(i), actual.getTimePeriod(i));
+            assertSameValue("The value at " + i, expected.getValue(i), actual.getValue(i));
+        }
+    }
+
+    /**
+     * Checks that two values are both null, or are equal to within a small relative error.
+     */
+    private static void assertSameValue(String message, Number expected, Number actual) {
+        if (expected == null) {
+            assertNull(message + " should be null", actual);
+        }
+        else {
+            double e = expected.doubleValue();
+            assertEquals(message + " should match", e, actual.doubleValue(), Math.abs(e) * 1e-12 + 1e-12);
+        }
+    }
+
+    /**
+     * Creates a series of days with gaps and null values.
+     */
+    private static TimeSeries createSeries(int count, long seed) {
+        Random random = new Random(seed);
+        TimeSeries series = new TimeSeries("S", Day.class);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+        for (int i = 0; i < count; i++) {
+            Double value = random.nextInt(8) == 0 ? null : new Double(random.nextGaussian() * 100.0);
+            series.add(period, value);
+            period = period.next();
+            while (random.nextInt(4) == 0) {
+                period = period.next();
+            }
+        }
+        return series;
+    }
+
+    // ----------------------------
+    // createMovingAverage(TimeSeries source, String name, int periodCount, int skip)
+    // source: { EC1: gaps and nulls, EC2: empty, EC3: null }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void sameAverageAsMovingAverage() {
+        // setup
+        TimeSeries source = createSeries(500, 17L);
+
+        // exercise
+        TimeSeries actual = FastMovingAverage.createMovingAverage(source, "MA", 7, 3);
+
+        // verify
+        assertSameItems(MovingAverage.createMovingAverage(source, "MA", 7, 3), actual);
+        assertEquals("The name should be MA", "MA", actual.getKey());
+    }
+
+    // EC2
+    @Test
+    public void averageOfEmptySeries() {
+        // exercise
+        TimeSeries actual = FastMovingAverage.createMovingAverage(new TimeSeries("S", Day.class), "MA", 7, 0);
+
+        // verify
+        assertEquals("The average should be empty", 0, actual.getItemCount());
+        assertEquals("The period class should match", Day.class, actual.getTimePeriodClass());
+    }
+
+    // EC3
+    @Test(expected = IllegalArgumentException.class)
+    public void averageOfNullSeries() {
+        // exercise
+        FastMovingAverage.createMovingAverage((TimeSeries) null, "MA", 7, 0);
+    }
+
+    @Test
+    public void windowRecoversAfterNaN() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Day.class);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+        double[] values = { 1.0, Double.NaN, 2.0, 3.0, Double.POSITIVE_INFINITY, 4.0, 5.0 };
+        for (int i = 0; i < values.length; i++) {
+            source.add(period, values[i]);
+            period = period.next();
+        }
+
+        // exercise
+        TimeSeries actual = FastMovingAverage.createMovingAverage(source, "MA", 2, 0);
+
+        // verify
+        assertSameItems(MovingAverage.createMovingAverage(source, "MA", 2, 0), actual);
+        assertEquals("The last average should be 4.5", 4.5, actual.getValue(6).doubleValue(), .000000001d);
+    }
+
+    @Test
+    public void compensatedSumDoesNotDrift() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Day.class);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+        for (int i = 0; i < 1000; i++) {
+            source.add(period, i % 2 == 0 ? 1e16 : 1.0);
+            period = period.next();
+        }
+        source.add(period, 1.0);
+        source.add(period.next(), 1.0);
+
+        // exercise
+        TimeSeries actual = FastMovingAverage.createMovingAverage(source, "MA", 2, 0);
+
+        // verify
+        assertEquals("The last average should be exact", 1.0, actual.getValue(actual.getItemCount() - 1).doubleValue(),
+                0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectZeroPeriodCount() {
+        // exercise
+        FastMovingAverage.createMovingAverage(createSeries(3, 1L), "MA", 0, 0);
+    }
+
+    // ----------------------------
+    // createPointMovingAverage(TimeSeries source, String name, int pointCount)
+    // source: { EC1: no nulls, EC2: nulls }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void samePointAverageAsMovingAverage() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Day.class);
+        Random random = new Random(18L);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+        for (int i = 0; i < 300; i++) {
+            source.add(period, random.nextGaussian());
+            period = period.next();
+        }
+
+        // exercise
+        TimeSeries actual = FastMovingAverage.createPointMovingAverage(source, "MA", 10);
+
+        // verify
+        assertSameItems(MovingAverage.createPointMovingAverage(source, "MA", 10), actual);
+    }
+
+    // EC2
+    @Test
+    public void pointAverageSkipsNulls() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Day.class);
+        RegularTimePeriod period = new Day(1, 1, 2006);
+        Double[] values = { new Double(1.0), null, new Double(3.0), null, null };
+        for (int i = 0; i < values.length; i++) {
+            source.add(period, values[i]);
+            period = period.next();
+        }
+
+        // exercise
+        TimeSeries actual = FastMovingAverage.createPointMovingAverage(source, "MA", 2);
+
+        // verify
+        assertEquals("There should be 4 averages", 4, actual.getItemCount());
+        assertEquals("The first average should be 1", 1.0, actual.getValue(0).doubleValue(), .000000001d);
+        assertEquals("The second average should be 3", 3.0, actual.getValue(1).doubleValue(), .000000001d);
+        assertNull("The last average should be null", actual.getValue(3));
+    }
+
+    // ----------------------------
+    // createMovingAverage(XYDataset source, String suffix, double period, double skip)
+    // x-values: { EC1: ascending with gaps and nulls, EC2: unsorted }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void sameXYAverageAsMovingAverage() {
+        // setup
+        Random random = new Random(19L);
+        XYSeriesCollection source = new XYSeriesCollection();
+        for (int s = 0; s < 2; s++) {
+            XYSeries series = new XYSeries("S" + s);
+            double x = 0.0;
+            for (int i = 0; i < 400; i++) {
+                x += random.nextDouble() * 2.0;
+                series.add(x, random.nextInt(6) == 0 ? null : new Double(random.nextGaussian()));
+            }
+            source.addSeries(series);
+        }
+
+        // exercise
+        XYDataset actual = FastMovingAverage.createMovingAverage(source, " MA", 10.0, 5.0);
+
+        // verify
+        XYDataset expected = MovingAverage.createMovingAverage(source, " MA", 10.0, 5.0);
+        assertEquals("The series count should match", expected.getSeriesCount(), actual.getSeriesCount());
+        for (int s = 0; s < expected.getSeriesCount(); s++) {
+            assertEquals("The key should match", expected.getSeriesKey(s), actual.getSeriesKey(s));
+            assertEquals("The item count should match", expected.getItemCount(s), actual.getItemCount(s));
+            for (int i = 0; i < expected.getItemCount(s); i++) {
+                assertEquals("The x-value at " + i + " should match", expected.getXValue(s, i),
+                        actual.getXValue(s, i), 0.0);
+                assertSameValue("The y-value at " + i, expected.getY(s, i), actual.getY(s, i));
+            }
+        }
+    }
+
+    // EC2
+    @Test
+    public void unsortedXYSeriesUsesMovingAverage() {
+        // setup
+        XYSeries series = new XYSeries("S", false);
+        series.add(3.0, 30.0);
+        series.add(1.0, 10.0);
+        series.add(2.0, 20.0);
+        XYSeriesCollection source = new XYSeriesCollection(series);
+
+        // exercise
+        XYSeries actual = FastMovingAverage.createMovingAverage(source, 0, "MA", 2.0, 0.0);
+
+        // verify
+        assertEquals("The average should match MovingAverage",
+                MovingAverage.createMovingAverage(source, 0, "MA", 2.0, 0.0), actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectZeroXYPeriod() {
+        // exercise
+        FastMovingAverage.createMovingAverage(new XYSeriesCollection(), 0, "MA", 0.0, 0.0);
+    }
+
+}
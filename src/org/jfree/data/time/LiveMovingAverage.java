@@ -0,0 +1,203 @@
+package org.jfree.data.time;
+
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+
+/**
+ * A moving average of a {@link TimeSeries} that is kept up to date as items
+ * are added to the source.  The average is that of
+ * {@link FastMovingAverage#createMovingAverage(TimeSeries, String, int, int)},
+ * held in a {@link RingBufferTimeSeries} (see {@link #getAverageSeries()}),
+ * which can be given a maximum item count like any other series.
+ * <p>
+ * On each change to the source, the items after the last one averaged are
+ * added to the running window and their averages are appended to the
+ * average series, which sends a single change event.  Items removed from the
+ * start of the source, for example because it has a maximum item count, are
+ * kept in the window until they drop out of it, so the averages are those of
+ * every item added since the average was created.  If an item is inserted
+ * before the last one averaged, or the last one is deleted, the average is
+ * computed again from the items in the source, as it is when the source is
+ * cleared.  Other changes, such as updating the value of an item that has
+ * already been averaged, cannot be seen from a change event; call
+ * {@link #refresh()} after making them.
+ */
+public class LiveMovingAverage implements SeriesChangeListener {
+
+    /** The source series. */
+    private TimeSeries source;
+
+    /** The moving average series. */
+    private RingBufferTimeSeries average;
+
+    /** The number of periods in each average. */
+    private int periodCount;
+
+    /** The number of periods to skip before averages are reported. */
+    private int skip;
+
+    /** The values in the window. */
+    private WindowSum window;
+
+    /**
+     * The serial index of the first period that is reported, or
+     * <code>Long.MIN_VALUE</code> before the first item is averaged.
+     */
+    private long firstSerial;
+
+    /** The last source period averaged (<code>null</code> if none). */
+    private RegularTimePeriod last;
+
+    /** The index of the last source period averaged. */
+    private int lastIndex;
+
+    /**
+     * Creates a moving average of a series and registers it as a listener
+     * with the series.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param periodCount  the number of periods in each average (must be
+     *     >= 1).
+     * @param skip  the number of periods to skip at the start of the series
+     *     before averages are reported.
+     */
+    public LiveMovingAverage(TimeSeries source, String name, int periodCount,
+            int skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        this.source = source;
+        this.average = new RingBufferTimeSeries(name,
+                source.getTimePeriodClass());
+        this.periodCount = periodCount;
+        this.skip = skip;
+        this.window = new WindowSum();
+        refresh();
+        source.addChangeListener(this);
+    }
+
+    /**
+     * Returns the source series.
+     *
+     * @return The source series.
+     */
+    public TimeSeries getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the moving average series.  The series is updated by this
+     * object and should not be changed otherwise, apart from its maximum
+     * item count and age.
+     *
+     * @return The moving average series.
+     */
+    public TimeSeries getAverageSeries() {
+        return this.average;
+    }
+
+    /**
+     * Returns the number of periods in each average.
+     *
+     * @return The period count.
+     */
+    public int getPeriodCount() {
+        return this.periodCount;
+    }
+
+    /**
+     * Returns the number of periods skipped at the start of the series.
+     *
+     * @return The number of periods.
+     */
+    public int getSkip() {
+        return this.skip;
+    }
+
+    /**
+     * Averages the items added to the source since the last change.
+     *
+     * @param event  the change event.
+     */
+    public void seriesChanged(SeriesChangeEvent event) {
+        if (this.source.getItemCount() == 0) {
+            if (this.last != null) {
+                refresh();
+            }
+            return;
+        }
+        int start = 0;
+        if (this.last != null) {
+            int index = this.source.getIndex(this.last);
+            if (index >= 0 && index <= this.lastIndex) {
+                start = index + 1;
+            }
+            else if (index != -1) {
+                // an item was inserted before the last one averaged, or the
+                // last one was deleted while older items remain
+                refresh();
+                return;
+            }
+        }
+        if (start < this.source.getItemCount()) {
+            boolean notify = this.average.getNotify();
+            this.average.setNotify(false);
+            append(start);
+            this.average.setNotify(notify);
+        }
+    }
+
+    /**
+     * Computes the average again from the items in the source, and sends a
+     * change event for the average series.
+     */
+    public void refresh() {
+        boolean notify = this.average.getNotify();
+        this.average.setNotify(false);
+        this.average.clear();
+        this.window.clear();
+        this.firstSerial = Long.MIN_VALUE;
+        this.last = null;
+        append(0);
+        this.average.setNotify(notify);
+    }
+
+    /**
+     * Stops listening to the source series.  The average series is no
+     * longer updated.
+     */
+    public void dispose() {
+        this.source.removeChangeListener(this);
+    }
+
+    /**
+     * Adds source items to the window and their averages to the average
+     * series.
+     *
+     * @param start  the index of the first source item to add.
+     */
+    private void append(int start) {
+        int count = this.source.getItemCount();
+        for (int i = start; i < count; i++) {
+            TimeSeriesDataItem item = this.source.getDataItem(i);
+            RegularTimePeriod period = item.getPeriod();
+            long serial = period.getSerialIndex();
+            if (this.firstSerial == Long.MIN_VALUE) {
+                this.firstSerial = serial + this.skip;
+            }
+            this.window.removeTo(serial - this.periodCount);
+            this.window.add(serial, item.getValue());
+            if (serial >= this.firstSerial) {
+                this.average.add(period, this.window.getAverage());
+            }
+            this.last = period;
+        }
+        this.lastIndex = count - 1;
+    }
+
+}
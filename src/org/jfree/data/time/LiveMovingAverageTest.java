@@ -0,0 +1,151 @@
+package org.jfree.data.time;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.junit.Test;
+
+public class LiveMovingAverageTest {
+
+    /**
+     * Counts change events.
+     */
+    private static class EventCounter implements SeriesChangeListener {
+
+        private int count;
+
+        public void seriesChanged(SeriesChangeEvent event) {
+            this.count++;
+        }
+
+    }
+
+    /**
+     * Adds an item for each of count hours from a start hour, with value equal to the hour number.
+     */
+    private static void addHours(TimeSeries series, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            series.add(new Hour(i % 24, new Day(1 + i / 24, 1, 2006)), i);
+        }
+    }
+
+    /**
+     * Checks that two series hold the same periods and values.
+     */
+    private static void assertSameItems(TimeSeries expected, TimeSeries actual) {
+        assertEquals("The item count should match", expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The period at " + i + " should match", expected.getTimePeriod(i), actual.getTimePeriod(i));
+            assertEquals("The value at " + i + " should match", expected.getValue(i).doubleValue(),
+                    actual.getValue(i).doubleValue(), .000000001d);
+        }
+    }
+
+    // ----------------------------
+    // seriesChanged(SeriesChangeEvent event)
+    // change: { EC1: items appended, EC2: oldest items evicted, EC3: item inserted before the last, EC4: cleared }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void appendedItemsAreAveraged() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        addHours(source, 0, 10);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 5, 2);
+        EventCounter counter = new EventCounter();
+        average.getAverageSeries().addChangeListener(counter);
+
+        // exercise
+        addHours(source, 10, 50);
+
+        // verify
+        assertSameItems(FastMovingAverage.createMovingAverage(source, "MA", 5, 2), average.getAverageSeries());
+        assertEquals("There should be one event per source event", 50, counter.count);
+    }
+
+    // EC2
+    @Test
+    public void evictedItemsStayInWindow() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        source.setMaximumItemCount(2);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 4, 0);
+
+        // exercise
+        addHours(source, 0, 8);
+
+        // verify
+        TimeSeries series = average.getAverageSeries();
+        assertEquals("There should be an average per item added", 8, series.getItemCount());
+        assertEquals("The last average should cover 4 hours", 5.5, series.getValue(7).doubleValue(), .000000001d);
+    }
+
+    // EC3
+    @Test
+    public void insertionRecomputesAverage() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        addHours(source, 0, 3);
+        addHours(source, 4, 3);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 3, 0);
+
+        // exercise
+        addHours(source, 3, 1);
+
+        // verify
+        assertSameItems(FastMovingAverage.createMovingAverage(source, "MA", 3, 0), average.getAverageSeries());
+    }
+
+    // EC4
+    @Test
+    public void clearingSourceClearsAverage() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        addHours(source, 0, 5);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 3, 0);
+
+        // exercise
+        source.clear();
+        addHours(source, 100, 2);
+
+        // verify
+        assertSameItems(FastMovingAverage.createMovingAverage(source, "MA", 3, 0), average.getAverageSeries());
+    }
+
+    @Test
+    public void refreshAfterUpdate() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        addHours(source, 0, 5);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 3, 0);
+        source.update(4, new Double(100.0));
+
+        // exercise
+        average.refresh();
+
+        // verify
+        assertSameItems(FastMovingAverage.createMovingAverage(source, "MA", 3, 0), average.getAverageSeries());
+    }
+
+    @Test
+    public void disposeStopsUpdates() {
+        // setup
+        TimeSeries source = new TimeSeries("S", Hour.class);
+        LiveMovingAverage average = new LiveMovingAverage(source, "MA", 3, 0);
+
+        // exercise
+        average.dispose();
+        addHours(source, 0, 5);
+
+        // verify
+        assertEquals("The average should not change", 0, average.getAverageSeries().getItemCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectNullSource() {
+        // exercise
+        new LiveMovingAverage(null, "MA", 3, 0);
+    }
+
+}
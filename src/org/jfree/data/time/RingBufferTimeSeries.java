@@ -0,0 +1,992 @@
+package org.jfree.data.time;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.jfree.data.general.SeriesException;
+import org.jfree.util.ObjectUtilities;
+
+/**
+ * A {@link TimeSeries} that keeps its items in a circular buffer of
+ * primitive arrays instead of a list of {@link TimeSeriesDataItem} objects.
+ * Appending an item and evicting the oldest one, as a series with a
+ * maximum item count or age does on every add once it is full, both take
+ * constant time, where <code>TimeSeries</code> shifts its whole list to
+ * remove the first item.
+ * <p>
+ * The series behaves as a <code>TimeSeries</code>, with the same checks,
+ * exceptions and change events, apart from these differences:
+ * <ul>
+ * <li>values are stored as <code>double</code>, so {@link #getValue(int)}
+ *     returns a <code>Double</code> whatever type of <code>Number</code>
+ *     was added;</li>
+ * <li>{@link #getDataItem(int)} and {@link #getItems()} return new items
+ *     built from the buffer, so changing such an item does not change the
+ *     series (use {@link #update(int, Number)});</li>
+ * <li>{@link #addOrUpdate(RegularTimePeriod, Number)} rejects a period of
+ *     the wrong class, as {@link #add(TimeSeriesDataItem)} does;</li>
+ * <li>{@link #delete(RegularTimePeriod)} does nothing for a period that
+ *     is not in the series, where <code>TimeSeries</code> throws an
+ *     exception.</li>
+ * </ul>
+ * Items are found by their period's serial index, which orders the periods
+ * of each {@link RegularTimePeriod} class in time.
+ */
+public class RingBufferTimeSeries extends TimeSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4216817385418702365L;
+
+    /** The initial capacity of the buffer. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The time periods. */
+    private RegularTimePeriod[] periods;
+
+    /** The serial index of each time period. */
+    private long[] serials;
+
+    /** The values. */
+    private double[] values;
+
+    /** The buffer slots that hold a <code>null</code> value. */
+    private BitSet nulls;
+
+    /** The slot of the first item. */
+    private int head;
+
+    /** The number of items. */
+    private int count;
+
+    /** The maximum number of items in the series. */
+    private int maximumItemCount;
+
+    /** The maximum age of items, in time periods. */
+    private int maximumItemAge;
+
+    /**
+     * Creates a new empty series of {@link Day} periods.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     */
+    public RingBufferTimeSeries(String name) {
+        this(name, DEFAULT_DOMAIN_DESCRIPTION, DEFAULT_RANGE_DESCRIPTION,
+                Day.class);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *     permitted).
+     */
+    public RingBufferTimeSeries(String name, Class timePeriodClass) {
+        this(name, DEFAULT_DOMAIN_DESCRIPTION, DEFAULT_RANGE_DESCRIPTION,
+                timePeriodClass);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param domain  the domain description (<code>null</code> permitted).
+     * @param range  the range description (<code>null</code> permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *     permitted).
+     */
+    public RingBufferTimeSeries(String name, String domain, String range,
+            Class timePeriodClass) {
+        super(name, domain, range, timePeriodClass);
+        this.periods = new RegularTimePeriod[INITIAL_CAPACITY];
+        this.serials = new long[INITIAL_CAPACITY];
+        this.values = new double[INITIAL_CAPACITY];
+        this.nulls = new BitSet(INITIAL_CAPACITY);
+        this.maximumItemCount = Integer.MAX_VALUE;
+        this.maximumItemAge = Integer.MAX_VALUE;
+        this.data = new ItemList();
+    }
+
+    /**
+     * A read-only view of the buffer as a list of data items.
+     */
+    private class ItemList extends AbstractList implements RandomAccess,
+            java.io.Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 6349305830471950728L;
+
+        /**
+         * Returns the item at an index.
+         *
+         * @param index  the index.
+         *
+         * @return A new data item.
+         */
+        public Object get(int index) {
+            return getDataItem(index);
+        }
+
+        /**
+         * Returns the number of items.
+         *
+         * @return The item count.
+         */
+        public int size() {
+            return RingBufferTimeSeries.this.count;
+        }
+
+    }
+
+    /**
+     * Returns the number of items in the series.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns a read-only list of the items in the series.  Each item is
+     * created when it is read.
+     *
+     * @return The list of data items.
+     */
+    public List getItems() {
+        return this.data;
+    }
+
+    /**
+     * Returns the maximum number of items that will be retained in the
+     * series.
+     *
+     * @return The maximum item count.
+     */
+    public int getMaximumItemCount() {
+        return this.maximumItemCount;
+    }
+
+    /**
+     * Sets the maximum number of items that will be retained in the series.
+     * If there are more items than this, the oldest are deleted and a
+     * {@link org.jfree.data.general.SeriesChangeEvent} is sent to all
+     * registered listeners.
+     *
+     * @param maximum  the maximum (must be >= 0).
+     */
+    public void setMaximumItemCount(int maximum) {
+        if (maximum < 0) {
+            throw new IllegalArgumentException("Negative 'maximum' argument.");
+        }
+        this.maximumItemCount = maximum;
+        if (this.count > maximum) {
+            delete(0, this.count - maximum - 1);
+        }
+    }
+
+    /**
+     * Returns the age, in time periods, from the newest item at which items
+     * are removed.
+     *
+     * @return The maximum item age.
+     */
+    public int getMaximumItemAge() {
+        return this.maximumItemAge;
+    }
+
+    /**
+     * Sets the age, in time periods, from the newest item at which items are
+     * removed, removes any items that are already that old and, if any were
+     * removed, sends a {@link org.jfree.data.general.SeriesChangeEvent} to
+     * all registered listeners.
+     *
+     * @param periods  the number of periods (must be >= 0).
+     */
+    public void setMaximumItemAge(int periods) {
+        if (periods < 0) {
+            throw new IllegalArgumentException("Negative 'periods' argument.");
+        }
+        this.maximumItemAge = periods;
+        removeAgedItems(true);
+    }
+
+    /**
+     * Returns a data item, created from the buffer.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return A new data item.
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public TimeSeriesDataItem getDataItem(int index) {
+        int slot = slot(checkIndex(index));
+        return new TimeSeriesDataItem(this.periods[slot], valueAt(slot));
+    }
+
+    /**
+     * Returns the data item for a time period, created from the buffer.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return A new data item, or <code>null</code> if the series has no
+     *     item for the period.
+     */
+    public TimeSeriesDataItem getDataItem(RegularTimePeriod period) {
+        int index = getIndex(period);
+        return index >= 0 ? getDataItem(index) : null;
+    }
+
+    /**
+     * Returns the time period at an index.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The time period.
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public RegularTimePeriod getTimePeriod(int index) {
+        return this.periods[slot(checkIndex(index))];
+    }
+
+    /**
+     * Returns the time period after the last one in the series.
+     *
+     * @return The next time period.
+     *
+     * @throws IndexOutOfBoundsException if the series is empty.
+     */
+    public RegularTimePeriod getNextTimePeriod() {
+        return getTimePeriod(this.count - 1).next();
+    }
+
+    /**
+     * Returns a new collection of the time periods in the series.
+     *
+     * @return The time periods.
+     */
+    public Collection getTimePeriods() {
+        Collection result = new ArrayList(this.count);
+        for (int i = 0; i < this.count; i++) {
+            result.add(this.periods[slot(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time periods of another series that are not in this one.
+     *
+     * @param series  the other series (<code>null</code> not permitted).
+     *
+     * @return The time periods.
+     */
+    public Collection getTimePeriodsUniqueToOtherSeries(TimeSeries series) {
+        Collection result = new ArrayList();
+        for (int i = 0; i < series.getItemCount(); i++) {
+            RegularTimePeriod period = series.getTimePeriod(i);
+            if (getIndex(period) < 0) {
+                result.add(period);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of a time period, or a negative number encoding
+     * where it would be inserted, as {@link java.util.Collections#binarySearch(
+     * List, Object)} does.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The index.
+     */
+    public int getIndex(RegularTimePeriod period) {
+        if (period == null) {
+            throw new IllegalArgumentException("Null 'period' argument.");
+        }
+        if (!period.getClass().equals(this.timePeriodClass)) {
+            return -1;
+        }
+        return search(period.getSerialIndex());
+    }
+
+    /**
+     * Returns the value at an index.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public Number getValue(int index) {
+        return valueAt(slot(checkIndex(index)));
+    }
+
+    /**
+     * Returns the value for a time period.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The value, or <code>null</code> if the value is
+     *     <code>null</code> or the series has no item for the period.
+     */
+    public Number getValue(RegularTimePeriod period) {
+        int index = getIndex(period);
+        return index >= 0 ? getValue(index) : null;
+    }
+
+    /**
+     * Adds an item to the series, removes the oldest items if the series
+     * then exceeds its maximum item count or age, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param item  the item (<code>null</code> not permitted).
+     *
+     * @throws SeriesException if the period is of the wrong class or the
+     *     series already has an item for it.
+     */
+    public void add(TimeSeriesDataItem item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null 'item' argument.");
+        }
+        Number value = item.getValue();
+        add(item.getPeriod(), value != null ? value.doubleValue() : 0.0,
+                value == null);
+    }
+
+    /**
+     * Adds an item to the series, removes the oldest items if the series
+     * then exceeds its maximum item count or age, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the value.
+     *
+     * @throws SeriesException if the period is of the wrong class or the
+     *     series already has an item for it.
+     */
+    public void add(RegularTimePeriod period, double value) {
+        add(period, value, false);
+    }
+
+    /**
+     * Adds an item to the series, removes the oldest items if the series
+     * then exceeds its maximum item count or age, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     *
+     * @throws SeriesException if the period is of the wrong class or the
+     *     series already has an item for it.
+     */
+    public void add(RegularTimePeriod period, Number value) {
+        add(period, value != null ? value.doubleValue() : 0.0, value == null);
+    }
+
+    /**
+     * Adds an item, as {@link #add(TimeSeriesDataItem)}.
+     *
+     * @param period  the time period.
+     * @param value  the value.
+     * @param isNull  <code>true</code> if the value is <code>null</code>.
+     */
+    private void add(RegularTimePeriod period, double value, boolean isNull) {
+        checkPeriod(period);
+        long serial = period.getSerialIndex();
+        int index;
+        if (this.count == 0 || serial > this.serials[slot(this.count - 1)]) {
+            index = this.count;
+        }
+        else {
+            index = search(serial);
+            if (index >= 0) {
+                throw new SeriesException("You are attempting to add an "
+                        + "observation for the time period " + period
+                        + " but the series already contains an observation"
+                        + " for that time period. Duplicates are not "
+                        + "permitted.  Try using the addOrUpdate() method.");
+            }
+            index = -index - 1;
+        }
+        insert(index, period, serial, value, isNull);
+        if (this.count > this.maximumItemCount) {
+            removeFirst();
+        }
+        removeAgedItems(false);
+        fireSeriesChanged();
+    }
+
+    /**
+     * Changes the value for a time period and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the new value (<code>null</code> permitted).
+     *
+     * @throws SeriesException if the series has no item for the period.
+     */
+    public void update(RegularTimePeriod period, Number value) {
+        int index = getIndex(period);
+        if (index < 0) {
+            throw new SeriesException(
+                    "TimeSeries.update(TimePeriod, Number):  period does not "
+                    + "exist.");
+        }
+        setValue(slot(index), value);
+        fireSeriesChanged();
+    }
+
+    /**
+     * Changes the value at an index and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param index  the item index (zero-based).
+     * @param value  the new value (<code>null</code> permitted).
+     *
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of
+     *     bounds.
+     */
+    public void update(int index, Number value) {
+        setValue(slot(checkIndex(index)), value);
+        fireSeriesChanged();
+    }
+
+    /**
+     * Adds or updates the items of another series in this one, and returns
+     * a series of the values that were overwritten.  A change event is sent
+     * for each item.
+     *
+     * @param series  the other series (<code>null</code> not permitted).
+     *
+     * @return A series of the overwritten values.
+     */
+    public TimeSeries addAndOrUpdate(TimeSeries series) {
+        TimeSeries overwritten = new TimeSeries("Overwritten values from: "
+                + getKey(), series.getTimePeriodClass());
+        for (int i = 0; i < series.getItemCount(); i++) {
+            TimeSeriesDataItem item = series.getDataItem(i);
+            TimeSeriesDataItem old = addOrUpdate(item.getPeriod(),
+                    item.getValue());
+            if (old != null) {
+                overwritten.add(old);
+            }
+        }
+        return overwritten;
+    }
+
+    /**
+     * Adds or updates the item for a time period, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the value.
+     *
+     * @return A copy of the overwritten item, or <code>null</code> if an
+     *     item was added.
+     *
+     * @throws SeriesException if the period is of the wrong class.
+     */
+    public TimeSeriesDataItem addOrUpdate(RegularTimePeriod period,
+            double value) {
+        return addOrUpdate(period, new Double(value));
+    }
+
+    /**
+     * Adds or updates the item for a time period, removes the oldest items
+     * if the series then exceeds its maximum item count or age, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     *
+     * @return A copy of the overwritten item, or <code>null</code> if an
+     *     item was added.
+     *
+     * @throws SeriesException if the period is of the wrong class.
+     */
+    public TimeSeriesDataItem addOrUpdate(RegularTimePeriod period,
+            Number value) {
+        checkPeriod(period);
+        long serial = period.getSerialIndex();
+        int index = search(serial);
+        TimeSeriesDataItem overwritten = null;
+        if (index >= 0) {
+            overwritten = getDataItem(index);
+            setValue(slot(index), value);
+        }
+        else {
+            insert(-index - 1, period, serial,
+                    value != null ? value.doubleValue() : 0.0, value == null);
+            if (this.count > this.maximumItemCount) {
+                removeFirst();
+            }
+        }
+        removeAgedItems(false);
+        fireSeriesChanged();
+        return overwritten;
+    }
+
+    /**
+     * Removes the items that are at least the maximum item age older than
+     * the newest item and, if any were removed and <code>notify</code> is
+     * <code>true</code>, sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param notify  notify listeners?
+     */
+    public void removeAgedItems(boolean notify) {
+        if (this.count > 1) {
+            removeAgedItems(this.serials[slot(this.count - 1)], notify);
+        }
+    }
+
+    /**
+     * Removes the items whose periods are at least the maximum item age
+     * before the period with the given serial index and, if any were
+     * removed and <code>notify</code> is <code>true</code>, sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param latest  the serial index of the latest period.
+     * @param notify  notify listeners?
+     */
+    public void removeAgedItems(long latest, boolean notify) {
+        boolean removed = false;
+        while (this.count > 0
+                && latest - this.serials[this.head] >= this.maximumItemAge) {
+            removeFirst();
+            removed = true;
+        }
+        if (removed && notify) {
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Removes all items and, if there were any, sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     */
+    public void clear() {
+        if (this.count > 0) {
+            removeRange(0, this.count);
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Deletes the item for a time period, if there is one, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     */
+    public void delete(RegularTimePeriod period) {
+        int index = getIndex(period);
+        if (index >= 0) {
+            removeRange(index, 1);
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Deletes a range of items and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param start  the index of the first item to delete.
+     * @param end  the index of the last item to delete.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds.
+     */
+    public void delete(int start, int end) {
+        if (end >= start) {
+            checkIndex(start);
+            checkIndex(end);
+            removeRange(start, end - start + 1);
+        }
+        fireSeriesChanged();
+    }
+
+    /**
+     * Returns a clone of the series.  The clone has no listeners.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException not thrown by this class.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return copy(0, this.count - 1);
+    }
+
+    /**
+     * Creates a new series holding copies of a range of items.  The copy has
+     * no listeners.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item (if less than
+     *     <code>start</code>, the copy is empty).
+     *
+     * @return The copy.
+     *
+     * @throws CloneNotSupportedException not thrown by this class.
+     */
+    public TimeSeries createCopy(int start, int end)
+            throws CloneNotSupportedException {
+        return copy(start, end);
+    }
+
+    /**
+     * Creates a new series holding copies of the items from one time period
+     * to another.  The copy has no listeners.
+     *
+     * @param start  the first time period (<code>null</code> not permitted).
+     * @param end  the last time period (<code>null</code> not permitted).
+     *
+     * @return The copy.
+     *
+     * @throws CloneNotSupportedException not thrown by this class.
+     */
+    public TimeSeries createCopy(RegularTimePeriod start,
+            RegularTimePeriod end) throws CloneNotSupportedException {
+        int startIndex = getIndex(start);
+        if (startIndex < 0) {
+            startIndex = -(startIndex + 1);
+        }
+        int endIndex = getIndex(end);
+        if (endIndex < 0) {
+            endIndex = -(endIndex + 1) - 1;
+        }
+        return copy(startIndex, endIndex);
+    }
+
+    /**
+     * Creates a new series holding a range of items.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item.
+     *
+     * @return The copy.
+     */
+    private RingBufferTimeSeries copy(int start, int end) {
+        RingBufferTimeSeries copy = new RingBufferTimeSeries("",
+                getDomainDescription(), getRangeDescription(),
+                this.timePeriodClass);
+        copy.setKey(getKey());
+        copy.setDescription(getDescription());
+        copy.maximumItemCount = this.maximumItemCount;
+        copy.maximumItemAge = this.maximumItemAge;
+        if (end >= start) {
+            checkIndex(start);
+            checkIndex(end);
+            int n = end - start + 1;
+            copy.grow(n);
+            for (int i = 0; i < n; i++) {
+                int from = slot(start + i);
+                copy.periods[i] = this.periods[from];
+                copy.serials[i] = this.serials[from];
+                copy.values[i] = this.values[from];
+                if (this.nulls.get(from)) {
+                    copy.nulls.set(i);
+                }
+            }
+            copy.count = n;
+        }
+        return copy;
+    }
+
+    /**
+     * Tests the series for equality with an arbitrary object.  As for
+     * {@link TimeSeries}, the other object must be of the same class.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || !getClass().equals(obj.getClass())) {
+            return false;
+        }
+        RingBufferTimeSeries that = (RingBufferTimeSeries) obj;
+        if (!getKey().equals(that.getKey())) {
+            return false;
+        }
+        if (!ObjectUtilities.equal(getDescription(), that.getDescription())) {
+            return false;
+        }
+        if (!ObjectUtilities.equal(getDomainDescription(),
+                that.getDomainDescription())) {
+            return false;
+        }
+        if (!ObjectUtilities.equal(getRangeDescription(),
+                that.getRangeDescription())) {
+            return false;
+        }
+        if (!ObjectUtilities.equal(this.timePeriodClass,
+                that.timePeriodClass)) {
+            return false;
+        }
+        if (this.maximumItemAge != that.maximumItemAge
+                || this.maximumItemCount != that.maximumItemCount
+                || this.count != that.count) {
+            return false;
+        }
+        for (int i = 0; i < this.count; i++) {
+            int s1 = slot(i);
+            int s2 = that.slot(i);
+            if (!this.periods[s1].equals(that.periods[s2])
+                    || this.nulls.get(s1) != that.nulls.get(s2)
+                    || Double.doubleToLongBits(this.values[s1])
+                    != Double.doubleToLongBits(that.values[s2])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = getKey() != null ? getKey().hashCode() : 0;
+        result = 29 * result + (this.timePeriodClass != null
+                ? this.timePeriodClass.hashCode() : 0);
+        result = 29 * result + this.count;
+        if (this.count > 0) {
+            result = 29 * result + getTimePeriod(0).hashCode();
+            result = 29 * result + getTimePeriod(this.count - 1).hashCode();
+        }
+        return result;
+    }
+
+    /**
+     * Checks that a period is not <code>null</code> and is of the series'
+     * time period class.
+     *
+     * @param period  the period.
+     */
+    private void checkPeriod(RegularTimePeriod period) {
+        if (period == null) {
+            throw new IllegalArgumentException("Null 'period' argument.");
+        }
+        if (!period.getClass().equals(this.timePeriodClass)) {
+            throw new SeriesException("You are trying to add data where the "
+                    + "time period class is " + period.getClass().getName()
+                    + ", but the TimeSeries is expecting an instance of "
+                    + this.timePeriodClass.getName() + ".");
+        }
+    }
+
+    /**
+     * Throws an exception if an item index is out of bounds.
+     *
+     * @param index  the index.
+     *
+     * @return The index.
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + this.count);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the buffer slot of an item.
+     *
+     * @param index  the item index.
+     *
+     * @return The slot.
+     */
+    private int slot(int index) {
+        int slot = this.head + index;
+        return slot < this.periods.length ? slot : slot - this.periods.length;
+    }
+
+    /**
+     * Returns the value in a slot.
+     *
+     * @param slot  the slot.
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    private Number valueAt(int slot) {
+        return this.nulls.get(slot) ? null : new Double(this.values[slot]);
+    }
+
+    /**
+     * Sets the value in a slot.
+     *
+     * @param slot  the slot.
+     * @param value  the value (<code>null</code> permitted).
+     */
+    private void setValue(int slot, Number value) {
+        if (value == null) {
+            this.values[slot] = 0.0;
+            this.nulls.set(slot);
+        }
+        else {
+            this.values[slot] = value.doubleValue();
+            this.nulls.clear(slot);
+        }
+    }
+
+    /**
+     * Finds a serial index by binary search.
+     *
+     * @param serial  the serial index.
+     *
+     * @return The item index, or <code>-(insertion point) - 1</code>.
+     */
+    private int search(long serial) {
+        int low = 0;
+        int high = this.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long s = this.serials[slot(mid)];
+            if (s < serial) {
+                low = mid + 1;
+            }
+            else if (s > serial) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Inserts an item, moving later items along by one.
+     *
+     * @param index  the item index.
+     * @param period  the time period.
+     * @param serial  the serial index of the period.
+     * @param value  the value.
+     * @param isNull  <code>true</code> if the value is <code>null</code>.
+     */
+    private void insert(int index, RegularTimePeriod period, long serial,
+            double value, boolean isNull) {
+        grow(this.count + 1);
+        for (int i = this.count; i > index; i--) {
+            move(slot(i - 1), slot(i));
+        }
+        int slot = slot(index);
+        this.periods[slot] = period;
+        this.serials[slot] = serial;
+        this.values[slot] = value;
+        this.nulls.set(slot, isNull);
+        this.count++;
+    }
+
+    /**
+     * Removes the first item.
+     */
+    private void removeFirst() {
+        this.periods[this.head] = null;
+        this.nulls.clear(this.head);
+        this.head = slot(1);
+        this.count--;
+        if (this.count == 0) {
+            this.head = 0;
+        }
+    }
+
+    /**
+     * Removes a range of items, moving later items back.
+     *
+     * @param index  the index of the first item to remove.
+     * @param length  the number of items to remove.
+     */
+    private void removeRange(int index, int length) {
+        for (int i = index; i + length < this.count; i++) {
+            move(slot(i + length), slot(i));
+        }
+        for (int i = this.count - length; i < this.count; i++) {
+            int slot = slot(i);
+            this.periods[slot] = null;
+            this.nulls.clear(slot);
+        }
+        this.count -= length;
+        if (this.count == 0) {
+            this.head = 0;
+        }
+    }
+
+    /**
+     * Copies an item from one slot to another.
+     *
+     * @param from  the source slot.
+     * @param to  the target slot.
+     */
+    private void move(int from, int to) {
+        this.periods[to] = this.periods[from];
+        this.serials[to] = this.serials[from];
+        this.values[to] = this.values[from];
+        this.nulls.set(to, this.nulls.get(from));
+    }
+
+    /**
+     * Makes room for at least the specified number of items, unrolling the
+     * buffer so that the first item is in slot 0.  Once the series is at
+     * its maximum item count the buffer stops growing, with one spare slot
+     * for the item that is added before the oldest is evicted.
+     *
+     * @param capacity  the number of items.
+     */
+    private void grow(int capacity) {
+        int length = this.periods.length;
+        if (capacity <= length) {
+            return;
+        }
+        long limit = Math.max(capacity, (long) this.maximumItemCount + 1);
+        int newLength = (int) Math.min(Math.min((long) length * 2, limit),
+                Integer.MAX_VALUE - 8);
+        newLength = Math.max(newLength, capacity);
+        RegularTimePeriod[] newPeriods = new RegularTimePeriod[newLength];
+        long[] newSerials = new long[newLength];
+        double[] newValues = new double[newLength];
+        BitSet newNulls = new BitSet(newLength);
+        for (int i = 0; i < this.count; i++) {
+            int slot = slot(i);
+            newPeriods[i] = this.periods[slot];
+            newSerials[i] = this.serials[slot];
+            newValues[i] = this.values[slot];
+            if (this.nulls.get(slot)) {
+                newNulls.set(i);
+            }
+        }
+        this.periods = newPeriods;
+        this.serials = newSerials;
+        this.values = newValues;
+        this.nulls = newNulls;
+        this.head = 0;
+    }
+
+}
@@ -0,0 +1,259 @@
+package org.jfree.data.time;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.jfree.data.general.SeriesException;
+import org.junit.Test;
+import java.util.Date;
+import java.util.Random;
+
+public class RingBufferTimeSeriesTest {
+
+    /**
+     * Counts change events.
+     */
+    private static class EventCounter implements SeriesChangeListener {
+
+        private int count;
+
+        public void seriesChanged(SeriesChangeEvent event) {
+            this.count++;
+        }
+
+    }
+
+    /**
+     * Checks that two series hold the same periods and values.
+     */
+    private static void assertSameItems(TimeSeries expected, TimeSeries actual) {
+        assertEquals("The item count should match", expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals("The period at " + i + " should match", expected.getTimePeriod(i), actual.getTimePeriod(i));
+            Number value = expected.getValue(i);
+            if (value == null) {
+                assertNull("The value at " + i + " should be null", actual.getValue(i));
+            }
+            else {
+                assertEquals("The value at " + i + " should match", value.doubleValue(),
+                        actual.getValue(i).doubleValue(), .000000001d);
+            }
+        }
+    }
+
+    /**
+     * Creates a series of hours with a value for each of the first count hours of 2006.
+     */
+    private static RingBufferTimeSeries createSeries(int count) {
+        RingBufferTimeSeries series = new RingBufferTimeSeries("S", Hour.class);
+        RegularTimePeriod period = new Hour(0, new Day(1, 1, 2006));
+        for (int i = 0; i < count; i++) {
+            series.add(period, i);
+            period = period.next();
+        }
+        return series;
+    }
+
+    // ----------------------------
+    // add / addOrUpdate / update / delete in any order
+    // maximum: { EC1: none, EC2: item count, EC3: item age }
+    // ----------------------------
+
+    /**
+     * Applies the same random operations to a TimeSeries and a RingBufferTimeSeries.
+     */
+    private static void compareRandomOperations(int maximumCount, int maximumAge, long seed) {
+        TimeSeries expected = new TimeSeries("S", Day.class);
+        RingBufferTimeSeries actual = new RingBufferTimeSeries("S", Day.class);
+        expected.setMaximumItemCount(maximumCount);
+        actual.setMaximumItemCount(maximumCount);
+        expected.setMaximumItemAge(maximumAge);
+        actual.setMaximumItemAge(maximumAge);
+        EventCounter expectedEvents = new EventCounter();
+        EventCounter actualEvents = new EventCounter();
+        expected.addChangeListener(expectedEvents);
+        actual.addChangeListener(actualEvents);
+        Random random = new Random(seed);
+        Day start = new Day(1, 1, 2006);
+        for (int n = 0; n < 2000; n++) {
+            RegularTimePeriod period = RegularTimePeriod.createInstance(Day.class,
+                    new Date(start.getFirstMillisecond() + 86400000L * (n / 4 + random.nextInt(40))),
+                    RegularTimePeriod.DEFAULT_TIME_ZONE);
+            Double value = random.nextInt(10) == 0 ? null : new Double(random.nextInt(1000));
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                boolean duplicate = expected.getIndex(period) >= 0;
+                try {
+                    actual.add(period, value);
+                    assertFalse("Adding " + period + " should have failed", duplicate);
+                }
+                catch (SeriesException e) {
+                    assertTrue("Adding " + period + " should have succeeded", duplicate);
+                }
+                if (!duplicate) {
+                    expected.add(period, value);
+                }
+            }
+            else if (operation < 8) {
+                TimeSeriesDataItem old = expected.addOrUpdate(period, value);
+                assertEquals("The overwritten item for " + period + " should match", old,
+                        actual.addOrUpdate(period, value));
+            }
+            else if (operation < 9 && expected.getIndex(period) >= 0) {
+                expected.delete(period);
+                actual.delete(period);
+            }
+            else if (operation == 9 && expected.getItemCount() > 0) {
+                int index = random.nextInt(expected.getItemCount());
+                expected.update(index, value);
+                actual.update(index, value);
+            }
+            assertEquals("The index of " + period + " should match", expected.getIndex(period),
+                    actual.getIndex(period));
+        }
+        assertSameItems(expected, actual);
+        assertEquals("The same number of events should be sent", expectedEvents.count, actualEvents.count);
+    }
+
+    // EC1
+    @Test
+    public void sameItemsAsTimeSeries() {
+        compareRandomOperations(Integer.MAX_VALUE, Integer.MAX_VALUE, 16L);
+    }
+
+    // EC2
+    @Test
+    public void sameItemsAsTimeSeriesWithMaximumCount() {
+        compareRandomOperations(50, Integer.MAX_VALUE, 17L);
+    }
+
+    // EC3
+    @Test
+    public void sameItemsAsTimeSeriesWithMaximumAge() {
+        compareRandomOperations(Integer.MAX_VALUE, 30, 18L);
+    }
+
+    // ----------------------------
+    // add(RegularTimePeriod period, double value)
+    // period: { EC1: after the last item at the maximum count, EC2: wrong class, EC3: duplicate }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void addEvictsOldestItem() {
+        // setup
+        RingBufferTimeSeries series = createSeries(0);
+        series.setMaximumItemCount(3);
+        EventCounter counter = new EventCounter();
+        series.addChangeListener(counter);
+        RegularTimePeriod period = new Hour(0, new Day(1, 1, 2006));
+
+        // exercise
+        for (int i = 0; i < 10; i++) {
+            series.add(period, i);
+            period = period.next();
+        }
+
+        // verify
+        assertEquals("Only 3 items should be kept", 3, series.getItemCount());
+        assertEquals("The oldest item should be hour 7", new Hour(7, new Day(1, 1, 2006)), series.getTimePeriod(0));
+        assertEquals("The newest value should be 9", 9.0, series.getValue(2).doubleValue(), .000000001d);
+        assertEquals("There should be one event per add", 10, counter.count);
+    }
+
+    // EC2
+    @Test(expected = SeriesException.class)
+    public void addWrongPeriodClass() {
+        // exercise
+        createSeries(1).add(new Day(2, 1, 2006), 1.0);
+    }
+
+    // EC3
+    @Test(expected = SeriesException.class)
+    public void addDuplicatePeriod() {
+        // exercise
+        createSeries(3).add(new Hour(1, new Day(1, 1, 2006)), 1.0);
+    }
+
+    // ----------------------------
+    // setMaximumItemCount(int maximum) / setMaximumItemAge(int periods)
+    // ----------------------------
+
+    @Test
+    public void lowerMaximumCountRemovesOldest() {
+        // setup
+        RingBufferTimeSeries series = createSeries(10);
+
+        // exercise
+        series.setMaximumItemCount(4);
+
+        // verify
+        assertEquals("Only 4 items should be kept", 4, series.getItemCount());
+        assertEquals("The first value should be 6", 6.0, series.getValue(0).doubleValue(), .000000001d);
+    }
+
+    @Test
+    public void lowerMaximumAgeRemovesOldest() {
+        // setup
+        RingBufferTimeSeries series = createSeries(10);
+        EventCounter counter = new EventCounter();
+        series.addChangeListener(counter);
+
+        // exercise
+        series.setMaximumItemAge(3);
+
+        // verify
+        assertEquals("Only the last 3 hours should be kept", 3, series.getItemCount());
+        assertEquals("The first value should be 7", 7.0, series.getValue(0).doubleValue(), .000000001d);
+        assertEquals("There should be one event", 1, counter.count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectNegativeMaximumCount() {
+        // exercise
+        createSeries(0).setMaximumItemCount(-1);
+    }
+
+    // ----------------------------
+    // clone() / createCopy(RegularTimePeriod start, RegularTimePeriod end)
+    // ----------------------------
+
+    @Test
+    public void cloneIsEqualAndIndependent() throws CloneNotSupportedException {
+        // setup
+        RingBufferTimeSeries series = createSeries(20);
+        series.setMaximumItemCount(15);
+
+        // exercise
+        RingBufferTimeSeries clone = (RingBufferTimeSeries) series.clone();
+
+        // verify
+        assertEquals("The clone should equal the original", series, clone);
+        assertEquals("The clone should have the same hash code", series.hashCode(), clone.hashCode());
+        clone.update(0, new Double(-1.0));
+        assertFalse("Changing the clone should not change the original", series.equals(clone));
+        assertEquals("The original value should be 5", 5.0, series.getValue(0).doubleValue(), .000000001d);
+    }
+
+    @Test
+    public void copyBetweenPeriods() throws CloneNotSupportedException {
+        // setup
+        RingBufferTimeSeries series = createSeries(10);
+        Day day = new Day(1, 1, 2006);
+
+        // exercise
+        TimeSeries copy = series.createCopy(new Hour(3, day), new Hour(5, day));
+
+        // verify
+        assertEquals("The copy should hold 3 items", 3, copy.getItemCount());
+        assertEquals("The copy should start at hour 3", new Hour(3, day), copy.getTimePeriod(0));
+        assertEquals("The copy should keep the key", "S", copy.getKey());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getValueOutOfBounds() {
+        // exercise
+        createSeries(3).getValue(3);
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.jfree.data.time;
+
+/**
+ * The values in a sliding window, with a running compensated sum from which
+ * the average is read in constant time.  Each value is held with a key (a
+ * serial index or an x-value) so that the window can be trimmed by key as
+ * well as by count.  Keys must be added in ascending order.
+ * <p>
+ * The rounding error of each addition and removal is carried in a separate
+ * term (Kahan-Babuska-Neumaier summation), so the sum does not drift over a
+ * long series.  Infinite and <code>NaN</code> values are counted rather
+ * than added, so that the sum recovers once they leave the window.
+ */
+class WindowSum {
+
+    /** The keys, in a circular buffer. */
+    private double[] keys;
+
+    /** The values, in a circular buffer (<code>NaN</code> for null). */
+    private double[] values;
+
+    /** Flags for the <code>null</code> values, in a circular buffer. */
+    private boolean[] nulls;
+
+    /** The slot of the first entry. */
+    private int head;
+
+    /** The number of entries. */
+    private int size;
+
+    /** The number of finite values in the window. */
+    private int finiteCount;
+
+    /** The number of <code>NaN</code> values in the window. */
+    private int nanCount;
+
+    /** The number of positive infinite values in the window. */
+    private int positiveInfinityCount;
+
+    /** The number of negative infinite values in the window. */
+    private int negativeInfinityCount;
+
+    /** The sum of the finite values. */
+    private double sum;
+
+    /** The rounding error of the sum. */
+    private double compensation;
+
+    /**
+     * Creates an empty window.
+     */
+    WindowSum() {
+        this.keys = new double[16];
+        this.values = new double[16];
+        this.nulls = new boolean[16];
+    }
+
+    /**
+     * Returns the number of entries, including <code>null</code> values.
+     *
+     * @return The size.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds an entry at the end of the window.
+     *
+     * @param key  the key (not less than the last key).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    void add(double key, Number value) {
+        if (this.size == this.keys.length) {
+            grow();
+        }
+        int slot = slot(this.size);
+        this.keys[slot] = key;
+        this.nulls[slot] = value == null;
+        double v = value != null ? value.doubleValue() : Double.NaN;
+        this.values[slot] = v;
+        this.size++;
+        if (value != null) {
+            count(v, 1);
+        }
+    }
+
+    /**
+     * Removes the first entry.
+     */
+    void removeFirst() {
+        if (!this.nulls[this.head]) {
+            count(this.values[this.head], -1);
+        }
+        this.head = slot(1);
+        this.size--;
+        if (this.finiteCount == 0) {
+            // nothing left to carry errors for, so start again from zero
+            this.sum = 0.0;
+            this.compensation = 0.0;
+        }
+    }
+
+    /**
+     * Removes the entries from the start of the window whose keys are less
+     * than or equal to a limit.
+     *
+     * @param limit  the limit.
+     */
+    void removeTo(double limit) {
+        while (this.size > 0 && this.keys[this.head] <= limit) {
+            removeFirst();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        this.head = 0;
+        this.size = 0;
+        this.finiteCount = 0;
+        this.nanCount = 0;
+        this.positiveInfinityCount = 0;
+        this.negativeInfinityCount = 0;
+        this.sum = 0.0;
+        this.compensation = 0.0;
+    }
+
+    /**
+     * Returns the average of the values in the window, ignoring
+     * <code>null</code> values.  As when the values are added one by one,
+     * the average is <code>NaN</code> if the window holds a <code>NaN</code>
+     * or infinities of both signs, and infinite if it holds infinities of
+     * one sign.
+     *
+     * @return The average, or <code>null</code> if the window has no
+     *     non-<code>null</code> values.
+     */
+    Number getAverage() {
+        int n = this.finiteCount + this.nanCount + this.positiveInfinityCount
+                + this.negativeInfinityCount;
+        if (n == 0) {
+            return null;
+        }
+        if (this.nanCount > 0 || (this.positiveInfinityCount > 0
+                && this.negativeInfinityCount > 0)) {
+            return new Double(Double.NaN);
+        }
+        if (this.positiveInfinityCount > 0) {
+            return new Double(Double.POSITIVE_INFINITY);
+        }
+        if (this.negativeInfinityCount > 0) {
+            return new Double(Double.NEGATIVE_INFINITY);
+        }
+        return new Double((this.sum + this.compensation) / n);
+    }
+
+    /**
+     * Adds a value to, or removes it from, the sum or the counts.
+     *
+     * @param v  the value.
+     * @param sign  1 to add the value, -1 to remove it.
+     */
+    private void count(double v, int sign) {
+        if (Double.isNaN(v)) {
+            this.nanCount += sign;
+        }
+        else if (v == Double.POSITIVE_INFINITY) {
+            this.positiveInfinityCount += sign;
+        }
+        else if (v == Double.NEGATIVE_INFINITY) {
+            this.negativeInfinityCount += sign;
+        }
+        else {
+            this.finiteCount += sign;
+            double x = sign * v;
+            double t = this.sum + x;
+            this.compensation += Math.abs(this.sum) >= Math.abs(x)
+                    ? (this.sum - t) + x : (x - t) + this.sum;
+            this.sum = t;
+        }
+    }
+
+    /**
+     * Returns the buffer slot of an entry.
+     *
+     * @param index  the entry index.
+     *
+     * @return The slot.
+     */
+    private int slot(int index) {
+        int slot = this.head + index;
+        return slot < this.keys.length ? slot : slot - this.keys.length;
+    }
+
+    /**
+     * Doubles the capacity of the buffer, unrolling it so that the first
+     * entry is in slot 0.
+     */
+    private void grow() {
+        int length = this.keys.length * 2;
+        double[] newKeys = new double[length];
+        double[] newValues = new double[length];
+        boolean[] newNulls = new boolean[length];
+        for (int i = 0; i < this.size; i++) {
+            int slot = slot(i);
+            newKeys[i] = this.keys[slot];
+            newValues[i] = this.values[slot];
+            newNulls[i] = this.nulls[slot];
+        }
+        this.keys = newKeys;
+        this.values = newValues;
+        this.nulls = newNulls;
+        this.head = 0;
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.jfree.data.xy;
+
+import org.jfree.data.general.BatchDatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeBatch;
+import org.jfree.data.general.SeriesChangeEvent;
+
+/**
+ * An {@link XYSeriesCollection} that can collect the changes made between
+ * {@link #beginUpdate()} and {@link #endUpdate()} into a single
+ * {@link BatchDatasetChangeEvent}, giving the range of series affected.
+ * Outside an update the collection sends an event for each change to one
+ * of its series, as <code>XYSeriesCollection</code> does.
+ * <p>
+ * A series does not report which of its items changed, so the item range
+ * of the event covers the whole of each series.  The series still send
+ * their own {@link SeriesChangeEvent}s during an update; to avoid those as
+ * well, switch off their notification with
+ * {@link org.jfree.data.general.Series#setNotify(boolean)}.  An update may
+ * be begun and ended on different threads, but each series must only be
+ * changed by one thread at a time.
+ */
+public class BatchedXYSeriesCollection extends XYSeriesCollection {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 3617244069561096335L;
+
+    /** The changes in the current update. */
+    private DatasetChangeBatch batch;
+
+    /**
+     * Creates a new empty collection.
+     */
+    public BatchedXYSeriesCollection() {
+        super();
+        this.batch = new DatasetChangeBatch();
+    }
+
+    /**
+     * Creates a new collection holding one series.
+     *
+     * @param series  the series (<code>null</code> ignored).
+     */
+    public BatchedXYSeriesCollection(XYSeries series) {
+        super(series);
+        this.batch = new DatasetChangeBatch();
+    }
+
+    /**
+     * Starts an update.  Until the matching call to {@link #endUpdate()},
+     * changes to the collection and its series are recorded instead of
+     * being sent to the listeners.  Updates may be nested.
+     */
+    public void beginUpdate() {
+        this.batch.beginUpdate();
+    }
+
+    /**
+     * Ends an update and, if it was the outermost one and the collection
+     * changed, sends a {@link BatchDatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @throws IllegalStateException if no update is in progress.
+     */
+    public void endUpdate() {
+        BatchDatasetChangeEvent event = this.batch.endUpdate(this);
+        if (event != null) {
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if an update is in progress.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating() {
+        return this.batch.isUpdating();
+    }
+
+    /**
+     * Records a change to a series during an update, or sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners otherwise.
+     *
+     * @param event  the series change event.
+     */
+    public void seriesChanged(SeriesChangeEvent event) {
+        int series = -1;
+        for (int i = getSeriesCount() - 1; i >= 0 && series < 0; i--) {
+            if (getSeries(i) == event.getSource()) {
+                series = i;
+            }
+        }
+        boolean recorded = series >= 0
+                ? this.batch.recordChange(series, series, 0,
+                        Integer.MAX_VALUE)
+                : this.batch.recordChange(0, Integer.MAX_VALUE, 0,
+                        Integer.MAX_VALUE);
+        if (!recorded) {
+            super.fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Records a change to the collection during an update, or sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners otherwise.
+     */
+    protected void fireDatasetChanged() {
+        // the superclass constructor can add a series before the batch exists
+        if (this.batch == null || !this.batch.recordChange(0,
+                Integer.MAX_VALUE, 0, Integer.MAX_VALUE)) {
+            super.fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Returns a clone of the collection.  The clone has no update in
+     * progress.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the collection cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        BatchedXYSeriesCollection clone
+                = (BatchedXYSeriesCollection) super.clone();
+        clone.batch = new DatasetChangeBatch();
+        return clone;
+    }
+
+}
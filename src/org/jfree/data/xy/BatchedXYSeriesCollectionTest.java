@@ -0,0 +1,92 @@
+package org.jfree.data.xy;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.BatchDatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchedXYSeriesCollectionTest {
+
+    /**
+     * Records change events.
+     */
+    private static class EventRecorder implements DatasetChangeListener {
+
+        private List events = new ArrayList();
+
+        public void datasetChanged(DatasetChangeEvent event) {
+            this.events.add(event);
+        }
+
+    }
+
+    // ----------------------------
+    // beginUpdate() / endUpdate()
+    // changes: { EC1: items added to one series, EC2: a series added }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void oneEventForManyItems() {
+        // setup
+        XYSeries s0 = new XYSeries("S0");
+        XYSeries s1 = new XYSeries("S1");
+        BatchedXYSeriesCollection dataset = new BatchedXYSeriesCollection(s0);
+        dataset.addSeries(s1);
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.beginUpdate();
+        for (int i = 0; i < 1000; i++) {
+            s1.add(i, i * 2.0);
+        }
+        dataset.endUpdate();
+
+        // verify
+        assertEquals("There should be one event", 1, recorder.events.size());
+        BatchDatasetChangeEvent event = (BatchDatasetChangeEvent) recorder.events.get(0);
+        assertEquals("There should be 1000 changes", 1000, event.getChangeCount());
+        assertEquals("Only series 1 should have changed", 1, event.getFirstSeries());
+        assertEquals("Only series 1 should have changed", 1, event.getLastSeries());
+        assertEquals("The items should be in the series", 1000, dataset.getItemCount(1));
+    }
+
+    // EC2
+    @Test
+    public void addedSeriesCoversAllSeries() {
+        // setup
+        BatchedXYSeriesCollection dataset = new BatchedXYSeriesCollection();
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        dataset.beginUpdate();
+        dataset.addSeries(new XYSeries("S0"));
+        dataset.endUpdate();
+
+        // verify
+        BatchDatasetChangeEvent event = (BatchDatasetChangeEvent) recorder.events.get(0);
+        assertEquals("The series should run to the end", Integer.MAX_VALUE, event.getLastSeries());
+    }
+
+    @Test
+    public void eventPerChangeOutsideUpdate() {
+        // setup
+        XYSeries series = new XYSeries("S0");
+        BatchedXYSeriesCollection dataset = new BatchedXYSeriesCollection(series);
+        EventRecorder recorder = new EventRecorder();
+        dataset.addChangeListener(recorder);
+
+        // exercise
+        series.add(1.0, 1.0);
+        series.add(2.0, 2.0);
+
+        // verify
+        assertEquals("There should be one event per change", 2, recorder.events.size());
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.jfree.data.xy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.general.DatasetChangeEvent;
+
+/**
+ * A dataset that shows {@link ConcurrentXYSeries} filled by other threads.
+ * The dataset reads each series through a
+ * {@link ConcurrentXYSeries.Snapshot}, so the item counts and values it
+ * reports stay the same, and consistent, until {@link #refresh()} is
+ * called, however many items the writer threads append in the meantime.
+ * Reading the dataset never blocks the writers.
+ * <p>
+ * Call <code>refresh()</code> on the thread that draws the chart (for
+ * example, from a Swing timer), which is also the thread that receives the
+ * resulting {@link DatasetChangeEvent}.  The series list should only be
+ * changed on that thread too.  The dataset cannot be serialized.
+ */
+public class ConcurrentXYDataset extends AbstractXYDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 8427531096236741480L;
+
+    /** The series. */
+    private List series;
+
+    /** A snapshot of each series, taken at the last refresh. */
+    private List snapshots;
+
+    /**
+     * Creates a new empty dataset.
+     */
+    public ConcurrentXYDataset() {
+        this.series = new ArrayList();
+        this.snapshots = new ArrayList();
+    }
+
+    /**
+     * Adds a series to the dataset and sends a {@link DatasetChangeEvent}
+     * to all registered listeners.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void addSeries(ConcurrentXYSeries series) {
+        if (series == null) {
+            throw new IllegalArgumentException("Null 'series' argument.");
+        }
+        this.series.add(series);
+        this.snapshots.add(series.snapshot());
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a series from the dataset and sends a
+     * {@link DatasetChangeEvent} to all registered listeners.
+     *
+     * @param series  the series index (zero-based).
+     */
+    public void removeSeries(int series) {
+        this.series.remove(series);
+        this.snapshots.remove(series);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series.
+     */
+    public ConcurrentXYSeries getSeries(int series) {
+        return (ConcurrentXYSeries) this.series.get(series);
+    }
+
+    /**
+     * Takes a new snapshot of each series and, if any series has gained
+     * items, sends a {@link DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @return <code>true</code> if any series has gained items.
+     */
+    public boolean refresh() {
+        boolean changed = false;
+        for (int s = 0; s < this.series.size(); s++) {
+            ConcurrentXYSeries.Snapshot snapshot = getSeries(s).snapshot();
+            if (snapshot.getItemCount() != getSnapshot(s).getItemCount()) {
+                this.snapshots.set(s, snapshot);
+                changed = true;
+            }
+        }
+        if (changed) {
+            fireDatasetChanged();
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the snapshot of a series taken at the last refresh.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The snapshot.
+     */
+    public ConcurrentXYSeries.Snapshot getSnapshot(int series) {
+        return (ConcurrentXYSeries.Snapshot) this.snapshots.get(series);
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.series.size();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return getSeries(series).getKey();
+    }
+
+    /**
+     * Returns the number of items in a series at the last refresh.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getSnapshot(series).getItemCount();
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        return getSnapshot(series).getXValue(item);
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (<code>NaN</code> for a missing value).
+     */
+    public double getYValue(int series, int item) {
+        return getSnapshot(series).getYValue(item);
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public Number getX(int series, int item) {
+        return new Double(getXValue(series, item));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (<code>null</code> for a missing value).
+     */
+    public Number getY(int series, int item) {
+        double y = getYValue(series, item);
+        return Double.isNaN(y) ? null : new Double(y);
+    }
+
+}
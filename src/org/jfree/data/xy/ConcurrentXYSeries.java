@@ -0,0 +1,301 @@
+package org.jfree.data.xy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jfree.data.time.RegularTimePeriod;
+
+/**
+ * An append-only series of (x, y) items that any number of threads can
+ * append to without locking while other threads read it.  Readers work on
+ * a {@link Snapshot}, which is taken in constant time without waiting for
+ * writers and always holds a consistent prefix of the series: every item
+ * in it is complete, and its items never change.
+ * <p>
+ * The items are stored in chunks of {@link #CHUNK_SIZE} values.  A writer
+ * reserves an index with a compare-and-set, writes its item, marks it as
+ * written and then advances the published item count past every written
+ * item, so the count only covers items whose writers have finished.  A
+ * new chunk is added by publishing a copy of the chunk directory, so a
+ * snapshot keeps the directory it was taken with.  With one writer thread
+ * every compare-and-set succeeds at the first attempt.
+ * <p>
+ * Items are kept in the order in which their indices were reserved; with
+ * several writers the x-values need not be in ascending order.  Unlike
+ * {@link XYSeries}, the series sends no change events, because they would
+ * arrive on the writer threads; use a {@link ConcurrentXYDataset} to show
+ * the series in a chart.
+ */
+public class ConcurrentXYSeries {
+
+    /** The number of items in each chunk (a power of two). */
+    public static final int CHUNK_SIZE = 4096;
+
+    /** The number of bits of an index that select the item in a chunk. */
+    private static final int SHIFT = 12;
+
+    /** The mask that selects the item in a chunk from an index. */
+    private static final int MASK = CHUNK_SIZE - 1;
+
+    /** The series key. */
+    private Comparable key;
+
+    /** The number of indices reserved by writers. */
+    private AtomicInteger reserved;
+
+    /** The number of items published to readers. */
+    private AtomicInteger published;
+
+    /** The chunk directory, replaced by a larger copy as the series grows. */
+    private AtomicReference directory;
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     */
+    public ConcurrentXYSeries(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        this.key = key;
+        this.reserved = new AtomicInteger();
+        this.published = new AtomicInteger();
+        this.directory = new AtomicReference(new Chunk[] {new Chunk()});
+    }
+
+    /**
+     * Returns the series key.
+     *
+     * @return The series key (never <code>null</code>).
+     */
+    public Comparable getKey() {
+        return this.key;
+    }
+
+    /**
+     * Returns the number of items published to readers.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.published.get();
+    }
+
+    /**
+     * Appends an item.  This method can be called from any thread.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value (<code>NaN</code> for a missing value).
+     */
+    public void add(double x, double y) {
+        int index;
+        do {
+            index = this.reserved.get();
+            if (index == Integer.MAX_VALUE) {
+                throw new IllegalStateException("The series is full.");
+            }
+        } while (!this.reserved.compareAndSet(index, index + 1));
+        Chunk chunk = chunk(index >>> SHIFT);
+        int offset = index & MASK;
+        chunk.xValues[offset] = x;
+        chunk.yValues[offset] = y;
+        chunk.written.set(offset, 1);
+        publish();
+    }
+
+    /**
+     * Appends an item.  This method can be called from any thread.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the y-value (<code>null</code> permitted).
+     */
+    public void add(Number x, Number y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        add(x.doubleValue(), y != null ? y.doubleValue() : Double.NaN);
+    }
+
+    /**
+     * Appends an item for a time period, with the first millisecond of the
+     * period as the x-value, as a
+     * {@link org.jfree.data.time.TimeSeriesCollection} reports by default.
+     * This method can be called from any thread.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param y  the y-value (<code>NaN</code> for a missing value).
+     */
+    public void add(RegularTimePeriod period, double y) {
+        if (period == null) {
+            throw new IllegalArgumentException("Null 'period' argument.");
+        }
+        add((double) period.getFirstMillisecond(), y);
+    }
+
+    /**
+     * Returns a snapshot of the items published so far.  The snapshot is
+     * taken without waiting for writers, and does not change as items are
+     * appended.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        // read the count first, so the directory holds every counted chunk
+        int count = this.published.get();
+        return new Snapshot(this.key, count,
+                (Chunk[]) this.directory.get());
+    }
+
+    /**
+     * Returns a chunk, adding it and any before it to the directory if
+     * needed.
+     *
+     * @param index  the chunk index.
+     *
+     * @return The chunk.
+     */
+    private Chunk chunk(int index) {
+        while (true) {
+            Chunk[] chunks = (Chunk[]) this.directory.get();
+            if (index < chunks.length) {
+                return chunks[index];
+            }
+            // grow by half, as an ArrayList does
+            Chunk[] grown = new Chunk[Math.max(index + 1,
+                    chunks.length + (chunks.length >> 1))];
+            System.arraycopy(chunks, 0, grown, 0, chunks.length);
+            for (int i = chunks.length; i < grown.length; i++) {
+                grown[i] = new Chunk();
+            }
+            this.directory.compareAndSet(chunks, grown);
+        }
+    }
+
+    /**
+     * Advances the published item count past every item that has been
+     * written.  Each writer calls this after writing its item, so the count
+     * passes an item once its writer and the writers of the items before it
+     * have finished.
+     */
+    private void publish() {
+        while (true) {
+            int count = this.published.get();
+            if (count == this.reserved.get()) {
+                return;
+            }
+            Chunk[] chunks = (Chunk[]) this.directory.get();
+            int chunkIndex = count >>> SHIFT;
+            if (chunkIndex >= chunks.length
+                    || chunks[chunkIndex].written.get(count & MASK) == 0) {
+                // the writer of the next item will publish it
+                return;
+            }
+            this.published.compareAndSet(count, count + 1);
+        }
+    }
+
+    /**
+     * A block of items.
+     */
+    private static final class Chunk {
+
+        /** The x-values. */
+        private final double[] xValues = new double[CHUNK_SIZE];
+
+        /** The y-values. */
+        private final double[] yValues = new double[CHUNK_SIZE];
+
+        /** A flag for each item, set to 1 once the item is written. */
+        private final AtomicIntegerArray written
+                = new AtomicIntegerArray(CHUNK_SIZE);
+
+    }
+
+    /**
+     * An unchanging view of the items of a {@link ConcurrentXYSeries} at
+     * the time it was taken.  A snapshot can be read from any thread.
+     */
+    public static final class Snapshot {
+
+        /** The series key. */
+        private final Comparable key;
+
+        /** The number of items. */
+        private final int count;
+
+        /** The chunks. */
+        private final Chunk[] chunks;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param key  the series key.
+         * @param count  the number of items.
+         * @param chunks  the chunk directory.
+         */
+        Snapshot(Comparable key, int count, Chunk[] chunks) {
+            this.key = key;
+            this.count = count;
+            this.chunks = chunks;
+        }
+
+        /**
+         * Returns the series key.
+         *
+         * @return The series key.
+         */
+        public Comparable getKey() {
+            return this.key;
+        }
+
+        /**
+         * Returns the number of items.
+         *
+         * @return The item count.
+         */
+        public int getItemCount() {
+            return this.count;
+        }
+
+        /**
+         * Returns the x-value of an item.
+         *
+         * @param item  the item index (zero-based).
+         *
+         * @return The x-value.
+         */
+        public double getXValue(int item) {
+            checkItem(item);
+            return this.chunks[item >>> SHIFT].xValues[item & MASK];
+        }
+
+        /**
+         * Returns the y-value of an item.
+         *
+         * @param item  the item index (zero-based).
+         *
+         * @return The y-value (<code>NaN</code> for a missing value).
+         */
+        public double getYValue(int item) {
+            checkItem(item);
+            return this.chunks[item >>> SHIFT].yValues[item & MASK];
+        }
+
+        /**
+         * Throws an exception if an item index is outside the snapshot.
+         *
+         * @param item  the item index.
+         */
+        private void checkItem(int item) {
+            if (item < 0 || item >= this.count) {
+                throw new IndexOutOfBoundsException("Item " + item
+                        + " is not in a snapshot of " + this.count
+                        + " items.");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.jfree.data.xy;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.time.Day;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentXYSeriesTest {
+
+    // ----------------------------
+    // add() / snapshot()
+    // writers: { EC1: one thread, EC2: several threads with a concurrent reader }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void snapshotDoesNotChange() {
+        // setup
+        ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        for (int i = 0; i < 10000; i++) {
+            series.add(i, i * 2.0);
+        }
+
+        // exercise
+        ConcurrentXYSeries.Snapshot snapshot = series.snapshot();
+        series.add(10000.0, 1.0);
+
+        // verify
+        assertEquals("The snapshot should keep its item count", 10000, snapshot.getItemCount());
+        assertEquals("The series should count the new item", 10001, series.getItemCount());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals("The x-value should be kept", i, snapshot.getXValue(i), 0.0);
+            assertEquals("The y-value should be kept", i * 2.0, snapshot.getYValue(i), 0.0);
+        }
+    }
+
+    // EC1
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void snapshotRejectsLaterItem() {
+        // setup
+        ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        series.add(1.0, 1.0);
+        ConcurrentXYSeries.Snapshot snapshot = series.snapshot();
+        series.add(2.0, 2.0);
+
+        // exercise
+        snapshot.getXValue(1);
+    }
+
+    // EC1
+    @Test
+    public void timePeriodUsesFirstMillisecond() {
+        // setup
+        ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        Day day = new Day(1, 2, 2008);
+
+        // exercise
+        series.add(day, 3.0);
+        series.add(new Double(4.0), null);
+
+        // verify
+        ConcurrentXYSeries.Snapshot snapshot = series.snapshot();
+        assertEquals("The x-value should be the first millisecond", day.getFirstMillisecond(),
+                snapshot.getXValue(0), 0.0);
+        assertTrue("A null y-value should be NaN", Double.isNaN(snapshot.getYValue(1)));
+    }
+
+    // EC2
+    @Test
+    public void concurrentWritersAreConsistent() throws Exception {
+        // setup
+        final ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        final int writers = 4;
+        final int perWriter = 50000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        final List errors = new ArrayList();
+        List threads = new ArrayList();
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            threads.add(new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perWriter; i++) {
+                        // the y-value can be worked out from the x-value, so a torn item shows
+                        double x = writer * perWriter + i;
+                        series.add(x, -x);
+                    }
+                }
+            });
+        }
+        Thread reader = new Thread() {
+            public void run() {
+                int previous = 0;
+                while (!done.get()) {
+                    ConcurrentXYSeries.Snapshot snapshot = series.snapshot();
+                    int count = snapshot.getItemCount();
+                    if (count < previous) {
+                        errors.add("The item count went down");
+                    }
+                    for (int i = previous; i < count; i++) {
+                        if (snapshot.getYValue(i) != -snapshot.getXValue(i)) {
+                            errors.add("Item " + i + " was torn");
+                        }
+                    }
+                    previous = count;
+                }
+            }
+        };
+
+        // exercise
+        reader.start();
+        for (int w = 0; w < writers; w++) {
+            ((Thread) threads.get(w)).start();
+        }
+        start.countDown();
+        for (int w = 0; w < writers; w++) {
+            ((Thread) threads.get(w)).join();
+        }
+        done.set(true);
+        reader.join();
+
+        // verify
+        assertTrue("The reader should see no errors: " + errors, errors.isEmpty());
+        ConcurrentXYSeries.Snapshot snapshot = series.snapshot();
+        assertEquals("Every item should be published", writers * perWriter, snapshot.getItemCount());
+        boolean[] seen = new boolean[writers * perWriter];
+        for (int i = 0; i < snapshot.getItemCount(); i++) {
+            int x = (int) snapshot.getXValue(i);
+            assertFalse("Item " + x + " should be added once", seen[x]);
+            seen[x] = true;
+        }
+    }
+
+    // ----------------------------
+    // ConcurrentXYDataset.refresh()
+    // series: { EC1: with new items, EC2: without new items }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void refreshShowsNewItems() {
+        // setup
+        ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        series.add(1.0, 10.0);
+        ConcurrentXYDataset dataset = new ConcurrentXYDataset();
+        dataset.addSeries(series);
+        final int[] events = new int[1];
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events[0]++;
+            }
+        });
+        series.add(2.0, 20.0);
+
+        // exercise
+        int before = dataset.getItemCount(0);
+        boolean changed = dataset.refresh();
+
+        // verify
+        assertEquals("The item count should not change before the refresh", 1, before);
+        assertTrue("The refresh should report a change", changed);
+        assertEquals("The item count should change after the refresh", 2, dataset.getItemCount(0));
+        assertEquals("The new y-value should be shown", 20.0, dataset.getYValue(0, 1), 0.0);
+        assertEquals("One event should be sent", 1, events[0]);
+    }
+
+    // EC2
+    @Test
+    public void refreshWithoutNewItems() {
+        // setup
+        ConcurrentXYSeries series = new ConcurrentXYSeries("S");
+        series.add(1.0, 10.0);
+        ConcurrentXYDataset dataset = new ConcurrentXYDataset();
+        dataset.addSeries(series);
+
+        // exercise
+        boolean changed = dataset.refresh();
+
+        // verify
+        assertFalse("The refresh should not report a change", changed);
+        assertEquals("The series key should be passed on", "S", dataset.getSeriesKey(0));
+    }
+
+}
@@ -0,0 +1,620 @@
+package org.jfree.data.xy;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+
+/**
+ * A view of an {@link XYDataset} that holds, for each series, only the
+ * items chosen by a {@link DownsamplingMethod} from a window of x-values,
+ * so that a chart of a very long series draws a few points per pixel
+ * instead of every item.  The view can be used wherever an
+ * <code>XYDataset</code> is accepted; a
+ * {@link org.jfree.data.time.TimeSeries} can be viewed through a
+ * {@link org.jfree.data.time.TimeSeriesCollection}.  The x-values of each
+ * series must be in ascending order.
+ * <p>
+ * The chosen items are worked out for a series when it is first read, and
+ * kept for the most recent zoom levels (a window, point count and method),
+ * so returning to an earlier zoom level costs nothing.  The view listens to
+ * the dataset and passes on its change events.  When items are appended
+ * to a series, and possibly as many of its oldest items dropped, only the
+ * kept results for that series whose window reaches the ends that changed
+ * are discarded; any other change discards all of them.  The change
+ * detection works in the same way as in
+ * {@link org.jfree.data.general.DatasetBoundsCache}: call
+ * {@link #invalidate()} after a change that could be mistaken for an
+ * append.  The view is not thread-safe.
+ */
+public class DownsampledXYDataset extends AbstractXYDataset
+        implements DatasetChangeListener {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4601384931558176209L;
+
+    /** The default number of zoom levels kept. */
+    public static final int DEFAULT_CACHED_LEVELS = 8;
+
+    /** The underlying dataset. */
+    private XYDataset dataset;
+
+    /** The current zoom level. */
+    private ZoomLevel level;
+
+    /** The chosen items for each zoom level, most recently used last. */
+    private LinkedHashMap cache;
+
+    /** The maximum number of zoom levels kept. */
+    private int cachedLevels;
+
+    /** The item count of each series when the cache was last updated. */
+    private int[] itemCounts;
+
+    /** The x-value of the last item of each series. */
+    private double[] lastX;
+
+    /** The y-value of the last item of each series. */
+    private double[] lastY;
+
+    /**
+     * Creates a view of a whole dataset, with the given number of points
+     * for each series, chosen by {@link DownsamplingMethod#LTTB}, and
+     * registers it as a listener with the dataset.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param points  the maximum number of points in each series (at least
+     *     3).
+     */
+    public DownsampledXYDataset(XYDataset dataset, int points) {
+        this(dataset, points, DownsamplingMethod.LTTB);
+    }
+
+    /**
+     * Creates a view of a whole dataset and registers it as a listener with
+     * the dataset.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param points  the maximum number of points in each series (at least
+     *     3).  With {@link DownsamplingMethod#MIN_MAX}, use twice the
+     *     number of pixel columns.
+     * @param method  the method (<code>null</code> not permitted).
+     */
+    public DownsampledXYDataset(XYDataset dataset, int points,
+            DownsamplingMethod method) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        this.dataset = dataset;
+        this.level = new ZoomLevel(Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, points, method);
+        this.cache = new LinkedHashMap(16, 0.75f, true);
+        this.cachedLevels = DEFAULT_CACHED_LEVELS;
+        recordItems();
+        dataset.addChangeListener(this);
+    }
+
+    /**
+     * Returns the underlying dataset.
+     *
+     * @return The dataset.
+     */
+    public XYDataset getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * Returns the lower bound of the window of x-values.
+     *
+     * @return The lower bound (<code>Double.NEGATIVE_INFINITY</code> if the
+     *     window is not bounded below).
+     */
+    public double getLowerBound() {
+        return this.level.lower;
+    }
+
+    /**
+     * Returns the upper bound of the window of x-values.
+     *
+     * @return The upper bound (<code>Double.POSITIVE_INFINITY</code> if the
+     *     window is not bounded above).
+     */
+    public double getUpperBound() {
+        return this.level.upper;
+    }
+
+    /**
+     * Returns the maximum number of points in each series.
+     *
+     * @return The number of points.
+     */
+    public int getPoints() {
+        return this.level.points;
+    }
+
+    /**
+     * Returns the downsampling method.
+     *
+     * @return The method.
+     */
+    public DownsamplingMethod getMethod() {
+        return this.level.method;
+    }
+
+    /**
+     * Sets the zoom level and sends a {@link DatasetChangeEvent} to all
+     * registered listeners.  The view holds the items with x-values in the
+     * window, and one item on either side of it so that lines reach the
+     * edges of the window.
+     *
+     * @param lower  the lower bound of the window
+     *     (<code>Double.NEGATIVE_INFINITY</code> permitted).
+     * @param upper  the upper bound of the window
+     *     (<code>Double.POSITIVE_INFINITY</code> permitted).
+     * @param points  the maximum number of points in each series (at least
+     *     3).
+     */
+    public void setWindow(double lower, double upper, int points) {
+        this.level = new ZoomLevel(lower, upper, points, this.level.method);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Sets the downsampling method and sends a {@link DatasetChangeEvent} to
+     * all registered listeners.
+     *
+     * @param method  the method (<code>null</code> not permitted).
+     */
+    public void setMethod(DownsamplingMethod method) {
+        this.level = new ZoomLevel(this.level.lower, this.level.upper,
+                this.level.points, method);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the maximum number of zoom levels kept.
+     *
+     * @return The number of zoom levels.
+     */
+    public int getCachedLevels() {
+        return this.cachedLevels;
+    }
+
+    /**
+     * Sets the maximum number of zoom levels kept, discarding the least
+     * recently used levels if there are more.
+     *
+     * @param levels  the number of zoom levels (at least 1).
+     */
+    public void setCachedLevels(int levels) {
+        if (levels < 1) {
+            throw new IllegalArgumentException("Requires levels >= 1.");
+        }
+        this.cachedLevels = levels;
+        trimCache();
+    }
+
+    /**
+     * Discards the chosen items for every zoom level, so that they are
+     * worked out again from the dataset, and sends a
+     * {@link DatasetChangeEvent} to all registered listeners.
+     */
+    public void invalidate() {
+        this.cache.clear();
+        recordItems();
+        fireDatasetChanged();
+    }
+
+    /**
+     * Stops listening to the dataset.  The view should not be used
+     * afterwards.
+     */
+    public void dispose() {
+        this.dataset.removeChangeListener(this);
+    }
+
+    /**
+     * Updates the cache after a change to the dataset and passes the change
+     * on to the listeners of this view.
+     *
+     * @param event  the change event.
+     */
+    public void datasetChanged(DatasetChangeEvent event) {
+        int seriesCount = this.dataset.getSeriesCount();
+        if (seriesCount != this.itemCounts.length) {
+            this.cache.clear();
+        }
+        else {
+            // a series that looks unchanged is taken as untouched when
+            // another series has grown; if none has, the change was made in
+            // place somewhere and cannot be located
+            boolean located = false;
+            for (int s = 0; s < seriesCount; s++) {
+                int status = updateSeries(s);
+                if (status < 0) {
+                    located = false;
+                    break;
+                }
+                located |= status > 0;
+            }
+            if (!located) {
+                this.cache.clear();
+            }
+        }
+        recordItems();
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the order of the domain values, which is always ascending.
+     *
+     * @return The order.
+     */
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.dataset.getSeriesCount();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return this.dataset.getSeriesKey(series);
+    }
+
+    /**
+     * Returns the number of items kept for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getSample(series).xValues.length;
+    }
+
+    /**
+     * Returns the x-value of a kept item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        return getSample(series).xValues[item];
+    }
+
+    /**
+     * Returns the y-value of a kept item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (possibly <code>NaN</code>).
+     */
+    public double getYValue(int series, int item) {
+        return getSample(series).yValues[item];
+    }
+
+    /**
+     * Returns the x-value of a kept item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public Number getX(int series, int item) {
+        return new Double(getXValue(series, item));
+    }
+
+    /**
+     * Returns the y-value of a kept item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (<code>null</code> if the item has no y-value).
+     */
+    public Number getY(int series, int item) {
+        double y = getYValue(series, item);
+        return Double.isNaN(y) ? null : new Double(y);
+    }
+
+    /**
+     * Returns the items kept for a series at the current zoom level,
+     * choosing them if they are not in the cache.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The kept items.
+     */
+    private Sample getSample(int series) {
+        Sample[] samples = (Sample[]) this.cache.get(this.level);
+        if (samples == null) {
+            samples = new Sample[this.dataset.getSeriesCount()];
+            this.cache.put(this.level, samples);
+            trimCache();
+        }
+        if (samples[series] == null) {
+            samples[series] = createSample(series);
+        }
+        return samples[series];
+    }
+
+    /**
+     * Chooses the items of a series at the current zoom level.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The kept items.
+     */
+    private Sample createSample(int series) {
+        int count = this.dataset.getItemCount(series);
+        int start = 0;
+        int end = count;
+        if (this.level.lower > Double.NEGATIVE_INFINITY) {
+            start = Math.max(Downsampling.findFirstItem(this.dataset, series,
+                    this.level.lower) - 1, 0);
+        }
+        if (this.level.upper < Double.POSITIVE_INFINITY) {
+            // the first item after the window, which is kept
+            int after = Downsampling.findFirstItem(this.dataset, series,
+                    Math.nextUp(this.level.upper));
+            end = Math.min(after + 1, count);
+        }
+        end = Math.max(start, end);
+        int[] indices;
+        if (this.level.method == DownsamplingMethod.MIN_MAX) {
+            indices = Downsampling.minMax(this.dataset, series, start, end,
+                    Math.max((this.level.points - 2) / 2, 1));
+        }
+        else {
+            indices = Downsampling.largestTriangleThreeBuckets(this.dataset,
+                    series, start, end, this.level.points);
+        }
+        Sample sample = new Sample(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            sample.xValues[i] = this.dataset.getXValue(series, indices[i]);
+            sample.yValues[i] = this.dataset.getYValue(series, indices[i]);
+        }
+        return sample;
+    }
+
+    /**
+     * Discards the kept items of a series that an append (with items
+     * possibly dropped from the start) has made out of date.
+     *
+     * @param series  the series index.
+     *
+     * @return 1 if the change has been handled, 0 if the series looks
+     *     unchanged, or -1 if it changed in some other way.
+     */
+    private int updateSeries(int series) {
+        int count = this.dataset.getItemCount(series);
+        int previous = this.itemCounts[series];
+        if (count == previous && (count == 0
+                || (same(this.lastX[series],
+                this.dataset.getXValue(series, count - 1))
+                && same(this.lastY[series],
+                this.dataset.getYValue(series, count - 1))))) {
+            // unchanged, or changed in place, which cannot be told apart
+            return 0;
+        }
+        if (previous == 0) {
+            return -1;
+        }
+        int last = -1;
+        if (count > previous && isLastItem(series, previous - 1)) {
+            last = previous - 1;
+        }
+        else {
+            for (int i = Math.min(count, previous) - 2; i >= 0; i--) {
+                if (isLastItem(series, i)) {
+                    last = i;
+                    break;
+                }
+            }
+        }
+        if (last < 0) {
+            return -1;
+        }
+        int appended = count - 1 - last;
+        boolean dropped = previous + appended > count;
+        double newFirstX = this.dataset.getXValue(series, 0);
+        Iterator iterator = this.cache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry entry = (Map.Entry) iterator.next();
+            ZoomLevel z = (ZoomLevel) entry.getKey();
+            Sample[] samples = (Sample[]) entry.getValue();
+            if (series < samples.length && (z.upper >= this.lastX[series]
+                    || (dropped && z.lower <= newFirstX))) {
+                samples[series] = null;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Returns <code>true</code> if an item of a series has the x- and
+     * y-values of the last item recorded for the series.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return A boolean.
+     */
+    private boolean isLastItem(int series, int item) {
+        return same(this.lastX[series], this.dataset.getXValue(series, item))
+                && same(this.lastY[series],
+                this.dataset.getYValue(series, item));
+    }
+
+    /**
+     * Records the item count and the last item of each series.
+     */
+    private void recordItems() {
+        int seriesCount = this.dataset.getSeriesCount();
+        this.itemCounts = new int[seriesCount];
+        this.lastX = new double[seriesCount];
+        this.lastY = new double[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            int count = this.dataset.getItemCount(s);
+            this.itemCounts[s] = count;
+            if (count > 0) {
+                this.lastX[s] = this.dataset.getXValue(s, count - 1);
+                this.lastY[s] = this.dataset.getYValue(s, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Discards the least recently used zoom levels while there are too
+     * many.
+     */
+    private void trimCache() {
+        Iterator iterator = this.cache.keySet().iterator();
+        while (this.cache.size() > this.cachedLevels && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if two values are the same, counting
+     * <code>NaN</code> as the same as itself.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     *
+     * @return A boolean.
+     */
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    /**
+     * A window of x-values, a number of points and a method.
+     */
+    private static final class ZoomLevel implements Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 2760493185246218703L;
+
+        /** The lower bound of the window. */
+        private final double lower;
+
+        /** The upper bound of the window. */
+        private final double upper;
+
+        /** The maximum number of points in each series. */
+        private final int points;
+
+        /** The method. */
+        private final DownsamplingMethod method;
+
+        /**
+         * Creates a zoom level.
+         *
+         * @param lower  the lower bound of the window.
+         * @param upper  the upper bound of the window.
+         * @param points  the maximum number of points (at least 3).
+         * @param method  the method (<code>null</code> not permitted).
+         */
+        ZoomLevel(double lower, double upper, int points,
+                DownsamplingMethod method) {
+            if (!(lower <= upper)) {
+                throw new IllegalArgumentException(
+                        "Requires lower <= upper.");
+            }
+            if (points < 3) {
+                throw new IllegalArgumentException("Requires points >= 3.");
+            }
+            if (method == null) {
+                throw new IllegalArgumentException(
+                        "Null 'method' argument.");
+            }
+            this.lower = lower;
+            this.upper = upper;
+            this.points = points;
+            this.method = method;
+        }
+
+        /**
+         * Tests this zoom level for equality with an arbitrary object.
+         *
+         * @param obj  the object (<code>null</code> permitted).
+         *
+         * @return A boolean.
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ZoomLevel)) {
+                return false;
+            }
+            ZoomLevel that = (ZoomLevel) obj;
+            return Double.doubleToLongBits(this.lower)
+                    == Double.doubleToLongBits(that.lower)
+                    && Double.doubleToLongBits(this.upper)
+                    == Double.doubleToLongBits(that.upper)
+                    && this.points == that.points
+                    && this.method.equals(that.method);
+        }
+
+        /**
+         * Returns a hash code for the zoom level.
+         *
+         * @return A hash code.
+         */
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(this.lower) * 31
+                    + Double.doubleToLongBits(this.upper);
+            int result = (int) (bits ^ (bits >>> 32)) * 31 + this.points;
+            return result * 31 + this.method.hashCode();
+        }
+
+    }
+
+    /**
+     * The items kept for one series at one zoom level.
+     */
+    private static final class Sample implements Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = -3318574460270138695L;
+
+        /** The x-values. */
+        private final double[] xValues;
+
+        /** The y-values. */
+        private final double[] yValues;
+
+        /**
+         * Creates a sample with room for the given number of items.
+         *
+         * @param count  the number of items.
+         */
+        Sample(int count) {
+            this.xValues = new double[count];
+            this.yValues = new double[count];
+        }
+
+    }
+
+}
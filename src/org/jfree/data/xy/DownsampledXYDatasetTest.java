@@ -0,0 +1,235 @@
+package org.jfree.data.xy;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.junit.Test;
+import java.util.Random;
+
+public class DownsampledXYDatasetTest {
+
+    /**
+     * A collection that counts the y-values read from it.
+     */
+    private static class CountingCollection extends XYSeriesCollection {
+        private static final long serialVersionUID = 4559848588344295982L;
+
+        int reads;
+
+        CountingCollection() {
+            super();
+        }
+
+        CountingCollection(XYSeries series) {
+            super(series);
+        }
+
+        public double getYValue(int series, int item) {
+            this.reads++;
+            return super.getYValue(series, item);
+        }
+    }
+
+    /**
+     * Returns a series of n items on a noisy sine curve.
+     */
+    private static XYSeries noisySine(int n, long seed) {
+        Random random = new Random(seed);
+        XYSeries series = new XYSeries("S");
+        for (int i = 0; i < n; i++) {
+            series.add(i, Math.sin(i * 0.01) + random.nextGaussian() * 0.1);
+        }
+        return series;
+    }
+
+    /**
+     * Checks that two datasets hold the same items.
+     */
+    private static void assertSameItems(String message, XYDataset expected, XYDataset actual) {
+        assertEquals(message + ": the series count should match", expected.getSeriesCount(),
+                actual.getSeriesCount());
+        for (int s = 0; s < expected.getSeriesCount(); s++) {
+            assertEquals(message + ": the item count should match", expected.getItemCount(s),
+                    actual.getItemCount(s));
+            for (int i = 0; i < expected.getItemCount(s); i++) {
+                assertEquals(message + ": x-value " + i, expected.getXValue(s, i), actual.getXValue(s, i), 0.0);
+                assertEquals(message + ": y-value " + i, expected.getYValue(s, i), actual.getYValue(s, i), 0.0);
+            }
+        }
+    }
+
+    // ----------------------------
+    // getItemCount() / getXValue() / getYValue()
+    // window: { EC1: whole series, EC2: part of the series }
+    // dataset: { EC3: XYSeriesCollection, EC4: TimeSeriesCollection }
+    // ----------------------------
+
+    // EC1, EC3
+    @Test
+    public void wholeSeriesIsDownsampled() {
+        // setup
+        XYSeriesCollection dataset = new XYSeriesCollection(noisySine(10000, 71L));
+
+        // exercise
+        DownsampledXYDataset view = new DownsampledXYDataset(dataset, 100);
+
+        // verify
+        assertEquals("The view should hold the number of points", 100, view.getItemCount(0));
+        assertEquals("The first item should be kept", 0.0, view.getXValue(0, 0), 0.0);
+        assertEquals("The last item should be kept", 9999.0, view.getXValue(0, 99), 0.0);
+        assertEquals("The series key should be passed on", "S", view.getSeriesKey(0));
+    }
+
+    // EC2, EC3
+    @Test
+    public void windowKeepsNeighbours() {
+        // setup
+        DownsampledXYDataset view = new DownsampledXYDataset(new XYSeriesCollection(noisySine(10000, 72L)), 100);
+
+        // exercise
+        view.setWindow(2000.0, 3000.0, 50);
+
+        // verify
+        int count = view.getItemCount(0);
+        assertEquals("The view should hold the number of points", 50, count);
+        assertEquals("The item before the window should be kept", 1999.0, view.getXValue(0, 0), 0.0);
+        assertEquals("The item after the window should be kept", 3001.0, view.getXValue(0, count - 1), 0.0);
+    }
+
+    // EC1, EC4
+    @Test
+    public void timeSeriesIsDownsampled() {
+        // setup
+        TimeSeries series = new TimeSeries("T", Millisecond.class);
+        Millisecond ms = new Millisecond();
+        for (int i = 0; i < 2000; i++) {
+            series.add(ms, Math.sin(i * 0.05));
+            ms = (Millisecond) ms.next();
+        }
+        TimeSeriesCollection dataset = new TimeSeriesCollection(series);
+
+        // exercise
+        DownsampledXYDataset view = new DownsampledXYDataset(dataset, 200, DownsamplingMethod.MIN_MAX);
+
+        // verify
+        assertTrue("The view should hold at most the number of points", view.getItemCount(0) <= 200);
+        assertEquals("The first item should be kept", dataset.getXValue(0, 0), view.getXValue(0, 0), 0.0);
+        assertEquals("The last item should be kept", dataset.getXValue(0, 1999),
+                view.getXValue(0, view.getItemCount(0) - 1), 0.0);
+    }
+
+    // ----------------------------
+    // datasetChanged()
+    // change: { EC1: append outside a cached window, EC2: append inside the window, EC3: random changes,
+    //           EC4: append to another series }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void appendKeepsEarlierWindow() {
+        // setup
+        XYSeries series = noisySine(5000, 73L);
+        CountingCollection dataset = new CountingCollection(series);
+        DownsampledXYDataset view = new DownsampledXYDataset(dataset, 100);
+        view.setWindow(0.0, 1000.0, 100);
+        view.getItemCount(0);
+        final int[] events = new int[1];
+        view.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events[0]++;
+            }
+        });
+
+        // exercise
+        series.add(5000.0, 1.0);
+        dataset.reads = 0;
+        view.getItemCount(0);
+
+        // verify
+        assertEquals("The change should be passed on", 1, events[0]);
+        assertEquals("The window should not be worked out again", 0, dataset.reads);
+    }
+
+    // EC2
+    @Test
+    public void appendUpdatesWholeSeries() {
+        // setup
+        XYSeries series = noisySine(5000, 74L);
+        DownsampledXYDataset view = new DownsampledXYDataset(new XYSeriesCollection(series), 100);
+        view.getItemCount(0);
+
+        // exercise
+        series.add(5000.0, 42.0);
+
+        // verify
+        assertEquals("The new last item should be kept", 5000.0, view.getXValue(0, 99), 0.0);
+        assertEquals("The new last value should be kept", 42.0, view.getYValue(0, 99), 0.0);
+    }
+
+    // EC4
+    @Test
+    public void appendToOtherSeriesKeepsSample() {
+        // setup
+        XYSeries first = noisySine(5000, 77L);
+        XYSeries second = new XYSeries("T");
+        second.add(0.0, 1.0);
+        second.add(1.0, 2.0);
+        CountingCollection dataset = new CountingCollection();
+        dataset.addSeries(first);
+        dataset.addSeries(second);
+        DownsampledXYDataset view = new DownsampledXYDataset(dataset, 100);
+        double lastX = view.getXValue(0, view.getItemCount(0) - 1);
+        view.getItemCount(1);
+
+        // exercise
+        second.add(2.0, 3.0);
+        dataset.reads = 0;
+        int count = view.getItemCount(0);
+
+        // verify
+        assertEquals("The sample of the first series should not be worked out again", 0, dataset.reads);
+        assertEquals("The sample of the first series should be kept", lastX, view.getXValue(0, count - 1), 0.0);
+        assertEquals("The second series should show the new item", 3, view.getItemCount(1));
+    }
+
+    // EC3
+    @Test
+    public void randomChangesMatchNewView() {
+        // setup
+        XYSeries series = noisySine(500, 75L);
+        series.setMaximumItemCount(600);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        DownsampledXYDataset view = new DownsampledXYDataset(dataset, 40);
+        Random random = new Random(76L);
+        double[][] windows = {{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}, {100.0, 300.0},
+                {400.0, 700.0}};
+        double x = 500.0;
+
+        for (int step = 0; step < 300; step++) {
+            // exercise
+            int action = random.nextInt(10);
+            if (action < 8) {
+                series.add(x++, random.nextGaussian());
+            }
+            else if (action < 9) {
+                series.updateByIndex(random.nextInt(series.getItemCount()), new Double(random.nextGaussian()));
+            }
+            else {
+                series.remove(random.nextInt(series.getItemCount()));
+            }
+
+            // verify
+            for (int w = 0; w < windows.length; w++) {
+                view.setWindow(windows[w][0], windows[w][1], 40);
+                DownsampledXYDataset expected = new DownsampledXYDataset(dataset, 40);
+                expected.setWindow(windows[w][0], windows[w][1], 40);
+                assertSameItems("Step " + step + ", window " + w, expected, view);
+                expected.dispose();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package org.jfree.data.xy;
+
+/**
+ * Methods that choose a small number of the items of a series in an
+ * {@link XYDataset} to draw in place of all of them.  Each method returns
+ * the indices of the chosen items in ascending order, and always keeps the
+ * first and last items of the range.  The x-values of the series should be
+ * in ascending order, as they are in a {@link org.jfree.data.time.TimeSeries}
+ * or a sorted {@link XYSeries}.
+ */
+public abstract class Downsampling {
+
+    /**
+     * Not used.
+     */
+    private Downsampling() {
+    }
+
+    /**
+     * Chooses items with the Largest-Triangle-Three-Buckets method.  The
+     * items between the first and the last are divided into
+     * <code>points - 2</code> buckets with the same number of items, and
+     * from each bucket the item is kept that forms the largest triangle
+     * with the item kept from the bucket before and the mean of the bucket
+     * after.  Items with a <code>NaN</code> y-value are left out of the
+     * means and are only chosen from a bucket that has no other items.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param start  the index of the first item.
+     * @param end  the index after the last item.
+     * @param points  the maximum number of items to keep (at least 3).
+     *
+     * @return The indices of the kept items.
+     */
+    public static int[] largestTriangleThreeBuckets(XYDataset dataset,
+            int series, int start, int end, int points) {
+        checkArguments(dataset, start, end, points);
+        int count = end - start;
+        if (count <= points) {
+            return range(start, end);
+        }
+        int[] result = new int[points];
+        double every = (double) (count - 2) / (points - 2);
+        int previous = start;
+        result[0] = start;
+        for (int b = 0; b < points - 2; b++) {
+            int averageStart = start + (int) ((b + 1) * every) + 1;
+            int averageEnd = Math.min(start + (int) ((b + 2) * every) + 1,
+                    end);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            int valid = 0;
+            for (int i = averageStart; i < averageEnd; i++) {
+                double y = dataset.getYValue(series, i);
+                if (!Double.isNaN(y)) {
+                    averageX += dataset.getXValue(series, i);
+                    averageY += y;
+                    valid++;
+                }
+            }
+            averageX /= valid;
+            averageY /= valid;
+
+            int bucketStart = start + (int) (b * every) + 1;
+            int bucketEnd = start + (int) ((b + 1) * every) + 1;
+            double px = dataset.getXValue(series, previous);
+            double py = dataset.getYValue(series, previous);
+            int chosen = bucketStart;
+            double largest = -1.0;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((px - averageX)
+                        * (dataset.getYValue(series, i) - py)
+                        - (px - dataset.getXValue(series, i))
+                        * (averageY - py));
+                if (area > largest) {
+                    largest = area;
+                    chosen = i;
+                }
+            }
+            result[b + 1] = chosen;
+            previous = chosen;
+        }
+        result[points - 1] = end - 1;
+        return result;
+    }
+
+    /**
+     * Chooses the items with the smallest and largest y-values in each of
+     * <code>buckets</code> equal-width x-intervals between the first and the
+     * last item, so that at most <code>2 * buckets + 2</code> items are
+     * kept.  Items with a <code>NaN</code> y-value are not chosen.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param start  the index of the first item.
+     * @param end  the index after the last item.
+     * @param buckets  the number of x-intervals (at least 1).
+     *
+     * @return The indices of the kept items.
+     */
+    public static int[] minMax(XYDataset dataset, int series, int start,
+            int end, int buckets) {
+        checkArguments(dataset, start, end, 3);
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Requires buckets >= 1.");
+        }
+        int count = end - start;
+        if (count <= 2 * buckets + 2) {
+            return range(start, end);
+        }
+        double x0 = dataset.getXValue(series, start);
+        double width = (dataset.getXValue(series, end - 1) - x0) / buckets;
+        int[] result = new int[2 * buckets + 2];
+        int size = 0;
+        result[size++] = start;
+        int bucket = -1;
+        int minIndex = -1;
+        int maxIndex = -1;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = start + 1; i < end - 1; i++) {
+            int b = width > 0.0 ? (int) ((dataset.getXValue(series, i) - x0)
+                    / width) : 0;
+            // never move back, so that unsorted x-values cannot overflow
+            b = Math.min(Math.max(b, bucket), buckets - 1);
+            if (b != bucket) {
+                size = appendMinMax(result, size, minIndex, maxIndex);
+                bucket = b;
+                minIndex = -1;
+                maxIndex = -1;
+                min = Double.POSITIVE_INFINITY;
+                max = Double.NEGATIVE_INFINITY;
+            }
+            double y = dataset.getYValue(series, i);
+            if (y < min) {
+                min = y;
+                minIndex = i;
+            }
+            if (y > max) {
+                max = y;
+                maxIndex = i;
+            }
+        }
+        size = appendMinMax(result, size, minIndex, maxIndex);
+        result[size++] = end - 1;
+        if (size == result.length) {
+            return result;
+        }
+        int[] trimmed = new int[size];
+        System.arraycopy(result, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    /**
+     * Returns the index of the first item with an x-value greater than or
+     * equal to <code>x</code>, assuming the x-values are in ascending order.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param x  the x-value.
+     *
+     * @return The index (the item count if every x-value is smaller).
+     */
+    public static int findFirstItem(XYDataset dataset, int series,
+            double x) {
+        int low = 0;
+        int high = dataset.getItemCount(series);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dataset.getXValue(series, mid) < x) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Appends the indices of the smallest and largest values of a bucket to
+     * an array, in ascending order and without repeats.
+     *
+     * @param result  the array.
+     * @param size  the number of indices in the array.
+     * @param minIndex  the index of the smallest value (-1 for none).
+     * @param maxIndex  the index of the largest value (-1 for none).
+     *
+     * @return The new number of indices in the array.
+     */
+    private static int appendMinMax(int[] result, int size, int minIndex,
+            int maxIndex) {
+        int first = Math.min(minIndex, maxIndex);
+        int second = Math.max(minIndex, maxIndex);
+        if (first >= 0) {
+            result[size++] = first;
+        }
+        if (second >= 0 && second != first) {
+            result[size++] = second;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the indices from <code>start</code> to <code>end - 1</code>.
+     *
+     * @param start  the first index.
+     * @param end  the index after the last.
+     *
+     * @return The indices.
+     */
+    private static int[] range(int start, int end) {
+        int[] result = new int[end - start];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = start + i;
+        }
+        return result;
+    }
+
+    /**
+     * Checks the arguments common to the downsampling methods.
+     *
+     * @param dataset  the dataset.
+     * @param start  the index of the first item.
+     * @param end  the index after the last item.
+     * @param points  the number of points.
+     */
+    private static void checkArguments(XYDataset dataset, int start,
+            int end, int points) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Requires 0 <= start <= end.");
+        }
+        if (points < 3) {
+            throw new IllegalArgumentException("Requires points >= 3.");
+        }
+    }
+
+}
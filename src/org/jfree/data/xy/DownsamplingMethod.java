@@ -0,0 +1,94 @@
+package org.jfree.data.xy;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+/**
+ * A method for choosing the items of a series that a
+ * {@link DownsampledXYDataset} keeps (see {@link Downsampling}).
+ */
+public final class DownsamplingMethod implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 5193714629872630447L;
+
+    /**
+     * Largest-Triangle-Three-Buckets, which keeps the items that best
+     * preserve the shape of a line.
+     */
+    public static final DownsamplingMethod LTTB
+            = new DownsamplingMethod("DownsamplingMethod.LTTB");
+
+    /**
+     * The items with the smallest and largest y-values in each of a number
+     * of equal-width x-intervals (for example, one per pixel column), which
+     * keeps every peak and trough.
+     */
+    public static final DownsamplingMethod MIN_MAX
+            = new DownsamplingMethod("DownsamplingMethod.MIN_MAX");
+
+    /** The name. */
+    private String name;
+
+    /**
+     * Private constructor.
+     *
+     * @param name  the name.
+     */
+    private DownsamplingMethod(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns a string representing the object.
+     *
+     * @return The string.
+     */
+    public String toString() {
+        return this.name;
+    }
+
+    /**
+     * Tests this method for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DownsamplingMethod)) {
+            return false;
+        }
+        return this.name.equals(((DownsamplingMethod) obj).name);
+    }
+
+    /**
+     * Returns a hash code for the object.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    /**
+     * Ensures that serialization returns the unique instances.
+     *
+     * @return The object.
+     *
+     * @throws ObjectStreamException if there is a problem.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        if (this.equals(DownsamplingMethod.LTTB)) {
+            return DownsamplingMethod.LTTB;
+        }
+        else if (this.equals(DownsamplingMethod.MIN_MAX)) {
+            return DownsamplingMethod.MIN_MAX;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.jfree.data.xy;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DownsamplingTest {
+
+    /**
+     * Returns a dataset with one series of n items on a sine curve, with a spike at the given index.
+     */
+    private static XYSeriesCollection sineWithSpike(int n, int spike) {
+        XYSeries series = new XYSeries("S");
+        for (int i = 0; i < n; i++) {
+            series.add(i, i == spike ? 100.0 : Math.sin(i * 0.01));
+        }
+        return new XYSeriesCollection(series);
+    }
+
+    /**
+     * Checks that the indices are strictly ascending and keep the first and last items.
+     */
+    private static void assertValidIndices(int[] indices, int start, int end) {
+        assertEquals("The first item should be kept", start, indices[0]);
+        assertEquals("The last item should be kept", end - 1, indices[indices.length - 1]);
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue("The indices should be ascending", indices[i] > indices[i - 1]);
+        }
+    }
+
+    // ----------------------------
+    // largestTriangleThreeBuckets(XYDataset, int, int, int, int)
+    // items: { EC1: more than the points, EC2: no more than the points }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void lttbKeepsSpike() {
+        // setup
+        XYSeriesCollection dataset = sineWithSpike(10000, 4321);
+
+        // exercise
+        int[] indices = Downsampling.largestTriangleThreeBuckets(dataset, 0, 0, 10000, 200);
+
+        // verify
+        assertEquals("The number of points should be kept", 200, indices.length);
+        assertValidIndices(indices, 0, 10000);
+        assertTrue("The spike should be kept", java.util.Arrays.binarySearch(indices, 4321) >= 0);
+    }
+
+    // EC2
+    @Test
+    public void lttbKeepsShortRange() {
+        // setup
+        XYSeriesCollection dataset = sineWithSpike(100, 50);
+
+        // exercise
+        int[] indices = Downsampling.largestTriangleThreeBuckets(dataset, 0, 10, 20, 50);
+
+        // verify
+        assertEquals("Every item should be kept", 10, indices.length);
+        assertValidIndices(indices, 10, 20);
+    }
+
+    // ----------------------------
+    // minMax(XYDataset, int, int, int, int)
+    // items: { EC1: more than two per bucket }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void minMaxKeepsExtremes() {
+        // setup
+        XYSeriesCollection dataset = sineWithSpike(10000, 777);
+
+        // exercise
+        int[] indices = Downsampling.minMax(dataset, 0, 0, 10000, 50);
+
+        // verify
+        assertTrue("At most two items per bucket should be kept", indices.length <= 102);
+        assertValidIndices(indices, 0, 10000);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < indices.length; i++) {
+            min = Math.min(min, dataset.getYValue(0, indices[i]));
+            max = Math.max(max, dataset.getYValue(0, indices[i]));
+        }
+        assertEquals("The smallest value should be kept", -1.0, min, 0.001);
+        assertEquals("The spike should be kept", 100.0, max, 0.0);
+    }
+
+    // ----------------------------
+    // findFirstItem(XYDataset, int, double)
+    // x: { EC1: between items, EC2: past the end }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void findFirstItemBetweenItems() {
+        // setup
+        XYSeriesCollection dataset = sineWithSpike(100, 0);
+
+        // exercise
+        int index = Downsampling.findFirstItem(dataset, 0, 41.5);
+
+        // verify
+        assertEquals("The first item at or after x should be found", 42, index);
+    }
+
+    // EC2
+    @Test
+    public void findFirstItemPastEnd() {
+        // setup
+        XYSeriesCollection dataset = sineWithSpike(100, 0);
+
+        // exercise
+        int index = Downsampling.findFirstItem(dataset, 0, 1000.0);
+
+        // verify
+        assertEquals("The item count should be returned", 100, index);
+    }
+
+}
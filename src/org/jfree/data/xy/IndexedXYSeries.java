@@ -0,0 +1,463 @@
+package org.jfree.data.xy;
+
+import original.Range;
+
+import org.jfree.data.general.SeriesException;
+
+/**
+ * An {@link XYSeries} with an index that finds the minimum, maximum and sum
+ * of the y-values in a run of items, or in an interval of x-values, in
+ * O(log n) time instead of scanning the items.  This suits a chart zoomed in
+ * to a window of a long sorted series, which needs the y-range of the
+ * visible items after each change.
+ * <p>
+ * The index is a segment tree kept up to date by the methods that change
+ * the series.  Appending an item, updating a y-value and removing the first
+ * or last item (including the removal of the oldest item when the maximum
+ * item count is reached) take O(log n) time.  Other changes, such as
+ * inserting an item in the middle of a sorted series, cause the index to
+ * be rebuilt the next time it is used.  Changes made directly to the items
+ * returned by {@link #getDataItem(int)} or {@link #getItems()} are not seen
+ * by the index; call {@link #rebuildIndex()} after making them.
+ * <p>
+ * <code>null</code> and <code>NaN</code> y-values are ignored by the
+ * queries, as they are by
+ * {@link org.jfree.data.general.DatasetUtilities#findRangeBounds(
+ * org.jfree.data.xy.XYDataset)}.
+ */
+public class IndexedXYSeries extends XYSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 6081245963734715308L;
+
+    /** The index (<code>null</code> if it must be rebuilt). */
+    private transient MinMaxSumTree index;
+
+    /**
+     * The series that the index was built for, which differs from this
+     * series in a copy that has not yet been given its own index.
+     */
+    private transient XYSeries indexOwner;
+
+    /**
+     * Creates a new empty series that is sorted by x-value and allows
+     * duplicate x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     */
+    public IndexedXYSeries(Comparable key) {
+        this(key, true, true);
+    }
+
+    /**
+     * Creates a new empty series that allows duplicate x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *     series are sorted by x-value.
+     */
+    public IndexedXYSeries(Comparable key, boolean autoSort) {
+        this(key, autoSort, true);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *     series are sorted by x-value.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *     x-values are allowed.
+     */
+    public IndexedXYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues) {
+        super(key, autoSort, allowDuplicateXValues);
+    }
+
+    /**
+     * Returns the range of the y-values of a run of items.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item.
+     *
+     * @return The range (<code>null</code> if every y-value in the run is
+     *     <code>null</code> or <code>NaN</code>).
+     */
+    public Range getYRange(int start, int end) {
+        checkRun(start, end);
+        MinMaxSumTree tree = getIndex();
+        double lower = tree.getMinimum(start, end);
+        if (lower == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new Range(lower, tree.getMaximum(start, end));
+    }
+
+    /**
+     * Returns the range of the y-values of the items with x-values in an
+     * interval.  For a series that is not sorted by x-value the items are
+     * scanned.
+     *
+     * @param lowerX  the lower bound of the interval (inclusive).
+     * @param upperX  the upper bound of the interval (inclusive).
+     *
+     * @return The range (<code>null</code> if there are no such items with
+     *     a y-value).
+     */
+    public Range getYRange(double lowerX, double upperX) {
+        if (!getAutoSort()) {
+            double lower = Double.POSITIVE_INFINITY;
+            double upper = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < getItemCount(); i++) {
+                double y = yValueIn(i, lowerX, upperX);
+                if (!Double.isNaN(y)) {
+                    lower = Math.min(lower, y);
+                    upper = Math.max(upper, y);
+                }
+            }
+            return lower > upper ? null : new Range(lower, upper);
+        }
+        int start = firstIndexAtOrAbove(lowerX);
+        int end = firstIndexAbove(upperX) - 1;
+        return start > end ? null : getYRange(start, end);
+    }
+
+    /**
+     * Returns the sum of the y-values of a run of items.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item.
+     *
+     * @return The sum, ignoring <code>null</code> and <code>NaN</code>
+     *     y-values.
+     */
+    public double getYSum(int start, int end) {
+        checkRun(start, end);
+        return getIndex().getSum(start, end);
+    }
+
+    /**
+     * Returns the sum of the y-values of the items with x-values in an
+     * interval.  For a series that is not sorted by x-value the items are
+     * scanned.
+     *
+     * @param lowerX  the lower bound of the interval (inclusive).
+     * @param upperX  the upper bound of the interval (inclusive).
+     *
+     * @return The sum, ignoring <code>null</code> and <code>NaN</code>
+     *     y-values.
+     */
+    public double getYSum(double lowerX, double upperX) {
+        if (!getAutoSort()) {
+            double total = 0.0;
+            for (int i = 0; i < getItemCount(); i++) {
+                double y = yValueIn(i, lowerX, upperX);
+                if (!Double.isNaN(y)) {
+                    total += y;
+                }
+            }
+            return total;
+        }
+        int start = firstIndexAtOrAbove(lowerX);
+        int end = firstIndexAbove(upperX) - 1;
+        return start > end ? 0.0 : getYSum(start, end);
+    }
+
+    /**
+     * Rebuilds the index from the items.  This is only needed after the
+     * items have been changed directly.
+     */
+    public void rebuildIndex() {
+        this.index = null;
+    }
+
+    /**
+     * Adds a data item to the series and, if requested, sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param item  the (x, y) item (<code>null</code> not permitted).
+     * @param notify  a flag that controls whether or not a
+     *     {@link org.jfree.data.general.SeriesChangeEvent} is sent to all
+     *     registered listeners.
+     */
+    public void add(XYDataItem item, boolean notify) {
+        MinMaxSumTree tree = ownIndex();
+        int count = getItemCount();
+        super.add(item, false);
+        if (tree != null) {
+            if (getItemCount() == count + 1 && getDataItem(count) == item) {
+                tree.add(yValue(item));
+            }
+            else if (getItemCount() == count && count > 0
+                    && getDataItem(count - 1) == item) {
+                // the oldest item was dropped to respect the maximum count
+                tree.removeFirst();
+                tree.add(yValue(item));
+            }
+            else {
+                this.index = null;
+            }
+        }
+        if (notify) {
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Updates the y-value of an item and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     * <p>
+     * <code>XYSeries.updateByIndex()</code> calls this method, so the index
+     * is kept up to date whichever of the two is used.
+     *
+     * @param index  the item index.
+     * @param y  the new y-value (<code>null</code> permitted).
+     *
+     * @deprecated Renamed {@link #updateByIndex(int, Number)} to avoid
+     *     confusion with the {@link #update(Number, Number)} method.
+     */
+    @Deprecated
+    public void update(int index, Number y) {
+        XYDataItem item = getDataItem(index);
+        item.setY(y);
+        MinMaxSumTree tree = ownIndex();
+        if (tree != null) {
+            tree.set(index, yValue(item));
+        }
+        fireSeriesChanged();
+    }
+
+    /**
+     * Updates the y-value of the item with an x-value and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the new y-value (<code>null</code> permitted).
+     *
+     * @throws SeriesException if there is no item with the x-value.
+     */
+    public void update(Number x, Number y) {
+        int i = indexOf(x);
+        if (i < 0) {
+            throw new SeriesException("No observation for x = " + x);
+        }
+        update(i, y);
+    }
+
+    /**
+     * Updates the y-value of the item with an x-value, or adds a new item
+     * if there is none, and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the y-value (<code>null</code> permitted).
+     *
+     * @return A copy of the item as it was before the update, or
+     *     <code>null</code> if an item was added.
+     */
+    public XYDataItem addOrUpdate(Number x, Number y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        int i = indexOf(x);
+        if (i < 0) {
+            add(new XYDataItem(x, y), true);
+            return null;
+        }
+        XYDataItem old = getDataItem(i);
+        XYDataItem result = new XYDataItem(old.getX(), old.getY());
+        update(i, y);
+        return result;
+    }
+
+    /**
+     * Removes an item and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param index  the item index.
+     *
+     * @return The item removed.
+     */
+    public XYDataItem remove(int index) {
+        MinMaxSumTree tree = ownIndex();
+        if (tree != null && index >= 0 && index < getItemCount()) {
+            if (index == 0) {
+                tree.removeFirst();
+            }
+            else if (index == getItemCount() - 1) {
+                tree.removeLast();
+            }
+            else {
+                this.index = null;
+            }
+        }
+        return super.remove(index);
+    }
+
+    /**
+     * Removes a run of items and sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item.
+     */
+    public void delete(int start, int end) {
+        this.index = null;
+        super.delete(start, end);
+    }
+
+    /**
+     * Removes all items and, if there were any, sends a
+     * {@link org.jfree.data.general.SeriesChangeEvent} to all registered
+     * listeners.
+     */
+    public void clear() {
+        this.index = null;
+        super.clear();
+    }
+
+    /**
+     * Sets the maximum number of items, removing the oldest items if there
+     * are more.
+     *
+     * @param maximum  the maximum number of items.
+     */
+    public void setMaximumItemCount(int maximum) {
+        this.index = null;
+        super.setMaximumItemCount(maximum);
+    }
+
+    /**
+     * Returns the index, building it if necessary.
+     *
+     * @return The index.
+     */
+    private MinMaxSumTree getIndex() {
+        if (ownIndex() == null) {
+            MinMaxSumTree tree = new MinMaxSumTree();
+            for (int i = 0; i < getItemCount(); i++) {
+                tree.add(yValue(getDataItem(i)));
+            }
+            this.index = tree;
+        }
+        return this.index;
+    }
+
+    /**
+     * Returns the index if it belongs to this series and is up to date.
+     * A copy of a series starts with the index of the original, which it
+     * must not change.
+     *
+     * @return The index, or <code>null</code> if it must be rebuilt.
+     */
+    private MinMaxSumTree ownIndex() {
+        if (this.indexOwner != this) {
+            this.index = null;
+            this.indexOwner = this;
+        }
+        return this.index;
+    }
+
+    /**
+     * Checks that a run of items lies within the series.
+     *
+     * @param start  the index of the first item.
+     * @param end  the index of the last item.
+     */
+    private void checkRun(int start, int end) {
+        if (start < 0) {
+            throw new IllegalArgumentException("Requires start >= 0.");
+        }
+        if (end < start) {
+            throw new IllegalArgumentException("Requires start <= end.");
+        }
+        if (end >= getItemCount()) {
+            throw new IllegalArgumentException(
+                    "Requires end < getItemCount().");
+        }
+    }
+
+    /**
+     * Returns the index of the first item with an x-value greater than or
+     * equal to a value, in a sorted series.
+     *
+     * @param x  the value.
+     *
+     * @return The index (the item count if there is no such item).
+     */
+    private int firstIndexAtOrAbove(double x) {
+        int low = 0;
+        int high = getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getX(mid).doubleValue() < x) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first item with an x-value greater than a
+     * value, in a sorted series.
+     *
+     * @param x  the value.
+     *
+     * @return The index (the item count if there is no such item).
+     */
+    private int firstIndexAbove(double x) {
+        int low = 0;
+        int high = getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getX(mid).doubleValue() <= x) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the y-value of an item if its x-value lies in an interval.
+     *
+     * @param i  the item index.
+     * @param lowerX  the lower bound of the interval (inclusive).
+     * @param upperX  the upper bound of the interval (inclusive).
+     *
+     * @return The y-value, or <code>NaN</code> if the x-value is outside
+     *     the interval or the y-value is <code>null</code>.
+     */
+    private double yValueIn(int i, double lowerX, double upperX) {
+        XYDataItem item = getDataItem(i);
+        double x = item.getX().doubleValue();
+        if (x < lowerX || x > upperX) {
+            return Double.NaN;
+        }
+        return yValue(item);
+    }
+
+    /**
+     * Returns the y-value of an item as a <code>double</code>.
+     *
+     * @param item  the item.
+     *
+     * @return The y-value, or <code>NaN</code> if it is <code>null</code>.
+     */
+    private static double yValue(XYDataItem item) {
+        Number y = item.getY();
+        return y == null ? Double.NaN : y.doubleValue();
+    }
+
+}
@@ -0,0 +1,270 @@
+package org.jfree.data.xy;
+
+import static org.junit.Assert.*;
+import original.Range;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.junit.Test;
+import java.util.Random;
+
+public class IndexedXYSeriesTest {
+
+    /**
+     * Finds the range of the y-values of a run of items by scanning them.
+     */
+    private static Range scanRange(XYSeries series, int start, int end) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int i = start; i <= end; i++) {
+            Number y = series.getY(i);
+            if (y != null && !Double.isNaN(y.doubleValue())) {
+                lower = Math.min(lower, y.doubleValue());
+                upper = Math.max(upper, y.doubleValue());
+            }
+        }
+        return lower > upper ? null : new Range(lower, upper);
+    }
+
+    /**
+     * Finds the sum of the y-values of a run of items by scanning them.
+     */
+    private static double scanSum(XYSeries series, int start, int end) {
+        double total = 0.0;
+        for (int i = start; i <= end; i++) {
+            Number y = series.getY(i);
+            if (y != null && !Double.isNaN(y.doubleValue())) {
+                total += y.doubleValue();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Checks that two ranges are both null or have the same bounds.
+     */
+    private static void assertSameRange(String message, Range expected, Range actual) {
+        if (expected == null) {
+            assertNull(message, actual);
+            return;
+        }
+        assertNotNull(message, actual);
+        assertEquals(message, expected.getLowerBound(), actual.getLowerBound(), .000000001d);
+        assertEquals(message, expected.getUpperBound(), actual.getUpperBound(), .000000001d);
+    }
+
+    /**
+     * Checks the index against a scan for a random run of items.
+     */
+    private static void assertIndexMatches(IndexedXYSeries series, Random random) {
+        int count = series.getItemCount();
+        if (count == 0) {
+            return;
+        }
+        int start = random.nextInt(count);
+        int end = start + random.nextInt(count - start);
+        assertSameRange("The range of " + start + ".." + end + " should match", scanRange(series, start, end),
+                series.getYRange(start, end));
+        assertEquals("The sum of " + start + ".." + end + " should match", scanSum(series, start, end),
+                series.getYSum(start, end), .000001d);
+        assertSameRange("The range of all items should match", scanRange(series, 0, count - 1),
+                series.getYRange(0, count - 1));
+    }
+
+    // ----------------------------
+    // getYRange(int start, int end) / getYSum(int start, int end)
+    // change: { EC1: items appended, EC2: oldest items dropped at the maximum count, EC3: items inserted, updated
+    //           and removed, EC4: null y-values }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void appendedItemsAreIndexed() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        Random random = new Random(20);
+
+        for (int i = 0; i < 500; i++) {
+            // exercise
+            series.add(i, random.nextGaussian());
+
+            // verify
+            assertIndexMatches(series, random);
+        }
+    }
+
+    // EC2
+    @Test
+    public void droppedItemsLeaveIndex() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        series.setMaximumItemCount(50);
+        Random random = new Random(21);
+
+        for (int i = 0; i < 500; i++) {
+            // exercise
+            series.add(i, random.nextGaussian());
+
+            // verify
+            assertIndexMatches(series, random);
+        }
+        assertEquals("The series should be at its maximum", 50, series.getItemCount());
+    }
+
+    // EC3
+    @Test
+    public void randomChangesMatchScan() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        Random random = new Random(22);
+
+        for (int i = 0; i < 3000; i++) {
+            // exercise
+            int op = random.nextInt(12);
+            int count = series.getItemCount();
+            if (op < 5 || count == 0) {
+                series.add(random.nextInt(1000), random.nextGaussian());
+            }
+            else if (op < 7) {
+                series.updateByIndex(random.nextInt(count), new Double(random.nextGaussian()));
+            }
+            else if (op < 8) {
+                series.addOrUpdate(new Double(random.nextInt(1000)), new Double(random.nextGaussian()));
+            }
+            else if (op < 9) {
+                series.remove(0);
+            }
+            else if (op < 10) {
+                series.remove(count - 1);
+            }
+            else if (op < 11) {
+                series.remove(random.nextInt(count));
+            }
+            else {
+                int start = random.nextInt(count);
+                series.delete(start, Math.min(count - 1, start + random.nextInt(3)));
+            }
+
+            // verify
+            assertIndexMatches(series, random);
+        }
+    }
+
+    // EC4
+    @Test
+    public void nullValuesAreIgnored() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+
+        // exercise
+        series.add(1.0, null);
+        series.add(2.0, 5.0);
+        series.add(3.0, Double.NaN);
+        series.add(4.0, -1.0);
+
+        // verify
+        assertNull("There should be no range for null values", series.getYRange(0, 0));
+        assertSameRange("Null and NaN values should be ignored", new Range(-1.0, 5.0), series.getYRange(0, 3));
+        assertEquals("Null and NaN values should be ignored", 4.0, series.getYSum(0, 3), .000000001d);
+    }
+
+    // ----------------------------
+    // getYRange(double lowerX, double upperX) / getYSum(double lowerX, double upperX)
+    // series: { EC1: sorted, EC2: unsorted }
+    // ----------------------------
+
+    // EC1
+    @Test
+    public void xIntervalOfSortedSeries() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        for (int i = 0; i < 100; i++) {
+            series.add(i * 0.5, i % 7);
+        }
+
+        // verify
+        assertSameRange("The interval should select items 10 to 13", new Range(3.0, 6.0),
+                series.getYRange(5.0, 6.5));
+        assertEquals("The interval should select items 10 to 13", 18.0, series.getYSum(5.0, 6.5), .000000001d);
+        assertNull("An interval between items should be empty", series.getYRange(5.1, 5.2));
+        assertNull("An interval past the items should be empty", series.getYRange(100.0, 200.0));
+    }
+
+    // EC2
+    @Test
+    public void xIntervalOfUnsortedSeries() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S", false);
+        series.add(3.0, 30.0);
+        series.add(1.0, 10.0);
+        series.add(2.0, 20.0);
+
+        // verify
+        assertSameRange("The interval should select the first two x-values", new Range(10.0, 20.0),
+                series.getYRange(0.5, 2.5));
+        assertEquals("The interval should select the first two x-values", 30.0, series.getYSum(0.5, 2.5),
+                .000000001d);
+    }
+
+    @Test
+    public void indexIsCurrentDuringEvent() {
+        // setup
+        final IndexedXYSeries series = new IndexedXYSeries("S");
+        final double[] upper = new double[1];
+        series.addChangeListener(new SeriesChangeListener() {
+            public void seriesChanged(SeriesChangeEvent event) {
+                upper[0] = series.getYRange(0, series.getItemCount() - 1).getUpperBound();
+            }
+        });
+
+        // exercise
+        series.add(1.0, 4.0);
+        series.add(2.0, 9.0);
+
+        // verify
+        assertEquals("The listener should see the new item", 9.0, upper[0], .000000001d);
+    }
+
+    @Test
+    public void copyHasOwnIndex() throws CloneNotSupportedException {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        for (int i = 0; i < 10; i++) {
+            series.add(i, i);
+        }
+        series.getYRange(0, 9);
+
+        // exercise
+        IndexedXYSeries copy = (IndexedXYSeries) series.createCopy(2, 4);
+        copy.add(20.0, 100.0);
+
+        // verify
+        assertSameRange("The original should be unchanged", new Range(0.0, 9.0), series.getYRange(0, 9));
+        assertSameRange("The copy should hold its own items", new Range(2.0, 100.0), copy.getYRange(0, 3));
+    }
+
+    @Test
+    public void rebuildIndexSeesDirectChanges() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        series.add(1.0, 1.0);
+        series.getYRange(0, 0);
+        series.getDataItem(0).setY(new Double(7.0));
+
+        // exercise
+        series.rebuildIndex();
+
+        // verify
+        assertSameRange("The index should hold the new value", new Range(7.0, 7.0), series.getYRange(0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectRunPastEnd() {
+        // setup
+        IndexedXYSeries series = new IndexedXYSeries("S");
+        series.add(1.0, 1.0);
+
+        // exercise
+        series.getYRange(0, 1);
+    }
+
+}
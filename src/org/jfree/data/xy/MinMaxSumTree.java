@@ -0,0 +1,263 @@
+package org.jfree.data.xy;
+
+import java.util.Arrays;
+
+/**
+ * A segment tree over a sequence of values that finds the minimum, maximum
+ * and sum of any run of consecutive values in O(log n) time.  Values can be
+ * appended, changed, and removed from either end in O(log n) time; the
+ * storage grows or is compacted as needed.  <code>NaN</code> values are
+ * kept but ignored by the queries.
+ */
+class MinMaxSumTree {
+
+    /** The smallest number of leaves allocated. */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** The number of leaves (a power of two). */
+    private int capacity;
+
+    /** The leaf position of the first value. */
+    private int offset;
+
+    /** The number of values. */
+    private int count;
+
+    /** The values, by leaf position. */
+    private double[] values;
+
+    /** The minimum of each node, with the leaves from index capacity. */
+    private double[] minimum;
+
+    /** The maximum of each node, with the leaves from index capacity. */
+    private double[] maximum;
+
+    /** The sum of each node, with the leaves from index capacity. */
+    private double[] sum;
+
+    /**
+     * Creates an empty tree.
+     */
+    MinMaxSumTree() {
+        allocate(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    int size() {
+        return this.count;
+    }
+
+    /**
+     * Removes all values.
+     */
+    void clear() {
+        allocate(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value  the value (<code>NaN</code> permitted).
+     */
+    void add(double value) {
+        if (this.offset + this.count == this.capacity) {
+            resize(this.count + 1);
+        }
+        setLeaf(this.offset + this.count, value);
+        this.count++;
+    }
+
+    /**
+     * Changes a value.
+     *
+     * @param index  the index of the value.
+     * @param value  the new value (<code>NaN</code> permitted).
+     */
+    void set(int index, double value) {
+        setLeaf(this.offset + index, value);
+    }
+
+    /**
+     * Removes the first value.
+     */
+    void removeFirst() {
+        setLeaf(this.offset, Double.NaN);
+        this.offset++;
+        this.count--;
+    }
+
+    /**
+     * Removes the last value.
+     */
+    void removeLast() {
+        this.count--;
+        setLeaf(this.offset + this.count, Double.NaN);
+    }
+
+    /**
+     * Returns the smallest value that is not <code>NaN</code> in a run.
+     *
+     * @param start  the index of the first value.
+     * @param end  the index of the last value.
+     *
+     * @return The minimum, or <code>Double.POSITIVE_INFINITY</code> if
+     *     every value in the run is <code>NaN</code>.
+     */
+    double getMinimum(int start, int end) {
+        double result = Double.POSITIVE_INFINITY;
+        int lo = this.capacity + this.offset + start;
+        int hi = this.capacity + this.offset + end + 1;
+        while (lo < hi) {
+            if ((lo & 1) == 1) {
+                result = Math.min(result, this.minimum[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = Math.min(result, this.minimum[--hi]);
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest value that is not <code>NaN</code> in a run.
+     *
+     * @param start  the index of the first value.
+     * @param end  the index of the last value.
+     *
+     * @return The maximum, or <code>Double.NEGATIVE_INFINITY</code> if
+     *     every value in the run is <code>NaN</code>.
+     */
+    double getMaximum(int start, int end) {
+        double result = Double.NEGATIVE_INFINITY;
+        int lo = this.capacity + this.offset + start;
+        int hi = this.capacity + this.offset + end + 1;
+        while (lo < hi) {
+            if ((lo & 1) == 1) {
+                result = Math.max(result, this.maximum[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = Math.max(result, this.maximum[--hi]);
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of the values that are not <code>NaN</code> in a run.
+     *
+     * @param start  the index of the first value.
+     * @param end  the index of the last value.
+     *
+     * @return The sum.
+     */
+    double getSum(int start, int end) {
+        double result = 0.0;
+        int lo = this.capacity + this.offset + start;
+        int hi = this.capacity + this.offset + end + 1;
+        while (lo < hi) {
+            if ((lo & 1) == 1) {
+                result += this.sum[lo++];
+            }
+            if ((hi & 1) == 1) {
+                result += this.sum[--hi];
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Stores a value in a leaf and updates the nodes above it.
+     *
+     * @param position  the leaf position.
+     * @param value  the value.
+     */
+    private void setLeaf(int position, double value) {
+        initLeaf(position, value);
+        for (int node = (this.capacity + position) >> 1; node > 0;
+                node >>= 1) {
+            combine(node);
+        }
+    }
+
+    /**
+     * Stores a value in a leaf without updating the nodes above it.
+     *
+     * @param position  the leaf position.
+     * @param value  the value.
+     */
+    private void initLeaf(int position, double value) {
+        this.values[position] = value;
+        int node = this.capacity + position;
+        boolean missing = Double.isNaN(value);
+        this.minimum[node] = missing ? Double.POSITIVE_INFINITY : value;
+        this.maximum[node] = missing ? Double.NEGATIVE_INFINITY : value;
+        this.sum[node] = missing ? 0.0 : value;
+    }
+
+    /**
+     * Sets a node from its two children.
+     *
+     * @param node  the node.
+     */
+    private void combine(int node) {
+        int left = 2 * node;
+        this.minimum[node] = Math.min(this.minimum[left],
+                this.minimum[left + 1]);
+        this.maximum[node] = Math.max(this.maximum[left],
+                this.maximum[left + 1]);
+        this.sum[node] = this.sum[left] + this.sum[left + 1];
+    }
+
+    /**
+     * Moves the values to the start of new storage with room for at least
+     * twice the given number of values.
+     *
+     * @param required  the number of values that must fit.
+     */
+    private void resize(int required) {
+        double[] old = this.values;
+        int first = this.offset;
+        int n = this.count;
+        int newCapacity = MINIMUM_CAPACITY;
+        while (newCapacity < 2 * required) {
+            newCapacity *= 2;
+        }
+        allocate(newCapacity);
+        for (int i = 0; i < n; i++) {
+            initLeaf(i, old[first + i]);
+        }
+        this.count = n;
+        for (int node = newCapacity - 1; node > 0; node--) {
+            combine(node);
+        }
+    }
+
+    /**
+     * Allocates empty storage.
+     *
+     * @param newCapacity  the number of leaves (a power of two).
+     */
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.offset = 0;
+        this.count = 0;
+        this.values = new double[newCapacity];
+        this.minimum = new double[2 * newCapacity];
+        this.maximum = new double[2 * newCapacity];
+        this.sum = new double[2 * newCapacity];
+        Arrays.fill(this.values, Double.NaN);
+        Arrays.fill(this.minimum, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.maximum, Double.NEGATIVE_INFINITY);
+    }
+
+}